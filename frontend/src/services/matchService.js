@@ -4,14 +4,29 @@ const API_URL = '/api/matches';
 
 class MatchService {
   /**
-   * Get all matches
-   * @returns {Promise<Array>} List of all matches
+   * Get summaries of all matches (ids, names, score and video URL; no nested entities)
+   * @returns {Promise<Array>} List of match summaries
    */
   async getAllMatches() {
     const response = await axios.get(API_URL);
     return response.data;
   }
 
+  /**
+   * Get one page of matches, newest first
+   * @param {string|null} cursor - nextCursor of the previous page, or null for the first page
+   * @param {number} limit - Page size
+   * @returns {Promise<Object>} Page of match summaries ({ items, nextCursor, hasMore })
+   */
+  async getMatchPage(cursor = null, limit = 25) {
+    const params = { limit };
+    if (cursor) {
+      params.cursor = cursor;
+    }
+    const response = await axios.get(API_URL, { params });
+    return response.data;
+  }
+
   /**
    * Get match by ID
    * @param {number} id - Match ID
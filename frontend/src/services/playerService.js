@@ -1,6 +1,7 @@
 import axios from 'axios';
 
 const API_URL = '/api/players';
+const IMPORT_POLL_INTERVAL_MS = 1000;
 
 class PlayerService {
   // Player basic information
@@ -29,8 +30,8 @@ class PlayerService {
     return response.data;
   }
 
-  // Import players from CSV
-  async importPlayersFromCSV(file) {
+  // Import players from CSV; the import runs as a background job that is polled until it finishes
+  async importPlayersFromCSV(file, onProgress) {
     const formData = new FormData();
     formData.append('file', file);
     const response = await axios.post(`${API_URL}/import`, formData, {
@@ -38,6 +39,20 @@ class PlayerService {
         'Content-Type': 'multipart/form-data'
       }
     });
+
+    let job = response.data;
+    while (job.state === 'QUEUED' || job.state === 'RUNNING') {
+      if (onProgress) {
+        onProgress(job);
+      }
+      await new Promise(resolve => setTimeout(resolve, IMPORT_POLL_INTERVAL_MS));
+      job = await this.getImportJob(job.jobId);
+    }
+    return job;
+  }
+
+  async getImportJob(jobId) {
+    const response = await axios.get(`/api/imports/${jobId}`);
     return response.data;
   }
 }
@@ -0,0 +1,39 @@
+package com.zjutennis.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Read-through caches for the detail lookups behind the dashboard and detail pages.
+ *
+ * Every cache is a bounded Caffeine cache evicting by size and age, configured by
+ * zjutennis.cache.spec. Writers evict entries through CacheInvalidationService; puts and
+ * evictions made inside a transaction are applied only after it commits, so a rolled back
+ * write never invalidates and a concurrent read cannot cache rows that are not committed yet.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String PLAYERS = "players";
+    public static final String MATCHES = "matches";
+    public static final String MATCH_VIDEOS = "matchVideos";
+    public static final String PLAYER_ANALYSES = "playerAnalyses";
+    public static final String MATCH_STATISTICS = "matchStatistics";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${zjutennis.cache.spec:maximumSize=2000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        // Fixed cache names create the caches up front, so their metrics are registered at startup
+        cacheManager.setCacheNames(List.of(PLAYERS, MATCHES, MATCH_VIDEOS, PLAYER_ANALYSES, MATCH_STATISTICS));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -1,35 +1,134 @@
 package com.zjutennis.config;
 
+import com.zjutennis.model.SeedState;
 import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.repository.SeedStateRepository;
 import com.zjutennis.service.DataImportService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Seeds the players table from ZJUAlumni.csv on first startup.
+ *
+ * Seeding runs on a background thread so the application is live right away; the seed
+ * health indicator keeps the readiness group out of service until it has finished. Whether
+ * the file was loaded is decided from its SHA-256 recorded in seed_state, looked up by
+ * primary key, rather than by counting the players table.
+ */
 @Component
 @Slf4j
 public class DataLoader implements CommandLineRunner {
 
+    static final String SEED_FILE = "ZJUAlumni.csv";
+
+    public enum State { PENDING, SEEDING, READY, FAILED }
+
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private SeedStateRepository seedStateRepository;
+
     @Autowired
     private DataImportService dataImportService;
 
+    // Seed on a background thread instead of blocking startup
+    @Value("${zjutennis.seed.async:true}")
+    private boolean async = true;
+
+    private volatile State state = State.PENDING;
+    private volatile String failure;
+
     @Override
-    public void run(String... args) throws Exception {
-        // Check if data already exists
-        long count = playerRepository.count();
-        log.info("Current player count in database: {}", count);
-
-        if (count == 0) {
-            log.info("No players found in database. Importing from CSV...");
-            dataImportService.importPlayersFromCSV("ZJUAlumni.csv");
-            log.info("CSV import completed. Total players: {}", playerRepository.count());
-        } else {
-            log.info("Players already exist in database. Skipping CSV import.");
-            log.info("To re-import, please truncate the players table first.");
+    public void run(String... args) {
+        if (!async) {
+            seed();
+            return;
+        }
+        Thread seeder = new Thread(this::seed, "data-loader");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    void seed() {
+        state = State.SEEDING;
+        long startNanos = System.nanoTime();
+        try {
+            Resource resource = new ClassPathResource(SEED_FILE);
+            String checksum = checksum(resource);
+            Optional<SeedState> seeded = seedStateRepository.findById(SEED_FILE);
+
+            if (seeded.isPresent()) {
+                if (checksum.equals(seeded.get().getChecksum())) {
+                    log.info("Seed file {} already imported on {}. Skipping CSV import.", SEED_FILE, seeded.get().getSeededAt());
+                } else {
+                    log.warn("Seed file {} changed since it was imported on {}. Existing players are kept; "
+                             + "to re-import, truncate the players and seed_state tables.", SEED_FILE, seeded.get().getSeededAt());
+                }
+            } else if (playerRepository.existsByIdNotNull()) {
+                // Players loaded before seed markers were recorded
+                log.info("Players already exist in database. Recording seed file {} without importing.", SEED_FILE);
+                recordSeed(checksum, null);
+            } else {
+                log.info("No players found in database. Importing from CSV...");
+                int imported = dataImportService.importPlayersFromCSV(resource);
+                recordSeed(checksum, imported);
+            }
+
+            state = State.READY;
+            log.info("Startup seeding finished in {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Startup seeding from {} failed", SEED_FILE, e);
+            failure = e.getMessage();
+            state = State.FAILED;
+        }
+    }
+
+    private void recordSeed(String checksum, Integer rowCount) {
+        SeedState seedState = new SeedState();
+        seedState.setName(SEED_FILE);
+        seedState.setChecksum(checksum);
+        seedState.setRowCount(rowCount);
+        seedState.setSeededAt(LocalDateTime.now());
+        seedStateRepository.save(seedState);
+    }
+
+    /**
+     * Hex encoded SHA-256 of a resource
+     */
+    static String checksum(Resource resource) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (InputStream in = new DigestInputStream(resource.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 }
@@ -0,0 +1,47 @@
+package com.zjutennis.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for asynchronous CSV imports.
+ *
+ * importJobExecutor runs one thread per import job; each job thread is the single writer
+ * for its file. importParseExecutor tokenizes and validates chunks in parallel; its queue is
+ * bounded and a full queue makes the submitting job thread parse the chunk itself, which
+ * slows the job down instead of buffering more of the file in memory.
+ */
+@Configuration
+public class ImportConfig {
+
+    public static final String IMPORT_JOB_EXECUTOR = "importJobExecutor";
+    public static final String IMPORT_PARSE_EXECUTOR = "importParseExecutor";
+
+    @Bean(name = IMPORT_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor importJobExecutor(@Value("${zjutennis.import.job.concurrent-jobs:2}") int concurrentJobs,
+                                                    @Value("${zjutennis.import.job.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrentJobs);
+        executor.setMaxPoolSize(concurrentJobs);
+        // Submitting beyond the queue is rejected, and the upload is answered with 503
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean(name = IMPORT_PARSE_EXECUTOR)
+    public ThreadPoolTaskExecutor importParseExecutor(@Value("${zjutennis.import.job.parse-threads:4}") int parseThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parseThreads);
+        executor.setMaxPoolSize(parseThreads);
+        executor.setQueueCapacity(parseThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("import-parse-");
+        return executor;
+    }
+}
@@ -0,0 +1,83 @@
+package com.zjutennis.config;
+
+import com.zjutennis.util.BoundedExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for blocking outbound I/O started by web requests, such as a player's UTR update.
+ *
+ * zjutennis.io.mode selects where that work runs:
+ * - inline: on the request thread, as before
+ * - pool: a dedicated elastic pool of up to max-concurrency threads, idle threads time out
+ * - virtual: one virtual thread per task, at most max-concurrency running (JDK 21+; older
+ *   JDKs fall back to pool)
+ *
+ * In pool and virtual mode the request thread is released while the call waits, so a slow
+ * UTR cannot tie up Tomcat's threads, and more than max-concurrency + queue-capacity
+ * waiting calls are rejected instead of piling up.
+ */
+@Configuration
+@Slf4j
+public class IoExecutorConfig {
+
+    public static final String IO_EXECUTOR = "ioExecutor";
+
+    @Bean(name = IO_EXECUTOR)
+    public Executor ioExecutor(@Value("${zjutennis.io.mode:inline}") String mode,
+                               @Value("${zjutennis.io.max-concurrency:16}") int maxConcurrency,
+                               @Value("${zjutennis.io.queue-capacity:100}") int queueCapacity) {
+        switch (mode) {
+            case "inline":
+                return new SyncTaskExecutor();
+            case "virtual":
+                ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+                if (virtualThreads != null) {
+                    log.info("Running blocking I/O on virtual threads, at most {} at once", maxConcurrency);
+                    return new BoundedExecutor(virtualThreads, maxConcurrency, queueCapacity);
+                }
+                log.warn("Virtual threads need JDK 21 or newer (running {}), using a thread pool for blocking I/O",
+                         System.getProperty("java.version"));
+                return elasticPool(maxConcurrency, queueCapacity);
+            case "pool":
+                return elasticPool(maxConcurrency, queueCapacity);
+            default:
+                throw new IllegalArgumentException("Unknown zjutennis.io.mode: " + mode + " (expected inline, pool or virtual)");
+        }
+    }
+
+    private static ThreadPoolTaskExecutor elasticPool(int maxConcurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(30);
+        // Submitting beyond the queue is rejected, and the request is answered with 503
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("io-");
+        return executor;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor, or null if this JDK has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // Preview JDKs throw UnsupportedOperationException without --enable-preview
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.zjutennis.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Threads for a full rating recompute, which rates disjoint groups of players side by side
+ */
+@Configuration
+public class RatingConfig {
+
+    public static final String RATING_EXECUTOR = "ratingExecutor";
+
+    @Bean(name = RATING_EXECUTOR)
+    public ThreadPoolTaskExecutor ratingExecutor(@Value("${zjutennis.rating.recompute-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("rating-");
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.zjutennis.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports startup seeding as the "seed" health component.
+ *
+ * Included in the readiness group, so /actuator/health/readiness stays OUT_OF_SERVICE until
+ * DataLoader has finished while /actuator/health/liveness is UP from the start.
+ */
+@Component
+public class SeedHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private DataLoader dataLoader;
+
+    @Override
+    public Health health() {
+        switch (dataLoader.getState()) {
+            case READY:
+                return Health.up().build();
+            case FAILED:
+                return Health.down().withDetail("error", String.valueOf(dataLoader.getFailure())).build();
+            default:
+                return Health.outOfService().withDetail("state", dataLoader.getState()).build();
+        }
+    }
+}
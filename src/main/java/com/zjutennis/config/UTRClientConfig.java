@@ -0,0 +1,103 @@
+package com.zjutennis.config;
+
+import com.zjutennis.util.CircuitBreaker;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client and executor for calls to the UTR API.
+ *
+ * The RestTemplate keeps a pool of keep-alive connections so refreshing many players reuses
+ * a few TLS connections, and every call is bounded by connect, pool wait and read timeouts.
+ * utrRefreshExecutor runs bulk refresh fetches; its pool size is the number of UTR requests
+ * in flight at once.
+ *
+ * Transient failures (I/O errors and timeouts, 5xx and 429 responses) are retried with
+ * jittered exponential backoff, and the circuit breaker stops calling UTR for a while once
+ * they keep happening. Every call is a GET, so repeating one is safe.
+ */
+@Configuration
+public class UTRClientConfig {
+
+    public static final String UTR_REST_TEMPLATE = "utrRestTemplate";
+    public static final String UTR_REFRESH_EXECUTOR = "utrRefreshExecutor";
+    public static final String UTR_RETRY_TEMPLATE = "utrRetryTemplate";
+    public static final String UTR_CIRCUIT_BREAKER = "utrCircuitBreaker";
+
+    @Bean(name = UTR_REST_TEMPLATE)
+    public RestTemplate utrRestTemplate(@Value("${zjutennis.utr.max-connections:20}") int maxConnections,
+                                        @Value("${zjutennis.utr.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                        @Value("${zjutennis.utr.read-timeout-ms:5000}") int readTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        // Every request goes to the same host
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setConnectionRequestTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean(name = UTR_REFRESH_EXECUTOR)
+    public ThreadPoolTaskExecutor utrRefreshExecutor(@Value("${zjutennis.utr.refresh.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("utr-refresh-");
+        return executor;
+    }
+
+    @Bean(name = UTR_RETRY_TEMPLATE)
+    public RetryTemplate utrRetryTemplate(@Value("${zjutennis.utr.retry.max-attempts:3}") int maxAttempts,
+                                          @Value("${zjutennis.utr.retry.initial-backoff-ms:200}") long initialBackoffMs,
+                                          @Value("${zjutennis.utr.retry.max-backoff-ms:2000}") long maxBackoffMs) {
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(maxAttempts, Map.of(
+                ResourceAccessException.class, true,
+                HttpServerErrorException.class, true,
+                HttpClientErrorException.TooManyRequests.class, true));
+
+        // Each wait is a random point between the exponential delay and twice that
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialBackoffMs);
+        backOffPolicy.setMultiplier(2.0);
+        backOffPolicy.setMaxInterval(maxBackoffMs);
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+
+    @Bean(name = UTR_CIRCUIT_BREAKER)
+    public CircuitBreaker utrCircuitBreaker(@Value("${zjutennis.utr.circuit.failure-threshold:5}") int failureThreshold,
+                                            @Value("${zjutennis.utr.circuit.open-ms:30000}") long openMs) {
+        return new CircuitBreaker(failureThreshold, openMs);
+    }
+}
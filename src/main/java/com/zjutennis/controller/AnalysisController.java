@@ -0,0 +1,99 @@
+package com.zjutennis.controller;
+
+import com.zjutennis.dto.ErrorResponse;
+import com.zjutennis.dto.PartnershipSummary;
+import com.zjutennis.dto.WinPredictionRequest;
+import com.zjutennis.service.HeadToHeadService;
+import com.zjutennis.service.PartnershipService;
+import com.zjutennis.service.RatingService;
+import com.zjutennis.service.WinPredictionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for analytics across players, served from the precomputed match tables
+ */
+@RestController
+@RequestMapping("/api/analysis")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class AnalysisController {
+
+    @Autowired
+    private PartnershipService partnershipService;
+
+    @Autowired
+    private HeadToHeadService headToHeadService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private WinPredictionService winPredictionService;
+
+    /**
+     * Get the doubles pairs with the best win rate
+     * GET /api/analysis/pairs/top?minMatches=3&limit=10
+     *
+     * Only pairs with at least minMatches decided matches together are ranked.
+     */
+    @GetMapping("/pairs/top")
+    public ResponseEntity<List<PartnershipSummary>> getTopPairs(
+            @RequestParam(defaultValue = "3") int minMatches,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/analysis/pairs/top - minMatches: {}, limit: {}", minMatches, limit);
+        return ResponseEntity.ok(partnershipService.getTopPairs(minMatches, limit));
+    }
+
+    /**
+     * Recompute the doubles pair matrix from the matches table
+     * POST /api/analysis/pairs/rebuild
+     */
+    @PostMapping("/pairs/rebuild")
+    public ResponseEntity<Integer> rebuildPairs() {
+        log.info("POST /api/analysis/pairs/rebuild - Rebuilding partnership matrix");
+        return ResponseEntity.ok(partnershipService.rebuild());
+    }
+
+    /**
+     * Recompute the head-to-head records from the matches table
+     * POST /api/analysis/head-to-head/rebuild
+     */
+    @PostMapping("/head-to-head/rebuild")
+    public ResponseEntity<Integer> rebuildHeadToHead() {
+        log.info("POST /api/analysis/head-to-head/rebuild - Rebuilding head-to-head records");
+        return ResponseEntity.ok(headToHeadService.rebuild());
+    }
+
+    /**
+     * Recompute every player's match rating from the matches table
+     * POST /api/analysis/ratings/recompute
+     */
+    @PostMapping("/ratings/recompute")
+    public ResponseEntity<Integer> recomputeRatings() {
+        log.info("POST /api/analysis/ratings/recompute - Recomputing player ratings");
+        return ResponseEntity.ok(ratingService.rebuild());
+    }
+
+    /**
+     * Predict the chance of team 1 winning for a batch of hypothetical matchups
+     * POST /api/analysis/predictions
+     * Body: {"surface": "clay", "matchups": [{"team1": [1], "team2": [2]}, {"team1": [1, 3], "team2": [2, 4]}]}
+     *
+     * Up to WinPredictionService.MAX_MATCHUPS matchups per call, answered in request order.
+     */
+    @PostMapping("/predictions")
+    public ResponseEntity<?> predict(@RequestBody WinPredictionRequest request) {
+        log.info("POST /api/analysis/predictions - {} matchups",
+                request.getMatchups() != null ? request.getMatchups().size() : 0);
+        try {
+            return ResponseEntity.ok(winPredictionService.predict(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+}
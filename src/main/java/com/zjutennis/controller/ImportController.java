@@ -0,0 +1,33 @@
+package com.zjutennis.controller;
+
+import com.zjutennis.dto.ImportJobStatus;
+import com.zjutennis.service.PlayerImportJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for background import jobs
+ */
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class ImportController {
+
+    @Autowired
+    private PlayerImportJobService playerImportJobService;
+
+    /**
+     * Get progress, throughput and row errors of an import job
+     * GET /api/imports/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportJob(@PathVariable String jobId) {
+        log.debug("GET /api/imports/{} - Fetching import job status", jobId);
+        return playerImportJobService.getJobStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
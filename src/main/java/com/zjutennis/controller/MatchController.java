@@ -23,17 +23,28 @@ import java.util.Map;
 @Slf4j
 public class MatchController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 25;
+
     @Autowired
     private MatchService matchService;
 
     /**
-     * Get all matches
+     * Get summaries of all matches, or one page of them newest first when limit or cursor is given
      */
     @GetMapping
-    public ResponseEntity<List<Match>> getAllMatches() {
+    public ResponseEntity<?> getAllMatches(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /api/matches - Fetching all matches");
-        List<Match> matches = matchService.getAllMatches();
-        return ResponseEntity.ok(matches);
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(matchService.getMatchSummaries());
+        }
+        try {
+            return ResponseEntity.ok(matchService.getMatchPage(cursor, pageLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid match cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -51,20 +62,40 @@ public class MatchController {
      * Get matches by type (singles/doubles)
      */
     @GetMapping("/type/{matchType}")
-    public ResponseEntity<List<Match>> getMatchesByType(@PathVariable String matchType) {
+    public ResponseEntity<?> getMatchesByType(
+            @PathVariable String matchType,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /api/matches/type/{} - Fetching matches by type", matchType);
-        List<Match> matches = matchService.getMatchesByType(matchType);
-        return ResponseEntity.ok(matches);
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(matchService.getMatchesByType(matchType));
+        }
+        try {
+            return ResponseEntity.ok(matchService.getMatchPageByType(matchType, cursor, pageLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid match cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Get matches for a specific player
      */
     @GetMapping("/player/{playerId}")
-    public ResponseEntity<List<Match>> getPlayerMatches(@PathVariable Long playerId) {
+    public ResponseEntity<?> getPlayerMatches(
+            @PathVariable Long playerId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("GET /api/matches/player/{} - Fetching matches for player", playerId);
-        List<Match> matches = matchService.getPlayerMatches(playerId);
-        return ResponseEntity.ok(matches);
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(matchService.getPlayerMatches(playerId));
+        }
+        try {
+            return ResponseEntity.ok(matchService.getPlayerMatchPage(playerId, cursor, pageLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid match cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -212,4 +243,8 @@ public class MatchController {
         response.put("hasVideo", hasVideo);
         return ResponseEntity.ok(response);
     }
+
+    private static int pageLimit(Integer limit) {
+        return limit != null ? limit : DEFAULT_PAGE_LIMIT;
+    }
 }
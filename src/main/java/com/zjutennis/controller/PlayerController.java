@@ -1,22 +1,43 @@
 package com.zjutennis.controller;
 
+import com.zjutennis.config.IoExecutorConfig;
+import com.zjutennis.dto.ImportJobStatus;
 import com.zjutennis.dto.ImportResult;
+import com.zjutennis.dto.PartnershipSummary;
 import com.zjutennis.dto.PlayerSearchRequest;
 import com.zjutennis.dto.PlayerSearchResponse;
+import com.zjutennis.dto.PlayerSummary;
+import com.zjutennis.dto.UTRRefreshStatus;
+import com.zjutennis.dto.UTRSyncStatus;
+import com.zjutennis.model.HeadToHead;
 import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerMatchAggregate;
 import com.zjutennis.model.PlayerSkillsHistory;
 import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.model.RatingChange;
+import com.zjutennis.service.HeadToHeadService;
+import com.zjutennis.service.PartnershipService;
+import com.zjutennis.service.PlayerAggregateService;
+import com.zjutennis.service.PlayerImportJobService;
 import com.zjutennis.service.PlayerService;
 import com.zjutennis.service.PlayerSkillsHistoryService;
 import com.zjutennis.service.PlayerStatisticsService;
+import com.zjutennis.service.RatingService;
+import com.zjutennis.service.UTRRefreshService;
+import com.zjutennis.service.UTRSyncService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/players")
@@ -27,24 +48,54 @@ public class PlayerController {
     @Autowired
     private PlayerService playerService;
 
+    @Autowired
+    private PlayerImportJobService playerImportJobService;
+
     @Autowired
     private PlayerSkillsHistoryService playerSkillsHistoryService;
 
     @Autowired
     private PlayerStatisticsService playerStatisticsService;
 
+    @Autowired
+    private UTRRefreshService utrRefreshService;
+
+    @Autowired
+    private UTRSyncService utrSyncService;
+
+    @Autowired
+    private PlayerAggregateService playerAggregateService;
+
+    @Autowired
+    private PartnershipService partnershipService;
+
+    @Autowired
+    private HeadToHeadService headToHeadService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    @Qualifier(IoExecutorConfig.IO_EXECUTOR)
+    private Executor ioExecutor;
+
     @GetMapping
-    public ResponseEntity<List<Player>> getAllPlayers() {
+    public ResponseEntity<List<PlayerSummary>> getAllPlayers() {
         log.info("GET /api/players - Fetching all players");
-        List<Player> players = playerService.getAllPlayers();
+        List<PlayerSummary> players = playerService.getPlayerSummaries();
         return ResponseEntity.ok(players);
     }
 
     @PostMapping("/search")
     public ResponseEntity<PlayerSearchResponse> searchPlayers(@RequestBody PlayerSearchRequest searchRequest) {
         log.info("POST /api/players/search - Searching players with filters");
-        PlayerSearchResponse response = playerService.searchPlayers(searchRequest);
-        return ResponseEntity.ok(response);
+        try {
+            PlayerSearchResponse response = playerService.searchPlayers(searchRequest);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid player search cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -64,9 +115,9 @@ public class PlayerController {
     }
 
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Player>> getPlayersByCity(@PathVariable String city) {
+    public ResponseEntity<List<PlayerSummary>> getPlayersByCity(@PathVariable String city) {
         log.info("GET /api/players/city/{} - Fetching players by city", city);
-        List<Player> players = playerService.getPlayersByCity(city);
+        List<PlayerSummary> players = playerService.getPlayerSummariesByCity(city);
         return ResponseEntity.ok(players);
     }
 
@@ -96,8 +147,17 @@ public class PlayerController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Import player updates from a CSV file
+     * POST /api/players/import
+     *
+     * By default the file is queued as a background job and 202 Accepted is returned with
+     * its status; poll GET /api/imports/{jobId} for progress. With async=false the import
+     * runs on the request thread and the final ImportResult is returned.
+     */
     @PostMapping("/import")
-    public ResponseEntity<ImportResult> importPlayers(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importPlayers(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(defaultValue = "true") boolean async) {
         log.info("POST /api/players/import - Importing players from CSV file: {}", file.getOriginalFilename());
         try {
             if (file.isEmpty()) {
@@ -110,8 +170,19 @@ public class PlayerController {
                         .body(new ImportResult(0, 0, "File must be a CSV file"));
             }
 
+            if (async) {
+                ImportJobStatus job = playerImportJobService.submit(file);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .location(URI.create("/api/imports/" + job.getJobId()))
+                        .body(job);
+            }
+
             ImportResult result = playerService.importPlayersFromCSV(file);
             return ResponseEntity.ok(result);
+        } catch (TaskRejectedException e) {
+            log.warn("Import queue is full, rejecting {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ImportResult(0, 0, "Too many imports in progress, please retry later"));
         } catch (Exception e) {
             log.error("Error importing players from CSV", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -123,24 +194,137 @@ public class PlayerController {
      * Update player statistics from UTR API
      * PUT /api/players/{id}/statistics/utr?utrId={utrId}
      *
+     * The UTR call runs on ioExecutor; unless zjutennis.io.mode is inline the request thread
+     * is released while it waits. Returns 503 if too many UTR updates are already waiting.
+     *
      * @param id The player ID
      * @param utrId The UTR ID (can be just the ID like "3790509" or a full URL)
      * @return Updated PlayerStatistics
      */
     @PutMapping("/{id}/statistics/utr")
-    public ResponseEntity<PlayerStatistics> updatePlayerStatisticsFromUTR(
+    public CompletableFuture<ResponseEntity<PlayerStatistics>> updatePlayerStatisticsFromUTR(
             @PathVariable Long id,
             @RequestParam String utrId) {
         log.info("PUT /api/players/{}/statistics/utr - Updating statistics from UTR with utrId: {}", id, utrId);
         try {
-            PlayerStatistics updatedStatistics = playerStatisticsService.updateFromUTR(id, utrId);
-            return ResponseEntity.ok(updatedStatistics);
-        } catch (RuntimeException e) {
-            log.error("Error updating player statistics from UTR for player id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (Exception e) {
-            log.error("Unexpected error updating player statistics from UTR for player id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    PlayerStatistics updatedStatistics = playerStatisticsService.updateFromUTR(id, utrId);
+                    return ResponseEntity.ok(updatedStatistics);
+                } catch (RuntimeException e) {
+                    log.error("Error updating player statistics from UTR for player id: {}", id, e);
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).<PlayerStatistics>build();
+                }
+            }, ioExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("Too many UTR updates waiting, rejecting player id: {}", id);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+    /**
+     * Refresh UTR results for every player with a UTR profile link
+     * POST /api/players/statistics/utr/refresh
+     *
+     * Runs in the background; poll GET /api/players/statistics/utr/refresh for progress.
+     * Returns 409 if a refresh is already running.
+     */
+    @PostMapping("/statistics/utr/refresh")
+    public ResponseEntity<UTRRefreshStatus> refreshAllFromUTR() {
+        log.info("POST /api/players/statistics/utr/refresh - Refreshing all players from UTR");
+        try {
+            utrRefreshService.refreshAll();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(utrRefreshService.getStatus().orElse(null));
         }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(utrRefreshService.getStatus().orElse(null));
+    }
+
+    /**
+     * Get the progress of the running or last bulk UTR refresh
+     * GET /api/players/statistics/utr/refresh
+     */
+    @GetMapping("/statistics/utr/refresh")
+    public ResponseEntity<UTRRefreshStatus> getUTRRefreshStatus() {
+        return utrRefreshService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the scheduled UTR sync state and how far behind the players are
+     * GET /api/players/statistics/utr/sync
+     */
+    @GetMapping("/statistics/utr/sync")
+    public ResponseEntity<UTRSyncStatus> getUTRSyncStatus() {
+        return ResponseEntity.ok(utrSyncService.getStatus());
+    }
+
+    /**
+     * Get a player's win/loss counts and win rates over the recorded matches
+     * GET /api/players/{id}/match-stats
+     */
+    @GetMapping("/{id}/match-stats")
+    public ResponseEntity<PlayerMatchAggregate> getMatchStats(@PathVariable Long id) {
+        return ResponseEntity.ok(playerAggregateService.getAggregate(id));
+    }
+
+    /**
+     * Get a player's doubles partners with their record together, most frequent first
+     * GET /api/players/{id}/partners
+     */
+    @GetMapping("/{id}/partners")
+    public ResponseEntity<List<PartnershipSummary>> getPartners(@PathVariable Long id) {
+        return ResponseEntity.ok(partnershipService.getPartners(id));
+    }
+
+    /**
+     * Get a player's head-to-head records, most played opponent first
+     * GET /api/players/{id}/head-to-head
+     * GET /api/players/{id}/head-to-head?opponentId=7 or ?opponentName=Jane Smith for one opponent
+     */
+    @GetMapping("/{id}/head-to-head")
+    public ResponseEntity<List<HeadToHead>> getHeadToHead(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long opponentId,
+            @RequestParam(required = false) String opponentName) {
+        if (opponentId != null) {
+            return ResponseEntity.ok(headToHeadService.getHeadToHead(id, opponentId).map(List::of).orElse(List.of()));
+        }
+        if (opponentName != null && !opponentName.isBlank()) {
+            return ResponseEntity.ok(headToHeadService.getHeadToHead(id, opponentName).map(List::of).orElse(List.of()));
+        }
+        return ResponseEntity.ok(headToHeadService.getHeadToHead(id));
+    }
+
+    /**
+     * Get the opponents a player has the worst record against
+     * GET /api/players/{id}/head-to-head/toughest?minMatches=2&limit=5
+     */
+    @GetMapping("/{id}/head-to-head/toughest")
+    public ResponseEntity<List<HeadToHead>> getToughestOpponents(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "2") int minMatches,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(headToHeadService.getToughestOpponents(id, minMatches, limit));
+    }
+
+    /**
+     * Get how each rated match moved a player's rating, oldest first
+     * GET /api/players/{id}/rating-history
+     */
+    @GetMapping("/{id}/rating-history")
+    public ResponseEntity<List<RatingChange>> getRatingHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(ratingService.getRatingHistory(id));
+    }
+
+    /**
+     * Recompute every player's match stats from the matches table
+     * POST /api/players/match-stats/rebuild
+     */
+    @PostMapping("/match-stats/rebuild")
+    public ResponseEntity<Integer> rebuildMatchStats() {
+        log.info("POST /api/players/match-stats/rebuild - Rebuilding match aggregates");
+        return ResponseEntity.ok(playerAggregateService.rebuild());
     }
 }
@@ -0,0 +1,34 @@
+package com.zjutennis.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Snapshot of an asynchronous CSV import, returned by GET /api/imports/{jobId}
+ */
+@Data
+@NoArgsConstructor
+public class ImportJobStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private String fileName;
+    private State state;
+    private long totalBytes;
+    private long processedBytes;
+    // Fraction of the file written, 0.0 to 1.0
+    private double progress;
+    private long rowsProcessed;
+    private long successCount;
+    private long errorCount;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+    // The first rejected rows; errorCount has the total
+    private List<ImportRowError> errors;
+}
@@ -0,0 +1,17 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A CSV import row that was rejected, by its data record number (the header is not counted)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    private long rowNumber;
+    private Long playerId;
+    private String message;
+}
@@ -0,0 +1,39 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a match shown in list views. Players are reduced to their ids and the
+ * names stored on the match, and the video to its id and URL, so a list is one query
+ * without loading any player or video entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchSummary {
+    private Long id;
+    private String matchType;
+    private LocalDateTime matchTime;
+    private String tournamentName;
+    private String location;
+    private String round;
+    private String score;
+    private String result;
+    private String winnerSide;
+
+    private Long player1Id;
+    private String player1Name;
+    private Long player2Id;
+    private String player2Name;
+    private Long opponentPlayer1Id;
+    private String opponentPlayer1Name;
+    private Long opponentPlayer2Id;
+    private String opponentPlayer2Name;
+
+    private Long videoId;
+    private String videoUrl;
+}
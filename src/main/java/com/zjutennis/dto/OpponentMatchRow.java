@@ -0,0 +1,22 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One opponent a player faced in one match, read from match_players
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpponentMatchRow {
+    private Long matchId;
+    private LocalDateTime matchTime;
+    private String team;
+    private String winnerSide;
+    private Long opponentId;
+    private String opponentName;
+}
@@ -0,0 +1,32 @@
+package com.zjutennis.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A doubles pair's record together, with both players' names
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnershipSummary {
+    private Long playerId;
+    private String playerName;
+    private Long partnerId;
+    private String partnerName;
+    private Integer matchesPlayed;
+    private Integer wins;
+    private Integer losses;
+    private LocalDateTime lastPlayedAt;
+
+    // Percentage of decided matches won, null until one is decided
+    @JsonProperty
+    public Double getWinRate() {
+        int decided = wins + losses;
+        return decided == 0 ? null : wins * 100.0 / decided;
+    }
+}
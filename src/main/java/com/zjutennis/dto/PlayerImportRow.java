@@ -0,0 +1,91 @@
+package com.zjutennis.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Function;
+
+/**
+ * One validated row of a player CSV import.
+ *
+ * A null field means the column was missing, blank or "-" and leaves the stored value
+ * unchanged.
+ */
+@Data
+@NoArgsConstructor
+public class PlayerImportRow {
+    private long rowNumber;
+    private Long playerId;
+    private String name;
+    private String gender;
+    private Double utrRating;
+    private String utrStatus;
+    private Double ntrpRating;
+    private String ntrpStatus;
+    private Double dynamicRating;
+    private Double winRate;
+
+    /**
+     * Parse and validate a row from its column values
+     *
+     * @param columns trimmed value of a column by header name, null if the column is absent
+     * @throws IllegalArgumentException if the player id is missing or a number is malformed
+     */
+    public static PlayerImportRow parse(long rowNumber, Function<String, String> columns) {
+        PlayerImportRow row = new PlayerImportRow();
+        row.setRowNumber(rowNumber);
+
+        String playerId = value(columns, "Player ID");
+        if (playerId == null) {
+            throw new IllegalArgumentException("Missing Player ID");
+        }
+        try {
+            row.setPlayerId(Long.parseLong(playerId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Player ID: " + playerId);
+        }
+
+        row.setName(value(columns, "Name"));
+        String gender = value(columns, "Gender");
+        row.setGender(gender != null ? gender.toLowerCase() : null);
+        row.setUtrRating(number(columns, "UTR Rating"));
+        row.setUtrStatus(value(columns, "UTR Status"));
+        row.setNtrpRating(number(columns, "NTRP Rating"));
+        row.setNtrpStatus(value(columns, "NTRP Status"));
+        row.setDynamicRating(number(columns, "Dynamic Rating"));
+        String winRate = value(columns, "Win Rate");
+        row.setWinRate(winRate != null ? parseNumber("Win Rate", winRate.replace("%", "")) : null);
+        return row;
+    }
+
+    public boolean hasProfile() {
+        return name != null || gender != null;
+    }
+
+    public boolean hasStatistics() {
+        return utrRating != null || utrStatus != null || ntrpRating != null || ntrpStatus != null
+                || dynamicRating != null || winRate != null;
+    }
+
+    private static String value(Function<String, String> columns, String column) {
+        String value = columns.apply(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() || value.equals("-") ? null : value;
+    }
+
+    private static Double number(Function<String, String> columns, String column) {
+        String value = value(columns, column);
+        return value != null ? parseNumber(column, value) : null;
+    }
+
+    private static Double parseNumber(String column, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+}
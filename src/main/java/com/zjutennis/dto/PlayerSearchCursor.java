@@ -0,0 +1,128 @@
+package com.zjutennis.dto;
+
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.util.CursorUtil;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * Position after the last player of a search page.
+ *
+ * Search results are ordered by the requested sort key and then by id ascending; the
+ * cursor records both for the last row, plus the sort it was produced for. Missing
+ * numeric values are recorded as -1 and missing gender as "zzz", the same defaults the
+ * sort uses, and the UTR update time as epoch milliseconds (UTC).
+ */
+@Getter
+public class PlayerSearchCursor {
+
+    public static final String UNSORTED = "";
+
+    private final String sortBy;
+    private final boolean ascending;
+    private final String value;
+    private final long id;
+
+    private PlayerSearchCursor(String sortBy, boolean ascending, String value, long id) {
+        this.sortBy = sortBy;
+        this.ascending = ascending;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing after the given player for the request's sort
+     */
+    public static PlayerSearchCursor after(PlayerSearchRequest request, Player player) {
+        String sortBy = sortKey(request);
+        return new PlayerSearchCursor(sortBy, isAscending(request), sortValue(player, sortBy), player.getId());
+    }
+
+    /**
+     * Decode a cursor and check that it was produced for the request's sort
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort
+     */
+    public static PlayerSearchCursor decode(String token, PlayerSearchRequest request) {
+        String[] parts = CursorUtil.decode(token, 4);
+        PlayerSearchCursor cursor;
+        try {
+            cursor = new PlayerSearchCursor(parts[0], Boolean.parseBoolean(parts[1]), parts[2], Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (!cursor.sortBy.equals(sortKey(request)) || cursor.ascending != isAscending(request)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        return CursorUtil.encode(sortBy, Boolean.toString(ascending), value, Long.toString(id));
+    }
+
+    /**
+     * The sort value as a number; only valid for numeric sort keys
+     */
+    public double numericValue() {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + value, e);
+        }
+    }
+
+    /**
+     * Lowercased sort key of a request; {@link #UNSORTED} when no known key is requested
+     */
+    public static String sortKey(PlayerSearchRequest request) {
+        String sortBy = request.getSortBy();
+        if (sortBy == null) {
+            return UNSORTED;
+        }
+        switch (sortBy.toLowerCase(Locale.ROOT)) {
+            case "utr":
+            case "ntrp":
+            case "winrate":
+            case "dynamicrating":
+            case "utrupdateddate":
+            case "gender":
+                return sortBy.toLowerCase(Locale.ROOT);
+            default:
+                return UNSORTED;
+        }
+    }
+
+    public static boolean isAscending(PlayerSearchRequest request) {
+        return "asc".equalsIgnoreCase(request.getSortOrder());
+    }
+
+    private static String sortValue(Player player, String sortBy) {
+        PlayerStatistics stats = player.getStatistics();
+        switch (sortBy) {
+            case "utr":
+                return numeric(stats != null ? stats.getUtrRating() : null);
+            case "ntrp":
+                return numeric(stats != null ? stats.getNtrpRating() : null);
+            case "winrate":
+                return numeric(stats != null ? stats.getWinRate() : null);
+            case "dynamicrating":
+                return numeric(stats != null ? stats.getDynamicRating() : null);
+            case "utrupdateddate":
+                LocalDateTime updated = stats != null ? stats.getUtrUpdatedDate() : null;
+                return numeric(updated != null ? (double) updated.toInstant(ZoneOffset.UTC).toEpochMilli() : null);
+            case "gender":
+                return player.getGender() != null ? player.getGender() : "zzz";
+            default:
+                return "";
+        }
+    }
+
+    private static String numeric(Double value) {
+        return Double.toString(value != null ? value : -1.0);
+    }
+}
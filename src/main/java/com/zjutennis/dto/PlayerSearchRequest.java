@@ -20,6 +20,9 @@ public class PlayerSearchRequest {
     private Integer pageSize = 25;
 
     // Sorting
-    private String sortBy;
+    private String sortBy; // utr, ntrp, winRate, dynamicRating, utrUpdatedDate, gender
     private String sortOrder = "desc";
+
+    // Keyset pagination: nextCursor of the previous response; page is ignored when set
+    private String cursor;
 }
@@ -1,18 +1,28 @@
 package com.zjutennis.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.zjutennis.model.Player;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class PlayerSearchResponse {
+    // Players may be served from the in-memory search index, outside of any session
+    @JsonIgnoreProperties({"videoAnalyses"})
     private List<Player> players;
     private long totalCount;
     private int currentPage;
     private int pageSize;
     private int totalPages;
 
+    // Facet name -> value -> number of matching players; null when searching in the database
+    private Map<String, Map<String, Integer>> facets;
+
+    // Cursor for the page after this one; null on the last page
+    private String nextCursor;
+
     public PlayerSearchResponse(List<Player> players, long totalCount, int currentPage, int pageSize) {
         this.players = players;
         this.totalCount = totalCount;
@@ -0,0 +1,23 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columns of a player shown in list views, selected directly by the repository
+ * without loading skills, statistics or alumni entities
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerSummary {
+    private Long id;
+    private String name;
+    private String gender;
+    private String city;
+    private String country;
+    private Double utrRating;
+    private Double ntrpRating;
+    private Double winRate;
+}
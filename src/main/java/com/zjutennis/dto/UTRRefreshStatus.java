@@ -0,0 +1,26 @@
+package com.zjutennis.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Progress of a bulk UTR refresh
+ */
+@Data
+@NoArgsConstructor
+public class UTRRefreshStatus {
+    private boolean running;
+    private int totalPlayers;
+    // Distinct UTR IDs requested; players sharing an ID share one request
+    private int utrRequests;
+    private int refreshed;
+    private int failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long durationMs;
+    // Failure message by player id
+    private Map<Long, String> errors;
+}
@@ -0,0 +1,16 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A player whose statistics link to a UTR profile
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UTRRefreshTarget {
+    private Long playerId;
+    private String utrUrl;
+}
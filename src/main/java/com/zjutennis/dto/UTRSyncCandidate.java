@@ -0,0 +1,21 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A player linked to a UTR profile, with the dates the sync scheduler prioritises on
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UTRSyncCandidate {
+    private Long playerId;
+    private String utrUrl;
+    private LocalDateTime utrUpdatedDate;
+    private LocalDateTime singlesUtrUpdatedDate;
+    private LocalDateTime lastMatchDate;
+}
@@ -0,0 +1,29 @@
+package com.zjutennis.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the scheduled UTR sync and how far behind the tracked players are
+ */
+@Data
+@NoArgsConstructor
+public class UTRSyncStatus {
+    private boolean enabled;
+    private long cycles;
+    private LocalDateTime lastCycleStartedAt;
+    private LocalDateTime lastCycleFinishedAt;
+    private int lastCycleSelected;
+    private int lastCycleRefreshed;
+    private int lastCycleFailed;
+
+    // Lag distribution at the start of the last cycle: time since each player was last synced
+    private int trackedPlayers;
+    private int overduePlayers;
+    private int neverSynced;
+    private long lagP50Seconds;
+    private long lagP90Seconds;
+    private long lagMaxSeconds;
+}
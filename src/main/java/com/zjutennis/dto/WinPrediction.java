@@ -0,0 +1,25 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Predicted chance of team 1 beating team 2, with the feature differences it was scored from,
+ * each taken as team 1 minus team 2
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WinPrediction {
+    private List<Long> team1;
+    private List<Long> team2;
+    private String surface;
+    private Double team1WinProbability;
+    private Double ratingDifference; // Mean rating points
+    private Double formDifference; // Mean of (wins - losses) / played over recent matches
+    private Double headToHead; // (wins - losses) of team 1 players against team 2 players, shrunk toward 0
+    private Double surfaceEdge; // Mean surface win rate over overall win rate
+}
@@ -0,0 +1,27 @@
+package com.zjutennis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of hypothetical matchups to predict. Each team is one player id for singles or two
+ * for doubles; surface applies to every matchup that does not name its own.
+ */
+@Data
+public class WinPredictionRequest {
+    private String surface; // hard, clay, grass, carpet; null ignores surface
+    private List<Matchup> matchups = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Matchup {
+        private List<Long> team1;
+        private List<Long> team2;
+        private String surface;
+    }
+}
@@ -0,0 +1,74 @@
+package com.zjutennis.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * HeadToHead entity holding a registered player's record against one opponent
+ * The opponent is a registered player or, for opponents entered by name only, the normalized
+ * name; both are folded into opponentKey, so each pair is one lookup of the unique key.
+ * Maintained by HeadToHeadService on every match write.
+ */
+@Entity
+@Table(name = "head_to_head", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_head_to_head_pair", columnNames = {"player_id", "opponent_key"})
+})
+@Data
+public class HeadToHead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    @Column(name = "opponent_key", nullable = false, length = 120)
+    private String opponentKey; // "player:<id>" or "name:<normalized name>"
+
+    @Column(name = "opponent_player_id")
+    private Long opponentPlayerId; // Null for opponents entered by name only
+
+    @Column(name = "opponent_name", length = 100)
+    private String opponentName;
+
+    @Column(name = "matches_played", nullable = false)
+    private Integer matchesPlayed = 0;
+
+    @Column(name = "wins", nullable = false)
+    private Integer wins = 0;
+
+    @Column(name = "losses", nullable = false)
+    private Integer losses = 0;
+
+    @Column(name = "sets_won", nullable = false)
+    private Integer setsWon = 0;
+
+    @Column(name = "sets_lost", nullable = false)
+    private Integer setsLost = 0;
+
+    @Column(name = "games_won", nullable = false)
+    private Integer gamesWon = 0;
+
+    @Column(name = "games_lost", nullable = false)
+    private Integer gamesLost = 0;
+
+    @Column(name = "last_results", length = 5)
+    private String lastResults; // Newest first: W, L, or - for a match without a winner
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Percentage of decided matches won, null until one is decided
+    @JsonProperty
+    public Double getWinRate() {
+        int decided = wins + losses;
+        return decided == 0 ? null : wins * 100.0 / decided;
+    }
+}
@@ -15,12 +15,33 @@ import java.util.List;
 /**
  * Match entity representing a tennis match (singles or doubles)
  */
+@NamedEntityGraph(
+        name = Match.WITH_PLAYERS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "player1", subgraph = "player"),
+                @NamedAttributeNode(value = "player2", subgraph = "player"),
+                @NamedAttributeNode(value = "opponentPlayer1", subgraph = "player"),
+                @NamedAttributeNode(value = "opponentPlayer2", subgraph = "player"),
+                @NamedAttributeNode("video")
+        },
+        // Player's one-to-ones are eager and on the inverse side, so they must be joined too
+        subgraphs = @NamedSubgraph(name = "player", attributeNodes = {
+                @NamedAttributeNode("skills"),
+                @NamedAttributeNode("statistics"),
+                @NamedAttributeNode("alumni")
+        }))
 @Entity
-@Table(name = "matches")
+@Table(name = "matches", indexes = {
+        @Index(name = "idx_matches_time_id", columnList = "match_time, id"),
+        @Index(name = "idx_matches_type_time_id", columnList = "match_type, match_time, id")
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class Match {
 
+    // Entity graph loading the four players (with their one-to-ones) and the video in the same query
+    public static final String WITH_PLAYERS = "Match.withPlayers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -11,9 +11,13 @@ import java.time.LocalDateTime;
 /**
  * MatchPlayer entity representing a player's participation in a match
  * Supports both registered players (with player_id) and non-registered players (with just a name)
+ * Kept in sync with the match's player columns by MatchPlayerService, carrying the match time so a
+ * player's matches are one range of the (player_id, match_time, match_id) index
  */
 @Entity
-@Table(name = "match_players")
+@Table(name = "match_players", indexes = {
+        @Index(name = "idx_match_players_player_time", columnList = "player_id, match_time, match_id")
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class MatchPlayer {
@@ -44,6 +48,9 @@ public class MatchPlayer {
     @Column(name = "is_our_team")
     private Boolean isOurTeam = false; // True if this is a tracked player (our team member)
 
+    @Column(name = "match_time")
+    private LocalDateTime matchTime; // Copy of the match's time, for ordering a player's matches
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,88 @@
+package com.zjutennis.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * PlayerMatchAggregate entity holding a player's counters over the matches table
+ * Maintained by PlayerAggregateService on every match write, kept apart from PlayerStatistics
+ * whose match figures come from UTR or manual edits
+ */
+@Entity
+@Table(name = "player_match_aggregates")
+@Data
+public class PlayerMatchAggregate {
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Column(name = "singles_played", nullable = false)
+    private Integer singlesPlayed = 0;
+
+    @Column(name = "singles_wins", nullable = false)
+    private Integer singlesWins = 0;
+
+    @Column(name = "singles_losses", nullable = false)
+    private Integer singlesLosses = 0;
+
+    @Column(name = "doubles_played", nullable = false)
+    private Integer doublesPlayed = 0;
+
+    @Column(name = "doubles_wins", nullable = false)
+    private Integer doublesWins = 0;
+
+    @Column(name = "doubles_losses", nullable = false)
+    private Integer doublesLosses = 0;
+
+    @Column(name = "last_match_date")
+    private LocalDateTime lastMatchDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static PlayerMatchAggregate empty(Long playerId) {
+        PlayerMatchAggregate aggregate = new PlayerMatchAggregate();
+        aggregate.setPlayerId(playerId);
+        return aggregate;
+    }
+
+    @JsonProperty
+    public int getTotalMatches() {
+        return singlesPlayed + doublesPlayed;
+    }
+
+    @JsonProperty
+    public int getWins() {
+        return singlesWins + doublesWins;
+    }
+
+    @JsonProperty
+    public int getLosses() {
+        return singlesLosses + doublesLosses;
+    }
+
+    // Win rates are percentages of decided matches, null until one is decided
+    @JsonProperty
+    public Double getWinRate() {
+        return rate(getWins(), getLosses());
+    }
+
+    @JsonProperty
+    public Double getSinglesWinRate() {
+        return rate(singlesWins, singlesLosses);
+    }
+
+    @JsonProperty
+    public Double getDoublesWinRate() {
+        return rate(doublesWins, doublesLosses);
+    }
+
+    private static Double rate(int wins, int losses) {
+        int decided = wins + losses;
+        return decided == 0 ? null : wins * 100.0 / decided;
+    }
+}
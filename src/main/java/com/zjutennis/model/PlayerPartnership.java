@@ -0,0 +1,44 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * PlayerPartnership entity: one cell of the doubles pair matrix
+ * Each pair is stored twice, once from each partner's side, so a player's partners are one
+ * range of the (player_id, partner_id) key. Maintained by PartnershipService on every match write.
+ */
+@Entity
+@Table(name = "player_partnerships", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_player_partnerships_pair", columnNames = {"player_id", "partner_id"})
+})
+@Data
+public class PlayerPartnership {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Column(name = "matches_played", nullable = false)
+    private Integer matchesPlayed = 0;
+
+    @Column(name = "wins", nullable = false)
+    private Integer wins = 0;
+
+    @Column(name = "losses", nullable = false)
+    private Integer losses = 0;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
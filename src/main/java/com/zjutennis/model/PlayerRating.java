@@ -0,0 +1,36 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * PlayerRating entity holding a registered player's current match rating
+ * Maintained by RatingService from the matches in time order; the rating itself is published
+ * to PlayerStatistics.dynamicRating
+ */
+@Entity
+@Table(name = "player_ratings")
+@Data
+public class PlayerRating {
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Column(name = "rating", nullable = false)
+    private Double rating;
+
+    @Column(name = "matches_rated", nullable = false)
+    private Integer matchesRated = 0;
+
+    @Column(name = "last_match_id")
+    private Long lastMatchId;
+
+    @Column(name = "last_match_time")
+    private LocalDateTime lastMatchTime;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
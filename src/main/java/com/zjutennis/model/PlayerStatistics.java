@@ -142,7 +142,8 @@ public class PlayerStatistics {
     @Column(name = "goals", columnDefinition = "TEXT")
     private String goals;
 
-    @Column(name = "last_match_date")
+    // Published from player_match_aggregates by PlayerAggregateService, never written through JPA
+    @Column(name = "last_match_date", insertable = false, updatable = false)
     private LocalDateTime lastMatchDate;
 
     @CreatedDate
@@ -0,0 +1,44 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * RatingChange entity recording how one match moved one player's rating
+ * A player's rows in match time order are their rating trajectory
+ */
+@Entity
+@Table(name = "rating_changes", indexes = {
+        @Index(name = "idx_rating_changes_player_time", columnList = "player_id, match_time, match_id"),
+        @Index(name = "idx_rating_changes_match", columnList = "match_id")
+})
+@Data
+public class RatingChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    @Column(name = "rating_before", nullable = false)
+    private Double ratingBefore;
+
+    @Column(name = "rating_after", nullable = false)
+    private Double ratingAfter;
+
+    @Column(name = "delta", nullable = false)
+    private Double delta;
+
+    @Column(name = "match_time")
+    private LocalDateTime matchTime;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
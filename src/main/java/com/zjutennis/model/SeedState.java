@@ -0,0 +1,29 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * SeedState entity recording which version of a bundled seed file has been loaded
+ * Looked up by primary key at startup instead of counting the seeded table
+ */
+@Entity
+@Table(name = "seed_state")
+@Data
+public class SeedState {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name; // Seed file name, e.g. ZJUAlumni.csv
+
+    @Column(name = "checksum", nullable = false, length = 64)
+    private String checksum; // SHA-256 of the seed file, hex encoded
+
+    @Column(name = "row_count")
+    private Integer rowCount;
+
+    @Column(name = "seeded_at", nullable = false)
+    private LocalDateTime seededAt;
+}
@@ -0,0 +1,41 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * UTRCachedResult entity holding the last results response UTR returned for a player
+ * Kept with its validators so the next request can be conditional
+ */
+@Entity
+@Table(name = "utr_result_cache")
+@Data
+public class UTRCachedResult {
+
+    @Id
+    @Column(name = "utr_id", length = 32)
+    private String utrId;
+
+    @Column(name = "wins")
+    private Integer wins;
+
+    @Column(name = "losses")
+    private Integer losses;
+
+    @Column(name = "withdrawls")
+    private Integer withdrawls;
+
+    @Column(name = "etag", length = 200)
+    private String etag; // ETag header of the response, sent back as If-None-Match
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified; // Last-Modified header of the response, sent back as If-Modified-Since
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt; // When the body was last downloaded
+
+    @Column(name = "validated_at", nullable = false)
+    private LocalDateTime validatedAt; // When UTR last confirmed it, by a 200 or a 304
+}
@@ -0,0 +1,32 @@
+package com.zjutennis.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * UTRSyncState entity recording the scheduled UTR sync's progress for one player
+ * Read back at startup so a restart resumes with the same priorities and failure backoff
+ */
+@Entity
+@Table(name = "utr_sync_state")
+@Data
+public class UTRSyncState {
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    @Column(name = "last_success_at")
+    private LocalDateTime lastSuccessAt;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private Integer consecutiveFailures = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
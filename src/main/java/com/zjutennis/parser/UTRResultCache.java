@@ -0,0 +1,82 @@
+package com.zjutennis.parser;
+
+import com.zjutennis.model.UTRCachedResult;
+import com.zjutennis.repository.UTRCachedResultRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Persistent cache of UTR results responses by UTR ID.
+ *
+ * An entry validated within zjutennis.utr.cache.fresh-seconds is served without asking UTR.
+ * Older entries are revalidated with their ETag / Last-Modified values; a 304 only moves
+ * validatedAt forward. Entries of any age are the fallback while UTR is unavailable.
+ *
+ * Writes commit in their own transaction, so a caller's rollback does not undo them and a
+ * failed write does not roll the caller back.
+ */
+@Component
+public class UTRResultCache {
+
+    private final UTRCachedResultRepository repository;
+    private final Duration freshFor;
+
+    @Autowired
+    public UTRResultCache(UTRCachedResultRepository repository,
+                          @Value("${zjutennis.utr.cache.fresh-seconds:600}") long freshSeconds) {
+        this.repository = repository;
+        this.freshFor = Duration.ofSeconds(freshSeconds);
+    }
+
+    public Optional<UTRCachedResult> find(String utrId) {
+        return repository.findById(utrId);
+    }
+
+    public boolean isFresh(UTRCachedResult entry) {
+        return entry.getValidatedAt() != null
+                && entry.getValidatedAt().plus(freshFor).isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * Store a full response with the validators UTR sent, if any
+     * @throws org.springframework.dao.DataIntegrityViolationException if another thread stored the first entry for this ID
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(String utrId, UTRPlayerResultDTO result, String etag, String lastModified) {
+        LocalDateTime now = LocalDateTime.now();
+        UTRCachedResult entry = new UTRCachedResult();
+        entry.setUtrId(utrId);
+        entry.setWins(result.getWins());
+        entry.setLosses(result.getLosses());
+        entry.setWithdrawls(result.getWithdrawls());
+        entry.setEtag(etag);
+        entry.setLastModified(lastModified);
+        entry.setFetchedAt(now);
+        entry.setValidatedAt(now);
+        repository.save(entry);
+    }
+
+    /**
+     * Record that UTR answered 304 Not Modified for the entry
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markValidated(UTRCachedResult entry) {
+        entry.setValidatedAt(LocalDateTime.now());
+        repository.save(entry);
+    }
+
+    public static UTRPlayerResultDTO toResult(UTRCachedResult entry) {
+        UTRPlayerResultDTO result = new UTRPlayerResultDTO();
+        result.setWins(entry.getWins());
+        result.setLosses(entry.getLosses());
+        result.setWithdrawls(entry.getWithdrawls());
+        return result;
+    }
+}
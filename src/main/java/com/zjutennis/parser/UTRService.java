@@ -1,72 +1,302 @@
 package com.zjutennis.parser;
 
+import com.zjutennis.config.UTRClientConfig;
+import com.zjutennis.model.UTRCachedResult;
+import com.zjutennis.util.CircuitBreaker;
+import com.zjutennis.util.TokenBucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
 /**
  * Service for fetching player data from UTR API
  * No authentication token required for basic player results
+ *
+ * Every request takes a token from a shared bucket first, so manual and bulk refreshes
+ * together stay under zjutennis.utr.rate-per-second.
+ *
+ * Responses are kept in UTRResultCache: a recently validated result is reused without a
+ * request, so getPlayerWinRate and getPlayerTotalMatches after getPlayerResults cost nothing,
+ * and an older one is revalidated with a conditional GET.
+ *
+ * Transient failures are retried by utrRetryTemplate, and utrCircuitBreaker rejects calls
+ * outright while UTR keeps failing. getPlayerResults then falls back to the cached results
+ * of any age; bulk fetches through getPlayerResultsAsync fail instead, so their callers
+ * record the player as not refreshed.
  */
 @Service
 public class UTRService {
 
     private static final Logger logger = LoggerFactory.getLogger(UTRService.class);
 
-    private static final String UTR_PLAYER_RESULTS_URL = "https://app.utrsports.net/api/v1/player/%s/results?year=last";
+    private static final String UTR_PLAYER_RESULTS_PATH = "/api/v1/player/%s/results?year=last";
 
     private final RestTemplate restTemplate;
+    private final RetryTemplate retryTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final UTRResultCache resultCache;
+    private final MeterRegistry meterRegistry;
+    private final String baseUrl;
+    private final TokenBucket rateLimiter;
+
+    // Fetches in progress by UTR ID; a second request for the same ID joins the first
+    private final Map<String, CompletableFuture<UTRPlayerResultDTO>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UTRService(@Qualifier(UTRClientConfig.UTR_REST_TEMPLATE) RestTemplate restTemplate,
+                      @Qualifier(UTRClientConfig.UTR_RETRY_TEMPLATE) RetryTemplate retryTemplate,
+                      @Qualifier(UTRClientConfig.UTR_CIRCUIT_BREAKER) CircuitBreaker circuitBreaker,
+                      UTRResultCache resultCache,
+                      MeterRegistry meterRegistry,
+                      @Value("${zjutennis.utr.base-url:https://app.utrsports.net}") String baseUrl,
+                      @Value("${zjutennis.utr.rate-per-second:5}") double ratePerSecond,
+                      @Value("${zjutennis.utr.burst:5}") int burst) {
+        this.restTemplate = restTemplate;
+        this.retryTemplate = retryTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.resultCache = resultCache;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = baseUrl;
+        this.rateLimiter = new TokenBucket(ratePerSecond, burst);
 
-    public UTRService() {
-        this.restTemplate = new RestTemplate();
+        Gauge.builder("utr.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the UTR circuit breaker: 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
     }
 
     /**
      * Fetch player results from UTR API
+     * Serves the cached results for the player if UTR cannot be reached
      * @param utrId The UTR player ID
      * @return UTRPlayerResultDTO containing wins, losses, and withdrawals
-     * @throws RuntimeException if API call fails
+     * @throws RuntimeException if API call fails and no earlier results are available
      */
     public UTRPlayerResultDTO getPlayerResults(String utrId) {
-        if (utrId == null || utrId.trim().isEmpty()) {
-            throw new IllegalArgumentException("UTR ID cannot be null or empty");
+        try {
+            // Runs on this thread unless another thread is already fetching the same ID
+            return getPlayerResultsAsync(utrId, Runnable::run).join();
+        } catch (CompletionException wrapped) {
+            if (!(wrapped.getCause() instanceof UTRUnavailableException)) {
+                throw wrapped.getCause() instanceof RuntimeException ? (RuntimeException) wrapped.getCause() : wrapped;
+            }
+            UTRUnavailableException ex = (UTRUnavailableException) wrapped.getCause();
+            UTRPlayerResultDTO cached = resultCache.find(utrId).map(UTRResultCache::toResult).orElse(null);
+            meterRegistry.counter("utr.fallback", "result", cached != null ? "hit" : "miss").increment();
+            if (cached == null) {
+                throw ex;
+            }
+            logger.warn("Serving cached UTR results for player {}: {}", utrId, ex.getMessage());
+            return cached;
         }
+    }
 
-        String url = String.format(UTR_PLAYER_RESULTS_URL, utrId);
+    /**
+     * Fetch player results from the cache while fresh, otherwise from UTR API, retrying transient failures
+     * @throws UTRUnavailableException if UTR failed on every attempt or the circuit is open
+     * @throws RuntimeException if UTR rejected the request
+     */
+    private UTRPlayerResultDTO fetchPlayerResults(String utrId) {
+        Optional<UTRCachedResult> cached = resultCache.find(utrId);
+        if (cached.isPresent() && resultCache.isFresh(cached.get())) {
+            meterRegistry.counter("utr.cache", "result", "fresh").increment();
+            logger.debug("Using cached UTR results for player ID {}", utrId);
+            return UTRResultCache.toResult(cached.get());
+        }
+        UTRCachedResult entry = cached.orElse(null);
 
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-            headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
+        String url = baseUrl + String.format(UTR_PLAYER_RESULTS_PATH, utrId);
 
-            HttpEntity<String> entity = new HttpEntity<>("{}", headers);
+        try {
+            ResponseEntity<UTRPlayerResultDTO> response = retryTemplate.execute(context -> {
+                if (context.getRetryCount() > 0) {
+                    meterRegistry.counter("utr.requests.retries").increment();
+                    logger.info("Retrying UTR request for player ID {} (attempt {})", utrId, context.getRetryCount() + 1);
+                }
+                return exchange(utrId, url, entry);
+            });
 
-            logger.info("Fetching UTR player results for ID: {}", utrId);
-            ResponseEntity<UTRPlayerResultDTO> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                UTRPlayerResultDTO.class
-            );
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && entry != null) {
+                meterRegistry.counter("utr.cache", "result", "revalidated").increment();
+                logger.info("UTR results for player {} not modified since {}", utrId, entry.getFetchedAt());
+                resultCache.markValidated(entry);
+                return UTRResultCache.toResult(entry);
+            }
 
+            meterRegistry.counter("utr.cache", "result", "miss").increment();
             UTRPlayerResultDTO result = response.getBody();
-
             if (result != null) {
                 logger.info("Successfully fetched UTR data for player {}: wins={}, losses={}, withdrawals={}",
                     utrId, result.getWins(), result.getLosses(), result.getWithdrawls());
+                try {
+                    resultCache.store(utrId, result, response.getHeaders().getETag(),
+                                      response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+                } catch (DataIntegrityViolationException ex) {
+                    // A concurrent lookup cached this ID first, with an equally fresh response
+                    logger.debug("UTR results for player {} were cached concurrently", utrId);
+                }
             }
 
             return result;
 
+        } catch (ResourceAccessException | HttpServerErrorException | HttpClientErrorException.TooManyRequests ex) {
+            logger.error("UTR unavailable for player ID {}: {}", utrId, ex.getMessage());
+            throw new UTRUnavailableException("Failed to fetch UTR player results: " + ex.getMessage(), ex);
         } catch (RestClientException ex) {
             logger.error("Failed to fetch UTR data for player ID {}: {}", utrId, ex.getMessage());
             throw new RuntimeException("Failed to fetch UTR player results: " + ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Make one request through the circuit breaker and rate limiter
+     * Conditional on the cached entry's validators, if there is one
+     */
+    private ResponseEntity<UTRPlayerResultDTO> exchange(String utrId, String url, UTRCachedResult cached) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("utr.requests", "outcome", "rejected").increment();
+            throw new UTRUnavailableException("UTR circuit breaker is open", null);
+        }
+
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            circuitBreaker.release();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to call UTR for player ID " + utrId, e);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
+        if (cached != null && cached.getEtag() != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        logger.info("Fetching UTR player results for ID: {}", utrId);
+        try {
+            ResponseEntity<UTRPlayerResultDTO> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                entity,
+                UTRPlayerResultDTO.class
+            );
+            circuitBreaker.onSuccess();
+            meterRegistry.counter("utr.requests", "outcome", "success").increment();
+            return response;
+        } catch (ResourceAccessException | HttpServerErrorException | HttpClientErrorException.TooManyRequests ex) {
+            circuitBreaker.onFailure();
+            meterRegistry.counter("utr.requests", "outcome", "failure").increment();
+            throw ex;
+        } catch (RuntimeException ex) {
+            // UTR answered, e.g. 404 for an unknown player, so it is healthy
+            circuitBreaker.onSuccess();
+            meterRegistry.counter("utr.requests", "outcome", "client_error").increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * Fetch player results on an executor, joining a fetch already in flight for the same ID
+     * @param utrId The UTR player ID
+     * @param executor Executor that runs the blocking call
+     * @return Future completed with the results, or exceptionally if the call fails
+     * @throws IllegalArgumentException if the UTR ID is empty
+     */
+    public CompletableFuture<UTRPlayerResultDTO> getPlayerResultsAsync(String utrId, Executor executor) {
+        if (utrId == null || utrId.trim().isEmpty()) {
+            throw new IllegalArgumentException("UTR ID cannot be null or empty");
+        }
+
+        CompletableFuture<UTRPlayerResultDTO> fetch = new CompletableFuture<>();
+        CompletableFuture<UTRPlayerResultDTO> existing = inFlight.putIfAbsent(utrId, fetch);
+        if (existing != null) {
+            logger.debug("Joining in-flight UTR request for player ID {}", utrId);
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    UTRPlayerResultDTO result = fetchPlayerResults(utrId);
+                    // Later requests start a new fetch rather than reusing this result
+                    inFlight.remove(utrId, fetch);
+                    fetch.complete(result);
+                } catch (Throwable e) {
+                    inFlight.remove(utrId, fetch);
+                    fetch.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(utrId, fetch);
+            fetch.completeExceptionally(e);
+        }
+        return fetch;
+    }
+
+    /**
+     * Extract UTR ID from UTR URL
+     * Supports formats:
+     * - https://app.utrsports.net/profiles/123456
+     * - app.utrsports.net/profiles/123456
+     * - 123456 (just the ID)
+     *
+     * @param utrUrl The UTR URL or ID
+     * @return The extracted UTR ID
+     * @throws IllegalArgumentException if no ID can be found
+     */
+    public static String extractUtrId(String utrUrl) {
+        if (utrUrl == null || utrUrl.trim().isEmpty()) {
+            throw new IllegalArgumentException("UTR URL cannot be null or empty");
+        }
+
+        String trimmedUrl = utrUrl.trim();
+
+        // If it's just a number, return it
+        if (trimmedUrl.matches("\\d+")) {
+            return trimmedUrl;
+        }
+
+        // Extract from URL patterns
+        // Pattern: https://app.utrsports.net/profiles/123456
+        if (trimmedUrl.contains("profiles/")) {
+            String[] parts = trimmedUrl.split("profiles/");
+            if (parts.length > 1) {
+                // Get the ID part and remove any trailing slashes or query parameters
+                String idPart = parts[1].split("[/?#]")[0];
+                if (idPart.matches("\\d+")) {
+                    return idPart;
+                }
+            }
+        }
+
+        // If we couldn't extract a valid ID, throw an exception
+        throw new IllegalArgumentException("Invalid UTR URL format: " + utrUrl);
+    }
+
     /**
      * Get win rate for a player
      * @param utrId The UTR player ID
@@ -86,4 +316,13 @@ public class UTRService {
         UTRPlayerResultDTO result = getPlayerResults(utrId);
         return result != null ? result.getTotalMatches() : null;
     }
+
+    /**
+     * UTR could not be reached, timed out, or answered with a server error
+     */
+    public static class UTRUnavailableException extends RuntimeException {
+        public UTRUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
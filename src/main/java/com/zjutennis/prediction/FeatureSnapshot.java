@@ -0,0 +1,117 @@
+package com.zjutennis.prediction;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Immutable per-player prediction features in primitive arrays.
+ *
+ * Players occupy slots in ascending id order, so a player's slot is a binary search of the id
+ * column. Surface edges are laid out SURFACES to a slot. Head-to-head records between
+ * registered players are keyed by (slot, opponent slot) packed into one long and kept sorted,
+ * so a pair is a binary search as well. Players the snapshot does not know have no slot and
+ * predict with neutral features.
+ */
+public final class FeatureSnapshot {
+
+    public static final String[] SURFACE_NAMES = {"hard", "clay", "grass", "carpet"};
+    public static final int SURFACES = SURFACE_NAMES.length;
+
+    final long[] ids;
+    final double[] rating;
+    final int[] ratedMatches;
+    final double[] form;
+    final double[] surfaceEdge;
+    final long[] pairKeys;
+    final int[] pairWins;
+    final int[] pairLosses;
+    private final double initialRating;
+
+    FeatureSnapshot(long[] ids, double[] rating, int[] ratedMatches, double[] form, double[] surfaceEdge,
+                    long[] pairKeys, int[] pairWins, int[] pairLosses, double initialRating) {
+        this.ids = ids;
+        this.rating = rating;
+        this.ratedMatches = ratedMatches;
+        this.form = form;
+        this.surfaceEdge = surfaceEdge;
+        this.pairKeys = pairKeys;
+        this.pairWins = pairWins;
+        this.pairLosses = pairLosses;
+        this.initialRating = initialRating;
+    }
+
+    /**
+     * Index of a surface name in the surface columns, -1 for none or an unknown surface
+     */
+    public static int surfaceCode(String surface) {
+        if (surface == null) {
+            return -1;
+        }
+        String normalized = surface.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < SURFACES; i++) {
+            if (SURFACE_NAMES[i].equals(normalized)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Slot of a player, -1 if the snapshot has no features for them
+     */
+    public int slot(long playerId) {
+        int slot = Arrays.binarySearch(ids, playerId);
+        return slot >= 0 ? slot : -1;
+    }
+
+    /**
+     * Match rating; the initial rating for players never rated
+     */
+    public double rating(int slot) {
+        return slot >= 0 && !Double.isNaN(rating[slot]) ? rating[slot] : initialRating;
+    }
+
+    public int ratedMatches(int slot) {
+        return slot >= 0 ? ratedMatches[slot] : 0;
+    }
+
+    /**
+     * Recent form: (wins - losses) / played over the last few rated matches, 0 with none
+     */
+    public double form(int slot) {
+        return slot >= 0 ? form[slot] : 0.0;
+    }
+
+    /**
+     * How much better a player does on a surface than overall, as a difference of win rates
+     */
+    public double surfaceEdge(int slot, int surface) {
+        return slot >= 0 && surface >= 0 ? surfaceEdge[slot * SURFACES + surface] : 0.0;
+    }
+
+    public int headToHeadWins(int slot, int opponentSlot) {
+        int pair = pair(slot, opponentSlot);
+        return pair >= 0 ? pairWins[pair] : 0;
+    }
+
+    public int headToHeadLosses(int slot, int opponentSlot) {
+        int pair = pair(slot, opponentSlot);
+        return pair >= 0 ? pairLosses[pair] : 0;
+    }
+
+    static long pairKey(int slot, int opponentSlot) {
+        return ((long) slot << 32) | (opponentSlot & 0xFFFFFFFFL);
+    }
+
+    private int pair(int slot, int opponentSlot) {
+        if (slot < 0 || opponentSlot < 0) {
+            return -1;
+        }
+        int pair = Arrays.binarySearch(pairKeys, pairKey(slot, opponentSlot));
+        return pair >= 0 ? pair : -1;
+    }
+}
@@ -0,0 +1,220 @@
+package com.zjutennis.prediction;
+
+import com.zjutennis.service.MatchAggregator;
+import com.zjutennis.service.MatchOutcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store of the features win predictions are scored from.
+ *
+ * A snapshot is read from the precomputed match tables in four queries: ratings from
+ * player_ratings, recent form from the latest rating_changes, per-surface records from
+ * match_players and head-to-head records between registered players from head_to_head. It is
+ * loaded lazily on first use and dropped once a match write or a rebuild of those tables
+ * commits, so a batch of predictions never touches the database. The store follows match writes
+ * as a MatchAggregator whose rebuild() reloads the snapshot.
+ */
+@Component
+@Slf4j
+public class PlayerFeatureStore implements MatchAggregator {
+
+    static final int FORM_MATCHES = 5;
+
+    private static final String RATINGS = "SELECT player_id, rating, matches_rated FROM player_ratings";
+
+    private static final String RECENT_RESULTS =
+            "SELECT player_id, delta FROM rating_changes ORDER BY player_id, match_time DESC, match_id DESC";
+
+    private static final String SURFACE_RECORDS =
+            "SELECT mp.player_id, LOWER(m.surface), "
+            + "SUM(CASE WHEN mp.team = m.winner_side THEN 1 ELSE 0 END), COUNT(*) "
+            + "FROM match_players mp JOIN matches m ON m.id = mp.match_id "
+            + "WHERE mp.player_id IS NOT NULL AND m.winner_side IN ('team1', 'team2') "
+            + "GROUP BY mp.player_id, LOWER(m.surface)";
+
+    private static final String HEAD_TO_HEAD =
+            "SELECT player_id, opponent_player_id, wins, losses FROM head_to_head "
+            + "WHERE opponent_player_id IS NOT NULL AND wins + losses > 0 "
+            + "ORDER BY player_id, opponent_player_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${zjutennis.rating.initial:1500}")
+    private double initialRating = 1500;
+
+    private volatile FeatureSnapshot snapshot;
+
+    // Bumped on every invalidation so a load that raced with a write is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The current snapshot, loading it first if a write dropped it
+     */
+    public FeatureSnapshot snapshot() {
+        FeatureSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                long loadedGeneration = generation.get();
+                FeatureSnapshot loaded = load();
+                if (generation.get() == loadedGeneration) {
+                    snapshot = loaded;
+                }
+                return loaded;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Drop the snapshot once the current transaction commits; the next prediction reloads it
+     */
+    public void invalidate() {
+        Runnable drop = () -> {
+            generation.incrementAndGet();
+            snapshot = null;
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+
+    @Override
+    public void apply(MatchOutcome before, MatchOutcome after) {
+        invalidate();
+    }
+
+    /**
+     * Reload the snapshot from the match tables
+     *
+     * @return the number of players with features
+     */
+    @Override
+    public synchronized int rebuild() {
+        generation.incrementAndGet();
+        snapshot = load();
+        return snapshot.size();
+    }
+
+    private FeatureSnapshot load() {
+        long startNanos = System.nanoTime();
+        TreeSet<Long> playerIds = new TreeSet<>();
+
+        Map<Long, double[]> ratings = new HashMap<>();
+        jdbcTemplate.query(RATINGS, rs -> {
+            long playerId = rs.getLong(1);
+            ratings.put(playerId, new double[]{rs.getDouble(2), rs.getInt(3)});
+            playerIds.add(playerId);
+        });
+
+        // Rows come newest first per player: the first FORM_MATCHES are their recent form
+        Map<Long, int[]> recent = new HashMap<>();
+        jdbcTemplate.query(RECENT_RESULTS, rs -> {
+            int[] counts = recent.computeIfAbsent(rs.getLong(1), id -> new int[2]);
+            if (counts[0] < FORM_MATCHES) {
+                counts[0]++;
+                counts[1] += rs.getDouble(2) > 0 ? 1 : -1;
+            }
+        });
+        playerIds.addAll(recent.keySet());
+
+        // Wins and decided matches per surface, then over all surfaces
+        Map<Long, int[]> surfaces = new HashMap<>();
+        jdbcTemplate.query(SURFACE_RECORDS, rs -> {
+            int[] records = surfaces.computeIfAbsent(rs.getLong(1), id -> new int[2 * (FeatureSnapshot.SURFACES + 1)]);
+            int surface = FeatureSnapshot.surfaceCode(rs.getString(2));
+            int wins = rs.getInt(3);
+            int played = rs.getInt(4);
+            if (surface >= 0) {
+                records[2 * surface] += wins;
+                records[2 * surface + 1] += played;
+            }
+            records[2 * FeatureSnapshot.SURFACES] += wins;
+            records[2 * FeatureSnapshot.SURFACES + 1] += played;
+        });
+        playerIds.addAll(surfaces.keySet());
+
+        List<long[]> pairs = new ArrayList<>();
+        jdbcTemplate.query(HEAD_TO_HEAD, rs -> {
+            pairs.add(new long[]{rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4)});
+        });
+        for (long[] pair : pairs) {
+            playerIds.add(pair[0]);
+            playerIds.add(pair[1]);
+        }
+
+        int size = playerIds.size();
+        long[] ids = new long[size];
+        double[] rating = new double[size];
+        int[] ratedMatches = new int[size];
+        double[] form = new double[size];
+        double[] surfaceEdge = new double[size * FeatureSnapshot.SURFACES];
+        int slot = 0;
+        for (Long playerId : playerIds) {
+            ids[slot] = playerId;
+            double[] playerRating = ratings.get(playerId);
+            rating[slot] = playerRating != null ? playerRating[0] : Double.NaN;
+            ratedMatches[slot] = playerRating != null ? (int) playerRating[1] : 0;
+            int[] counts = recent.get(playerId);
+            form[slot] = counts != null ? (double) counts[1] / counts[0] : 0.0;
+            int[] records = surfaces.get(playerId);
+            if (records != null) {
+                double overall = smoothedWinRate(records[2 * FeatureSnapshot.SURFACES], records[2 * FeatureSnapshot.SURFACES + 1]);
+                for (int surface = 0; surface < FeatureSnapshot.SURFACES; surface++) {
+                    if (records[2 * surface + 1] > 0) {
+                        surfaceEdge[slot * FeatureSnapshot.SURFACES + surface] =
+                                smoothedWinRate(records[2 * surface], records[2 * surface + 1]) - overall;
+                    }
+                }
+            }
+            slot++;
+        }
+
+        // Ids are ordered like slots, so pairs in (player id, opponent id) order have ascending keys
+        long[] pairKeys = new long[pairs.size()];
+        int[] pairWins = new int[pairs.size()];
+        int[] pairLosses = new int[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            long[] pair = pairs.get(i);
+            pairKeys[i] = FeatureSnapshot.pairKey(Arrays.binarySearch(ids, pair[0]), Arrays.binarySearch(ids, pair[1]));
+            pairWins[i] = (int) pair[2];
+            pairLosses[i] = (int) pair[3];
+        }
+
+        log.info("Loaded prediction features for {} players and {} head-to-head pairs in {} ms",
+                size, pairs.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return new FeatureSnapshot(ids, rating, ratedMatches, form, surfaceEdge, pairKeys, pairWins, pairLosses,
+                initialRating);
+    }
+
+    /**
+     * Win rate with one win and one loss added, so a handful of matches does not read as 0% or 100%
+     */
+    private static double smoothedWinRate(int wins, int played) {
+        return (wins + 1.0) / (played + 2.0);
+    }
+}
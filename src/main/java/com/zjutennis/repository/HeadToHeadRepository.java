@@ -0,0 +1,27 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.HeadToHead;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HeadToHeadRepository extends JpaRepository<HeadToHead, Long> {
+
+    // One pair, by the unique key
+    Optional<HeadToHead> findByPlayerIdAndOpponentKey(Long playerId, String opponentKey);
+
+    // A player's opponents, most played first; records emptied by deleted matches are left out
+    @Query("SELECT h FROM HeadToHead h WHERE h.playerId = :playerId AND h.matchesPlayed > 0 ORDER BY h.matchesPlayed DESC, h.lastPlayedAt DESC")
+    List<HeadToHead> findOpponents(@Param("playerId") Long playerId);
+
+    // Opponents a player loses to most often, over at least minMatches decided matches
+    @Query("SELECT h FROM HeadToHead h WHERE h.playerId = :playerId AND h.wins + h.losses >= :minMatches AND h.wins + h.losses > 0 "
+           + "ORDER BY (h.losses * 1.0) / (h.wins + h.losses) DESC, h.losses DESC, h.lastPlayedAt DESC")
+    List<HeadToHead> findToughestOpponents(@Param("playerId") Long playerId, @Param("minMatches") int minMatches, Pageable pageable);
+}
@@ -1,11 +1,15 @@
 package com.zjutennis.repository;
 
+import com.zjutennis.dto.OpponentMatchRow;
 import com.zjutennis.model.MatchPlayer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -31,4 +35,37 @@ public interface MatchPlayerRepository extends JpaRepository<MatchPlayer, Long>
 
     // Delete all players in a match
     void deleteByMatchId(Long matchId);
+
+    // Delete all players in a match with one statement, without loading them
+    @Modifying
+    @Query("DELETE FROM MatchPlayer mp WHERE mp.match.id = :matchId")
+    int deleteAllByMatchId(@Param("matchId") Long matchId);
+
+    // Ids of a player's matches, newest first; a range of idx_match_players_player_time
+    @Query("SELECT mp.match.id FROM MatchPlayer mp WHERE mp.player.id = :playerId ORDER BY mp.matchTime DESC, mp.match.id DESC")
+    List<Long> findMatchIdsByPlayerId(@Param("playerId") Long playerId);
+
+    @Query("SELECT mp.match.id FROM MatchPlayer mp WHERE mp.player.id = :playerId ORDER BY mp.matchTime DESC, mp.match.id DESC")
+    List<Long> findMatchIdsByPlayerId(@Param("playerId") Long playerId, Pageable pageable);
+
+    @Query("SELECT mp.match.id FROM MatchPlayer mp WHERE mp.player.id = :playerId AND (mp.matchTime < :matchTime OR (mp.matchTime = :matchTime AND mp.match.id < :id)) ORDER BY mp.matchTime DESC, mp.match.id DESC")
+    List<Long> findMatchIdsByPlayerIdBefore(@Param("playerId") Long playerId, @Param("matchTime") LocalDateTime matchTime, @Param("id") Long id, Pageable pageable);
+
+    // Time of a player's latest match
+    @Query("SELECT MAX(mp.matchTime) FROM MatchPlayer mp WHERE mp.player.id = :playerId")
+    LocalDateTime findLatestMatchTimeByPlayerId(@Param("playerId") Long playerId);
+
+    // Time of the latest doubles match two players played on the same team
+    @Query("SELECT MAX(a.matchTime) FROM MatchPlayer a, MatchPlayer b WHERE b.match = a.match AND b.team = a.team "
+           + "AND a.player.id = :playerId AND b.player.id = :partnerId AND a.match.matchType = 'doubles'")
+    LocalDateTime findLatestDoublesMatchTimeTogether(@Param("playerId") Long playerId, @Param("partnerId") Long partnerId);
+
+    // Everyone a player faced, per match, newest first
+    @Query("SELECT new com.zjutennis.dto.OpponentMatchRow(m.id, m.matchTime, a.team, m.winnerSide, b.player.id, b.playerName) "
+           + "FROM MatchPlayer a JOIN a.match m, MatchPlayer b WHERE a.player.id = :playerId AND b.match = a.match AND b.team <> a.team "
+           + "ORDER BY m.matchTime DESC, m.id DESC")
+    List<OpponentMatchRow> findOpponentRows(@Param("playerId") Long playerId);
+
+    // Rows written before match_players carried the match time
+    boolean existsByMatchTimeIsNull();
 }
@@ -1,38 +1,101 @@
 package com.zjutennis.repository;
 
+import com.zjutennis.dto.MatchSummary;
 import com.zjutennis.model.Match;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
+    // Every finder returning matches loads them with Match.WITH_PLAYERS, so N matches take one query
+    @Override
+    @EntityGraph(Match.WITH_PLAYERS)
+    List<Match> findAll();
+
+    // A query rather than EntityManager.find, whose loader stops joining at the maximum fetch depth
+    @Override
+    @EntityGraph(Match.WITH_PLAYERS)
+    @Query("SELECT m FROM Match m WHERE m.id = :id")
+    Optional<Match> findById(@Param("id") Long id);
+
+    // Matches with the given ids, in no particular order
+    @EntityGraph(Match.WITH_PLAYERS)
+    @Query("SELECT m FROM Match m WHERE m.id IN :ids")
+    List<Match> findAllWithPlayersByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find matches by type (singles/doubles)
+    @EntityGraph(Match.WITH_PLAYERS)
     List<Match> findByMatchTypeOrderByMatchTimeDesc(String matchType);
 
+    // Keyset pages of matches by type, newest first; served by idx_matches_type_time_id
+    @EntityGraph(Match.WITH_PLAYERS)
+    List<Match> findByMatchTypeOrderByMatchTimeDescIdDesc(String matchType, Pageable pageable);
+
+    @EntityGraph(Match.WITH_PLAYERS)
+    @Query("SELECT m FROM Match m WHERE m.matchType = :matchType AND (m.matchTime < :matchTime OR (m.matchTime = :matchTime AND m.id < :id)) ORDER BY m.matchTime DESC, m.id DESC")
+    List<Match> findByMatchTypeBefore(@Param("matchType") String matchType, @Param("matchTime") LocalDateTime matchTime, @Param("id") Long id, Pageable pageable);
+
     // Find matches by result
+    @EntityGraph(Match.WITH_PLAYERS)
     List<Match> findByResultOrderByMatchTimeDesc(String result);
 
     // Find matches within a date range
+    @EntityGraph(Match.WITH_PLAYERS)
     List<Match> findByMatchTimeBetweenOrderByMatchTimeDesc(LocalDateTime start, LocalDateTime end);
 
     // Find matches by tournament
+    @EntityGraph(Match.WITH_PLAYERS)
     List<Match> findByTournamentNameContainingIgnoreCaseOrderByMatchTimeDesc(String tournamentName);
 
     // Find matches involving a specific player
+    @EntityGraph(Match.WITH_PLAYERS)
     @Query("SELECT DISTINCT m FROM Match m WHERE m.player1.id = :playerId OR m.player2.id = :playerId OR m.opponentPlayer1.id = :playerId OR m.opponentPlayer2.id = :playerId ORDER BY m.matchTime DESC")
     List<Match> findByPlayerId(@Param("playerId") Long playerId);
 
+    // Ids of matches involving a specific player
+    @Query("SELECT m.id FROM Match m WHERE m.player1.id = :playerId OR m.player2.id = :playerId OR m.opponentPlayer1.id = :playerId OR m.opponentPlayer2.id = :playerId")
+    List<Long> findIdsByPlayerId(@Param("playerId") Long playerId);
+
+    @Query("SELECT m.id FROM Match m WHERE m.player1.id IN :playerIds OR m.player2.id IN :playerIds OR m.opponentPlayer1.id IN :playerIds OR m.opponentPlayer2.id IN :playerIds")
+    List<Long> findIdsByPlayerIdIn(@Param("playerIds") Collection<Long> playerIds);
+
+    // Keyset pages of a player's matches, newest first
+    @EntityGraph(Match.WITH_PLAYERS)
+    @Query("SELECT m FROM Match m WHERE (m.player1.id = :playerId OR m.player2.id = :playerId OR m.opponentPlayer1.id = :playerId OR m.opponentPlayer2.id = :playerId) ORDER BY m.matchTime DESC, m.id DESC")
+    List<Match> findByPlayerId(@Param("playerId") Long playerId, Pageable pageable);
+
+    @EntityGraph(Match.WITH_PLAYERS)
+    @Query("SELECT m FROM Match m WHERE (m.player1.id = :playerId OR m.player2.id = :playerId OR m.opponentPlayer1.id = :playerId OR m.opponentPlayer2.id = :playerId) AND (m.matchTime < :matchTime OR (m.matchTime = :matchTime AND m.id < :id)) ORDER BY m.matchTime DESC, m.id DESC")
+    List<Match> findByPlayerIdBefore(@Param("playerId") Long playerId, @Param("matchTime") LocalDateTime matchTime, @Param("id") Long id, Pageable pageable);
+
+    // Summaries of all matches for list views, newest first; player ids come from the foreign keys without joins
+    @Query("SELECT new com.zjutennis.dto.MatchSummary(m.id, m.matchType, m.matchTime, m.tournamentName, m.location, m.round, m.score, m.result, m.winnerSide, m.player1.id, m.player1Name, m.player2.id, m.player2Name, m.opponentPlayer1.id, m.opponentPlayer1Name, m.opponentPlayer2.id, m.opponentPlayer2Name, v.id, v.videoUrl) FROM Match m LEFT JOIN m.video v ORDER BY m.matchTime DESC, m.id DESC")
+    List<MatchSummary> findAllSummaries();
+
+    // Keyset pages of match summaries, newest first; served by idx_matches_time_id
+    @Query("SELECT new com.zjutennis.dto.MatchSummary(m.id, m.matchType, m.matchTime, m.tournamentName, m.location, m.round, m.score, m.result, m.winnerSide, m.player1.id, m.player1Name, m.player2.id, m.player2Name, m.opponentPlayer1.id, m.opponentPlayer1Name, m.opponentPlayer2.id, m.opponentPlayer2Name, v.id, v.videoUrl) FROM Match m LEFT JOIN m.video v ORDER BY m.matchTime DESC, m.id DESC")
+    List<MatchSummary> findSummaryPage(Pageable pageable);
+
+    @Query("SELECT new com.zjutennis.dto.MatchSummary(m.id, m.matchType, m.matchTime, m.tournamentName, m.location, m.round, m.score, m.result, m.winnerSide, m.player1.id, m.player1Name, m.player2.id, m.player2Name, m.opponentPlayer1.id, m.opponentPlayer1Name, m.opponentPlayer2.id, m.opponentPlayer2Name, v.id, v.videoUrl) FROM Match m LEFT JOIN m.video v WHERE m.matchTime < :matchTime OR (m.matchTime = :matchTime AND m.id < :id) ORDER BY m.matchTime DESC, m.id DESC")
+    List<MatchSummary> findSummaryPageBefore(@Param("matchTime") LocalDateTime matchTime, @Param("id") Long id, Pageable pageable);
+
     // Find matches where our team won
+    @EntityGraph(Match.WITH_PLAYERS)
     @Query("SELECT m FROM Match m WHERE m.winnerSide = 'team1' ORDER BY m.matchTime DESC")
     List<Match> findMatchesWonByOurTeam();
 
     // Get recent matches
+    @EntityGraph(Match.WITH_PLAYERS)
     List<Match> findTop10ByOrderByMatchTimeDesc();
 
     // Count matches by type
@@ -0,0 +1,28 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.dto.PartnershipSummary;
+import com.zjutennis.model.PlayerPartnership;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerPartnershipRepository extends JpaRepository<PlayerPartnership, Long> {
+
+    // A player's partners, most frequent first
+    @Query("SELECT new com.zjutennis.dto.PartnershipSummary(s.playerId, p.name, s.partnerId, q.name, s.matchesPlayed, s.wins, s.losses, s.lastPlayedAt) "
+           + "FROM PlayerPartnership s, Player p, Player q WHERE p.id = s.playerId AND q.id = s.partnerId AND s.playerId = :playerId "
+           + "ORDER BY s.matchesPlayed DESC, s.lastPlayedAt DESC")
+    List<PartnershipSummary> findPartners(@Param("playerId") Long playerId);
+
+    // Pairs with the best win rate over at least minMatches decided matches; each pair once
+    @Query("SELECT new com.zjutennis.dto.PartnershipSummary(s.playerId, p.name, s.partnerId, q.name, s.matchesPlayed, s.wins, s.losses, s.lastPlayedAt) "
+           + "FROM PlayerPartnership s, Player p, Player q WHERE p.id = s.playerId AND q.id = s.partnerId "
+           + "AND s.playerId < s.partnerId AND s.wins + s.losses >= :minMatches AND s.wins + s.losses > 0 "
+           + "ORDER BY (s.wins * 1.0) / (s.wins + s.losses) DESC, s.matchesPlayed DESC, s.lastPlayedAt DESC")
+    List<PartnershipSummary> findTopPairs(@Param("minMatches") int minMatches, Pageable pageable);
+}
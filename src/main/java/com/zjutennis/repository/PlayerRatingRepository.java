@@ -0,0 +1,21 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.PlayerRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlayerRatingRepository extends JpaRepository<PlayerRating, Long> {
+
+    // Locked in id order so concurrent matches sharing players cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PlayerRating r WHERE r.playerId IN :playerIds ORDER BY r.playerId")
+    List<PlayerRating> findAllForUpdate(@Param("playerIds") Collection<Long> playerIds);
+}
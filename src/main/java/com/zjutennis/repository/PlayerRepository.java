@@ -1,10 +1,14 @@
 package com.zjutennis.repository;
 
+import com.zjutennis.dto.PlayerSummary;
 import com.zjutennis.model.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,18 @@ public interface PlayerRepository extends JpaRepository<Player, Long>, JpaSpecif
     Optional<Player> findByEmail(String email);
 
     List<Player> findByCity(String city);
+
+    // Whether any player exists: stops at the first row instead of counting the table
+    boolean existsByIdNotNull();
+
+    // List views: selects only the summary columns instead of the full entity graph
+    @Query("SELECT new com.zjutennis.dto.PlayerSummary(p.id, p.name, p.gender, p.city, p.country, s.utrRating, s.ntrpRating, s.winRate) FROM Player p LEFT JOIN p.statistics s ORDER BY p.id")
+    List<PlayerSummary> findAllSummaries();
+
+    @Query("SELECT new com.zjutennis.dto.PlayerSummary(p.id, p.name, p.gender, p.city, p.country, s.utrRating, s.ntrpRating, s.winRate) FROM Player p LEFT JOIN p.statistics s WHERE p.city = :city ORDER BY p.id")
+    List<PlayerSummary> findSummariesByCity(@Param("city") String city);
+
+    // Bulk lookup: the players with their one-to-ones in one query instead of one select per association
+    @Query("SELECT DISTINCT p FROM Player p LEFT JOIN FETCH p.statistics LEFT JOIN FETCH p.skills LEFT JOIN FETCH p.alumni WHERE p.id IN :ids")
+    List<Player> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,201 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.dto.PlayerSearchCursor;
+import com.zjutennis.dto.PlayerSearchRequest;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerAlumni;
+import com.zjutennis.model.PlayerStatistics;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * JPA Specifications for player queries
+ */
+public final class PlayerSpecifications {
+
+    // One millisecond before the epoch, the -1 that missing update times sort as in the search index
+    private static final LocalDateTime MISSING_UTR_UPDATE =
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(-1), ZoneOffset.UTC);
+
+    private PlayerSpecifications() {
+    }
+
+    /**
+     * Build a specification applying every filter of a search request.
+     *
+     * The select query fetch-joins skills, statistics and alumni so a page of players
+     * loads in one statement, and orders by the requested sort key with missing ratings
+     * as -1 and missing gender as "zzz", ties broken by id. The count query only joins
+     * what the filters need and carries no ordering.
+     */
+    public static Specification<Player> fromSearchRequest(PlayerSearchRequest request) {
+        return fromSearchRequest(request, null);
+    }
+
+    /**
+     * Same as {@link #fromSearchRequest(PlayerSearchRequest)}, restricted to the players
+     * that sort after the cursor, so the first page of the result is the next keyset page
+     */
+    public static Specification<Player> fromSearchRequest(PlayerSearchRequest request, PlayerSearchCursor after) {
+        return (root, query, cb) -> {
+            boolean countQuery = Long.class == query.getResultType() || long.class == query.getResultType();
+
+            From<Player, PlayerStatistics> statistics = null;
+            From<Player, PlayerAlumni> alumni = null;
+            if (countQuery) {
+                if (needsStatistics(request) || after != null) {
+                    statistics = root.join("statistics", JoinType.LEFT);
+                }
+                if (hasText(request.getUniversity())) {
+                    alumni = root.join("alumni", JoinType.LEFT);
+                }
+            } else {
+                root.fetch("skills", JoinType.LEFT);
+                statistics = fetchJoin(root, "statistics");
+                alumni = fetchJoin(root, "alumni");
+                query.orderBy(ordering(request, root, statistics, cb));
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasText(request.getName())) {
+                predicates.add(containsIgnoreCase(cb, root.get("name"), request.getName()));
+            }
+            if (hasText(request.getGender())) {
+                predicates.add(cb.equal(root.get("gender"), request.getGender()));
+            }
+            if (request.getUtrMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(statistics.get("utrRating"), request.getUtrMin()));
+            }
+            if (request.getUtrMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(statistics.get("utrRating"), request.getUtrMax()));
+            }
+            if (request.getNtrp() != null) {
+                predicates.add(cb.equal(statistics.get("ntrpRating"), request.getNtrp()));
+            }
+            if (request.getWinRateMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(statistics.get("winRate"), request.getWinRateMin()));
+            }
+            if (request.getWinRateMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(statistics.get("winRate"), request.getWinRateMax()));
+            }
+            if (hasText(request.getUniversity())) {
+                predicates.add(cb.or(
+                        containsIgnoreCase(cb, alumni.get("graduationUniversity1"), request.getUniversity()),
+                        containsIgnoreCase(cb, alumni.get("graduationUniversity2"), request.getUniversity()),
+                        containsIgnoreCase(cb, alumni.get("graduationUniversity3"), request.getUniversity())));
+            }
+            if (hasText(request.getCity())) {
+                predicates.add(containsIgnoreCase(cb, root.get("city"), request.getCity()));
+            }
+            if (hasText(request.getCountry())) {
+                predicates.add(containsIgnoreCase(cb, root.get("country"), request.getCountry()));
+            }
+            if (after != null) {
+                predicates.add(seek(after, root, statistics, cb));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static List<Order> ordering(PlayerSearchRequest request, Root<Player> root,
+                                        From<Player, PlayerStatistics> statistics, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        Expression<?> key = sortKey(request.getSortBy(), root, statistics, cb);
+        if (key != null) {
+            boolean ascending = "asc".equalsIgnoreCase(request.getSortOrder());
+            orders.add(ascending ? cb.asc(key) : cb.desc(key));
+        }
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+
+    /**
+     * Rows strictly after the cursor in (sort key, id ascending) order
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(PlayerSearchCursor after, Root<Player> root,
+                                  From<Player, PlayerStatistics> statistics, CriteriaBuilder cb) {
+        Expression<Long> id = root.get("id");
+        Expression key = sortKey(after.getSortBy(), root, statistics, cb);
+        if (key == null) {
+            return cb.greaterThan(id, after.getId());
+        }
+
+        Comparable value;
+        switch (after.getSortBy()) {
+            case "gender":
+                value = after.getValue();
+                break;
+            case "utrupdateddate":
+                value = LocalDateTime.ofInstant(Instant.ofEpochMilli((long) after.numericValue()), ZoneOffset.UTC);
+                break;
+            default:
+                value = after.numericValue();
+        }
+        Predicate beyond = after.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        return cb.or(beyond, cb.and(cb.equal(key, value), cb.greaterThan(id, after.getId())));
+    }
+
+    private static Expression<?> sortKey(String sortBy, Root<Player> root,
+                                         From<Player, PlayerStatistics> statistics, CriteriaBuilder cb) {
+        if (sortBy == null || sortBy.isEmpty()) {
+            return null;
+        }
+        switch (sortBy.toLowerCase()) {
+            case "utr":
+                return cb.coalesce(statistics.<Double>get("utrRating"), -1.0);
+            case "ntrp":
+                return cb.coalesce(statistics.<Double>get("ntrpRating"), -1.0);
+            case "winrate":
+                return cb.coalesce(statistics.<Double>get("winRate"), -1.0);
+            case "dynamicrating":
+                return cb.coalesce(statistics.<Double>get("dynamicRating"), -1.0);
+            case "utrupdateddate":
+                // Players never synced from UTR sort as the oldest
+                return cb.coalesce(statistics.<LocalDateTime>get("utrUpdatedDate"), MISSING_UTR_UPDATE);
+            case "gender":
+                return cb.coalesce(root.<String>get("gender"), "zzz");
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Join<Player, T> fetchJoin(Root<Player> root, String attribute) {
+        // Hibernate's fetches are also joins, which lets filters and ordering reuse them
+        return (Join<Player, T>) (Object) root.<Player, T>fetch(attribute, JoinType.LEFT);
+    }
+
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> field, String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return cb.like(cb.lower(field), "%" + escaped + "%", '\\');
+    }
+
+    private static boolean needsStatistics(PlayerSearchRequest request) {
+        return request.getUtrMin() != null || request.getUtrMax() != null || request.getNtrp() != null
+                || request.getWinRateMin() != null || request.getWinRateMax() != null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -1,8 +1,11 @@
 package com.zjutennis.repository;
 
+import com.zjutennis.dto.UTRRefreshTarget;
+import com.zjutennis.dto.UTRSyncCandidate;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerStatistics;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +18,8 @@ public interface PlayerStatisticsRepository extends JpaRepository<PlayerStatisti
 
     Optional<PlayerStatistics> findByPlayerId(Long playerId);
 
+    boolean existsByPlayerId(Long playerId);
+
     List<PlayerStatistics> findByCompetitiveLevel(String competitiveLevel);
 
     List<PlayerStatistics> findByPlayFrequency(String playFrequency);
@@ -23,5 +28,13 @@ public interface PlayerStatisticsRepository extends JpaRepository<PlayerStatisti
 
     List<PlayerStatistics> findByUtrRatingBetween(Double minUtr, Double maxUtr);
 
+    // Players to refresh from UTR: only the ids and profile links, not the statistics rows
+    @Query("SELECT new com.zjutennis.dto.UTRRefreshTarget(s.player.id, s.utrUrl) FROM PlayerStatistics s WHERE s.utrUrl IS NOT NULL AND s.utrUrl <> '' ORDER BY s.player.id")
+    List<UTRRefreshTarget> findUtrRefreshTargets();
+
+    // The last match comes from the aggregates kept current on every match write
+    @Query("SELECT new com.zjutennis.dto.UTRSyncCandidate(s.player.id, s.utrUrl, s.utrUpdatedDate, s.singlesUtrUpdatedDate, a.lastMatchDate) FROM PlayerStatistics s LEFT JOIN PlayerMatchAggregate a ON a.playerId = s.player.id WHERE s.utrUrl IS NOT NULL AND s.utrUrl <> ''")
+    List<UTRSyncCandidate> findUtrSyncCandidates();
+
     void deleteByPlayerId(Long playerId);
 }
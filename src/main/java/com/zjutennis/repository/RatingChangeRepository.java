@@ -0,0 +1,15 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.RatingChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RatingChangeRepository extends JpaRepository<RatingChange, Long> {
+
+    List<RatingChange> findByPlayerIdOrderByMatchTimeAscMatchIdAsc(Long playerId);
+
+    List<RatingChange> findByMatchId(Long matchId);
+}
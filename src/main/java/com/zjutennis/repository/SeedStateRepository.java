@@ -0,0 +1,9 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.SeedState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeedStateRepository extends JpaRepository<SeedState, String> {
+}
@@ -0,0 +1,9 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.UTRCachedResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UTRCachedResultRepository extends JpaRepository<UTRCachedResult, String> {
+}
@@ -0,0 +1,181 @@
+package com.zjutennis.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * One compressed bitmap of slots per value of a facet dimension.
+ * Counts for a result set are bitmap intersections, independent of the number of players.
+ * A slot holds at most one value, so counting stops once every slot of the result set is
+ * counted. A facet with a limit only returns its most frequent values, and stops at the first
+ * value whose bitmap is too small to displace any of them.
+ */
+final class FacetIndex {
+
+    static final Comparator<String> NUMERIC_ORDER = Comparator.comparingDouble(Double::parseDouble);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+    private final Comparator<String> order;
+    private final int limit;
+
+    // Values in facet order, reset when a value appears or disappears
+    private volatile String[] sorted;
+
+    // Values by descending bitmap cardinality, reset on every change
+    private volatile String[] ranked;
+
+    FacetIndex(Comparator<String> order) {
+        this(order, Integer.MAX_VALUE);
+    }
+
+    FacetIndex(Comparator<String> order, int limit) {
+        this.order = order;
+        this.limit = limit;
+    }
+
+    void add(int slot, String value) {
+        if (value != null) {
+            RoaringBitmap bitmap = bitmaps.get(value);
+            if (bitmap == null) {
+                bitmap = new RoaringBitmap();
+                bitmaps.put(value, bitmap);
+                sorted = null;
+            }
+            bitmap.add(slot);
+            ranked = null;
+        }
+    }
+
+    void remove(int slot, String value) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+                sorted = null;
+            }
+            ranked = null;
+        }
+    }
+
+    void clear() {
+        bitmaps.clear();
+        sorted = null;
+        ranked = null;
+    }
+
+    /**
+     * Slots having the value. The result must not be modified.
+     */
+    RoaringBitmap get(String value) {
+        return bitmaps.getOrDefault(value, EMPTY);
+    }
+
+    /**
+     * Every value currently indexed, in no particular order
+     */
+    List<String> values() {
+        return new ArrayList<>(bitmaps.keySet());
+    }
+
+    /**
+     * Non-zero counts of the values within the given slots, in facet order; with a limit, only
+     * the most frequent values, ties going to the first in facet order
+     */
+    Map<String, Integer> counts(RoaringBitmap within) {
+        int remaining = within.getCardinality();
+        if (remaining == 0) {
+            return new LinkedHashMap<>();
+        }
+        if (bitmaps.size() <= limit) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String value : sorted()) {
+                int count = RoaringBitmap.andCardinality(bitmaps.get(value), within);
+                if (count > 0) {
+                    counts.put(value, count);
+                    remaining -= count;
+                    if (remaining == 0) {
+                        break;
+                    }
+                }
+            }
+            return counts;
+        }
+
+        // Least frequent kept value on top, so it is the one a better value replaces
+        Map<String, Integer> top = new HashMap<>();
+        PriorityQueue<String> kept = new PriorityQueue<>(
+                Comparator.comparingInt((String value) -> top.get(value)).thenComparing(order.reversed()));
+        for (String value : ranked()) {
+            RoaringBitmap bitmap = bitmaps.get(value);
+            // No value from here on can be counted more often than its whole bitmap
+            if (kept.size() == limit && bitmap.getCardinality() < top.get(kept.peek())) {
+                break;
+            }
+            int count = RoaringBitmap.andCardinality(bitmap, within);
+            if (count == 0) {
+                continue;
+            }
+            remaining -= count;
+            if (kept.size() < limit) {
+                top.put(value, count);
+                kept.add(value);
+            } else {
+                String weakest = kept.peek();
+                int weakestCount = top.get(weakest);
+                if (count > weakestCount || (count == weakestCount && order.compare(value, weakest) < 0)) {
+                    kept.poll();
+                    top.remove(weakest);
+                    top.put(value, count);
+                    kept.add(value);
+                }
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+
+        List<String> values = new ArrayList<>(top.keySet());
+        values.sort(order);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String value : values) {
+            counts.put(value, top.get(value));
+        }
+        return counts;
+    }
+
+    private String[] sorted() {
+        String[] current = sorted;
+        if (current == null) {
+            // Searches share the read lock, so several may build this; they build the same array
+            current = bitmaps.keySet().toArray(new String[0]);
+            Arrays.sort(current, order);
+            sorted = current;
+        }
+        return current;
+    }
+
+    private String[] ranked() {
+        String[] current = ranked;
+        if (current == null) {
+            current = bitmaps.keySet().toArray(new String[0]);
+            Arrays.sort(current, Comparator.comparingInt((String value) -> bitmaps.get(value).getCardinality())
+                    .reversed());
+            ranked = current;
+        }
+        return current;
+    }
+}
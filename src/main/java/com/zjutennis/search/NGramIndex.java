@@ -0,0 +1,97 @@
+package com.zjutennis.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from character n-grams to the slots whose text contains them.
+ *
+ * Grams of length 1 to {@link #MAX_GRAM} are indexed, so any query up to that length
+ * (which covers most Chinese names) is answered exactly by a single posting. Longer
+ * queries intersect the postings of their trigrams and yield candidates that the caller
+ * still has to verify. Text is expected to be lowercased already.
+ */
+final class NGramIndex {
+
+    static final int MAX_GRAM = 3;
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+    /**
+     * Index every text of a slot
+     */
+    void add(int slot, String... texts) {
+        for (String gram : grams(texts)) {
+            postings.computeIfAbsent(gram, key -> new RoaringBitmap()).add(slot);
+        }
+    }
+
+    /**
+     * Remove a slot; texts must be the ones it was added with
+     */
+    void remove(int slot, String... texts) {
+        for (String gram : grams(texts)) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(slot);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Slots that may contain the query. The result must not be modified.
+     */
+    RoaringBitmap candidates(String query) {
+        if (query.length() <= MAX_GRAM) {
+            return postings.getOrDefault(query, EMPTY);
+        }
+
+        RoaringBitmap result = null;
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            RoaringBitmap posting = postings.get(query.substring(i, i + MAX_GRAM));
+            if (posting == null) {
+                return EMPTY;
+            }
+            result = result == null ? posting.clone() : RoaringBitmap.and(result, posting);
+            if (result.isEmpty()) {
+                return EMPTY;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether {@link #candidates} is an exact answer for the query
+     */
+    static boolean isExact(String query) {
+        return query.length() <= MAX_GRAM;
+    }
+
+    private static Set<String> grams(String... texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int i = 0; i + length <= text.length(); i++) {
+                    grams.add(text.substring(i, i + length));
+                }
+            }
+        }
+        return grams;
+    }
+}
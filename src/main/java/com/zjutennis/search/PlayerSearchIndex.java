@@ -0,0 +1,655 @@
+package com.zjutennis.search;
+
+import com.zjutennis.dto.PlayerSearchCursor;
+import com.zjutennis.dto.PlayerSearchRequest;
+import com.zjutennis.dto.PlayerSearchResponse;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerAlumni;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.repository.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar index backing player search.
+ *
+ * Every player occupies one slot. Ratings, win rate and the UTR update time are kept in
+ * primitive arrays (NaN marks a missing value) and text columns are stored lowercased
+ * and interned, so a search is a tight scan over arrays and never touches the database.
+ * Substring filters on name, city, country and university are first resolved through
+ * n-gram postings to a candidate bitmap, so only those slots are scanned. Gender, NTRP
+ * level, UTR bucket, win-rate decile, city and country each keep one bitmap per value;
+ * they answer the equality filters and produce facet counts for a result set by
+ * intersection. Results are ordered by the sort key and then id; pages are cut from a
+ * bounded heap over primitive keys instead of sorting every hit, and a cursor from a
+ * previous page replaces the offset by filtering on (key, id). The index is loaded lazily
+ * on first use and kept in sync by the services that write players.
+ */
+@Component
+@Slf4j
+public class PlayerSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final int FACET_VALUE_LIMIT = 20;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private volatile boolean loaded = false;
+
+    // Bumped by every committed write, so a rebuild can tell that its read missed one
+    private final AtomicLong generation = new AtomicLong();
+
+    // Slot columns
+    private int size;
+    private Player[] players;
+    private long[] ids;
+    private double[] utr;
+    private double[] ntrp;
+    private double[] winRate;
+    private double[] dynamicRating;
+    private double[] utrUpdated;
+    private String[] gender;
+    private String[] name;
+    private String[] city;
+    private String[] country;
+    private String[] cityLabel;
+    private String[] countryLabel;
+    private String[] university1;
+    private String[] university2;
+    private String[] university3;
+
+    // Substring postings per text column
+    private final NGramIndex nameGrams = new NGramIndex();
+    private final NGramIndex cityGrams = new NGramIndex();
+    private final NGramIndex countryGrams = new NGramIndex();
+    private final NGramIndex universityGrams = new NGramIndex();
+
+    // Facet bitmaps; numeric buckets are keyed by their lower bound. Places are open-ended, so
+    // only their most frequent values are counted
+    private final FacetIndex genderFacet = new FacetIndex(Comparator.naturalOrder());
+    private final FacetIndex ntrpFacet = new FacetIndex(FacetIndex.NUMERIC_ORDER);
+    private final FacetIndex utrFacet = new FacetIndex(FacetIndex.NUMERIC_ORDER);
+    private final FacetIndex winRateFacet = new FacetIndex(FacetIndex.NUMERIC_ORDER);
+    private final FacetIndex cityFacet = new FacetIndex(Comparator.naturalOrder(), FACET_VALUE_LIMIT);
+    private final FacetIndex countryFacet = new FacetIndex(Comparator.naturalOrder(), FACET_VALUE_LIMIT);
+
+    public PlayerSearchIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Run a search against the index
+     */
+    public PlayerSearchResponse search(PlayerSearchRequest request) {
+        ensureLoaded();
+        SearchCriteria criteria = new SearchCriteria(request);
+        PlayerSearchCursor after = request.getCursor() != null
+                ? PlayerSearchCursor.decode(request.getCursor(), request) : null;
+        String sortBy = PlayerSearchCursor.sortKey(request);
+        boolean ascending = PlayerSearchCursor.isAscending(request);
+
+        int page = request.getPage() != null ? request.getPage() : 1;
+        int pageSize = request.getPageSize() != null ? request.getPageSize() : 25;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(criteria);
+            int[] hits = new int[candidates != null ? candidates.getCardinality() : size];
+            int hitCount = 0;
+            if (candidates != null) {
+                PeekableIntIterator iterator = candidates.getIntIterator();
+                while (iterator.hasNext()) {
+                    int slot = iterator.next();
+                    if (players[slot] != null && matches(slot, criteria)) {
+                        hits[hitCount++] = slot;
+                    }
+                }
+            } else {
+                for (int slot = 0; slot < size; slot++) {
+                    if (players[slot] != null && matches(slot, criteria)) {
+                        hits[hitCount++] = slot;
+                    }
+                }
+            }
+            Map<String, Map<String, Integer>> facets = facetCounts(RoaringBitmap.bitmapOf(Arrays.copyOf(hits, hitCount)));
+
+            Map<String, Double> genderRanks = "gender".equals(sortBy)
+                    ? genderRanks(after != null ? after.getValue() : null) : null;
+            double[] keys = new double[hitCount];
+            long[] hitIds = new long[hitCount];
+            for (int i = 0; i < hitCount; i++) {
+                keys[i] = sortKey(hits[i], sortBy, genderRanks);
+                hitIds[i] = ids[hits[i]];
+            }
+
+            // A cursor replaces the offset: drop every hit up to and including its row
+            int count = hitCount;
+            if (after != null) {
+                double afterKey = cursorKey(after, genderRanks);
+                count = 0;
+                for (int i = 0; i < hitCount; i++) {
+                    boolean beyond = ascending ? keys[i] > afterKey : keys[i] < afterKey;
+                    if (beyond || (keys[i] == afterKey && hitIds[i] > after.getId())) {
+                        hits[count] = hits[i];
+                        keys[count] = keys[i];
+                        hitIds[count] = hitIds[i];
+                        count++;
+                    }
+                }
+            }
+
+            int startIndex = after != null ? 0 : Math.max((page - 1) * pageSize, 0);
+            int endIndex = Math.min(startIndex + pageSize, count);
+
+            // Only the hits up to the end of the requested page need to be ordered
+            List<Player> pageResults = new ArrayList<>(Math.max(endIndex - startIndex, 0));
+            if (startIndex < endIndex) {
+                int[] ordered = TopK.select(keys, hitIds, count, ascending, endIndex);
+                for (int i = startIndex; i < endIndex; i++) {
+                    pageResults.add(players[hits[ordered[i]]]);
+                }
+            }
+
+            PlayerSearchResponse response = new PlayerSearchResponse(pageResults, hitCount, page, pageSize);
+            response.setFacets(facets);
+            if (!pageResults.isEmpty() && endIndex < count) {
+                response.setNextCursor(PlayerSearchCursor.after(request, pageResults.get(pageResults.size() - 1)).encode());
+            }
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a player once the current transaction commits
+     */
+    public void upsert(Player player) {
+        if (player == null || player.getId() == null) {
+            return;
+        }
+        afterCommit(() -> applyUpsert(player));
+    }
+
+    /**
+     * Re-read a player from the database once the current transaction commits.
+     * Used by writers that only touch a player's child rows.
+     */
+    public void reload(Long playerId) {
+        if (playerId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (!loaded) {
+                generation.incrementAndGet();
+                return;
+            }
+            Player player = playerRepository.findById(playerId).orElse(null);
+            if (player != null) {
+                applyUpsert(player);
+            } else {
+                applyRemove(playerId);
+            }
+        });
+    }
+
+    /**
+     * Drop the index contents; the next search rebuilds it from the database
+     */
+    public void invalidate() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            lock.writeLock().lock();
+            try {
+                loaded = false;
+                clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Rebuild the index from the database
+     *
+     * A write that commits while the players are being read may be missing from them, and is
+     * not applied to an index that is not loaded yet, so the read is repeated. If writes keep
+     * arriving, the last read is installed but left marked unloaded, and the next search
+     * reads again.
+     */
+    public void rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            long readGeneration = generation.get();
+            List<Player> all = playerRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                boolean current = generation.get() == readGeneration;
+                if (!current && attempt < MAX_LOAD_ATTEMPTS) {
+                    continue;
+                }
+                clear();
+                allocate(Math.max(INITIAL_CAPACITY, all.size()));
+                for (Player player : all) {
+                    writeSlot(size++, player);
+                }
+                loaded = current;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Player search index built with {} players", all.size());
+            return;
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void applyUpsert(Player player) {
+        generation.incrementAndGet();
+        // An index that has not been loaded yet will pick the player up on first search
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(player.getId());
+            if (slot == null) {
+                if (size == players.length) {
+                    allocate(players.length * 2);
+                }
+                slot = size++;
+            }
+            writeSlot(slot, player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyRemove(Long playerId) {
+        generation.incrementAndGet();
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(playerId);
+            if (slot != null) {
+                unindex(slot);
+                players[slot] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeSlot(int slot, Player player) {
+        PlayerStatistics stats = player.getStatistics();
+        PlayerAlumni alumni = player.getAlumni();
+
+        if (players[slot] != null) {
+            unindex(slot);
+        }
+
+        players[slot] = player;
+        ids[slot] = player.getId();
+        utr[slot] = stats != null ? toPrimitive(stats.getUtrRating()) : Double.NaN;
+        ntrp[slot] = stats != null ? toPrimitive(stats.getNtrpRating()) : Double.NaN;
+        winRate[slot] = stats != null ? toPrimitive(stats.getWinRate()) : Double.NaN;
+        dynamicRating[slot] = stats != null ? toPrimitive(stats.getDynamicRating()) : Double.NaN;
+        utrUpdated[slot] = stats != null ? toEpochMillis(stats.getUtrUpdatedDate()) : Double.NaN;
+        gender[slot] = player.getGender() != null ? player.getGender().intern() : null;
+        name[slot] = normalize(player.getName());
+        city[slot] = normalize(player.getCity());
+        country[slot] = normalize(player.getCountry());
+        cityLabel[slot] = label(player.getCity());
+        countryLabel[slot] = label(player.getCountry());
+        university1[slot] = alumni != null ? normalize(alumni.getGraduationUniversity1()) : null;
+        university2[slot] = alumni != null ? normalize(alumni.getGraduationUniversity2()) : null;
+        university3[slot] = alumni != null ? normalize(alumni.getGraduationUniversity3()) : null;
+        slotById.put(player.getId(), slot);
+
+        nameGrams.add(slot, name[slot]);
+        cityGrams.add(slot, city[slot]);
+        countryGrams.add(slot, country[slot]);
+        universityGrams.add(slot, university1[slot], university2[slot], university3[slot]);
+
+        genderFacet.add(slot, gender[slot]);
+        ntrpFacet.add(slot, ntrpKey(ntrp[slot]));
+        utrFacet.add(slot, utrBucket(utr[slot]));
+        winRateFacet.add(slot, winRateDecile(winRate[slot]));
+        cityFacet.add(slot, cityLabel[slot]);
+        countryFacet.add(slot, countryLabel[slot]);
+    }
+
+    /**
+     * Remove a slot from all postings and facets, using the values it was indexed with
+     */
+    private void unindex(int slot) {
+        nameGrams.remove(slot, name[slot]);
+        cityGrams.remove(slot, city[slot]);
+        countryGrams.remove(slot, country[slot]);
+        universityGrams.remove(slot, university1[slot], university2[slot], university3[slot]);
+
+        genderFacet.remove(slot, gender[slot]);
+        ntrpFacet.remove(slot, ntrpKey(ntrp[slot]));
+        utrFacet.remove(slot, utrBucket(utr[slot]));
+        winRateFacet.remove(slot, winRateDecile(winRate[slot]));
+        cityFacet.remove(slot, cityLabel[slot]);
+        countryFacet.remove(slot, countryLabel[slot]);
+    }
+
+    /**
+     * Intersect the n-gram candidates of every text filter with the gender and NTRP
+     * bitmaps; null when the request has none of these filters
+     */
+    private RoaringBitmap candidates(SearchCriteria c) {
+        RoaringBitmap candidates = null;
+        candidates = intersect(candidates, c.name != null ? nameGrams.candidates(c.name) : null);
+        candidates = intersect(candidates, c.city != null ? cityGrams.candidates(c.city) : null);
+        candidates = intersect(candidates, c.country != null ? countryGrams.candidates(c.country) : null);
+        candidates = intersect(candidates, c.university != null ? universityGrams.candidates(c.university) : null);
+        candidates = intersect(candidates, c.gender != null ? genderFacet.get(c.gender) : null);
+        candidates = intersect(candidates, c.filterNtrp ? ntrpFacet.get(ntrpKey(c.ntrp)) : null);
+        return candidates;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap candidates, RoaringBitmap bitmap) {
+        if (bitmap == null) {
+            return candidates;
+        }
+        return candidates == null ? bitmap : RoaringBitmap.and(candidates, bitmap);
+    }
+
+    private Map<String, Map<String, Integer>> facetCounts(RoaringBitmap hits) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("gender", genderFacet.counts(hits));
+        facets.put("ntrp", ntrpFacet.counts(hits));
+        facets.put("utr", utrFacet.counts(hits));
+        facets.put("winRate", winRateFacet.counts(hits));
+        facets.put("city", cityFacet.counts(hits));
+        facets.put("country", countryFacet.counts(hits));
+        return facets;
+    }
+
+    /**
+     * Check the remaining filters of a candidate slot. Gender, NTRP and text filters
+     * short enough to be answered exactly by the n-gram postings are not re-checked.
+     */
+    private boolean matches(int slot, SearchCriteria c) {
+        if (c.verifyName && !contains(name[slot], c.name)) {
+            return false;
+        }
+        if (c.filterUtr) {
+            double value = utr[slot];
+            if (Double.isNaN(value) || value < c.utrMin || value > c.utrMax) {
+                return false;
+            }
+        }
+        if (c.filterWinRate) {
+            double value = winRate[slot];
+            if (Double.isNaN(value) || value < c.winRateMin || value > c.winRateMax) {
+                return false;
+            }
+        }
+        if (c.verifyUniversity
+                && !contains(university1[slot], c.university)
+                && !contains(university2[slot], c.university)
+                && !contains(university3[slot], c.university)) {
+            return false;
+        }
+        if (c.verifyCity && !contains(city[slot], c.city)) {
+            return false;
+        }
+        if (c.verifyCountry && !contains(country[slot], c.country)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Primitive sort key of a slot. Missing values sort as -1 and missing gender as "zzz";
+     * without a sort every key is equal, which leaves the results in id order.
+     */
+    private double sortKey(int slot, String sortBy, Map<String, Double> genderRanks) {
+        switch (sortBy) {
+            case "utr":
+                return orMinusOne(utr[slot]);
+            case "ntrp":
+                return orMinusOne(ntrp[slot]);
+            case "winrate":
+                return orMinusOne(winRate[slot]);
+            case "dynamicrating":
+                return orMinusOne(dynamicRating[slot]);
+            case "utrupdateddate":
+                return orMinusOne(utrUpdated[slot]);
+            case "gender":
+                return genderRanks.get(gender[slot] != null ? gender[slot] : "zzz");
+            default:
+                return 0;
+        }
+    }
+
+    private static double cursorKey(PlayerSearchCursor after, Map<String, Double> genderRanks) {
+        switch (after.getSortBy()) {
+            case PlayerSearchCursor.UNSORTED:
+                return 0;
+            case "gender":
+                return genderRanks.get(after.getValue());
+            default:
+                return after.numericValue();
+        }
+    }
+
+    /**
+     * Rank of every indexed gender in string order, so gender sorts on a primitive key.
+     * A cursor's gender is ranked too, even if no player has it any more.
+     */
+    private Map<String, Double> genderRanks(String cursorValue) {
+        List<String> values = genderFacet.values();
+        values.add("zzz");
+        if (cursorValue != null) {
+            values.add(cursorValue);
+        }
+        values.sort(Comparator.naturalOrder());
+
+        Map<String, Double> ranks = new HashMap<>();
+        for (String value : values) {
+            ranks.putIfAbsent(value, (double) ranks.size());
+        }
+        return ranks;
+    }
+
+    private void allocate(int capacity) {
+        players = players == null ? new Player[capacity] : Arrays.copyOf(players, capacity);
+        ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+        utr = utr == null ? new double[capacity] : Arrays.copyOf(utr, capacity);
+        ntrp = ntrp == null ? new double[capacity] : Arrays.copyOf(ntrp, capacity);
+        winRate = winRate == null ? new double[capacity] : Arrays.copyOf(winRate, capacity);
+        dynamicRating = dynamicRating == null ? new double[capacity] : Arrays.copyOf(dynamicRating, capacity);
+        utrUpdated = utrUpdated == null ? new double[capacity] : Arrays.copyOf(utrUpdated, capacity);
+        gender = gender == null ? new String[capacity] : Arrays.copyOf(gender, capacity);
+        name = name == null ? new String[capacity] : Arrays.copyOf(name, capacity);
+        city = city == null ? new String[capacity] : Arrays.copyOf(city, capacity);
+        country = country == null ? new String[capacity] : Arrays.copyOf(country, capacity);
+        cityLabel = cityLabel == null ? new String[capacity] : Arrays.copyOf(cityLabel, capacity);
+        countryLabel = countryLabel == null ? new String[capacity] : Arrays.copyOf(countryLabel, capacity);
+        university1 = university1 == null ? new String[capacity] : Arrays.copyOf(university1, capacity);
+        university2 = university2 == null ? new String[capacity] : Arrays.copyOf(university2, capacity);
+        university3 = university3 == null ? new String[capacity] : Arrays.copyOf(university3, capacity);
+    }
+
+    private void clear() {
+        size = 0;
+        slotById.clear();
+        nameGrams.clear();
+        cityGrams.clear();
+        countryGrams.clear();
+        universityGrams.clear();
+        genderFacet.clear();
+        ntrpFacet.clear();
+        utrFacet.clear();
+        winRateFacet.clear();
+        cityFacet.clear();
+        countryFacet.clear();
+        players = null;
+        ids = null;
+        utr = null;
+        ntrp = null;
+        winRate = null;
+        dynamicRating = null;
+        utrUpdated = null;
+        gender = null;
+        name = null;
+        city = null;
+        country = null;
+        cityLabel = null;
+        countryLabel = null;
+        university1 = null;
+        university2 = null;
+        university3 = null;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private static boolean contains(String value, String query) {
+        return value != null && value.contains(query);
+    }
+
+    private static double toPrimitive(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static double toEpochMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : Double.NaN;
+    }
+
+    private static double orMinusOne(double value) {
+        return Double.isNaN(value) ? -1.0 : value;
+    }
+
+    private static String ntrpKey(double value) {
+        return Double.isNaN(value) ? null : Double.toString(value);
+    }
+
+    private static String utrBucket(double value) {
+        return Double.isNaN(value) ? null : Double.toString(Math.floor(value * 2) / 2);
+    }
+
+    private static String winRateDecile(double value) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        int decile = (int) Math.min(Math.max(value, 0), 99.999) / 10;
+        return Integer.toString(decile * 10);
+    }
+
+    private static String label(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().intern();
+    }
+
+    static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT).intern() : null;
+    }
+
+    /**
+     * Request filters resolved once per search: text lowercased, ranges widened to infinity
+     */
+    private static final class SearchCriteria {
+        final String name;
+        final String gender;
+        final boolean filterUtr;
+        final double utrMin;
+        final double utrMax;
+        final boolean filterNtrp;
+        final double ntrp;
+        final boolean filterWinRate;
+        final double winRateMin;
+        final double winRateMax;
+        final String university;
+        final String city;
+        final String country;
+        final boolean verifyName;
+        final boolean verifyUniversity;
+        final boolean verifyCity;
+        final boolean verifyCountry;
+
+        SearchCriteria(PlayerSearchRequest request) {
+            name = lowerOrNull(request.getName());
+            gender = request.getGender() != null && !request.getGender().isEmpty() ? request.getGender() : null;
+            filterUtr = request.getUtrMin() != null || request.getUtrMax() != null;
+            utrMin = request.getUtrMin() != null ? request.getUtrMin() : Double.NEGATIVE_INFINITY;
+            utrMax = request.getUtrMax() != null ? request.getUtrMax() : Double.POSITIVE_INFINITY;
+            filterNtrp = request.getNtrp() != null;
+            ntrp = request.getNtrp() != null ? request.getNtrp() : Double.NaN;
+            filterWinRate = request.getWinRateMin() != null || request.getWinRateMax() != null;
+            winRateMin = request.getWinRateMin() != null ? request.getWinRateMin() : Double.NEGATIVE_INFINITY;
+            winRateMax = request.getWinRateMax() != null ? request.getWinRateMax() : Double.POSITIVE_INFINITY;
+            university = lowerOrNull(request.getUniversity());
+            city = lowerOrNull(request.getCity());
+            country = lowerOrNull(request.getCountry());
+            verifyName = needsVerification(name);
+            verifyUniversity = needsVerification(university);
+            verifyCity = needsVerification(city);
+            verifyCountry = needsVerification(country);
+        }
+
+        private static boolean needsVerification(String query) {
+            return query != null && !NGramIndex.isExact(query);
+        }
+
+        private static String lowerOrNull(String value) {
+            return value != null && !value.isEmpty() ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.zjutennis.search;
+
+/**
+ * Partial ordering of search hits by a primitive sort key.
+ *
+ * Keeps the best k positions in a bounded binary heap whose root is the worst kept
+ * entry, so selecting one page out of N hits costs O(N log k) and never boxes a key.
+ * Equal keys are ordered by id ascending, the same tie-break the database search uses,
+ * so pages and cursors agree between the two.
+ */
+final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Select the first k positions of keys[0..count) in sort order.
+     *
+     * @param keys sort key per position
+     * @param ids tie-breaking id per position
+     * @param count number of valid keys
+     * @param ascending sort direction of the key
+     * @param k number of positions to return
+     * @return positions into keys, best first; length is min(k, count)
+     */
+    static int[] select(double[] keys, long[] ids, int count, boolean ascending, int k) {
+        int limit = Math.min(k, count);
+        if (limit <= 0) {
+            return new int[0];
+        }
+
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int position = 0; position < count; position++) {
+            if (heapSize < limit) {
+                heap[heapSize] = position;
+                siftUp(heap, heapSize++, keys, ids, ascending);
+            } else if (before(position, heap[0], keys, ids, ascending)) {
+                heap[0] = position;
+                siftDown(heap, heapSize, keys, ids, ascending);
+            }
+        }
+
+        // Repeatedly move the worst entry to the back to get best-first order
+        int[] ordered = new int[limit];
+        for (int i = limit - 1; i >= 0; i--) {
+            ordered[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, keys, ids, ascending);
+        }
+        return ordered;
+    }
+
+    /**
+     * Whether position a sorts before position b
+     */
+    private static boolean before(int a, int b, double[] keys, long[] ids, boolean ascending) {
+        double keyA = keys[a];
+        double keyB = keys[b];
+        if (keyA != keyB) {
+            return ascending ? keyA < keyB : keyA > keyB;
+        }
+        return ids[a] < ids[b];
+    }
+
+    private static void siftUp(int[] heap, int index, double[] keys, long[] ids, boolean ascending) {
+        int entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(heap[parent], entry, keys, ids, ascending)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, double[] keys, long[] ids, boolean ascending) {
+        if (heapSize == 0) {
+            return;
+        }
+        int index = 0;
+        int entry = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child], heap[child + 1], keys, ids, ascending)) {
+                child++;
+            }
+            if (!before(entry, heap[child], keys, ids, ascending)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
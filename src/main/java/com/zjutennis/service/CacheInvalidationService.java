@@ -0,0 +1,146 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.CacheConfig;
+import com.zjutennis.model.Video;
+import com.zjutennis.model.VideoAnalysis;
+import com.zjutennis.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * Evicts cached lookups affected by a write.
+ *
+ * A cached player embeds its skills, statistics, alumni record and video analyses; a cached
+ * match embeds its players' profiles and its video with the video's analyses; analysis and
+ * video responses embed player names and match details. A write evicts every entry that
+ * embeds what it changed, and nothing else.
+ */
+@Service
+@Slf4j
+public class CacheInvalidationService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    /**
+     * Evict a player, after a write to their skills, statistics or alumni record
+     */
+    public void evictPlayer(Long playerId) {
+        if (playerId == null) {
+            return;
+        }
+        log.debug("Evicting cached player {}", playerId);
+        evict(CacheConfig.PLAYERS, playerId);
+    }
+
+    /**
+     * Evict a player, their analyses and every match they played in, after a change to
+     * the profile fields those entries embed
+     */
+    public void evictPlayerProfile(Long playerId) {
+        if (playerId == null) {
+            return;
+        }
+        evictPlayer(playerId);
+        evict(CacheConfig.PLAYER_ANALYSES, playerId);
+        for (Long matchId : matchRepository.findIdsByPlayerId(playerId)) {
+            evict(CacheConfig.MATCHES, matchId);
+        }
+    }
+
+    /**
+     * Evict the profiles of many players at once, with one lookup of the matches they played in
+     */
+    public void evictPlayerProfiles(Collection<Long> playerIds) {
+        if (playerIds.isEmpty()) {
+            return;
+        }
+        log.debug("Evicting {} cached player profiles", playerIds.size());
+        for (Long playerId : playerIds) {
+            evict(CacheConfig.PLAYERS, playerId);
+            evict(CacheConfig.PLAYER_ANALYSES, playerId);
+        }
+        for (Long matchId : matchRepository.findIdsByPlayerIdIn(playerIds)) {
+            evict(CacheConfig.MATCHES, matchId);
+        }
+    }
+
+    /**
+     * Evict all players, after a bulk write that touched many of them
+     */
+    public void evictAllPlayers() {
+        log.debug("Evicting all cached players");
+        clear(CacheConfig.PLAYERS);
+        clear(CacheConfig.PLAYER_ANALYSES);
+        clear(CacheConfig.MATCHES);
+    }
+
+    /**
+     * Evict a match and its video
+     */
+    public void evictMatch(Long matchId) {
+        if (matchId == null) {
+            return;
+        }
+        log.debug("Evicting cached match {}", matchId);
+        evict(CacheConfig.MATCHES, matchId);
+        evict(CacheConfig.MATCH_VIDEOS, matchId);
+    }
+
+    /**
+     * Evict an analysis from its player and from its video's match
+     */
+    public void evictAnalysis(VideoAnalysis analysis) {
+        if (analysis.getPlayer() != null) {
+            evictPlayer(analysis.getPlayer().getId());
+            evict(CacheConfig.PLAYER_ANALYSES, analysis.getPlayer().getId());
+        }
+        if (analysis.getVideo() != null && analysis.getVideo().getMatch() != null) {
+            evictMatch(analysis.getVideo().getMatch().getId());
+        }
+    }
+
+    /**
+     * Evict a video's match and, when the video is deleted with its analyses, their players
+     */
+    public void evictVideo(Video video, boolean analysesRemoved) {
+        if (video.getMatch() != null) {
+            evictMatch(video.getMatch().getId());
+        }
+        if (analysesRemoved && video.getAnalyses() != null) {
+            for (VideoAnalysis analysis : video.getAnalyses()) {
+                evictAnalysis(analysis);
+            }
+        }
+    }
+
+    /**
+     * Evict the match counts, after a match is created, deleted or changes type
+     */
+    public void evictMatchStatistics() {
+        evict(CacheConfig.MATCH_STATISTICS, SimpleKey.EMPTY);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.zjutennis.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table of counters the match aggregators keep per key, such as a player or a pair.
+ *
+ * A delta is applied as an in-place SQL increment of the key's row, so concurrent writes for
+ * the same key never lose an update. A missing row is inserted, and if another write inserts
+ * it first, the increment is retried. Columns the row is not inserted with are left to their
+ * defaults until the aggregator sets them.
+ */
+final class CounterTable {
+
+    private final String incrementSql;
+    private final String insertSql;
+
+    /**
+     * @param keyColumns       columns identifying a row, matched by the increment
+     * @param attributeColumns columns only written when the row is inserted
+     * @param counterColumns   columns incremented by each delta, in the order of its values
+     */
+    CounterTable(String table, List<String> keyColumns, List<String> attributeColumns, List<String> counterColumns) {
+        List<String> increments = new ArrayList<>();
+        for (String column : counterColumns) {
+            increments.add(column + " = " + column + " + ?");
+        }
+        increments.add("updated_at = ?");
+        List<String> keys = new ArrayList<>();
+        for (String column : keyColumns) {
+            keys.add(column + " = ?");
+        }
+        this.incrementSql = "UPDATE " + table + " SET " + String.join(", ", increments)
+                + " WHERE " + String.join(" AND ", keys);
+
+        List<String> columns = new ArrayList<>(keyColumns);
+        columns.addAll(attributeColumns);
+        columns.addAll(counterColumns);
+        columns.add("updated_at");
+        this.insertSql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    /**
+     * Add the delta to the key's row, inserting the row if there is none yet
+     */
+    void upsert(JdbcTemplate jdbcTemplate, Object[] key, Object[] attributes, int[] delta, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        if (increment(jdbcTemplate, key, delta, updatedAt) > 0) {
+            return;
+        }
+        Object[] row = new Object[key.length + attributes.length + delta.length + 1];
+        System.arraycopy(key, 0, row, 0, key.length);
+        System.arraycopy(attributes, 0, row, key.length, attributes.length);
+        for (int i = 0; i < delta.length; i++) {
+            // A new row never starts below zero, even when reversing a match it has not counted
+            row[key.length + attributes.length + i] = Math.max(delta[i], 0);
+        }
+        row[row.length - 1] = updatedAt;
+        try {
+            jdbcTemplate.update(insertSql, row);
+        } catch (DuplicateKeyException e) {
+            // Another write created the row first
+            increment(jdbcTemplate, key, delta, updatedAt);
+        }
+    }
+
+    private int increment(JdbcTemplate jdbcTemplate, Object[] key, int[] delta, Timestamp updatedAt) {
+        Object[] args = new Object[delta.length + 1 + key.length];
+        for (int i = 0; i < delta.length; i++) {
+            args[i] = delta[i];
+        }
+        args[delta.length] = updatedAt;
+        System.arraycopy(key, 0, args, delta.length + 1, key.length);
+        return jdbcTemplate.update(incrementSql, args);
+    }
+}
@@ -3,31 +3,74 @@ package com.zjutennis.service;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerStatistics;
 import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.search.PlayerSearchIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 public class DataImportService {
 
+    private static final String SEED_MODE_JPA = "jpa";
+
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private PlayerSearchIndex playerSearchIndex;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // "bulk" writes multi-row INSERT statements, "jpa" saves the entities one by one
+    @Value("${zjutennis.seed.mode:bulk}")
+    private String seedMode = "bulk";
+
+    // Rows per multi-row INSERT statement in bulk mode
+    @Value("${zjutennis.seed.batch-size:500}")
+    private int seedBatchSize = 500;
+
     @Transactional
     public void importPlayersFromCSV(String csvFilePath) {
-        log.info("Starting CSV import from: {}", csvFilePath);
+        importPlayersFromCSV(new ClassPathResource(csvFilePath));
+    }
+
+    /**
+     * Seed players and their UTR statistics from an alumni roster CSV
+     *
+     * @return number of players inserted
+     */
+    @Transactional
+    public int importPlayersFromCSV(Resource resource) {
+        log.info("Starting CSV import from: {}", resource.getDescription());
+        long startNanos = System.nanoTime();
 
         try {
-            ClassPathResource resource = new ClassPathResource(csvFilePath);
             BufferedReader reader = new BufferedReader(
                 new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)
             );
@@ -62,18 +105,105 @@ public class DataImportService {
 
             // Save all players
             if (!players.isEmpty()) {
-                playerRepository.saveAll(players);
-                log.info("Successfully imported {} players from CSV", players.size());
+                if (SEED_MODE_JPA.equalsIgnoreCase(seedMode)) {
+                    playerRepository.saveAll(players);
+                } else {
+                    bulkInsert(players);
+                }
+                playerSearchIndex.invalidate();
+                cacheInvalidationService.evictAllPlayers();
+
+                long elapsedMillis = Math.max((System.nanoTime() - startNanos) / 1_000_000, 1);
+                log.info("Successfully imported {} players from CSV in {} ms ({} mode, {} rows/s)",
+                         players.size(), elapsedMillis, seedMode, players.size() * 1000L / elapsedMillis);
             } else {
                 log.warn("No players found in CSV file");
             }
+            return players.size();
 
         } catch (Exception e) {
-            log.error("Error importing CSV file: {}", csvFilePath, e);
+            log.error("Error importing CSV file: {}", resource.getDescription(), e);
             throw new RuntimeException("Failed to import CSV file", e);
         }
     }
 
+    /**
+     * Insert players and their statistics with multi-row INSERT statements.
+     *
+     * IDENTITY ids keep Hibernate from batching entity inserts, so the seed bypasses the
+     * persistence context: each statement carries up to zjutennis.seed.batch-size rows and
+     * the generated player ids are read back to link the statistics rows. Only the columns
+     * the seed file provides are written; audit timestamps are set here because the JPA
+     * auditing listener does not run.
+     */
+    private void bulkInsert(List<Player> players) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < players.size(); from += seedBatchSize) {
+            List<Player> batch = players.subList(from, Math.min(from + seedBatchSize, players.size()));
+
+            List<Map<String, Object>> keys = insertRows("players", new String[]{"name", "gender", "created_at", "updated_at"},
+                    batch, (ps, index, player) -> {
+                        ps.setString(index, player.getName());
+                        ps.setString(index + 1, player.getGender());
+                        ps.setTimestamp(index + 2, now);
+                        ps.setTimestamp(index + 3, now);
+                    });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+
+            List<PlayerStatistics> statistics = new ArrayList<>(batch.size());
+            for (Player player : batch) {
+                if (player.getStatistics() != null) {
+                    statistics.add(player.getStatistics());
+                }
+            }
+            if (!statistics.isEmpty()) {
+                insertRows("player_statistics", new String[]{"player_id", "utr_rating", "utr_status", "created_at", "updated_at"},
+                        statistics, (ps, index, stats) -> {
+                            ps.setLong(index, stats.getPlayer().getId());
+                            if (stats.getUtrRating() != null) {
+                                ps.setDouble(index + 1, stats.getUtrRating());
+                            } else {
+                                ps.setNull(index + 1, Types.DOUBLE);
+                            }
+                            ps.setString(index + 2, stats.getUtrStatus());
+                            ps.setTimestamp(index + 3, now);
+                            ps.setTimestamp(index + 4, now);
+                        });
+            }
+        }
+    }
+
+    /**
+     * Insert rows with one multi-row INSERT statement
+     *
+     * @return the generated keys, one entry per row in insertion order
+     */
+    private <T> List<Map<String, Object>> insertRows(String table, String[] columns, List<T> rows, RowBinder<T> binder) {
+        String placeholders = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "
+                + String.join(", ", Collections.nCopies(rows.size(), placeholders));
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            int index = 1;
+            for (T row : rows) {
+                binder.bind(ps, index, row);
+                index += columns.length;
+            }
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKeyList();
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, int firstIndex, T row) throws SQLException;
+    }
+
     private Player parseCsvLine(String line) {
         // Split by comma
         String[] fields = line.split(",", -1);
@@ -0,0 +1,148 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.PlayerRating;
+import com.zjutennis.model.RatingChange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elo rating arithmetic over match outcomes, with no database access
+ *
+ * A team's rating is the mean of its players' ratings; players entered by name only count at
+ * the initial rating and are not rated themselves. Every registered player on a side moves by
+ * K x (result - expected), with a larger K for their first provisional matches so new players
+ * settle quickly. A match is rated when it has a winner and at least one registered player.
+ *
+ * The engine holds only its parameters, so one instance can rate disjoint groups of players
+ * on several threads at once.
+ */
+public final class EloRatingEngine {
+
+    /**
+     * Order in which matches are rated: by match time, matches without a time first, then by id
+     */
+    public static final Comparator<MatchOutcome> MATCH_ORDER = Comparator
+            .comparing(MatchOutcome::getMatchTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MatchOutcome::getMatchId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final double initialRating;
+    private final double kFactor;
+    private final double provisionalKFactor;
+    private final int provisionalMatches;
+
+    public EloRatingEngine(double initialRating, double kFactor, double provisionalKFactor, int provisionalMatches) {
+        this.initialRating = initialRating;
+        this.kFactor = kFactor;
+        this.provisionalKFactor = provisionalKFactor;
+        this.provisionalMatches = provisionalMatches;
+    }
+
+    public static boolean isRated(MatchOutcome outcome) {
+        return outcome.isDecided() && !outcome.getSides().isEmpty()
+                && teamSize(outcome, MatchOutcome.TEAM1) > 0 && teamSize(outcome, MatchOutcome.TEAM2) > 0;
+    }
+
+    /**
+     * Whether a match comes after everything a player has been rated on, so it can be applied
+     * on top of their current rating
+     */
+    public static boolean isAfter(MatchOutcome outcome, PlayerRating rating) {
+        if (rating.getLastMatchId() == null) {
+            return true;
+        }
+        LocalDateTime time = outcome.getMatchTime();
+        LocalDateTime last = rating.getLastMatchTime();
+        if (time == null || last == null) {
+            return time != null || (last == null && outcome.getMatchId() > rating.getLastMatchId());
+        }
+        return time.isAfter(last) || (time.isEqual(last) && outcome.getMatchId() > rating.getLastMatchId());
+    }
+
+    public PlayerRating newRating(Long playerId) {
+        PlayerRating rating = new PlayerRating();
+        rating.setPlayerId(playerId);
+        rating.setRating(initialRating);
+        return rating;
+    }
+
+    /**
+     * Rate one match, updating the ratings of its registered players in place
+     *
+     * @param ratings current ratings by player id; players missing from it start at the initial rating
+     * @return the change to each registered player's rating, empty if the match is not rated
+     */
+    public List<RatingChange> rate(MatchOutcome outcome, Map<Long, PlayerRating> ratings) {
+        if (!isRated(outcome)) {
+            return List.of();
+        }
+        for (Long playerId : outcome.getSides().keySet()) {
+            ratings.computeIfAbsent(playerId, this::newRating);
+        }
+        double team1 = teamRating(outcome, MatchOutcome.TEAM1, ratings);
+        double team2 = teamRating(outcome, MatchOutcome.TEAM2, ratings);
+
+        // Work out every delta from the ratings before the match, then apply them
+        Map<Long, Double> deltas = new LinkedHashMap<>();
+        outcome.getSides().forEach((playerId, side) -> {
+            double own = MatchOutcome.TEAM1.equals(side) ? team1 : team2;
+            double other = MatchOutcome.TEAM1.equals(side) ? team2 : team1;
+            double expected = 1.0 / (1.0 + Math.pow(10.0, (other - own) / 400.0));
+            double result = outcome.isWinner(side) ? 1.0 : 0.0;
+            deltas.put(playerId, kFactorFor(ratings.get(playerId)) * (result - expected));
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RatingChange> changes = new ArrayList<>(deltas.size());
+        deltas.forEach((playerId, delta) -> {
+            PlayerRating rating = ratings.get(playerId);
+            RatingChange change = new RatingChange();
+            change.setMatchId(outcome.getMatchId());
+            change.setPlayerId(playerId);
+            change.setRatingBefore(rating.getRating());
+            change.setRatingAfter(rating.getRating() + delta);
+            change.setDelta(delta);
+            change.setMatchTime(outcome.getMatchTime());
+            change.setCreatedAt(now);
+            changes.add(change);
+
+            rating.setRating(rating.getRating() + delta);
+            rating.setMatchesRated(rating.getMatchesRated() + 1);
+            rating.setLastMatchId(outcome.getMatchId());
+            rating.setLastMatchTime(outcome.getMatchTime());
+            rating.setUpdatedAt(now);
+        });
+        return changes;
+    }
+
+    /**
+     * Rate matches one after another, in the order given
+     */
+    public List<RatingChange> replay(List<MatchOutcome> matches, Map<Long, PlayerRating> ratings) {
+        List<RatingChange> changes = new ArrayList<>();
+        for (MatchOutcome outcome : matches) {
+            changes.addAll(rate(outcome, ratings));
+        }
+        return changes;
+    }
+
+    private double kFactorFor(PlayerRating rating) {
+        return rating.getMatchesRated() < provisionalMatches ? provisionalKFactor : kFactor;
+    }
+
+    private double teamRating(MatchOutcome outcome, String side, Map<Long, PlayerRating> ratings) {
+        double total = initialRating * outcome.getGuests(side).size();
+        for (Long playerId : outcome.getPlayers(side)) {
+            total += ratings.get(playerId).getRating();
+        }
+        return total / teamSize(outcome, side);
+    }
+
+    private static int teamSize(MatchOutcome outcome, String side) {
+        return outcome.getPlayers(side).size() + outcome.getGuests(side).size();
+    }
+}
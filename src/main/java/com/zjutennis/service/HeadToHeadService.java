@@ -0,0 +1,360 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.dto.OpponentMatchRow;
+import com.zjutennis.model.HeadToHead;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import com.zjutennis.repository.HeadToHeadRepository;
+import com.zjutennis.repository.MatchPlayerRepository;
+import com.zjutennis.repository.MatchRepository;
+import com.zjutennis.util.ScoreUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service maintaining the head_to_head table: each registered player's record against every
+ * opponent they have faced, registered or entered by name only.
+ *
+ * Wins, losses, sets and games are applied as in-place increments from the match's outcome
+ * before and after a write, like the player aggregates. The last five results and last match
+ * time are not reversible counters, so they are recomputed for the pairs a write touched from
+ * the player's rows in match_players. rebuild() recomputes the table from the matches table and
+ * runs on startup while it is still empty.
+ */
+@Service
+@Slf4j
+public class HeadToHeadService implements MatchAggregator {
+
+    static final int LAST_RESULTS = 5;
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final CounterTable PAIRS = new CounterTable("head_to_head",
+            List.of("player_id", "opponent_key"), List.of("opponent_player_id", "opponent_name"),
+            List.of("matches_played", "wins", "losses", "sets_won", "sets_lost", "games_won", "games_lost"));
+
+    private static final String INSERT_PAIR =
+            "INSERT INTO head_to_head (player_id, opponent_key, opponent_player_id, opponent_name, matches_played, wins, losses, "
+            + "sets_won, sets_lost, games_won, games_lost, last_results, last_played_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SET_RECENT =
+            "UPDATE head_to_head SET last_results = ?, last_played_at = ? WHERE player_id = ? AND opponent_key = ?";
+
+    @Autowired
+    private HeadToHeadRepository headToHeadRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerFeatureStore playerFeatureStore;
+
+    @Value("${zjutennis.aggregates.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * Get a player's records against every opponent, most played first
+     */
+    public List<HeadToHead> getHeadToHead(Long playerId) {
+        return headToHeadRepository.findOpponents(playerId);
+    }
+
+    /**
+     * Get a player's record against one registered opponent
+     */
+    public Optional<HeadToHead> getHeadToHead(Long playerId, Long opponentId) {
+        return headToHeadRepository.findByPlayerIdAndOpponentKey(playerId, playerKey(opponentId));
+    }
+
+    /**
+     * Get a player's record against an opponent entered by name
+     */
+    public Optional<HeadToHead> getHeadToHead(Long playerId, String opponentName) {
+        return headToHeadRepository.findByPlayerIdAndOpponentKey(playerId, nameKey(opponentName));
+    }
+
+    /**
+     * Get the opponents a player has the worst record against, over at least minMatches decided matches
+     */
+    public List<HeadToHead> getToughestOpponents(Long playerId, int minMatches, int limit) {
+        return headToHeadRepository.findToughestOpponents(playerId, Math.max(minMatches, 1),
+                PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+
+    @Override
+    @Transactional
+    public void apply(MatchOutcome before, MatchOutcome after) {
+        Map<Cell, Counters> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            addTo(deltas, before, -1);
+        }
+        if (after != null) {
+            addTo(deltas, after, 1);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((cell, delta) -> {
+            if (!delta.isZero()) {
+                PAIRS.upsert(jdbcTemplate, new Object[]{cell.playerId, cell.opponentKey},
+                        new Object[]{cell.opponentPlayerId, cell.opponentName}, delta.values(), now);
+            }
+        });
+
+        // The recent form of every touched pair, by player
+        Map<Long, Set<String>> touched = new LinkedHashMap<>();
+        for (Cell cell : deltas.keySet()) {
+            touched.computeIfAbsent(cell.playerId, id -> new HashSet<>()).add(cell.opponentKey);
+        }
+        touched.forEach((playerId, opponentKeys) -> {
+            Map<String, Recent> recent = recentResults(matchPlayerRepository.findOpponentRows(playerId), opponentKeys);
+            for (String opponentKey : opponentKeys) {
+                Recent form = recent.getOrDefault(opponentKey, new Recent());
+                jdbcTemplate.update(SET_RECENT, form.results(),
+                        form.lastPlayedAt == null ? null : Timestamp.valueOf(form.lastPlayedAt), playerId, opponentKey);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        long startNanos = System.nanoTime();
+        Map<Cell, Counters> totals = new HashMap<>();
+        Map<Cell, Recent> recent = new HashMap<>();
+
+        // Newest first, so each pair's first five matches are its last five results
+        List<MatchSummary> summaries = new ArrayList<>(matchRepository.findAllSummaries());
+        summaries.sort(Comparator.comparing(MatchSummary::getMatchTime, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(MatchSummary::getId, Comparator.reverseOrder()));
+        for (MatchSummary summary : summaries) {
+            MatchOutcome outcome = MatchOutcome.of(summary);
+            addTo(totals, outcome, 1);
+            for (Cell cell : cells(outcome)) {
+                recent.computeIfAbsent(cell, c -> new Recent())
+                        .add(result(outcome, outcome.getSides().get(cell.playerId)), outcome.getMatchTime());
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM head_to_head");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((cell, counters) -> {
+            Recent form = recent.get(cell);
+            rows.add(new Object[]{cell.playerId, cell.opponentKey, cell.opponentPlayerId, cell.opponentName,
+                    counters.played, counters.wins, counters.losses,
+                    counters.setsWon, counters.setsLost, counters.gamesWon, counters.gamesLost,
+                    form.results(), form.lastPlayedAt == null ? null : Timestamp.valueOf(form.lastPlayedAt), now});
+        });
+        jdbcTemplate.batchUpdate(INSERT_PAIR, rows);
+        playerFeatureStore.invalidate();
+
+        log.info("Rebuilt {} head-to-head records in {} ms", rows.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return rows.size();
+    }
+
+    /**
+     * Bootstrap the table on the first startup after it was added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && headToHeadRepository.count() == 0 && matchRepository.count() > 0) {
+            log.info("Head-to-head records are empty. Rebuilding from the matches table...");
+            rebuild();
+        }
+    }
+
+    static String playerKey(Long playerId) {
+        return "player:" + playerId;
+    }
+
+    /**
+     * Key of an opponent entered by name: case and spacing do not tell opponents apart
+     */
+    static String nameKey(String name) {
+        return "name:" + name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static void addTo(Map<Cell, Counters> counters, MatchOutcome outcome, int sign) {
+        List<int[]> sets = ScoreUtil.parseSets(outcome.getScore());
+        for (Cell cell : cells(outcome)) {
+            String side = outcome.getSides().get(cell.playerId);
+            boolean team1 = MatchOutcome.TEAM1.equals(side);
+            Counters delta = counters.computeIfAbsent(cell, c -> new Counters());
+            delta.played += sign;
+            if (outcome.isWinner(side)) {
+                delta.wins += sign;
+            } else if (outcome.isDecided()) {
+                delta.losses += sign;
+            }
+            for (int i = 0; i < sets.size(); i++) {
+                int[] set = sets.get(i);
+                int won = team1 ? set[0] : set[1];
+                int lost = team1 ? set[1] : set[0];
+                // A match tiebreak decides a set, but its points are not games
+                if (!ScoreUtil.isMatchTiebreak(sets, i)) {
+                    delta.gamesWon += sign * won;
+                    delta.gamesLost += sign * lost;
+                }
+                if (won > lost) {
+                    delta.setsWon += sign;
+                } else {
+                    delta.setsLost += sign;
+                }
+            }
+        }
+    }
+
+    /**
+     * Every (registered player, opponent) pair of a match, each once
+     */
+    private static List<Cell> cells(MatchOutcome outcome) {
+        List<Cell> cells = new ArrayList<>();
+        outcome.getSides().forEach((playerId, side) -> {
+            Set<String> seen = new HashSet<>();
+            String opposite = MatchOutcome.opposite(side);
+            for (Long opponentId : outcome.getPlayers(opposite)) {
+                String key = playerKey(opponentId);
+                if (seen.add(key)) {
+                    cells.add(new Cell(playerId, key, opponentId, outcome.getName(opponentId)));
+                }
+            }
+            for (String guest : outcome.getGuests(opposite)) {
+                String key = nameKey(guest);
+                if (seen.add(key)) {
+                    cells.add(new Cell(playerId, key, null, guest.trim()));
+                }
+            }
+        });
+        return cells;
+    }
+
+    private static char result(MatchOutcome outcome, String side) {
+        return outcome.isWinner(side) ? 'W' : outcome.isDecided() ? 'L' : '-';
+    }
+
+    /**
+     * The last results against each of the given opponents, from a player's rows newest first
+     */
+    private static Map<String, Recent> recentResults(List<OpponentMatchRow> rows, Set<String> opponentKeys) {
+        Map<String, Recent> recent = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (OpponentMatchRow row : rows) {
+            String key;
+            if (row.getOpponentId() != null) {
+                key = playerKey(row.getOpponentId());
+            } else if (row.getOpponentName() != null && !row.getOpponentName().isBlank()) {
+                key = nameKey(row.getOpponentName());
+            } else {
+                continue;
+            }
+            if (!opponentKeys.contains(key) || !seen.add(row.getMatchId() + "|" + key)) {
+                continue;
+            }
+            boolean decided = MatchOutcome.TEAM1.equals(row.getWinnerSide()) || MatchOutcome.TEAM2.equals(row.getWinnerSide());
+            char result = !decided ? '-' : row.getWinnerSide().equals(row.getTeam()) ? 'W' : 'L';
+            recent.computeIfAbsent(key, k -> new Recent()).add(result, row.getMatchTime());
+        }
+        return recent;
+    }
+
+    private static final class Cell {
+        final Long playerId;
+        final String opponentKey;
+        final Long opponentPlayerId;
+        final String opponentName;
+
+        Cell(Long playerId, String opponentKey, Long opponentPlayerId, String opponentName) {
+            this.playerId = playerId;
+            this.opponentKey = opponentKey;
+            this.opponentPlayerId = opponentPlayerId;
+            this.opponentName = opponentName;
+        }
+
+        // Identified by the pair alone; the opponent's display name is carried along
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cell)) return false;
+            Cell other = (Cell) o;
+            return playerId.equals(other.playerId) && opponentKey.equals(other.opponentKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, opponentKey);
+        }
+    }
+
+    private static final class Counters {
+        int played;
+        int wins;
+        int losses;
+        int setsWon;
+        int setsLost;
+        int gamesWon;
+        int gamesLost;
+
+        int[] values() {
+            return new int[]{played, wins, losses, setsWon, setsLost, gamesWon, gamesLost};
+        }
+
+        boolean isZero() {
+            return played == 0 && wins == 0 && losses == 0
+                    && setsWon == 0 && setsLost == 0 && gamesWon == 0 && gamesLost == 0;
+        }
+    }
+
+    /**
+     * Results newest first, up to LAST_RESULTS, and the time of the newest
+     */
+    private static final class Recent {
+        final StringBuilder results = new StringBuilder(LAST_RESULTS);
+        LocalDateTime lastPlayedAt;
+
+        void add(char result, LocalDateTime matchTime) {
+            if (results.length() == 0) {
+                lastPlayedAt = matchTime;
+            }
+            if (results.length() < LAST_RESULTS) {
+                results.append(result);
+            }
+        }
+
+        String results() {
+            return results.length() == 0 ? null : results.toString();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.zjutennis.service;
+
+/**
+ * A table of player analytics precomputed from the matches table.
+ *
+ * MatchService reports every match write to each aggregator, in the write's transaction, so
+ * the tables never drift from the matches they summarize. rebuild() recomputes one from scratch.
+ */
+public interface MatchAggregator {
+
+    /**
+     * Apply a match write
+     *
+     * @param before the match's outcome before the write, null for a new match
+     * @param after the match's outcome after the write, null for a deleted match
+     */
+    void apply(MatchOutcome before, MatchOutcome after);
+
+    /**
+     * Recompute the whole table from the matches table
+     *
+     * @return the number of rows written
+     */
+    int rebuild();
+}
@@ -0,0 +1,152 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a match counts for in the precomputed player analytics: its registered players with
+ * their side, the names of unregistered players, the winning side and score, whether it is
+ * doubles, and when it was played
+ */
+public final class MatchOutcome {
+
+    public static final String TEAM1 = "team1";
+    public static final String TEAM2 = "team2";
+
+    private final Long matchId;
+    private final Map<Long, String> sides = new LinkedHashMap<>();
+    private final Map<Long, String> names = new LinkedHashMap<>();
+    private final List<String> team1Guests = new ArrayList<>(2);
+    private final List<String> team2Guests = new ArrayList<>(2);
+    private final String winnerSide;
+    private final String score;
+    private final boolean doubles;
+    private final LocalDateTime matchTime;
+
+    private MatchOutcome(Long matchId, String matchType, String winnerSide, String score, LocalDateTime matchTime,
+                         Long player1Id, String player1Name, Long player2Id, String player2Name,
+                         Long opponentPlayer1Id, String opponentPlayer1Name,
+                         Long opponentPlayer2Id, String opponentPlayer2Name) {
+        this.matchId = matchId;
+        this.winnerSide = winnerSide;
+        this.score = score;
+        this.doubles = "doubles".equalsIgnoreCase(matchType);
+        this.matchTime = matchTime;
+        // A player listed twice counts once, on the first side they appear
+        putSide(player1Id, player1Name, TEAM1);
+        putSide(player2Id, player2Name, TEAM1);
+        putSide(opponentPlayer1Id, opponentPlayer1Name, TEAM2);
+        putSide(opponentPlayer2Id, opponentPlayer2Name, TEAM2);
+    }
+
+    public static MatchOutcome of(Match match) {
+        return new MatchOutcome(match.getId(), match.getMatchType(), match.getWinnerSide(), match.getScore(),
+                match.getMatchTime(),
+                idOf(match.getPlayer1()), nameOf(match.getPlayer1Name(), match.getPlayer1()),
+                idOf(match.getPlayer2()), nameOf(match.getPlayer2Name(), match.getPlayer2()),
+                idOf(match.getOpponentPlayer1()), nameOf(match.getOpponentPlayer1Name(), match.getOpponentPlayer1()),
+                idOf(match.getOpponentPlayer2()), nameOf(match.getOpponentPlayer2Name(), match.getOpponentPlayer2()));
+    }
+
+    public static MatchOutcome of(MatchSummary summary) {
+        return new MatchOutcome(summary.getId(), summary.getMatchType(), summary.getWinnerSide(), summary.getScore(),
+                summary.getMatchTime(),
+                summary.getPlayer1Id(), summary.getPlayer1Name(), summary.getPlayer2Id(), summary.getPlayer2Name(),
+                summary.getOpponentPlayer1Id(), summary.getOpponentPlayer1Name(),
+                summary.getOpponentPlayer2Id(), summary.getOpponentPlayer2Name());
+    }
+
+    public Long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Registered players of the match, each with their side, team1 first
+     */
+    public Map<Long, String> getSides() {
+        return Collections.unmodifiableMap(sides);
+    }
+
+    /**
+     * Name of a registered player as shown on the match
+     */
+    public String getName(Long playerId) {
+        return names.get(playerId);
+    }
+
+    /**
+     * Names of the unregistered players on one side
+     */
+    public List<String> getGuests(String side) {
+        return Collections.unmodifiableList(TEAM1.equals(side) ? team1Guests : team2Guests);
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public boolean isDoubles() {
+        return doubles;
+    }
+
+    public LocalDateTime getMatchTime() {
+        return matchTime;
+    }
+
+    /**
+     * Whether the match has a winner; double defaults and unrecorded results have none
+     */
+    public boolean isDecided() {
+        return TEAM1.equals(winnerSide) || TEAM2.equals(winnerSide);
+    }
+
+    public boolean isWinner(String side) {
+        return isDecided() && winnerSide.equals(side);
+    }
+
+    /**
+     * Registered players on one side
+     */
+    public List<Long> getPlayers(String side) {
+        List<Long> players = new ArrayList<>(2);
+        sides.forEach((playerId, playerSide) -> {
+            if (playerSide.equals(side)) {
+                players.add(playerId);
+            }
+        });
+        return players;
+    }
+
+    private static Long idOf(Player player) {
+        return player == null ? null : player.getId();
+    }
+
+    private static String nameOf(String name, Player player) {
+        return (name == null || name.isBlank()) && player != null ? player.getName() : name;
+    }
+
+    private void putSide(Long playerId, String name, String side) {
+        if (playerId != null) {
+            if (sides.putIfAbsent(playerId, side) == null) {
+                names.put(playerId, name);
+            }
+        } else if (name != null && !name.isBlank()) {
+            (TEAM1.equals(side) ? team1Guests : team2Guests).add(name);
+        }
+    }
+
+    /**
+     * The other side of a match
+     */
+    public static String opposite(String side) {
+        return TEAM1.equals(side) ? TEAM2 : TEAM1;
+    }
+}
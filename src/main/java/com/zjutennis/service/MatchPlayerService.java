@@ -0,0 +1,190 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.MatchPlayer;
+import com.zjutennis.model.Player;
+import com.zjutennis.repository.MatchPlayerRepository;
+import com.zjutennis.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service keeping match_players in step with the player columns of matches.
+ *
+ * Each match has one row per filled player slot, carrying the match time, so a player's
+ * matches are read from the (player_id, match_time, match_id) index instead of an OR over
+ * the four player columns of matches, which no index can serve. MatchService rewrites a
+ * match's rows on every create and update and removes them before a delete; backfill()
+ * regenerates the whole table and runs on startup when it is empty or predates match_time.
+ */
+@Service
+@Slf4j
+public class MatchPlayerService {
+
+    private static final String INSERT_MATCH_PLAYER =
+            "INSERT INTO match_players (match_id, player_id, player_name, team, position, is_our_team, match_time, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replace a saved match's rows with its current players
+     */
+    @Transactional
+    public void sync(Match match) {
+        matchPlayerRepository.deleteAllByMatchId(match.getId());
+
+        List<MatchPlayer> rows = new ArrayList<>(4);
+        for (Slot slot : slots(match.getMatchType(),
+                idOf(match.getPlayer1()), nameOf(match.getPlayer1Name(), match.getPlayer1()),
+                idOf(match.getPlayer2()), nameOf(match.getPlayer2Name(), match.getPlayer2()),
+                idOf(match.getOpponentPlayer1()), nameOf(match.getOpponentPlayer1Name(), match.getOpponentPlayer1()),
+                idOf(match.getOpponentPlayer2()), nameOf(match.getOpponentPlayer2Name(), match.getOpponentPlayer2()))) {
+            MatchPlayer row = new MatchPlayer();
+            row.setMatch(match);
+            row.setPlayer(playerAt(match, slot));
+            row.setPlayerName(slot.name);
+            row.setTeam(slot.team);
+            row.setPosition(slot.position);
+            row.setIsOurTeam(slot.ourTeam());
+            row.setMatchTime(match.getMatchTime());
+            rows.add(row);
+        }
+        matchPlayerRepository.saveAll(rows);
+    }
+
+    /**
+     * Remove a match's rows, before the match itself is deleted
+     */
+    @Transactional
+    public void remove(Long matchId) {
+        matchPlayerRepository.deleteAllByMatchId(matchId);
+    }
+
+    /**
+     * Regenerate match_players from the matches table
+     *
+     * @return the number of rows written
+     */
+    @Transactional
+    public int backfill() {
+        long startNanos = System.nanoTime();
+        jdbcTemplate.update("DELETE FROM match_players");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (MatchSummary summary : matchRepository.findAllSummaries()) {
+            Timestamp matchTime = summary.getMatchTime() == null ? null : Timestamp.valueOf(summary.getMatchTime());
+            for (Slot slot : slots(summary.getMatchType(),
+                    summary.getPlayer1Id(), summary.getPlayer1Name(),
+                    summary.getPlayer2Id(), summary.getPlayer2Name(),
+                    summary.getOpponentPlayer1Id(), summary.getOpponentPlayer1Name(),
+                    summary.getOpponentPlayer2Id(), summary.getOpponentPlayer2Name())) {
+                rows.add(new Object[]{summary.getId(), slot.playerId, slot.name, slot.team, slot.position,
+                        slot.ourTeam(), matchTime, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_MATCH_PLAYER, rows);
+
+        log.info("Backfilled {} match players in {} ms", rows.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return rows.size();
+    }
+
+    /**
+     * Backfill on the first startup after match_players took over player match lookups
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfNeeded() {
+        if (matchRepository.count() > 0
+                && (matchPlayerRepository.count() == 0 || matchPlayerRepository.existsByMatchTimeIsNull())) {
+            log.info("match_players is empty or out of date. Backfilling from the matches table...");
+            backfill();
+        }
+    }
+
+    /**
+     * The filled player slots of a match; a registered player listed twice is kept once
+     */
+    private static List<Slot> slots(String matchType,
+                                    Long player1Id, String player1Name, Long player2Id, String player2Name,
+                                    Long opponentPlayer1Id, String opponentPlayer1Name,
+                                    Long opponentPlayer2Id, String opponentPlayer2Name) {
+        boolean doubles = "doubles".equalsIgnoreCase(matchType);
+        List<Slot> slots = new ArrayList<>(4);
+        Set<Long> seen = new HashSet<>();
+        addSlot(slots, seen, player1Id, player1Name, "team1", doubles ? 1 : null);
+        addSlot(slots, seen, player2Id, player2Name, "team1", doubles ? 2 : null);
+        addSlot(slots, seen, opponentPlayer1Id, opponentPlayer1Name, "team2", doubles ? 1 : null);
+        addSlot(slots, seen, opponentPlayer2Id, opponentPlayer2Name, "team2", doubles ? 2 : null);
+        return slots;
+    }
+
+    private static void addSlot(List<Slot> slots, Set<Long> seen,
+                                Long playerId, String name, String team, Integer position) {
+        boolean named = name != null && !name.isBlank();
+        if ((playerId == null && !named) || (playerId != null && !seen.add(playerId))) {
+            return;
+        }
+        slots.add(new Slot(playerId, named ? name : "", team, position));
+    }
+
+    private static Player playerAt(Match match, Slot slot) {
+        if (slot.playerId == null) {
+            return null;
+        }
+        for (Player player : new Player[]{match.getPlayer1(), match.getPlayer2(),
+                match.getOpponentPlayer1(), match.getOpponentPlayer2()}) {
+            if (player != null && slot.playerId.equals(player.getId())) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    private static Long idOf(Player player) {
+        return player == null ? null : player.getId();
+    }
+
+    private static String nameOf(String name, Player player) {
+        return (name == null || name.isBlank()) && player != null ? player.getName() : name;
+    }
+
+    private static final class Slot {
+        final Long playerId;
+        final String name;
+        final String team;
+        final Integer position;
+
+        Slot(Long playerId, String name, String team, Integer position) {
+            this.playerId = playerId;
+            this.name = name;
+            this.team = team;
+            this.position = position;
+        }
+
+        boolean ourTeam() {
+            return "team1".equals(team);
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package com.zjutennis.service;
 
+import com.zjutennis.config.CacheConfig;
+import com.zjutennis.dto.CursorPage;
+import com.zjutennis.dto.MatchSummary;
 import com.zjutennis.dto.VideoRequest;
 import com.zjutennis.dto.VideoResponse;
 import com.zjutennis.model.Match;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.Video;
+import com.zjutennis.repository.MatchPlayerRepository;
 import com.zjutennis.repository.MatchRepository;
 import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.util.CursorUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Service for managing tennis matches
@@ -23,6 +36,8 @@ import java.util.Optional;
 @Slf4j
 public class MatchService {
 
+    private static final int MAX_PAGE_LIMIT = 100;
+
     @Autowired
     private MatchRepository matchRepository;
 
@@ -32,6 +47,18 @@ public class MatchService {
     @Autowired
     private VideoService videoService;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private MatchPlayerService matchPlayerService;
+
+    @Autowired
+    private List<MatchAggregator> matchAggregators;
+
     /**
      * Get all matches
      */
@@ -39,11 +66,23 @@ public class MatchService {
         return matchRepository.findAll();
     }
 
+    /**
+     * Get list-view summaries of all matches, newest first
+     */
+    public List<MatchSummary> getMatchSummaries() {
+        return matchRepository.findAllSummaries();
+    }
+
     /**
      * Get match by ID
      */
+    @Cacheable(cacheNames = CacheConfig.MATCHES, unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<Match> getMatchById(Long id) {
-        return matchRepository.findById(id);
+        Optional<Match> match = matchRepository.findById(id);
+        // The cached match outlives this session, so load the video analyses it serializes now
+        match.map(Match::getVideo).ifPresent(video -> Hibernate.initialize(video.getAnalyses()));
+        return match;
     }
 
     /**
@@ -54,10 +93,73 @@ public class MatchService {
     }
 
     /**
-     * Get matches for a specific player
+     * Get matches for a specific player, newest first
      */
     public List<Match> getPlayerMatches(Long playerId) {
-        return matchRepository.findByPlayerId(playerId);
+        return findInOrder(matchPlayerRepository.findMatchIdsByPlayerId(playerId));
+    }
+
+    /**
+     * Get a page of list-view summaries of all matches, newest first
+     */
+    public CursorPage<MatchSummary> getMatchPage(String cursor, int limit) {
+        PageRequest page = PageRequest.of(0, pageLimit(limit) + 1);
+        if (cursor == null) {
+            return toCursorPage(matchRepository.findSummaryPage(page), limit,
+                    MatchSummary::getMatchTime, MatchSummary::getId);
+        }
+        MatchCursor after = MatchCursor.decode(cursor);
+        return toCursorPage(matchRepository.findSummaryPageBefore(after.matchTime, after.id, page), limit,
+                MatchSummary::getMatchTime, MatchSummary::getId);
+    }
+
+    /**
+     * Get a page of matches by type, newest first
+     */
+    public CursorPage<Match> getMatchPageByType(String matchType, String cursor, int limit) {
+        PageRequest page = PageRequest.of(0, pageLimit(limit) + 1);
+        if (cursor == null) {
+            return toCursorPage(matchRepository.findByMatchTypeOrderByMatchTimeDescIdDesc(matchType, page), limit,
+                    Match::getMatchTime, Match::getId);
+        }
+        MatchCursor after = MatchCursor.decode(cursor);
+        return toCursorPage(matchRepository.findByMatchTypeBefore(matchType, after.matchTime, after.id, page), limit,
+                Match::getMatchTime, Match::getId);
+    }
+
+    /**
+     * Get a page of matches for a specific player, newest first
+     */
+    public CursorPage<Match> getPlayerMatchPage(Long playerId, String cursor, int limit) {
+        PageRequest page = PageRequest.of(0, pageLimit(limit) + 1);
+        if (cursor == null) {
+            return toCursorPage(findInOrder(matchPlayerRepository.findMatchIdsByPlayerId(playerId, page)), limit,
+                    Match::getMatchTime, Match::getId);
+        }
+        MatchCursor after = MatchCursor.decode(cursor);
+        return toCursorPage(findInOrder(matchPlayerRepository.findMatchIdsByPlayerIdBefore(playerId, after.matchTime, after.id, page)), limit,
+                Match::getMatchTime, Match::getId);
+    }
+
+    /**
+     * Load matches by id in the order of the ids, with one query
+     */
+    private List<Match> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Match> matches = new HashMap<>();
+        for (Match match : matchRepository.findAllWithPlayersByIdIn(ids)) {
+            matches.put(match.getId(), match);
+        }
+        List<Match> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Match match = matches.get(id);
+            if (match != null) {
+                ordered.add(match);
+            }
+        }
+        return ordered;
     }
 
     /**
@@ -92,7 +194,11 @@ public class MatchService {
         // Link player entities if IDs are provided
         linkPlayerEntities(match);
 
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        matchPlayerService.sync(saved);
+        applyToAggregators(null, MatchOutcome.of(saved));
+        cacheInvalidationService.evictMatchStatistics();
+        return saved;
     }
 
     /**
@@ -104,6 +210,9 @@ public class MatchService {
 
         return matchRepository.findById(id)
                 .map(match -> {
+                    // What the match counted for before this update, to be reversed
+                    MatchOutcome before = MatchOutcome.of(match);
+
                     // Update basic fields
                     if (matchData.getMatchType() != null) match.setMatchType(matchData.getMatchType());
                     if (matchData.getMatchTime() != null) match.setMatchTime(matchData.getMatchTime());
@@ -133,7 +242,12 @@ public class MatchService {
                     // Link player entities if IDs are provided
                     linkPlayerEntities(match, matchData);
 
-                    return matchRepository.save(match);
+                    Match saved = matchRepository.save(match);
+                    matchPlayerService.sync(saved);
+                    applyToAggregators(before, MatchOutcome.of(saved));
+                    cacheInvalidationService.evictMatch(id);
+                    cacheInvalidationService.evictMatchStatistics();
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
     }
@@ -145,11 +259,29 @@ public class MatchService {
     public void deleteMatch(Long id) {
         log.info("Deleting match ID: {}", id);
 
-        if (!matchRepository.existsById(id)) {
-            throw new RuntimeException("Match not found with id: " + id);
+        Match match = matchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
+        MatchOutcome before = MatchOutcome.of(match);
+
+        // The video and its analyses are deleted with the match
+        if (match.getVideo() != null) {
+            cacheInvalidationService.evictVideo(match.getVideo(), true);
         }
+        cacheInvalidationService.evictMatch(id);
+        cacheInvalidationService.evictMatchStatistics();
 
+        matchPlayerService.remove(id);
         matchRepository.deleteById(id);
+        applyToAggregators(before, null);
+    }
+
+    /**
+     * Report a match write to the precomputed player analytics
+     */
+    private void applyToAggregators(MatchOutcome before, MatchOutcome after) {
+        for (MatchAggregator aggregator : matchAggregators) {
+            aggregator.apply(before, after);
+        }
     }
 
     /**
@@ -358,9 +490,50 @@ public class MatchService {
         return videoService.videoExistsForMatch(matchId);
     }
 
+    private static int pageLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_LIMIT);
+    }
+
+    /**
+     * Cut a page from rows fetched with one extra row, which tells whether more follow
+     */
+    private static <T> CursorPage<T> toCursorPage(List<T> rows, int limit,
+                                                  Function<T, LocalDateTime> matchTime, Function<T, Long> id) {
+        int pageSize = pageLimit(limit);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        T last = items.get(pageSize - 1);
+        return new CursorPage<>(items, CursorUtil.encode(matchTime.apply(last).toString(), id.apply(last).toString()));
+    }
+
+    /**
+     * Position after the last match of a page: its match time and id
+     */
+    private static final class MatchCursor {
+        final LocalDateTime matchTime;
+        final Long id;
+
+        private MatchCursor(LocalDateTime matchTime, Long id) {
+            this.matchTime = matchTime;
+            this.id = id;
+        }
+
+        static MatchCursor decode(String cursor) {
+            String[] parts = CursorUtil.decode(cursor, 2);
+            try {
+                return new MatchCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+
     /**
      * Get match statistics
      */
+    @Cacheable(CacheConfig.MATCH_STATISTICS)
     public MatchStatistics getMatchStatistics() {
         MatchStatistics stats = new MatchStatistics();
         stats.setTotalMatches(matchRepository.count());
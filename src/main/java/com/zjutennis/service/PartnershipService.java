@@ -0,0 +1,239 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.dto.PartnershipSummary;
+import com.zjutennis.repository.MatchPlayerRepository;
+import com.zjutennis.repository.MatchRepository;
+import com.zjutennis.repository.PlayerPartnershipRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Service maintaining the doubles pair matrix in player_partnerships.
+ *
+ * Every doubles match adds to the cell of each team's pair of registered players: matches
+ * played together, wins, losses and when they last played. The matrix is sparse, holding only
+ * pairs that have played, and symmetric, with each pair stored from both partners' sides.
+ * Match writes are applied incrementally like the player aggregates; rebuild() recomputes the
+ * matrix from the matches table and runs on startup while it is still empty.
+ */
+@Service
+@Slf4j
+public class PartnershipService implements MatchAggregator {
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final CounterTable PAIRS = new CounterTable("player_partnerships",
+            List.of("player_id", "partner_id"), List.of(), List.of("matches_played", "wins", "losses"));
+
+    private static final String INSERT_PAIR =
+            "INSERT INTO player_partnerships (player_id, partner_id, matches_played, wins, losses, last_played_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADVANCE_LAST_PLAYED =
+            "UPDATE player_partnerships SET last_played_at = ? "
+            + "WHERE player_id = ? AND partner_id = ? AND (last_played_at IS NULL OR last_played_at < ?)";
+
+    private static final String SET_LAST_PLAYED =
+            "UPDATE player_partnerships SET last_played_at = ? WHERE player_id = ? AND partner_id = ?";
+
+    @Autowired
+    private PlayerPartnershipRepository playerPartnershipRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${zjutennis.aggregates.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * Get a player's doubles partners, most frequent first
+     */
+    public List<PartnershipSummary> getPartners(Long playerId) {
+        return playerPartnershipRepository.findPartners(playerId);
+    }
+
+    /**
+     * Get the pairs with the best win rate among those with at least minMatches decided matches
+     */
+    public List<PartnershipSummary> getTopPairs(int minMatches, int limit) {
+        return playerPartnershipRepository.findTopPairs(Math.max(minMatches, 1),
+                PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+
+    @Override
+    @Transactional
+    public void apply(MatchOutcome before, MatchOutcome after) {
+        Map<Pair, Counters> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            addTo(deltas, before, -1);
+        }
+        if (after != null) {
+            addTo(deltas, after, 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((pair, delta) -> {
+            if (!delta.isZero()) {
+                PAIRS.upsert(jdbcTemplate, new Object[]{pair.playerId, pair.partnerId}, new Object[0], delta.values(), now);
+            }
+        });
+
+        List<Pair> afterPairs = after == null ? List.of() : pairs(after);
+        if (after != null && after.getMatchTime() != null) {
+            Timestamp matchTime = Timestamp.valueOf(after.getMatchTime());
+            for (Pair pair : afterPairs) {
+                jdbcTemplate.update(ADVANCE_LAST_PLAYED, matchTime, pair.playerId, pair.partnerId, matchTime);
+            }
+        }
+
+        // A pair's latest match may have moved later or been dropped: look it up again
+        if (before != null && before.getMatchTime() != null) {
+            for (Pair pair : pairs(before)) {
+                boolean stillLatest = afterPairs.contains(pair)
+                        && after.getMatchTime() != null && !after.getMatchTime().isBefore(before.getMatchTime());
+                if (!stillLatest) {
+                    LocalDateTime latest = matchPlayerRepository.findLatestDoublesMatchTimeTogether(pair.playerId, pair.partnerId);
+                    jdbcTemplate.update(SET_LAST_PLAYED,
+                            latest == null ? null : Timestamp.valueOf(latest), pair.playerId, pair.partnerId);
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        long startNanos = System.nanoTime();
+        Map<Pair, Counters> totals = new HashMap<>();
+        Map<Pair, LocalDateTime> lastPlayed = new HashMap<>();
+
+        for (MatchSummary summary : matchRepository.findAllSummaries()) {
+            MatchOutcome outcome = MatchOutcome.of(summary);
+            addTo(totals, outcome, 1);
+            if (outcome.getMatchTime() != null) {
+                for (Pair pair : pairs(outcome)) {
+                    lastPlayed.merge(pair, outcome.getMatchTime(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM player_partnerships");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((pair, counters) -> {
+            LocalDateTime lastPlayedAt = lastPlayed.get(pair);
+            rows.add(new Object[]{pair.playerId, pair.partnerId, counters.played, counters.wins, counters.losses,
+                    lastPlayedAt == null ? null : Timestamp.valueOf(lastPlayedAt), now});
+        });
+        jdbcTemplate.batchUpdate(INSERT_PAIR, rows);
+
+        log.info("Rebuilt {} partnership cells in {} ms", rows.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return rows.size();
+    }
+
+    /**
+     * Bootstrap the matrix on the first startup after it was added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && playerPartnershipRepository.count() == 0 && matchRepository.countByMatchType("doubles") > 0) {
+            log.info("Partnership matrix is empty. Rebuilding from the matches table...");
+            rebuild();
+        }
+    }
+
+    private static void addTo(Map<Pair, Counters> counters, MatchOutcome outcome, int sign) {
+        for (Pair pair : pairs(outcome)) {
+            String side = outcome.getSides().get(pair.playerId);
+            int win = outcome.isWinner(side) ? sign : 0;
+            int loss = outcome.isDecided() && !outcome.isWinner(side) ? sign : 0;
+            counters.computeIfAbsent(pair, p -> new Counters()).add(sign, win, loss);
+        }
+    }
+
+    /**
+     * Both directions of each team's pair in a doubles match with two registered players on that team
+     */
+    private static List<Pair> pairs(MatchOutcome outcome) {
+        List<Pair> pairs = new ArrayList<>(4);
+        if (!outcome.isDoubles()) {
+            return pairs;
+        }
+        for (String side : new String[]{MatchOutcome.TEAM1, MatchOutcome.TEAM2}) {
+            List<Long> players = outcome.getPlayers(side);
+            if (players.size() == 2) {
+                pairs.add(new Pair(players.get(0), players.get(1)));
+                pairs.add(new Pair(players.get(1), players.get(0)));
+            }
+        }
+        return pairs;
+    }
+
+    private static final class Pair {
+        final Long playerId;
+        final Long partnerId;
+
+        Pair(Long playerId, Long partnerId) {
+            this.playerId = playerId;
+            this.partnerId = partnerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Pair)) return false;
+            Pair other = (Pair) o;
+            return playerId.equals(other.playerId) && partnerId.equals(other.partnerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, partnerId);
+        }
+    }
+
+    private static final class Counters {
+        int played;
+        int wins;
+        int losses;
+
+        void add(int played, int wins, int losses) {
+            this.played += played;
+            this.wins += wins;
+            this.losses += losses;
+        }
+
+        int[] values() {
+            return new int[]{played, wins, losses};
+        }
+
+        boolean isZero() {
+            return played == 0 && wins == 0 && losses == 0;
+        }
+    }
+}
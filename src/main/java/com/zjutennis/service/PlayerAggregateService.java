@@ -0,0 +1,228 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.model.PlayerMatchAggregate;
+import com.zjutennis.repository.MatchPlayerRepository;
+import com.zjutennis.repository.MatchRepository;
+import com.zjutennis.repository.PlayerMatchAggregateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service maintaining the player_match_aggregates table.
+ *
+ * Each match write arrives as the match's outcome before and after the change; the difference
+ * is applied to each affected player's counters as an in-place SQL increment, so concurrent
+ * writes for the same player never lose an update. An update is the reversal of the
+ * old outcome plus the new one, a delete the reversal alone. rebuild() recomputes the table
+ * from the matches table and runs on startup while the table is still empty. Both paths copy
+ * each player's last match date to player_statistics, which UTR does not fill in.
+ */
+@Service
+@Slf4j
+public class PlayerAggregateService implements MatchAggregator {
+
+    private static final CounterTable COUNTERS = new CounterTable("player_match_aggregates",
+            List.of("player_id"), List.of(),
+            List.of("singles_played", "singles_wins", "singles_losses", "doubles_played", "doubles_wins", "doubles_losses"));
+
+    private static final String INSERT_COUNTERS =
+            "INSERT INTO player_match_aggregates (player_id, singles_played, singles_wins, singles_losses, "
+            + "doubles_played, doubles_wins, doubles_losses, last_match_date, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADVANCE_LAST_MATCH_DATE =
+            "UPDATE player_match_aggregates SET last_match_date = ? "
+            + "WHERE player_id = ? AND (last_match_date IS NULL OR last_match_date < ?)";
+
+    private static final String SET_LAST_MATCH_DATE =
+            "UPDATE player_match_aggregates SET last_match_date = ? WHERE player_id = ?";
+
+    // UTR never reports a last match date, so the statistics row shows the one counted here
+    private static final String PUBLISH_LAST_MATCH_DATES =
+            "UPDATE player_statistics SET last_match_date = "
+            + "(SELECT a.last_match_date FROM player_match_aggregates a WHERE a.player_id = player_statistics.player_id)";
+
+    private static final String PUBLISH_LAST_MATCH_DATE = PUBLISH_LAST_MATCH_DATES + " WHERE player_id = ?";
+
+    @Autowired
+    private PlayerMatchAggregateRepository playerMatchAggregateRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Value("${zjutennis.aggregates.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * Get a player's match aggregates, all zero if they have no matches yet
+     */
+    public PlayerMatchAggregate getAggregate(Long playerId) {
+        return playerMatchAggregateRepository.findById(playerId)
+                .orElseGet(() -> PlayerMatchAggregate.empty(playerId));
+    }
+
+    @Override
+    @Transactional
+    public void apply(MatchOutcome before, MatchOutcome after) {
+        Map<Long, Counters> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            addTo(deltas, before, -1);
+        }
+        if (after != null) {
+            addTo(deltas, after, 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((playerId, delta) -> {
+            if (!delta.isZero()) {
+                COUNTERS.upsert(jdbcTemplate, new Object[]{playerId}, new Object[0], delta.values(), now);
+            }
+        });
+
+        if (after != null && after.getMatchTime() != null) {
+            for (Long playerId : after.getSides().keySet()) {
+                jdbcTemplate.update(ADVANCE_LAST_MATCH_DATE,
+                        Timestamp.valueOf(after.getMatchTime()), playerId, Timestamp.valueOf(after.getMatchTime()));
+            }
+        }
+
+        // A player's latest match may have moved later or been dropped: look it up again
+        if (before != null && before.getMatchTime() != null) {
+            for (Long playerId : before.getSides().keySet()) {
+                boolean stillLatest = after != null && after.getSides().containsKey(playerId)
+                        && after.getMatchTime() != null && !after.getMatchTime().isBefore(before.getMatchTime());
+                if (!stillLatest) {
+                    LocalDateTime latest = matchPlayerRepository.findLatestMatchTimeByPlayerId(playerId);
+                    jdbcTemplate.update(SET_LAST_MATCH_DATE,
+                            latest == null ? null : Timestamp.valueOf(latest), playerId);
+                }
+            }
+        }
+
+        Set<Long> playerIds = new LinkedHashSet<>();
+        if (before != null) {
+            playerIds.addAll(before.getSides().keySet());
+        }
+        if (after != null) {
+            playerIds.addAll(after.getSides().keySet());
+        }
+        for (Long playerId : playerIds) {
+            jdbcTemplate.update(PUBLISH_LAST_MATCH_DATE, playerId);
+            cacheInvalidationService.evictPlayer(playerId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        long startNanos = System.nanoTime();
+        Map<Long, Counters> totals = new HashMap<>();
+        Map<Long, LocalDateTime> lastMatchDates = new HashMap<>();
+
+        for (MatchSummary summary : matchRepository.findAllSummaries()) {
+            MatchOutcome outcome = MatchOutcome.of(summary);
+            addTo(totals, outcome, 1);
+            if (outcome.getMatchTime() != null) {
+                for (Long playerId : outcome.getSides().keySet()) {
+                    lastMatchDates.merge(playerId, outcome.getMatchTime(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM player_match_aggregates");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((playerId, counters) -> {
+            LocalDateTime lastMatchDate = lastMatchDates.get(playerId);
+            rows.add(new Object[]{playerId,
+                    counters.singlesPlayed, counters.singlesWins, counters.singlesLosses,
+                    counters.doublesPlayed, counters.doublesWins, counters.doublesLosses,
+                    lastMatchDate == null ? null : Timestamp.valueOf(lastMatchDate), now});
+        });
+        jdbcTemplate.batchUpdate(INSERT_COUNTERS, rows);
+        jdbcTemplate.update(PUBLISH_LAST_MATCH_DATES);
+        cacheInvalidationService.evictAllPlayers();
+
+        log.info("Rebuilt match aggregates for {} players in {} ms",
+                rows.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return rows.size();
+    }
+
+    /**
+     * Bootstrap the table on the first startup after it was added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && playerMatchAggregateRepository.count() == 0 && matchRepository.count() > 0) {
+            log.info("Match aggregates are empty. Rebuilding from the matches table...");
+            rebuild();
+        }
+    }
+
+    private static void addTo(Map<Long, Counters> counters, MatchOutcome outcome, int sign) {
+        outcome.getSides().forEach((playerId, side) -> {
+            // Matches without a winner count as played only
+            int win = outcome.isWinner(side) ? sign : 0;
+            int loss = outcome.isDecided() && !outcome.isWinner(side) ? sign : 0;
+            counters.computeIfAbsent(playerId, id -> new Counters()).add(outcome.isDoubles(), sign, win, loss);
+        });
+    }
+
+    private static final class Counters {
+        int singlesPlayed;
+        int singlesWins;
+        int singlesLosses;
+        int doublesPlayed;
+        int doublesWins;
+        int doublesLosses;
+
+        void add(boolean doubles, int played, int wins, int losses) {
+            if (doubles) {
+                doublesPlayed += played;
+                doublesWins += wins;
+                doublesLosses += losses;
+            } else {
+                singlesPlayed += played;
+                singlesWins += wins;
+                singlesLosses += losses;
+            }
+        }
+
+        int[] values() {
+            return new int[]{singlesPlayed, singlesWins, singlesLosses, doublesPlayed, doublesWins, doublesLosses};
+        }
+
+        boolean isZero() {
+            return singlesPlayed == 0 && singlesWins == 0 && singlesLosses == 0
+                    && doublesPlayed == 0 && doublesWins == 0 && doublesLosses == 0;
+        }
+    }
+}
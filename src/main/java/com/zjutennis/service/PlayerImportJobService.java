@@ -0,0 +1,301 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.ImportConfig;
+import com.zjutennis.dto.ImportJobStatus;
+import com.zjutennis.dto.ImportResult;
+import com.zjutennis.dto.ImportRowError;
+import com.zjutennis.dto.PlayerImportRow;
+import com.zjutennis.util.CSVChunk;
+import com.zjutennis.util.CSVTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs player CSV imports in the background.
+ *
+ * The upload is spooled to a temporary file and split into line-aligned chunks of about
+ * zjutennis.import.job.chunk-bytes. Chunks are tokenized and validated in parallel on the
+ * import parse executor, while the job thread writes them in file order, one transaction per
+ * chunk, through {@link PlayerService#writeImportRows}. At most max-in-flight chunks are
+ * parsed ahead of the writer, so memory stays bounded however large the file is.
+ */
+@Service
+@Slf4j
+public class PlayerImportJobService {
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    @Qualifier(ImportConfig.IMPORT_JOB_EXECUTOR)
+    private AsyncTaskExecutor importJobExecutor;
+
+    @Autowired
+    @Qualifier(ImportConfig.IMPORT_PARSE_EXECUTOR)
+    private AsyncTaskExecutor importParseExecutor;
+
+    // Target size of a parse chunk in bytes
+    @Value("${zjutennis.import.job.chunk-bytes:1048576}")
+    private long chunkBytes = 1048576;
+
+    // Parsed chunks allowed to wait for the writer
+    @Value("${zjutennis.import.job.max-in-flight:8}")
+    private int maxInFlight = 8;
+
+    // Row errors kept per job; errorCount still counts all of them
+    @Value("${zjutennis.import.job.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    // How long finished jobs stay queryable
+    @Value("${zjutennis.import.job.retention-minutes:60}")
+    private long retentionMinutes = 60;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Spool an uploaded CSV file and queue it for import
+     *
+     * @throws org.springframework.core.task.TaskRejectedException if too many imports are queued
+     */
+    public ImportJobStatus submit(MultipartFile file) throws IOException {
+        purgeFinishedJobs();
+
+        Path spool = Files.createTempFile("player-import-", ".csv");
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), Files.size(spool));
+        jobs.put(job.jobId, job);
+        try {
+            importJobExecutor.execute(() -> run(job, spool));
+        } catch (RuntimeException e) {
+            jobs.remove(job.jobId);
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        log.info("Queued import job {} for {} ({} bytes)", job.jobId, job.fileName, job.totalBytes);
+        return job.snapshot();
+    }
+
+    /**
+     * Get the current status of an import job
+     */
+    public Optional<ImportJobStatus> getJobStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job != null ? Optional.of(job.snapshot()) : Optional.empty();
+    }
+
+    void run(ImportJob job, Path spool) {
+        job.start();
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            List<CSVChunk> chunks = CSVTokenizer.split(spool, chunkBytes);
+            log.debug("Import job {} split into {} chunks", job.jobId, chunks.size());
+
+            int next = 0;
+            long rowBase = 0;
+            while (next < chunks.size() || !inFlight.isEmpty()) {
+                while (next < chunks.size() && inFlight.size() < maxInFlight) {
+                    CSVChunk chunk = chunks.get(next++);
+                    inFlight.add(importParseExecutor.submit(() -> parse(spool, chunk)));
+                }
+                // Chunks are written in file order; later chunks keep parsing meanwhile
+                ParsedChunk parsed = inFlight.poll().get();
+                write(job, parsed, rowBase);
+                rowBase += parsed.rowCount;
+            }
+            job.complete();
+            log.info("Import job {} completed: {} players updated, {} errors", job.jobId, job.successCount, job.errorCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import interrupted");
+        } catch (ExecutionException e) {
+            log.error("Import job {} failed to parse", job.jobId, e.getCause());
+            job.fail("Import failed: " + e.getCause().getMessage());
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.jobId, e);
+            job.fail("Import failed: " + e.getMessage());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+    }
+
+    /**
+     * Tokenize and validate one chunk; row numbers are relative to the chunk
+     */
+    private static ParsedChunk parse(Path spool, CSVChunk chunk) throws IOException {
+        ParsedChunk parsed = new ParsedChunk(chunk);
+        parsed.rowCount = CSVTokenizer.parse(spool, chunk, row -> {
+            try {
+                parsed.rows.add(PlayerImportRow.parse(row.getNumber(), row::get));
+            } catch (IllegalArgumentException e) {
+                parsed.errors.add(new ImportRowError(row.getNumber(), null, e.getMessage()));
+            }
+        });
+        return parsed;
+    }
+
+    /**
+     * Write one parsed chunk in its own transaction and fold the outcome into the job
+     */
+    private void write(ImportJob job, ParsedChunk parsed, long rowBase) {
+        for (ImportRowError error : parsed.errors) {
+            error.setRowNumber(error.getRowNumber() + rowBase);
+            job.addError(error);
+        }
+        for (PlayerImportRow row : parsed.rows) {
+            row.setRowNumber(row.getRowNumber() + rowBase);
+        }
+
+        if (!parsed.rows.isEmpty()) {
+            List<ImportRowError> writeErrors = new ArrayList<>();
+            try {
+                ImportResult result = playerService.writeImportRows(parsed.rows, writeErrors::add);
+                job.addSuccesses(result.getSuccessCount());
+                writeErrors.forEach(job::addError);
+            } catch (RuntimeException e) {
+                log.error("Import job {} failed to write {}", job.jobId, parsed.chunk, e);
+                for (PlayerImportRow row : parsed.rows) {
+                    job.addError(new ImportRowError(row.getRowNumber(), row.getPlayerId(), "Write failed: " + e.getMessage()));
+                }
+            }
+        }
+        job.chunkDone(parsed.chunk.getLength(), parsed.rowCount);
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class ParsedChunk {
+        private final CSVChunk chunk;
+        private final List<PlayerImportRow> rows = new ArrayList<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long rowCount;
+
+        private ParsedChunk(CSVChunk chunk) {
+            this.chunk = chunk;
+        }
+    }
+
+    /**
+     * Mutable job state, written by the job thread and read by status requests
+     */
+    final class ImportJob {
+        private final String jobId;
+        private final String fileName;
+        private final long totalBytes;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+        private long processedBytes;
+        private long rowsProcessed;
+        private long successCount;
+        private long errorCount;
+        private long startNanos;
+        private long endNanos;
+        private LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private String message;
+
+        ImportJob(String jobId, String fileName, long totalBytes) {
+            this.jobId = jobId;
+            this.fileName = fileName;
+            this.totalBytes = totalBytes;
+        }
+
+        synchronized void start() {
+            state = ImportJobStatus.State.RUNNING;
+            startedAt = LocalDateTime.now();
+            startNanos = System.nanoTime();
+        }
+
+        synchronized void addSuccesses(long count) {
+            successCount += count;
+        }
+
+        synchronized void addError(ImportRowError error) {
+            errorCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+
+        synchronized void chunkDone(long bytes, long rows) {
+            processedBytes += bytes;
+            rowsProcessed += rows;
+        }
+
+        synchronized void complete() {
+            // The header and any blank lines before it belong to no chunk
+            processedBytes = totalBytes;
+            finish(ImportJobStatus.State.COMPLETED, String.format(
+                    "Import completed: %d players updated, %d errors occurred.", successCount, errorCount));
+        }
+
+        synchronized void fail(String message) {
+            finish(ImportJobStatus.State.FAILED, message);
+        }
+
+        private void finish(ImportJobStatus.State finalState, String finalMessage) {
+            state = finalState;
+            message = finalMessage;
+            endNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized ImportJobStatus snapshot() {
+            ImportJobStatus status = new ImportJobStatus();
+            status.setJobId(jobId);
+            status.setFileName(fileName);
+            status.setState(state);
+            status.setTotalBytes(totalBytes);
+            status.setProcessedBytes(processedBytes);
+            status.setProgress(totalBytes > 0 ? (double) processedBytes / totalBytes
+                                              : state == ImportJobStatus.State.COMPLETED ? 1.0 : 0.0);
+            status.setRowsProcessed(rowsProcessed);
+            status.setSuccessCount(successCount);
+            status.setErrorCount(errorCount);
+            if (startedAt != null) {
+                long elapsedNanos = (finishedAt != null ? endNanos : System.nanoTime()) - startNanos;
+                double seconds = Duration.ofNanos(elapsedNanos).toMillis() / 1000.0;
+                status.setRowsPerSecond(seconds > 0 ? rowsProcessed / seconds : 0.0);
+            }
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setMessage(message);
+            status.setErrors(new ArrayList<>(errors));
+            return status;
+        }
+    }
+}
@@ -1,204 +1,143 @@
 package com.zjutennis.service;
 
+import com.zjutennis.config.CacheConfig;
 import com.zjutennis.dto.ImportResult;
+import com.zjutennis.dto.ImportRowError;
+import com.zjutennis.dto.PlayerImportRow;
+import com.zjutennis.dto.PlayerSearchCursor;
 import com.zjutennis.dto.PlayerSearchRequest;
 import com.zjutennis.dto.PlayerSearchResponse;
+import com.zjutennis.dto.PlayerSummary;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerSkills;
 import com.zjutennis.model.PlayerSkillsHistory;
 import com.zjutennis.model.PlayerStatistics;
 import com.zjutennis.repository.PlayerRepository;
 import com.zjutennis.repository.PlayerSkillsHistoryRepository;
+import com.zjutennis.repository.PlayerSpecifications;
+import com.zjutennis.search.PlayerSearchIndex;
 import com.zjutennis.util.CSVUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 public class PlayerService {
 
+    private static final String SEARCH_MODE_DATABASE = "database";
+
     @Autowired
     private PlayerRepository playerRepository;
 
     @Autowired
     private PlayerSkillsHistoryRepository playerSkillsHistoryRepository;
 
-    public List<Player> getAllPlayers() {
-        log.debug("Fetching all players");
-        return playerRepository.findAll();
-    }
-
-    public PlayerSearchResponse searchPlayers(PlayerSearchRequest request) {
-        log.debug("Searching players with filters");
+    @Autowired
+    private PlayerSearchIndex playerSearchIndex;
 
-        // Get all players and apply filters
-        List<Player> allPlayers = playerRepository.findAll();
-        List<Player> filteredPlayers = allPlayers.stream()
-                .filter(player -> matchesFilters(player, request))
-                .collect(Collectors.toList());
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
 
-        // Apply sorting
-        filteredPlayers = applySorting(filteredPlayers, request.getSortBy(), request.getSortOrder());
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-        // Calculate pagination
-        long totalCount = filteredPlayers.size();
-        int page = request.getPage() != null ? request.getPage() : 1;
-        int pageSize = request.getPageSize() != null ? request.getPageSize() : 25;
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, filteredPlayers.size());
+    // "index" answers searches from memory, "database" pushes them down to MySQL
+    @Value("${zjutennis.search.mode:index}")
+    private String searchMode;
 
-        // Get page of results
-        List<Player> pageResults = startIndex < filteredPlayers.size()
-                ? filteredPlayers.subList(startIndex, endIndex)
-                : List.of();
+    // Rows per import transaction
+    @Value("${zjutennis.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
 
-        return new PlayerSearchResponse(pageResults, totalCount, page, pageSize);
+    public List<Player> getAllPlayers() {
+        log.debug("Fetching all players");
+        return playerRepository.findAll();
     }
 
-    private boolean matchesFilters(Player player, PlayerSearchRequest request) {
-        // Name filter
-        if (request.getName() != null && !request.getName().isEmpty()) {
-            if (player.getName() == null ||
-                !player.getName().toLowerCase().contains(request.getName().toLowerCase())) {
-                return false;
-            }
-        }
-
-        // Gender filter
-        if (request.getGender() != null && !request.getGender().isEmpty()) {
-            if (!request.getGender().equals(player.getGender())) {
-                return false;
-            }
-        }
-
-        // UTR range filter
-        if (request.getUtrMin() != null || request.getUtrMax() != null) {
-            PlayerStatistics stats = player.getStatistics();
-            if (stats == null || stats.getUtrRating() == null) {
-                return false;
-            }
-            if (request.getUtrMin() != null && stats.getUtrRating() < request.getUtrMin()) {
-                return false;
-            }
-            if (request.getUtrMax() != null && stats.getUtrRating() > request.getUtrMax()) {
-                return false;
-            }
-        }
-
-        // NTRP filter
-        if (request.getNtrp() != null) {
-            PlayerStatistics stats = player.getStatistics();
-            if (stats == null || stats.getNtrpRating() == null ||
-                !stats.getNtrpRating().equals(request.getNtrp())) {
-                return false;
-            }
-        }
-
-        // Win rate range filter
-        if (request.getWinRateMin() != null || request.getWinRateMax() != null) {
-            PlayerStatistics stats = player.getStatistics();
-            if (stats == null || stats.getWinRate() == null) {
-                return false;
-            }
-            if (request.getWinRateMin() != null && stats.getWinRate() < request.getWinRateMin()) {
-                return false;
-            }
-            if (request.getWinRateMax() != null && stats.getWinRate() > request.getWinRateMax()) {
-                return false;
-            }
-        }
-
-        // University filter
-        if (request.getUniversity() != null && !request.getUniversity().isEmpty()) {
-            if (player.getAlumni() == null) {
-                return false;
-            }
-            String searchUni = request.getUniversity().toLowerCase();
-            String uni1 = player.getAlumni().getGraduationUniversity1();
-            String uni2 = player.getAlumni().getGraduationUniversity2();
-            String uni3 = player.getAlumni().getGraduationUniversity3();
-
-            boolean matches = (uni1 != null && uni1.toLowerCase().contains(searchUni)) ||
-                            (uni2 != null && uni2.toLowerCase().contains(searchUni)) ||
-                            (uni3 != null && uni3.toLowerCase().contains(searchUni));
-            if (!matches) {
-                return false;
-            }
-        }
-
-        // City filter
-        if (request.getCity() != null && !request.getCity().isEmpty()) {
-            if (player.getCity() == null ||
-                !player.getCity().toLowerCase().contains(request.getCity().toLowerCase())) {
-                return false;
-            }
-        }
-
-        // Country filter
-        if (request.getCountry() != null && !request.getCountry().isEmpty()) {
-            if (player.getCountry() == null ||
-                !player.getCountry().toLowerCase().contains(request.getCountry().toLowerCase())) {
-                return false;
-            }
-        }
+    /**
+     * Get list-view summaries of all players
+     */
+    public List<PlayerSummary> getPlayerSummaries() {
+        log.debug("Fetching player summaries");
+        return playerRepository.findAllSummaries();
+    }
 
-        return true;
+    /**
+     * Get list-view summaries of the players in a city
+     */
+    public List<PlayerSummary> getPlayerSummariesByCity(String city) {
+        log.debug("Fetching player summaries by city: {}", city);
+        return playerRepository.findSummariesByCity(city);
     }
 
-    private List<Player> applySorting(List<Player> players, String sortBy, String sortOrder) {
-        if (sortBy == null || sortBy.isEmpty()) {
-            return players;
+    public PlayerSearchResponse searchPlayers(PlayerSearchRequest request) {
+        log.debug("Searching players with filters");
+        if (SEARCH_MODE_DATABASE.equalsIgnoreCase(searchMode)) {
+            return searchPlayersInDatabase(request);
         }
+        return playerSearchIndex.search(request);
+    }
 
-        Comparator<Player> comparator = null;
-
-        switch (sortBy.toLowerCase()) {
-            case "utr":
-                comparator = Comparator.comparing(p ->
-                    p.getStatistics() != null && p.getStatistics().getUtrRating() != null
-                        ? p.getStatistics().getUtrRating()
-                        : -1.0
-                );
-                break;
-            case "ntrp":
-                comparator = Comparator.comparing(p ->
-                    p.getStatistics() != null && p.getStatistics().getNtrpRating() != null
-                        ? p.getStatistics().getNtrpRating()
-                        : -1.0
-                );
-                break;
-            case "gender":
-                comparator = Comparator.comparing(p ->
-                    p.getGender() != null ? p.getGender() : "zzz"
-                );
-                break;
-            default:
-                return players;
-        }
+    /**
+     * Run the search as a single paged query in the database.
+     * Memory per search scales with the page size rather than the table size.
+     */
+    private PlayerSearchResponse searchPlayersInDatabase(PlayerSearchRequest request) {
+        int page = request.getPage() != null ? request.getPage() : 1;
+        int pageSize = request.getPageSize() != null ? request.getPageSize() : 25;
 
-        if ("asc".equalsIgnoreCase(sortOrder)) {
-            players.sort(comparator);
+        Specification<Player> spec = PlayerSpecifications.fromSearchRequest(request);
+        PlayerSearchResponse response;
+        Page<Player> result;
+        if (request.getCursor() == null) {
+            result = playerRepository.findAll(spec, PageRequest.of(Math.max(page - 1, 0), Math.max(pageSize, 1)));
+            response = new PlayerSearchResponse(result.getContent(), result.getTotalElements(), page, pageSize);
         } else {
-            players.sort(comparator.reversed());
+            // Seek past the cursor instead of skipping rows; the total still counts every match
+            PlayerSearchCursor after = PlayerSearchCursor.decode(request.getCursor(), request);
+            result = playerRepository.findAll(
+                    PlayerSpecifications.fromSearchRequest(request, after), PageRequest.of(0, Math.max(pageSize, 1)));
+            response = new PlayerSearchResponse(result.getContent(), playerRepository.count(spec), page, pageSize);
         }
 
-        return players;
+        if (result.hasNext()) {
+            List<Player> players = result.getContent();
+            response.setNextCursor(PlayerSearchCursor.after(request, players.get(players.size() - 1)).encode());
+        }
+        return response;
     }
 
+    @Cacheable(cacheNames = CacheConfig.PLAYERS, unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<Player> getPlayerById(Long id) {
         log.debug("Fetching player by id: {}", id);
-        return playerRepository.findById(id);
+        Optional<Player> player = playerRepository.findById(id);
+        // The cached player outlives this session, so load the analyses it serializes now
+        player.ifPresent(p -> Hibernate.initialize(p.getVideoAnalyses()));
+        return player;
     }
 
     public Optional<Player> getPlayerByEmail(String email) {
@@ -214,7 +153,9 @@ public class PlayerService {
     @Transactional
     public Player createPlayer(Player player) {
         log.debug("Creating new player: {}", player.getName());
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        playerSearchIndex.upsert(saved);
+        return saved;
     }
 
     @Transactional
@@ -295,123 +236,184 @@ public class PlayerService {
             player.setAlumni(playerDetails.getAlumni());
         }
 
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        playerSearchIndex.upsert(saved);
+        cacheInvalidationService.evictPlayerProfile(id);
+        return saved;
     }
 
-    @Transactional
+    /**
+     * Import player updates from a CSV export.
+     *
+     * The file is streamed in chunks of zjutennis.import.chunk-size rows. Each chunk runs in
+     * its own short transaction: the players it references are fetched with one IN query,
+     * the rows are applied in memory and the changes are flushed as JDBC batches on commit.
+     * A chunk that fails to commit counts all of its rows as errors; earlier chunks stay.
+     * Large files should go through {@link PlayerImportJobService} instead.
+     */
     public ImportResult importPlayersFromCSV(MultipartFile file) throws IOException {
         log.debug("Importing players from CSV file: {}", file.getOriginalFilename());
 
-        List<Map<String, String>> rows = CSVUtil.parseCSV(file.getInputStream());
-
-        int successCount = 0;
-        int errorCount = 0;
-
-        for (Map<String, String> row : rows) {
-            try {
-                String playerIdStr = row.get("Player ID");
-                if (playerIdStr == null || playerIdStr.trim().isEmpty() || playerIdStr.equals("-")) {
-                    errorCount++;
-                    continue;
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        ImportResult total = new ImportResult(0, 0, null);
+        long[] rowNumber = {0};
+
+        CSVUtil.parseCSVInChunks(file.getInputStream(), importChunkSize, rows -> {
+            List<PlayerImportRow> parsed = new ArrayList<>(rows.size());
+            int parseErrors = 0;
+            for (Map<String, String> row : rows) {
+                try {
+                    parsed.add(PlayerImportRow.parse(++rowNumber[0], row::get));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping import row {}: {}", rowNumber[0], e.getMessage());
+                    parseErrors++;
                 }
+            }
 
-                Long playerId = Long.parseLong(playerIdStr.trim());
-                Optional<Player> playerOpt = playerRepository.findById(playerId);
+            ImportResult chunkResult;
+            try {
+                chunkResult = chunkTransaction.execute(status -> writeImportRows(parsed,
+                        error -> log.warn("Import row {} failed: {}", error.getRowNumber(), error.getMessage())));
+            } catch (RuntimeException e) {
+                log.error("Error committing import chunk of {} rows", rows.size(), e);
+                chunkResult = new ImportResult(0, parsed.size(), null);
+            }
+            total.setSuccessCount(total.getSuccessCount() + chunkResult.getSuccessCount());
+            total.setErrorCount(total.getErrorCount() + chunkResult.getErrorCount() + parseErrors);
+        });
 
-                if (!playerOpt.isPresent()) {
-                    log.warn("Player not found with id: {}", playerId);
-                    errorCount++;
-                    continue;
-                }
+        String message = String.format("Import completed: %d players updated, %d errors occurred.",
+                                       total.getSuccessCount(), total.getErrorCount());
+        log.info(message);
+        total.setMessage(message);
 
-                Player player = playerOpt.get();
-                boolean playerUpdated = false;
+        return total;
+    }
 
-                // Update player basic info
-                String name = row.get("Name");
-                if (name != null && !name.trim().isEmpty() && !name.equals("-")) {
-                    player.setName(name.trim());
-                    playerUpdated = true;
-                }
+    /**
+     * Apply validated import rows and write the changed players as one batch.
+     *
+     * The players the rows reference are fetched with a single IN query and updated in
+     * memory; the flush on commit groups the updates into JDBC batches. Rows whose player
+     * does not exist are reported to the error callback and counted as errors.
+     */
+    @Transactional
+    public ImportResult writeImportRows(List<PlayerImportRow> rows, Consumer<ImportRowError> errors) {
+        // Resolve every player the chunk references with a single query
+        Set<Long> playerIds = new HashSet<>();
+        for (PlayerImportRow row : rows) {
+            playerIds.add(row.getPlayerId());
+        }
+        Map<Long, Player> playersById = new HashMap<>();
+        if (!playerIds.isEmpty()) {
+            for (Player player : playerRepository.findAllWithDetailsByIdIn(playerIds)) {
+                playersById.put(player.getId(), player);
+            }
+        }
 
-                String gender = row.get("Gender");
-                if (gender != null && !gender.trim().isEmpty() && !gender.equals("-")) {
-                    player.setGender(gender.trim().toLowerCase());
-                    playerUpdated = true;
-                }
+        int successCount = 0;
+        int errorCount = 0;
+        Map<Long, Player> changed = new LinkedHashMap<>();
+        Set<Long> profileChanged = new HashSet<>();
+
+        for (PlayerImportRow row : rows) {
+            Long playerId = row.getPlayerId();
+            Player player = playersById.get(playerId);
+            if (player == null) {
+                log.warn("Player not found with id: {}", playerId);
+                errors.accept(new ImportRowError(row.getRowNumber(), playerId, "Player not found with id: " + playerId));
+                errorCount++;
+                continue;
+            }
 
-                if (playerUpdated) {
-                    playerRepository.save(player);
-                }
+            boolean playerUpdated = applyImportedProfile(player, row);
+            if (playerUpdated) {
+                profileChanged.add(playerId);
+            }
+            boolean statsUpdated = applyImportedStatistics(player, row);
 
-                // Update player statistics
-                boolean statsUpdated = false;
-                PlayerStatistics statistics = player.getStatistics();
-                if (statistics == null) {
-                    statistics = new PlayerStatistics();
-                }
+            if (playerUpdated || statsUpdated) {
+                changed.put(playerId, player);
+            }
 
-                String utrRating = row.get("UTR Rating");
-                if (utrRating != null && !utrRating.trim().isEmpty() && !utrRating.equals("-")) {
-                    Double oldUtr = statistics.getUtrRating();
-                    Double newUtr = Double.parseDouble(utrRating.trim());
+            successCount++;
+        }
 
-                    // Update UTR updated date if rating changed
-                    if (oldUtr == null || !oldUtr.equals(newUtr)) {
-                        statistics.setUtrUpdatedDate(LocalDateTime.now());
-                    }
+        // The players are managed, so the updates are written by the flush on commit,
+        // grouped into JDBC batches of hibernate.jdbc.batch_size statements
+        playerRepository.saveAll(changed.values());
+        for (Player player : changed.values()) {
+            playerSearchIndex.upsert(player);
+        }
+        for (Long playerId : changed.keySet()) {
+            if (!profileChanged.contains(playerId)) {
+                cacheInvalidationService.evictPlayer(playerId);
+            }
+        }
+        cacheInvalidationService.evictPlayerProfiles(profileChanged);
 
-                    statistics.setUtrRating(newUtr);
-                    statsUpdated = true;
-                }
+        return new ImportResult(successCount, errorCount, null);
+    }
 
-                String utrStatus = row.get("UTR Status");
-                if (utrStatus != null && !utrStatus.trim().isEmpty() && !utrStatus.equals("-")) {
-                    statistics.setUtrStatus(utrStatus.trim());
-                    statsUpdated = true;
-                }
+    /**
+     * Apply the name and gender columns of an import row
+     */
+    private static boolean applyImportedProfile(Player player, PlayerImportRow row) {
+        boolean playerUpdated = false;
 
-                String ntrpRating = row.get("NTRP Rating");
-                if (ntrpRating != null && !ntrpRating.trim().isEmpty() && !ntrpRating.equals("-")) {
-                    statistics.setNtrpRating(Double.parseDouble(ntrpRating.trim()));
-                    statsUpdated = true;
-                }
+        if (row.getName() != null) {
+            player.setName(row.getName());
+            playerUpdated = true;
+        }
 
-                String ntrpStatus = row.get("NTRP Status");
-                if (ntrpStatus != null && !ntrpStatus.trim().isEmpty() && !ntrpStatus.equals("-")) {
-                    statistics.setNtrpStatus(ntrpStatus.trim());
-                    statsUpdated = true;
-                }
+        if (row.getGender() != null) {
+            player.setGender(row.getGender());
+            playerUpdated = true;
+        }
 
-                String dynamicRating = row.get("Dynamic Rating");
-                if (dynamicRating != null && !dynamicRating.trim().isEmpty() && !dynamicRating.equals("-")) {
-                    statistics.setDynamicRating(Double.parseDouble(dynamicRating.trim()));
-                    statsUpdated = true;
-                }
+        return playerUpdated;
+    }
 
-                String winRate = row.get("Win Rate");
-                if (winRate != null && !winRate.trim().isEmpty() && !winRate.equals("-")) {
-                    String winRateStr = winRate.trim().replace("%", "");
-                    statistics.setWinRate(Double.parseDouble(winRateStr));
-                    statsUpdated = true;
-                }
+    /**
+     * Apply the rating columns of an import row
+     */
+    private static boolean applyImportedStatistics(Player player, PlayerImportRow row) {
+        if (!row.hasStatistics()) {
+            return false;
+        }
+        PlayerStatistics statistics = player.getStatistics();
+        if (statistics == null) {
+            statistics = new PlayerStatistics();
+        }
 
-                if (statsUpdated) {
-                    player.setStatistics(statistics);
-                    playerRepository.save(player);
-                }
+        if (row.getUtrRating() != null) {
+            Double oldUtr = statistics.getUtrRating();
+            Double newUtr = row.getUtrRating();
 
-                successCount++;
-            } catch (Exception e) {
-                log.error("Error processing row: {}", row, e);
-                errorCount++;
+            // Update UTR updated date if rating changed
+            if (oldUtr == null || !oldUtr.equals(newUtr)) {
+                statistics.setUtrUpdatedDate(LocalDateTime.now());
             }
-        }
 
-        String message = String.format("Import completed: %d players updated, %d errors occurred.",
-                                       successCount, errorCount);
-        log.info(message);
+            statistics.setUtrRating(newUtr);
+        }
+        if (row.getUtrStatus() != null) {
+            statistics.setUtrStatus(row.getUtrStatus());
+        }
+        if (row.getNtrpRating() != null) {
+            statistics.setNtrpRating(row.getNtrpRating());
+        }
+        if (row.getNtrpStatus() != null) {
+            statistics.setNtrpStatus(row.getNtrpStatus());
+        }
+        if (row.getDynamicRating() != null) {
+            statistics.setDynamicRating(row.getDynamicRating());
+        }
+        if (row.getWinRate() != null) {
+            statistics.setWinRate(row.getWinRate());
+        }
 
-        return new ImportResult(successCount, errorCount, message);
+        player.setStatistics(statistics);
+        return true;
     }
 }
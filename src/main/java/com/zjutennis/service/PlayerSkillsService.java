@@ -4,6 +4,7 @@ import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerSkills;
 import com.zjutennis.repository.PlayerRepository;
 import com.zjutennis.repository.PlayerSkillsRepository;
+import com.zjutennis.search.PlayerSearchIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,12 @@ public class PlayerSkillsService {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private PlayerSearchIndex playerSearchIndex;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
     public Optional<PlayerSkills> getPlayerSkills(Long playerId) {
         log.debug("Fetching skills for player id: {}", playerId);
         return playerSkillsRepository.findByPlayerId(playerId);
@@ -33,7 +40,10 @@ public class PlayerSkillsService {
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + playerId));
 
         skills.setPlayer(player);
-        return playerSkillsRepository.save(skills);
+        PlayerSkills saved = playerSkillsRepository.save(skills);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
+        return saved;
     }
 
     @Transactional
@@ -60,12 +70,17 @@ public class PlayerSkillsService {
         skills.setWeaknesses(skillsDetails.getWeaknesses());
         skills.setNotes(skillsDetails.getNotes());
 
-        return playerSkillsRepository.save(skills);
+        PlayerSkills saved = playerSkillsRepository.save(skills);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
+        return saved;
     }
 
     @Transactional
     public void deletePlayerSkills(Long playerId) {
         log.debug("Deleting skills for player id: {}", playerId);
         playerSkillsRepository.deleteByPlayerId(playerId);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
     }
 }
@@ -6,10 +6,13 @@ import com.zjutennis.parser.UTRPlayerResultDTO;
 import com.zjutennis.parser.UTRService;
 import com.zjutennis.repository.PlayerRepository;
 import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.search.PlayerSearchIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -26,6 +29,15 @@ public class PlayerStatisticsService {
     @Autowired
     private UTRService utrService;
 
+    @Autowired
+    private PlayerSearchIndex playerSearchIndex;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     public Optional<PlayerStatistics> getPlayerStatistics(Long playerId) {
         log.debug("Fetching statistics for player id: {}", playerId);
         return playerStatisticsRepository.findByPlayerId(playerId);
@@ -38,7 +50,10 @@ public class PlayerStatisticsService {
                 .orElseThrow(() -> new RuntimeException("Player not found with id: " + playerId));
 
         statistics.setPlayer(player);
-        return playerStatisticsRepository.save(statistics);
+        PlayerStatistics saved = playerStatisticsRepository.save(statistics);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
+        return saved;
     }
 
     @Transactional
@@ -88,13 +103,18 @@ public class PlayerStatisticsService {
         statistics.setDominantHand(statisticsDetails.getDominantHand());
         statistics.setPreferredDoublesPosition(statisticsDetails.getPreferredDoublesPosition());
 
-        return playerStatisticsRepository.save(statistics);
+        PlayerStatistics saved = playerStatisticsRepository.save(statistics);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
+        return saved;
     }
 
     @Transactional
     public void deletePlayerStatistics(Long playerId) {
         log.debug("Deleting statistics for player id: {}", playerId);
         playerStatisticsRepository.deleteByPlayerId(playerId);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
     }
 
     /**
@@ -106,13 +126,13 @@ public class PlayerStatisticsService {
      * @return Updated PlayerStatistics
      * @throws RuntimeException if player or statistics not found, or if UTR ID is invalid
      */
-    @Transactional
+    // Not transactional: no database connection is held while waiting on UTR
     public PlayerStatistics updateFromUTR(Long playerId, String utrId) {
         log.info("Updating player statistics from UTR for player id: {} with UTR ID: {}", playerId, utrId);
 
-        // Get player statistics
-        PlayerStatistics statistics = playerStatisticsRepository.findByPlayerId(playerId)
-                .orElseThrow(() -> new RuntimeException("Statistics not found for player id: " + playerId));
+        if (!playerStatisticsRepository.existsByPlayerId(playerId)) {
+            throw new RuntimeException("Statistics not found for player id: " + playerId);
+        }
 
         // Check if UTR ID is provided
         if (utrId == null || utrId.trim().isEmpty()) {
@@ -122,7 +142,7 @@ public class PlayerStatisticsService {
         // Extract UTR ID from URL if it's a URL
         // UTR URLs typically look like: https://app.utrsports.net/profiles/123456
         // or just the ID: 123456
-        String extractedUtrId = extractUtrIdFromUrl(utrId);
+        String extractedUtrId = UTRService.extractUtrId(utrId);
         log.debug("Extracted UTR ID: {} from input: {}", extractedUtrId, utrId);
 
         try {
@@ -130,31 +150,9 @@ public class PlayerStatisticsService {
             UTRPlayerResultDTO utrResult = utrService.getPlayerResults(extractedUtrId);
 
             if (utrResult != null) {
-                // Update statistics
-                Integer wins = utrResult.getWins();
-                Integer losses = utrResult.getLosses();
-                Integer withdrawls = utrResult.getWithdrawls();
-
-                statistics.setWins(wins);
-                statistics.setLosses(losses);
-
-                // Calculate total matches: wins + losses + withdrawals
-                if (wins != null && losses != null && withdrawls != null) {
-                    int totalMatches = wins + losses + withdrawls;
-                    statistics.setTotalMatches(totalMatches);
-
-                    // Calculate win rate: wins / (wins + losses + withdrawals)
-                    if (totalMatches > 0) {
-                        double winRate = (wins * 100.0) / totalMatches;
-                        statistics.setWinRate(winRate);
-                        log.info("Updated player {} statistics: wins={}, losses={}, withdrawals={}, totalMatches={}, winRate={}%",
-                                playerId, wins, losses, withdrawls, totalMatches, String.format("%.2f", winRate));
-                    } else {
-                        statistics.setWinRate(0.0);
-                    }
-                }
-
-                return playerStatisticsRepository.save(statistics);
+                // Re-read the row once UTR has answered, so writes made while waiting are kept
+                return new TransactionTemplate(transactionManager)
+                        .execute(status -> applyUTRResults(playerId, utrResult));
             } else {
                 throw new RuntimeException("Failed to fetch UTR data for player id: " + playerId);
             }
@@ -166,41 +164,47 @@ public class PlayerStatisticsService {
     }
 
     /**
-     * Extract UTR ID from UTR URL
-     * Supports formats:
-     * - https://app.utrsports.net/profiles/123456
-     * - app.utrsports.net/profiles/123456
-     * - 123456 (just the ID)
+     * Store UTR match results fetched for a player
      *
-     * @param utrUrl The UTR URL or ID
-     * @return The extracted UTR ID
+     * @throws RuntimeException if the player has no statistics
      */
-    private String extractUtrIdFromUrl(String utrUrl) {
-        if (utrUrl == null || utrUrl.trim().isEmpty()) {
-            throw new IllegalArgumentException("UTR URL cannot be null or empty");
-        }
+    @Transactional
+    public PlayerStatistics applyUTRResults(Long playerId, UTRPlayerResultDTO utrResult) {
+        PlayerStatistics statistics = playerStatisticsRepository.findByPlayerId(playerId)
+                .orElseThrow(() -> new RuntimeException("Statistics not found for player id: " + playerId));
+        return applyUTRResults(statistics, utrResult);
+    }
 
-        String trimmedUrl = utrUrl.trim();
+    private PlayerStatistics applyUTRResults(PlayerStatistics statistics, UTRPlayerResultDTO utrResult) {
+        Long playerId = statistics.getPlayer().getId();
 
-        // If it's just a number, return it
-        if (trimmedUrl.matches("\\d+")) {
-            return trimmedUrl;
-        }
+        // Update statistics
+        Integer wins = utrResult.getWins();
+        Integer losses = utrResult.getLosses();
+        Integer withdrawls = utrResult.getWithdrawls();
+
+        statistics.setWins(wins);
+        statistics.setLosses(losses);
 
-        // Extract from URL patterns
-        // Pattern: https://app.utrsports.net/profiles/123456
-        if (trimmedUrl.contains("profiles/")) {
-            String[] parts = trimmedUrl.split("profiles/");
-            if (parts.length > 1) {
-                // Get the ID part and remove any trailing slashes or query parameters
-                String idPart = parts[1].split("[/?#]")[0];
-                if (idPart.matches("\\d+")) {
-                    return idPart;
-                }
+        // Calculate total matches: wins + losses + withdrawals
+        if (wins != null && losses != null && withdrawls != null) {
+            int totalMatches = wins + losses + withdrawls;
+            statistics.setTotalMatches(totalMatches);
+
+            // Calculate win rate: wins / (wins + losses + withdrawals)
+            if (totalMatches > 0) {
+                double winRate = (wins * 100.0) / totalMatches;
+                statistics.setWinRate(winRate);
+                log.info("Updated player {} statistics: wins={}, losses={}, withdrawals={}, totalMatches={}, winRate={}%",
+                        playerId, wins, losses, withdrawls, totalMatches, String.format("%.2f", winRate));
+            } else {
+                statistics.setWinRate(0.0);
             }
         }
 
-        // If we couldn't extract a valid ID, throw an exception
-        throw new IllegalArgumentException("Invalid UTR URL format: " + utrUrl);
+        PlayerStatistics saved = playerStatisticsRepository.save(statistics);
+        playerSearchIndex.reload(playerId);
+        cacheInvalidationService.evictPlayer(playerId);
+        return saved;
     }
 }
@@ -0,0 +1,455 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.RatingConfig;
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.model.PlayerRating;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.model.RatingChange;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import com.zjutennis.repository.MatchRepository;
+import com.zjutennis.repository.PlayerRatingRepository;
+import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.repository.RatingChangeRepository;
+import com.zjutennis.search.PlayerSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the match ratings in player_ratings and their history in rating_changes
+ *
+ * Ratings come from EloRatingEngine replaying the matches in time order. A new match played
+ * after every rated match of its players is rated on top of their current ratings. Anything
+ * else (a back-dated match, an edited result, a deleted match) changes the ratings of every
+ * match after it, so the connected group of players it belongs to is replayed from scratch.
+ * Players who never met, directly or through common opponents and partners, cannot affect
+ * each other's ratings; a full recompute rates each such group on the rating executor in
+ * parallel.
+ *
+ * Each rating is published to PlayerStatistics.dynamicRating, rounded to one decimal.
+ */
+@Service
+@Slf4j
+public class RatingService implements MatchAggregator {
+
+    private static final String INSERT_RATING =
+            "INSERT INTO player_ratings (player_id, rating, matches_rated, last_match_id, last_match_time, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO rating_changes (match_id, player_id, rating_before, rating_after, delta, match_time, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SET_DYNAMIC_RATING =
+            "UPDATE player_statistics SET dynamic_rating = ? WHERE player_id = ?";
+
+    @Autowired
+    private PlayerRatingRepository playerRatingRepository;
+
+    @Autowired
+    private RatingChangeRepository ratingChangeRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Autowired
+    private PlayerSearchIndex playerSearchIndex;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerFeatureStore playerFeatureStore;
+
+    @Autowired
+    @Qualifier(RatingConfig.RATING_EXECUTOR)
+    private Executor ratingExecutor;
+
+    @Value("${zjutennis.rating.initial:1500}")
+    private double initialRating = 1500;
+
+    @Value("${zjutennis.rating.k-factor:24}")
+    private double kFactor = 24;
+
+    @Value("${zjutennis.rating.provisional-k-factor:40}")
+    private double provisionalKFactor = 40;
+
+    @Value("${zjutennis.rating.provisional-matches:10}")
+    private int provisionalMatches = 10;
+
+    @Value("${zjutennis.rating.recompute-threads:4}")
+    private int recomputeThreads = 4;
+
+    @Value("${zjutennis.aggregates.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    private EloRatingEngine engine;
+
+    @PostConstruct
+    void createEngine() {
+        engine = new EloRatingEngine(initialRating, kFactor, provisionalKFactor, provisionalMatches);
+    }
+
+    public Optional<PlayerRating> getRating(Long playerId) {
+        return playerRatingRepository.findById(playerId);
+    }
+
+    /**
+     * Get how each rated match moved a player's rating, oldest first
+     */
+    public List<RatingChange> getRatingHistory(Long playerId) {
+        return ratingChangeRepository.findByPlayerIdOrderByMatchTimeAscMatchIdAsc(playerId);
+    }
+
+    @Override
+    @Transactional
+    public void apply(MatchOutcome before, MatchOutcome after) {
+        boolean beforeRated = before != null && EloRatingEngine.isRated(before);
+        boolean afterRated = after != null && EloRatingEngine.isRated(after);
+        if (!beforeRated && !afterRated) {
+            return;
+        }
+        if (beforeRated && afterRated && sameRating(before, after)) {
+            return;
+        }
+        if (!beforeRated && rateNewest(after)) {
+            return;
+        }
+
+        Set<Long> players = new LinkedHashSet<>();
+        if (beforeRated) {
+            players.addAll(before.getSides().keySet());
+        }
+        if (afterRated) {
+            players.addAll(after.getSides().keySet());
+        }
+        recompute(players);
+    }
+
+    /**
+     * Recompute every rating from the matches table
+     *
+     * @return the number of players rated
+     */
+    @Override
+    @Transactional
+    public int rebuild() {
+        int rated = recompute(null);
+        playerFeatureStore.invalidate();
+        return rated;
+    }
+
+    /**
+     * Bootstrap the ratings on the first startup after they were added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && playerRatingRepository.count() == 0 && matchRepository.count() > 0) {
+            log.info("Player ratings are empty. Rating the matches table...");
+            rebuild();
+        }
+    }
+
+    /**
+     * Rate a match on top of its players' current ratings, if it comes after all of their rated matches
+     *
+     * @return false if the match is back-dated for one of its players and nothing was written
+     */
+    private boolean rateNewest(MatchOutcome outcome) {
+        Map<Long, PlayerRating> ratings = new HashMap<>();
+        for (PlayerRating rating : playerRatingRepository.findAllForUpdate(outcome.getSides().keySet())) {
+            if (!EloRatingEngine.isAfter(outcome, rating)) {
+                return false;
+            }
+            ratings.put(rating.getPlayerId(), rating);
+        }
+
+        List<RatingChange> changes = engine.rate(outcome, ratings);
+        playerRatingRepository.saveAll(ratings.values());
+        ratingChangeRepository.saveAll(changes);
+        publish(ratings.values(), Set.of());
+        for (Long playerId : ratings.keySet()) {
+            playerSearchIndex.reload(playerId);
+            cacheInvalidationService.evictPlayer(playerId);
+        }
+        return true;
+    }
+
+    /**
+     * Replay the groups of players connected to the given players, or every group when null
+     *
+     * @return the number of players rated
+     */
+    private int recompute(Set<Long> players) {
+        long startNanos = System.nanoTime();
+        List<MatchOutcome> rated = new ArrayList<>();
+        for (MatchSummary summary : matchRepository.findAllSummaries()) {
+            MatchOutcome outcome = MatchOutcome.of(summary);
+            if (EloRatingEngine.isRated(outcome)) {
+                rated.add(outcome);
+            }
+        }
+        rated.sort(EloRatingEngine.MATCH_ORDER);
+
+        List<List<MatchOutcome>> groups = new ArrayList<>(connectedGroups(rated));
+        Set<Long> affected = null;
+        if (players != null) {
+            affected = new HashSet<>(players);
+            groups.removeIf(group -> group.stream().noneMatch(outcome -> touches(outcome, players)));
+            for (List<MatchOutcome> group : groups) {
+                for (MatchOutcome outcome : group) {
+                    affected.addAll(outcome.getSides().keySet());
+                }
+            }
+        }
+
+        Map<Long, PlayerRating> ratings = new HashMap<>();
+        List<RatingChange> changes = new ArrayList<>();
+        replayGroups(groups, ratings, changes);
+        replace(affected, ratings, changes);
+
+        log.info("Rated {} players over {} matches in {} groups in {} ms", ratings.size(),
+                changes.stream().map(RatingChange::getMatchId).distinct().count(), groups.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return ratings.size();
+    }
+
+    /**
+     * Split time-ordered matches into groups whose players never share a match with another group,
+     * each group keeping the time order
+     */
+    private static Collection<List<MatchOutcome>> connectedGroups(List<MatchOutcome> matches) {
+        Map<Long, Long> parents = new HashMap<>();
+        for (MatchOutcome outcome : matches) {
+            Long first = null;
+            for (Long playerId : outcome.getSides().keySet()) {
+                if (first == null) {
+                    first = find(parents, playerId);
+                } else {
+                    Long root = find(parents, playerId);
+                    if (!root.equals(first)) {
+                        parents.put(root, first);
+                    }
+                }
+            }
+        }
+
+        Map<Long, List<MatchOutcome>> groups = new LinkedHashMap<>();
+        for (MatchOutcome outcome : matches) {
+            Long root = find(parents, outcome.getSides().keySet().iterator().next());
+            groups.computeIfAbsent(root, r -> new ArrayList<>()).add(outcome);
+        }
+        return groups.values();
+    }
+
+    private static Long find(Map<Long, Long> parents, Long playerId) {
+        Long root = playerId;
+        Long parent;
+        while ((parent = parents.get(root)) != null && !parent.equals(root)) {
+            root = parent;
+        }
+        parents.putIfAbsent(playerId, playerId);
+        // Point the whole path at the root so later lookups are short
+        Long node = playerId;
+        while (!node.equals(root)) {
+            Long next = parents.get(node);
+            parents.put(node, root);
+            node = next;
+        }
+        return root;
+    }
+
+    /**
+     * Rate each group from the initial ratings, spreading the groups over the rating executor
+     */
+    private void replayGroups(List<List<MatchOutcome>> groups, Map<Long, PlayerRating> ratings, List<RatingChange> changes) {
+        int tasks = Math.min(Math.max(recomputeThreads, 1), groups.size());
+        if (tasks <= 1) {
+            for (List<MatchOutcome> group : groups) {
+                changes.addAll(engine.replay(group, ratings));
+            }
+            return;
+        }
+
+        // Largest groups first, each to the task with the fewest matches so far
+        List<List<MatchOutcome>> bySize = new ArrayList<>(groups);
+        bySize.sort(Comparator.comparingInt((List<MatchOutcome> group) -> group.size()).reversed());
+        List<List<List<MatchOutcome>>> buckets = new ArrayList<>(tasks);
+        int[] loads = new int[tasks];
+        for (int i = 0; i < tasks; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (List<MatchOutcome> group : bySize) {
+            int lightest = 0;
+            for (int i = 1; i < tasks; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            buckets.get(lightest).add(group);
+            loads[lightest] += group.size();
+        }
+
+        List<CompletableFuture<Replay>> futures = buckets.stream()
+                .map(bucket -> CompletableFuture.supplyAsync(() -> {
+                    Replay replay = new Replay();
+                    for (List<MatchOutcome> group : bucket) {
+                        replay.changes.addAll(engine.replay(group, replay.ratings));
+                    }
+                    return replay;
+                }, ratingExecutor))
+                .collect(Collectors.toList());
+        try {
+            for (CompletableFuture<Replay> future : futures) {
+                Replay replay = future.join();
+                ratings.putAll(replay.ratings);
+                changes.addAll(replay.changes);
+            }
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to recompute ratings: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Replace the stored ratings of the affected players (every player when null) with freshly computed ones
+     */
+    private void replace(Set<Long> affected, Map<Long, PlayerRating> ratings, List<RatingChange> changes) {
+        Set<Long> previouslyRated;
+        if (affected == null) {
+            previouslyRated = new HashSet<>(jdbcTemplate.queryForList("SELECT player_id FROM player_ratings", Long.class));
+            jdbcTemplate.update("DELETE FROM rating_changes");
+            jdbcTemplate.update("DELETE FROM player_ratings");
+        } else {
+            previouslyRated = playerRatingRepository.findAllById(affected).stream()
+                    .map(PlayerRating::getPlayerId)
+                    .collect(Collectors.toSet());
+            List<Object[]> ids = affected.stream().map(id -> new Object[]{id}).collect(Collectors.toList());
+            jdbcTemplate.batchUpdate("DELETE FROM rating_changes WHERE player_id = ?", ids);
+            jdbcTemplate.batchUpdate("DELETE FROM player_ratings WHERE player_id = ?", ids);
+        }
+
+        List<Object[]> ratingRows = new ArrayList<>(ratings.size());
+        for (PlayerRating rating : ratings.values()) {
+            ratingRows.add(new Object[]{rating.getPlayerId(), rating.getRating(), rating.getMatchesRated(),
+                    rating.getLastMatchId(), timestamp(rating.getLastMatchTime()), timestamp(rating.getUpdatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_RATING, ratingRows);
+
+        List<Object[]> changeRows = new ArrayList<>(changes.size());
+        for (RatingChange change : changes) {
+            changeRows.add(new Object[]{change.getMatchId(), change.getPlayerId(), change.getRatingBefore(),
+                    change.getRatingAfter(), change.getDelta(), timestamp(change.getMatchTime()),
+                    timestamp(change.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changeRows);
+
+        // Players whose last rated match went away have no rating any more
+        previouslyRated.removeAll(ratings.keySet());
+        publish(ratings.values(), previouslyRated);
+
+        if (affected == null) {
+            playerSearchIndex.invalidate();
+            cacheInvalidationService.evictAllPlayers();
+        } else {
+            for (Long playerId : affected) {
+                playerSearchIndex.reload(playerId);
+                cacheInvalidationService.evictPlayer(playerId);
+            }
+        }
+    }
+
+    /**
+     * Copy ratings to the players' statistics, creating statistics for players that have none
+     */
+    private void publish(Collection<PlayerRating> ratings, Set<Long> unrated) {
+        List<PlayerRating> ordered = new ArrayList<>(ratings);
+        List<Object[]> rows = new ArrayList<>(ordered.size() + unrated.size());
+        for (PlayerRating rating : ordered) {
+            rows.add(new Object[]{rounded(rating.getRating()), rating.getPlayerId()});
+        }
+        for (Long playerId : unrated) {
+            rows.add(new Object[]{null, playerId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(SET_DYNAMIC_RATING, rows);
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (updated[i] == 0) {
+                PlayerRating rating = ordered.get(i);
+                PlayerStatistics statistics = new PlayerStatistics();
+                statistics.setPlayer(playerRepository.getReferenceById(rating.getPlayerId()));
+                statistics.setDynamicRating(rounded(rating.getRating()));
+                playerStatisticsRepository.save(statistics);
+            }
+        }
+    }
+
+    /**
+     * Whether an edit leaves everything the rating of a match depends on as it was
+     */
+    private static boolean sameRating(MatchOutcome before, MatchOutcome after) {
+        return before.getSides().equals(after.getSides())
+                && before.getGuests(MatchOutcome.TEAM1).size() == after.getGuests(MatchOutcome.TEAM1).size()
+                && before.getGuests(MatchOutcome.TEAM2).size() == after.getGuests(MatchOutcome.TEAM2).size()
+                && before.isWinner(MatchOutcome.TEAM1) == after.isWinner(MatchOutcome.TEAM1)
+                && Objects.equals(before.getMatchTime(), after.getMatchTime());
+    }
+
+    private static boolean touches(MatchOutcome outcome, Set<Long> players) {
+        for (Long playerId : outcome.getSides().keySet()) {
+            if (players.contains(playerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Double rounded(double rating) {
+        return Math.round(rating * 10.0) / 10.0;
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static final class Replay {
+        final Map<Long, PlayerRating> ratings = new HashMap<>();
+        final List<RatingChange> changes = new ArrayList<>();
+    }
+}
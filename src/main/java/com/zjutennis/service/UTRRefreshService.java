@@ -0,0 +1,180 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.UTRClientConfig;
+import com.zjutennis.dto.UTRRefreshStatus;
+import com.zjutennis.dto.UTRRefreshTarget;
+import com.zjutennis.parser.UTRService;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Refreshes UTR match results for many players at once.
+ *
+ * Fetches run on utrRefreshExecutor, whose pool size bounds the requests in flight, and each
+ * one waits for a token from UTRService's rate limiter. Players that share a UTR ID share a
+ * single request. Each player's results are written in their own transaction, so one failure
+ * does not undo the others. Only one bulk refresh runs at a time.
+ */
+@Service
+@Slf4j
+public class UTRRefreshService {
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Autowired
+    private PlayerStatisticsService playerStatisticsService;
+
+    @Autowired
+    private UTRService utrService;
+
+    @Autowired
+    @Qualifier(UTRClientConfig.UTR_REFRESH_EXECUTOR)
+    private Executor utrRefreshExecutor;
+
+    private volatile RefreshRun current;
+
+    /**
+     * Start refreshing every player with a UTR profile link
+     *
+     * @return future completed with the final status once every player has been processed
+     * @throws IllegalStateException if a refresh is already running
+     */
+    public CompletableFuture<UTRRefreshStatus> refreshAll() {
+        return refresh(playerStatisticsRepository.findUtrRefreshTargets());
+    }
+
+    /**
+     * Start refreshing the given players
+     *
+     * @throws IllegalStateException if a refresh is already running
+     */
+    public synchronized CompletableFuture<UTRRefreshStatus> refresh(List<UTRRefreshTarget> targets) {
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("A UTR refresh is already running");
+        }
+        RefreshRun run = new RefreshRun(targets.size());
+        current = run;
+        log.info("Refreshing UTR results for {} players", targets.size());
+
+        Set<String> utrIds = new HashSet<>();
+        List<CompletableFuture<Void>> updates = new ArrayList<>(targets.size());
+        for (UTRRefreshTarget target : targets) {
+            Long playerId = target.getPlayerId();
+            String utrId;
+            try {
+                utrId = UTRService.extractUtrId(target.getUtrUrl());
+            } catch (IllegalArgumentException e) {
+                run.failed(playerId, e.getMessage());
+                continue;
+            }
+            utrIds.add(utrId);
+
+            // The write runs on the fetching thread as soon as the response arrives
+            updates.add(utrService.getPlayerResultsAsync(utrId, utrRefreshExecutor)
+                    .thenAccept(result -> {
+                        if (result == null) {
+                            throw new IllegalStateException("Empty UTR response for ID " + utrId);
+                        }
+                        playerStatisticsService.applyUTRResults(playerId, result);
+                    })
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            run.refreshed();
+                        } else {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            log.warn("UTR refresh failed for player {}: {}", playerId, cause.getMessage());
+                            run.failed(playerId, cause.getMessage());
+                        }
+                    }));
+        }
+        run.setUtrRequests(utrIds.size());
+
+        // Failures are recorded per player, so wait for all of them regardless of outcome
+        return CompletableFuture.allOf(updates.stream()
+                        .map(update -> update.exceptionally(error -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    run.finish();
+                    UTRRefreshStatus status = run.snapshot();
+                    log.info("UTR refresh finished in {} ms: {} refreshed, {} failed",
+                             status.getDurationMs(), status.getRefreshed(), status.getFailed());
+                    return status;
+                });
+    }
+
+    /**
+     * Get the status of the running or last finished refresh
+     */
+    public Optional<UTRRefreshStatus> getStatus() {
+        RefreshRun run = current;
+        return run != null ? Optional.of(run.snapshot()) : Optional.empty();
+    }
+
+    private static final class RefreshRun {
+        private final int totalPlayers;
+        private final long startNanos = System.nanoTime();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final Map<Long, String> errors = new LinkedHashMap<>();
+        private int utrRequests;
+        private int refreshed;
+        private int failed;
+        private long endNanos;
+        private LocalDateTime finishedAt;
+
+        private RefreshRun(int totalPlayers) {
+            this.totalPlayers = totalPlayers;
+        }
+
+        synchronized boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        synchronized void setUtrRequests(int utrRequests) {
+            this.utrRequests = utrRequests;
+        }
+
+        synchronized void refreshed() {
+            refreshed++;
+        }
+
+        synchronized void failed(Long playerId, String message) {
+            failed++;
+            errors.put(playerId, message);
+        }
+
+        synchronized void finish() {
+            endNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized UTRRefreshStatus snapshot() {
+            UTRRefreshStatus status = new UTRRefreshStatus();
+            status.setRunning(finishedAt == null);
+            status.setTotalPlayers(totalPlayers);
+            status.setUtrRequests(utrRequests);
+            status.setRefreshed(refreshed);
+            status.setFailed(failed);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setDurationMs(((finishedAt != null ? endNanos : System.nanoTime()) - startNanos) / 1_000_000);
+            status.setErrors(new LinkedHashMap<>(errors));
+            return status;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.UTRClientConfig;
+import com.zjutennis.dto.UTRSyncCandidate;
+import com.zjutennis.dto.UTRSyncStatus;
+import com.zjutennis.model.UTRSyncState;
+import com.zjutennis.parser.UTRService;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.repository.UTRSyncStateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps UTR results fresh with small scheduled batches instead of full refreshes.
+ *
+ * Every cycle ranks the players linked to a UTR profile by how overdue they are: the time
+ * since their last sync (the latest of utrUpdatedDate, singlesUtrUpdatedDate and the last
+ * successful sync) divided by their maximum age. Players with a recent lastMatchDate get the
+ * shorter active maximum age, so they come up more often. At most budget overdue players are
+ * refreshed per cycle, through the same rate-limited UTRService as manual refreshes.
+ *
+ * Attempts are recorded in utr_sync_state. Failed players back off exponentially from
+ * retry-delay-minutes, and a restart picks up the same ranking from the stored state.
+ */
+@Service
+@Slf4j
+public class UTRSyncService {
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Autowired
+    private UTRSyncStateRepository utrSyncStateRepository;
+
+    @Autowired
+    private PlayerStatisticsService playerStatisticsService;
+
+    @Autowired
+    private UTRService utrService;
+
+    @Autowired
+    @Qualifier(UTRClientConfig.UTR_REFRESH_EXECUTOR)
+    private Executor utrRefreshExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${zjutennis.utr.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${zjutennis.utr.sync.budget:20}")
+    private int budget;
+
+    @Value("${zjutennis.utr.sync.active-window-days:30}")
+    private int activeWindowDays;
+
+    @Value("${zjutennis.utr.sync.active-max-age-hours:24}")
+    private int activeMaxAgeHours;
+
+    @Value("${zjutennis.utr.sync.idle-max-age-hours:168}")
+    private int idleMaxAgeHours;
+
+    @Value("${zjutennis.utr.sync.retry-delay-minutes:30}")
+    private int retryDelayMinutes;
+
+    private volatile UTRSyncStatus status = new UTRSyncStatus();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("utr.sync.lag", this, service -> service.status.getLagP50Seconds())
+                .tag("quantile", "0.5").baseUnit("seconds")
+                .description("Time since players were last synced from UTR").register(meterRegistry);
+        Gauge.builder("utr.sync.lag", this, service -> service.status.getLagP90Seconds())
+                .tag("quantile", "0.9").baseUnit("seconds")
+                .description("Time since players were last synced from UTR").register(meterRegistry);
+        Gauge.builder("utr.sync.lag", this, service -> service.status.getLagMaxSeconds())
+                .tag("quantile", "1.0").baseUnit("seconds")
+                .description("Time since players were last synced from UTR").register(meterRegistry);
+        Gauge.builder("utr.sync.overdue", this, service -> service.status.getOverduePlayers())
+                .description("Players past their maximum sync age").register(meterRegistry);
+        Gauge.builder("utr.sync.never", this, service -> service.status.getNeverSynced())
+                .description("Players never synced from UTR").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${zjutennis.utr.sync.interval-ms:60000}",
+               initialDelayString = "${zjutennis.utr.sync.interval-ms:60000}")
+    public void scheduledSync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runCycle();
+        } catch (RuntimeException e) {
+            log.error("Scheduled UTR sync cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Refresh the most overdue players, at most budget of them, and wait for them to finish
+     *
+     * @return status after the cycle
+     */
+    public synchronized UTRSyncStatus runCycle() {
+        LocalDateTime now = LocalDateTime.now();
+        UTRSyncStatus next = new UTRSyncStatus();
+        next.setCycles(status.getCycles() + 1);
+        next.setLastCycleStartedAt(now);
+
+        List<UTRSyncCandidate> candidates = playerStatisticsRepository.findUtrSyncCandidates();
+        Map<Long, UTRSyncState> states = utrSyncStateRepository.findAll().stream()
+                .collect(Collectors.toMap(UTRSyncState::getPlayerId, Function.identity()));
+        recordLag(candidates, states, now, next);
+
+        List<UTRSyncCandidate> selected = selectDue(candidates, states, now);
+        next.setLastCycleSelected(selected.size());
+
+        AtomicInteger refreshed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> updates = new ArrayList<>(selected.size());
+        for (UTRSyncCandidate candidate : selected) {
+            Long playerId = candidate.getPlayerId();
+            UTRSyncState state = states.computeIfAbsent(playerId, UTRSyncService::newState);
+            state.setLastAttemptAt(now);
+
+            String utrId;
+            try {
+                utrId = UTRService.extractUtrId(candidate.getUtrUrl());
+            } catch (IllegalArgumentException e) {
+                recordFailure(state, e.getMessage());
+                failed.incrementAndGet();
+                continue;
+            }
+
+            updates.add(utrService.getPlayerResultsAsync(utrId, utrRefreshExecutor)
+                    .thenAccept(result -> {
+                        if (result == null) {
+                            throw new IllegalStateException("Empty UTR response for ID " + utrId);
+                        }
+                        playerStatisticsService.applyUTRResults(playerId, result);
+                    })
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            recordSuccess(state, now);
+                            refreshed.incrementAndGet();
+                        } else {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            log.warn("UTR sync failed for player {}: {}", playerId, cause.getMessage());
+                            recordFailure(state, cause.getMessage());
+                            failed.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(updates.stream()
+                        .map(update -> update.exceptionally(error -> null))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+
+        next.setLastCycleRefreshed(refreshed.get());
+        next.setLastCycleFailed(failed.get());
+        next.setLastCycleFinishedAt(LocalDateTime.now());
+        meterRegistry.counter("utr.sync.players", "outcome", "refreshed").increment(refreshed.get());
+        meterRegistry.counter("utr.sync.players", "outcome", "failed").increment(failed.get());
+        status = next;
+
+        if (!selected.isEmpty()) {
+            log.info("UTR sync cycle: {} of {} overdue players refreshed, {} failed",
+                     refreshed.get(), next.getOverduePlayers(), failed.get());
+        }
+        return getStatus();
+    }
+
+    /**
+     * Get the scheduler state and the lag distribution measured by the last cycle
+     */
+    public UTRSyncStatus getStatus() {
+        UTRSyncStatus current = status;
+        UTRSyncStatus copy = new UTRSyncStatus();
+        copy.setEnabled(enabled);
+        copy.setCycles(current.getCycles());
+        copy.setLastCycleStartedAt(current.getLastCycleStartedAt());
+        copy.setLastCycleFinishedAt(current.getLastCycleFinishedAt());
+        copy.setLastCycleSelected(current.getLastCycleSelected());
+        copy.setLastCycleRefreshed(current.getLastCycleRefreshed());
+        copy.setLastCycleFailed(current.getLastCycleFailed());
+        copy.setTrackedPlayers(current.getTrackedPlayers());
+        copy.setOverduePlayers(current.getOverduePlayers());
+        copy.setNeverSynced(current.getNeverSynced());
+        copy.setLagP50Seconds(current.getLagP50Seconds());
+        copy.setLagP90Seconds(current.getLagP90Seconds());
+        copy.setLagMaxSeconds(current.getLagMaxSeconds());
+        return copy;
+    }
+
+    /**
+     * Pick the overdue players to refresh this cycle, most overdue first
+     * Ties, such as players never synced, go to the most recent lastMatchDate
+     */
+    List<UTRSyncCandidate> selectDue(List<UTRSyncCandidate> candidates, Map<Long, UTRSyncState> states, LocalDateTime now) {
+        Comparator<Ranked> priority = Comparator.<Ranked>comparingDouble(ranked -> ranked.overdue)
+                .thenComparing(ranked -> ranked.candidate.getLastMatchDate(), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ranked -> ranked.candidate.getPlayerId(), Comparator.reverseOrder());
+
+        // Bounded heap whose head is the lowest priority kept
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(Math.max(1, budget), priority);
+        for (UTRSyncCandidate candidate : candidates) {
+            double overdue = overdue(candidate, states.get(candidate.getPlayerId()), now);
+            if (overdue < 1.0) {
+                continue;
+            }
+            heap.offer(new Ranked(candidate, overdue));
+            if (heap.size() > budget) {
+                heap.poll();
+            }
+        }
+
+        List<Ranked> ranked = new ArrayList<>(heap);
+        ranked.sort(priority.reversed());
+        return ranked.stream().map(r -> r.candidate).collect(Collectors.toList());
+    }
+
+    /**
+     * Time since the last sync as a multiple of the player's maximum age
+     * At least 1 when the player is due, infinite if never synced, 0 while backing off a failure
+     */
+    double overdue(UTRSyncCandidate candidate, UTRSyncState state, LocalDateTime now) {
+        if (state != null && state.getConsecutiveFailures() > 0 && state.getLastAttemptAt() != null
+                && now.isBefore(state.getLastAttemptAt().plus(retryDelay(state.getConsecutiveFailures())))) {
+            return 0.0;
+        }
+        return ageRatio(candidate, lastSynced(candidate, state), now);
+    }
+
+    private double ageRatio(UTRSyncCandidate candidate, LocalDateTime lastSynced, LocalDateTime now) {
+        if (lastSynced == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        boolean active = candidate.getLastMatchDate() != null
+                && candidate.getLastMatchDate().isAfter(now.minusDays(activeWindowDays));
+        long maxAgeSeconds = Duration.ofHours(active ? activeMaxAgeHours : idleMaxAgeHours).getSeconds();
+        return (double) Duration.between(lastSynced, now).getSeconds() / maxAgeSeconds;
+    }
+
+    private Duration retryDelay(int failures) {
+        // Doubles per consecutive failure, never beyond the idle maximum age
+        Duration delay = Duration.ofMinutes(retryDelayMinutes).multipliedBy(1L << Math.min(failures - 1, 16));
+        Duration cap = Duration.ofHours(idleMaxAgeHours);
+        return delay.compareTo(cap) > 0 ? cap : delay;
+    }
+
+    private void recordLag(List<UTRSyncCandidate> candidates, Map<Long, UTRSyncState> states,
+                           LocalDateTime now, UTRSyncStatus next) {
+        long[] lags = new long[candidates.size()];
+        int synced = 0;
+        int overdue = 0;
+        for (UTRSyncCandidate candidate : candidates) {
+            UTRSyncState state = states.get(candidate.getPlayerId());
+            LocalDateTime lastSynced = lastSynced(candidate, state);
+            if (lastSynced != null) {
+                lags[synced++] = Math.max(0, Duration.between(lastSynced, now).getSeconds());
+            }
+            if (ageRatio(candidate, lastSynced, now) >= 1.0) {
+                overdue++;
+            }
+        }
+        Arrays.sort(lags, 0, synced);
+
+        next.setTrackedPlayers(candidates.size());
+        next.setOverduePlayers(overdue);
+        next.setNeverSynced(candidates.size() - synced);
+        next.setLagP50Seconds(percentile(lags, synced, 0.5));
+        next.setLagP90Seconds(percentile(lags, synced, 0.9));
+        next.setLagMaxSeconds(synced > 0 ? lags[synced - 1] : 0);
+    }
+
+    private static long percentile(long[] sorted, int count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    private static LocalDateTime lastSynced(UTRSyncCandidate candidate, UTRSyncState state) {
+        LocalDateTime latest = latest(candidate.getUtrUpdatedDate(), candidate.getSinglesUtrUpdatedDate());
+        return state != null ? latest(latest, state.getLastSuccessAt()) : latest;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private void recordSuccess(UTRSyncState state, LocalDateTime attemptedAt) {
+        state.setLastSuccessAt(attemptedAt);
+        state.setConsecutiveFailures(0);
+        state.setLastError(null);
+        utrSyncStateRepository.save(state);
+    }
+
+    private void recordFailure(UTRSyncState state, String message) {
+        state.setConsecutiveFailures(state.getConsecutiveFailures() + 1);
+        state.setLastError(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        utrSyncStateRepository.save(state);
+    }
+
+    private static UTRSyncState newState(Long playerId) {
+        UTRSyncState state = new UTRSyncState();
+        state.setPlayerId(playerId);
+        return state;
+    }
+
+    private static final class Ranked {
+        private final UTRSyncCandidate candidate;
+        private final double overdue;
+
+        private Ranked(UTRSyncCandidate candidate, double overdue) {
+            this.candidate = candidate;
+            this.overdue = overdue;
+        }
+    }
+}
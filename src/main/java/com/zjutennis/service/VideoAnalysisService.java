@@ -1,5 +1,6 @@
 package com.zjutennis.service;
 
+import com.zjutennis.config.CacheConfig;
 import com.zjutennis.dto.VideoAnalysisRequest;
 import com.zjutennis.dto.VideoAnalysisResponse;
 import com.zjutennis.model.Player;
@@ -9,6 +10,7 @@ import com.zjutennis.repository.PlayerRepository;
 import com.zjutennis.repository.VideoAnalysisRepository;
 import com.zjutennis.repository.VideoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,9 @@ public class VideoAnalysisService {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
     /**
      * Get all video analyses
      */
@@ -62,6 +67,7 @@ public class VideoAnalysisService {
     /**
      * Get all analyses for a player
      */
+    @Cacheable(CacheConfig.PLAYER_ANALYSES)
     public List<VideoAnalysisResponse> getAnalysesByPlayerId(Long playerId) {
         return videoAnalysisRepository.findByPlayerId(playerId).stream()
                 .map(VideoAnalysisResponse::fromEntity)
@@ -109,6 +115,7 @@ public class VideoAnalysisService {
         updateAnalysisFromRequest(analysis, request);
 
         VideoAnalysis saved = videoAnalysisRepository.save(analysis);
+        cacheInvalidationService.evictAnalysis(saved);
         return VideoAnalysisResponse.fromEntity(saved);
     }
 
@@ -122,6 +129,7 @@ public class VideoAnalysisService {
         updateAnalysisFromRequest(analysis, request);
 
         VideoAnalysis updated = videoAnalysisRepository.save(analysis);
+        cacheInvalidationService.evictAnalysis(updated);
         return VideoAnalysisResponse.fromEntity(updated);
     }
 
@@ -132,6 +140,7 @@ public class VideoAnalysisService {
         if (!videoAnalysisRepository.existsById(id)) {
             throw new RuntimeException("Video analysis not found with id: " + id);
         }
+        videoAnalysisRepository.findById(id).ifPresent(cacheInvalidationService::evictAnalysis);
         videoAnalysisRepository.deleteById(id);
     }
 
@@ -139,6 +148,7 @@ public class VideoAnalysisService {
      * Delete all analyses for a video
      */
     public void deleteAnalysesByVideoId(Long videoId) {
+        videoAnalysisRepository.findByVideoId(videoId).forEach(cacheInvalidationService::evictAnalysis);
         videoAnalysisRepository.deleteByVideoId(videoId);
     }
 
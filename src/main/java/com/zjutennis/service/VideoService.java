@@ -1,5 +1,6 @@
 package com.zjutennis.service;
 
+import com.zjutennis.config.CacheConfig;
 import com.zjutennis.dto.VideoRequest;
 import com.zjutennis.dto.VideoResponse;
 import com.zjutennis.model.Match;
@@ -7,6 +8,7 @@ import com.zjutennis.model.Video;
 import com.zjutennis.repository.MatchRepository;
 import com.zjutennis.repository.VideoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,9 @@ public class VideoService {
     @Autowired
     private MatchRepository matchRepository;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
     /**
      * Get all videos
      */
@@ -47,6 +52,7 @@ public class VideoService {
     /**
      * Get video by match ID
      */
+    @Cacheable(CacheConfig.MATCH_VIDEOS)
     public VideoResponse getVideoByMatchId(Long matchId) {
         Video video = videoRepository.findByMatchId(matchId)
                 .orElseThrow(() -> new RuntimeException("Video not found for match: " + matchId));
@@ -92,6 +98,7 @@ public class VideoService {
         video.setRunningDistanceMeters(request.getRunningDistanceMeters());
 
         Video saved = videoRepository.save(video);
+        cacheInvalidationService.evictVideo(saved, false);
         return VideoResponse.fromEntity(saved);
     }
 
@@ -115,6 +122,7 @@ public class VideoService {
         video.setRunningDistanceMeters(request.getRunningDistanceMeters());
 
         Video updated = videoRepository.save(video);
+        cacheInvalidationService.evictVideo(updated, false);
         return VideoResponse.fromEntity(updated);
     }
 
@@ -126,6 +134,7 @@ public class VideoService {
         if (!videoRepository.existsById(id)) {
             throw new RuntimeException("Video not found with id: " + id);
         }
+        videoRepository.findById(id).ifPresent(video -> cacheInvalidationService.evictVideo(video, true));
         videoRepository.deleteById(id);
     }
 
@@ -136,6 +145,7 @@ public class VideoService {
         if (!videoRepository.existsByMatchId(matchId)) {
             throw new RuntimeException("Video not found for match: " + matchId);
         }
+        videoRepository.findByMatchId(matchId).ifPresent(video -> cacheInvalidationService.evictVideo(video, true));
         videoRepository.deleteByMatchId(matchId);
     }
 
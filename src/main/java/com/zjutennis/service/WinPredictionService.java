@@ -0,0 +1,132 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.WinPrediction;
+import com.zjutennis.dto.WinPredictionRequest;
+import com.zjutennis.prediction.FeatureSnapshot;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service scoring hypothetical singles and doubles matchups
+ *
+ * The probability of team 1 winning is a logistic function of four feature differences:
+ * - rating: the Elo expectation of the mean team ratings
+ * - form: recent (wins - losses) / played, per player and averaged per team
+ * - head-to-head: team 1 players' wins minus losses against team 2 players, shrunk toward 0
+ *   while the record is short
+ * - surface: how much better each player does on the surface than overall
+ * Rating is on the Elo scale; the other weights are log-odds per unit and configurable.
+ *
+ * Every feature comes from one PlayerFeatureStore snapshot, so a batch is arithmetic over
+ * primitive arrays and loads no entities.
+ */
+@Service
+@Slf4j
+public class WinPredictionService {
+
+    public static final int MAX_MATCHUPS = 10_000;
+
+    private static final double ELO_SCALE = Math.log(10) / 400.0;
+
+    @Autowired
+    private PlayerFeatureStore playerFeatureStore;
+
+    @Value("${zjutennis.prediction.form-weight:0.5}")
+    private double formWeight = 0.5;
+
+    @Value("${zjutennis.prediction.head-to-head-weight:0.6}")
+    private double headToHeadWeight = 0.6;
+
+    @Value("${zjutennis.prediction.head-to-head-prior:2}")
+    private double headToHeadPrior = 2;
+
+    @Value("${zjutennis.prediction.surface-weight:1.0}")
+    private double surfaceWeight = 1.0;
+
+    /**
+     * Predict every matchup of a batch
+     *
+     * @throws IllegalArgumentException if the batch is too large or a matchup is not a valid singles or doubles pairing
+     */
+    public List<WinPrediction> predict(WinPredictionRequest request) {
+        List<WinPredictionRequest.Matchup> matchups = request.getMatchups() != null ? request.getMatchups() : List.of();
+        if (matchups.size() > MAX_MATCHUPS) {
+            throw new IllegalArgumentException("At most " + MAX_MATCHUPS + " matchups can be predicted at once");
+        }
+        long startNanos = System.nanoTime();
+        FeatureSnapshot features = playerFeatureStore.snapshot();
+
+        List<WinPrediction> predictions = new ArrayList<>(matchups.size());
+        int[] team1 = new int[2];
+        int[] team2 = new int[2];
+        for (int i = 0; i < matchups.size(); i++) {
+            WinPredictionRequest.Matchup matchup = matchups.get(i);
+            int size = validate(i, matchup);
+            for (int j = 0; j < size; j++) {
+                team1[j] = features.slot(matchup.getTeam1().get(j));
+                team2[j] = features.slot(matchup.getTeam2().get(j));
+            }
+            String surface = matchup.getSurface() != null ? matchup.getSurface() : request.getSurface();
+            predictions.add(score(features, matchup, team1, team2, size, surface));
+        }
+
+        log.debug("Predicted {} matchups in {} ms", predictions.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        return predictions;
+    }
+
+    private WinPrediction score(FeatureSnapshot features, WinPredictionRequest.Matchup matchup,
+                                int[] team1, int[] team2, int size, String surface) {
+        int surfaceCode = FeatureSnapshot.surfaceCode(surface);
+        double rating = 0;
+        double form = 0;
+        double surfaceEdge = 0;
+        int wins = 0;
+        int losses = 0;
+        for (int j = 0; j < size; j++) {
+            rating += features.rating(team1[j]) - features.rating(team2[j]);
+            form += features.form(team1[j]) - features.form(team2[j]);
+            surfaceEdge += features.surfaceEdge(team1[j], surfaceCode) - features.surfaceEdge(team2[j], surfaceCode);
+            for (int k = 0; k < size; k++) {
+                wins += features.headToHeadWins(team1[j], team2[k]);
+                losses += features.headToHeadLosses(team1[j], team2[k]);
+            }
+        }
+        rating /= size;
+        form /= size;
+        surfaceEdge /= size;
+        double headToHead = (wins - losses) / (wins + losses + headToHeadPrior);
+
+        double logit = ELO_SCALE * rating + formWeight * form + headToHeadWeight * headToHead + surfaceWeight * surfaceEdge;
+        double probability = 1.0 / (1.0 + Math.exp(-logit));
+        String surfaceName = surfaceCode >= 0 ? FeatureSnapshot.SURFACE_NAMES[surfaceCode] : null;
+        return new WinPrediction(matchup.getTeam1(), matchup.getTeam2(), surfaceName,
+                probability, rating, form, headToHead, surfaceEdge);
+    }
+
+    /**
+     * @return the number of players per team
+     */
+    private static int validate(int index, WinPredictionRequest.Matchup matchup) {
+        if (matchup == null || matchup.getTeam1() == null || matchup.getTeam2() == null) {
+            throw new IllegalArgumentException("Matchup " + index + " needs team1 and team2");
+        }
+        int size = matchup.getTeam1().size();
+        if (size < 1 || size > 2 || matchup.getTeam2().size() != size) {
+            throw new IllegalArgumentException("Matchup " + index + " must be one player against one or two against two");
+        }
+        List<Long> players = new ArrayList<>(matchup.getTeam1());
+        players.addAll(matchup.getTeam2());
+        for (int j = 0; j < players.size(); j++) {
+            if (players.get(j) == null || players.indexOf(players.get(j)) != j) {
+                throw new IllegalArgumentException("Matchup " + index + " lists a missing or repeated player");
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,66 @@
+package com.zjutennis.util;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that bounds an unbounded delegate, such as one virtual thread per task.
+ *
+ * At most maxConcurrency tasks run at once and at most queueCapacity more wait for a slot;
+ * beyond that execute throws TaskRejectedException, like a full ThreadPoolTaskExecutor.
+ * Waiting tasks block on a semaphore in their own thread, which is cheap for virtual threads.
+ */
+public final class BoundedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final Semaphore running;
+    private final int admitLimit;
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    public BoundedExecutor(Executor delegate, int maxConcurrency, int queueCapacity) {
+        if (maxConcurrency < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Concurrency must be positive and queue capacity non-negative");
+        }
+        this.delegate = delegate;
+        this.running = new Semaphore(maxConcurrency);
+        this.admitLimit = maxConcurrency + queueCapacity;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (admitted.incrementAndGet() > admitLimit) {
+            admitted.decrementAndGet();
+            throw new TaskRejectedException("Executor is at capacity (" + admitLimit + " tasks)");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    admitted.decrementAndGet();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    admitted.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Tasks running or waiting to run
+     */
+    public int getAdmitted() {
+        return admitted.get();
+    }
+}
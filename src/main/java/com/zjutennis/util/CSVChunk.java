@@ -0,0 +1,46 @@
+package com.zjutennis.util;
+
+/**
+ * A byte range of a CSV file that starts and ends on record boundaries.
+ *
+ * Produced by {@link CSVTokenizer#split(java.nio.file.Path, long)}; every chunk of a file
+ * shares the header record, which occupies bytes 0 to headerLength.
+ */
+public final class CSVChunk {
+
+    private final int index;
+    private final long headerLength;
+    private final long offset;
+    private final long length;
+
+    CSVChunk(int index, long headerLength, long offset, long length) {
+        this.index = index;
+        this.headerLength = headerLength;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Position of this chunk in the file, starting at 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public long getHeaderLength() {
+        return headerLength;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "CSVChunk{index=" + index + ", offset=" + offset + ", length=" + length + "}";
+    }
+}
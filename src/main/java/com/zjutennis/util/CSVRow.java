@@ -0,0 +1,130 @@
+package com.zjutennis.util;
+
+import java.util.Map;
+
+/**
+ * One CSV record as a view over the tokenizer's character buffer.
+ *
+ * The view and its buffer are reused for the next record, so a row is only valid inside
+ * the callback that received it; call {@link #get(int)} to keep a value. Resolve column
+ * indexes once with {@link #indexOf(String)} and read fields by index.
+ */
+public final class CSVRow {
+
+    private final Map<String, Integer> columns;
+
+    char[] chars;
+    int[] starts;
+    int[] ends;
+    int size;
+    long number;
+
+    CSVRow(Map<String, Integer> columns, char[] chars, int[] starts, int[] ends) {
+        this.columns = columns;
+        this.chars = chars;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Number of fields in this record
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * One-based number of this record among the data records
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Index of a header column, or -1 if the header has no such column
+     */
+    public int indexOf(String column) {
+        Integer index = columns.get(column);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Header columns by name, trimmed, mapped to their indexes
+     */
+    public Map<String, Integer> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Trimmed value of a field; empty if the record has no such field
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            return "";
+        }
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(chars, start, end - start);
+    }
+
+    /**
+     * Trimmed value of a header column; empty if the column or field is missing
+     */
+    public String get(String column) {
+        return get(indexOf(column));
+    }
+
+    /**
+     * Untrimmed length of a field; 0 if the record has no such field
+     */
+    public int length(int index) {
+        return index >= 0 && index < size ? ends[index] - starts[index] : 0;
+    }
+
+    /**
+     * Whether a field is missing or only whitespace, checked without copying it
+     */
+    public boolean isBlank(int index) {
+        if (index < 0 || index >= size) {
+            return true;
+        }
+        for (int i = starts[index]; i < ends[index]; i++) {
+            if (chars[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the trimmed field equals the given text, checked without copying it
+     */
+    public boolean contentEquals(int index, String text) {
+        if (index < 0 || index >= size) {
+            return text.isEmpty();
+        }
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,406 @@
+package com.zjutennis.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming RFC 4180 CSV tokenizer.
+ *
+ * Bytes are read from a channel, or straight from a memory-mapped file, and decoded as
+ * UTF-8 into one fixed char buffer. A state machine copies each field's content once into
+ * a record buffer that is reused for every record, and hands the record to the callback as
+ * a {@link CSVRow} view, so no object is allocated per cell unless the callback asks for a
+ * String. Quoted fields may contain commas, doubled quotes and line breaks; records end at
+ * LF, CRLF or CR. The first record is the header and is resolved to column indexes once.
+ * Blank lines and a leading byte order mark are skipped.
+ */
+public final class CSVTokenizer {
+
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+    private static final int CHAR_BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_REGION_SIZE = 256L * 1024 * 1024;
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    /**
+     * Receives each data record; the row is only valid until the callback returns
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(CSVRow row) throws IOException;
+    }
+
+    private final RowHandler handler;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer decoded = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    // Current record: field contents packed into chars, field i spans starts[i]..ends[i]
+    private char[] chars = new char[1024];
+    private int length;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+    private int fieldStart;
+    private boolean recordQuoted;
+
+    private int state = FIELD_START;
+    private boolean skipLineFeed;
+    private boolean atStart = true;
+    private CSVRow row;
+    private long rowCount;
+
+    private CSVTokenizer(RowHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Tokenize a channel
+     *
+     * @return number of data records handed to the handler
+     */
+    public static long parse(ReadableByteChannel channel, RowHandler handler) throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(handler);
+        ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = channel.read(bytes) < 0;
+            bytes.flip();
+            tokenizer.decode(bytes, endOfInput);
+            bytes.compact();
+        }
+        tokenizer.finish();
+        return tokenizer.rowCount;
+    }
+
+    /**
+     * Tokenize a stream
+     *
+     * @return number of data records handed to the handler
+     */
+    public static long parse(InputStream inputStream, RowHandler handler) throws IOException {
+        return parse(Channels.newChannel(inputStream), handler);
+    }
+
+    /**
+     * Tokenize a file through memory-mapped regions, without copying it into the heap
+     *
+     * @return number of data records handed to the handler
+     */
+    public static long parse(Path file, RowHandler handler) throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(handler);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            tokenizer.decode(channel, 0, channel.size(), true);
+        }
+        tokenizer.finish();
+        return tokenizer.rowCount;
+    }
+
+    /**
+     * Tokenize one chunk of a file produced by {@link #split(Path, long)}.
+     *
+     * The header record is read first so columns resolve as for the whole file; row numbers
+     * count from 1 within the chunk.
+     *
+     * @return number of data records handed to the handler
+     */
+    public static long parse(Path file, CSVChunk chunk, RowHandler handler) throws IOException {
+        CSVTokenizer tokenizer = new CSVTokenizer(handler);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The header ends on a record terminator, so no UTF-8 sequence spans the two ranges
+            tokenizer.decode(channel, 0, chunk.getHeaderLength(), false);
+            tokenizer.decode(channel, chunk.getOffset(), chunk.getLength(), true);
+        }
+        tokenizer.finish();
+        return tokenizer.rowCount;
+    }
+
+    /**
+     * Split a file into chunks of about chunkBytes that start and end on record boundaries.
+     *
+     * One sequential pass over the bytes tracks quoting the same way the tokenizer does, so
+     * a line break inside a quoted field never ends a chunk. Record terminators are ASCII and
+     * never occur inside a multi-byte UTF-8 sequence, which makes the scan safe on raw bytes.
+     *
+     * @return the data chunks in file order; empty if the file has no data records
+     */
+    public static List<CSVChunk> split(Path file, long chunkBytes) throws IOException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        ChunkSplitter splitter = new ChunkSplitter(chunkBytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+            while (channel.read(bytes) >= 0) {
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    splitter.accept(bytes.get() & 0xFF);
+                }
+                bytes.clear();
+            }
+        }
+        return splitter.finish();
+    }
+
+    /**
+     * Decode a byte range of a file through memory-mapped regions
+     */
+    private void decode(FileChannel channel, long offset, long length, boolean endOfInput) throws IOException {
+        long end = offset + length;
+        while (offset < end) {
+            long regionSize = Math.min(MAP_REGION_SIZE, end - offset);
+            boolean lastRegion = offset + regionSize == end;
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, regionSize);
+            decode(region, endOfInput && lastRegion);
+            // A UTF-8 sequence cut by the region end is decoded again with the next region
+            offset += region.position();
+            if (lastRegion && !endOfInput) {
+                return;
+            }
+        }
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(bytes, decoded, endOfInput);
+            drain();
+            if (!result.isOverflow()) {
+                return;
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        while (decoder.flush(decoded).isOverflow()) {
+            drain();
+        }
+        drain();
+        if (state != FIELD_START || fieldCount > 0 || length > 0) {
+            endRecord();
+        }
+    }
+
+    private void drain() throws IOException {
+        decoded.flip();
+        consume(decoded.array(), decoded.arrayOffset() + decoded.position(), decoded.arrayOffset() + decoded.limit());
+        decoded.clear();
+    }
+
+    private void consume(char[] input, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            char c = input[i];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (atStart) {
+                atStart = false;
+                if (c == '\uFEFF') {
+                    continue;
+                }
+            }
+
+            switch (state) {
+                case QUOTED:
+                    if (c == '"') {
+                        state = QUOTE_IN_QUOTED;
+                    } else {
+                        append(c);
+                    }
+                    break;
+                case QUOTE_IN_QUOTED:
+                    if (c == '"') {
+                        // Doubled quote inside a quoted field
+                        append('"');
+                        state = QUOTED;
+                    } else {
+                        // The quote closed the quoted part; anything after it is kept as is
+                        state = UNQUOTED;
+                        unquoted(c);
+                    }
+                    break;
+                default:
+                    unquoted(c);
+                    break;
+            }
+        }
+    }
+
+    private void unquoted(char c) throws IOException {
+        if (c == ',') {
+            endField();
+        } else if (c == '\n') {
+            endRecord();
+        } else if (c == '\r') {
+            endRecord();
+            skipLineFeed = true;
+        } else if (c == '"' && state == FIELD_START) {
+            state = QUOTED;
+            recordQuoted = true;
+        } else {
+            append(c);
+            state = UNQUOTED;
+        }
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    private void endField() {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        starts[fieldCount] = fieldStart;
+        ends[fieldCount] = length;
+        fieldCount++;
+        fieldStart = length;
+        state = FIELD_START;
+    }
+
+    private void endRecord() throws IOException {
+        endField();
+        if (!isBlankLine()) {
+            deliver();
+        }
+        length = 0;
+        fieldCount = 0;
+        fieldStart = 0;
+        recordQuoted = false;
+        state = FIELD_START;
+    }
+
+    private boolean isBlankLine() {
+        if (fieldCount != 1 || recordQuoted) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void deliver() throws IOException {
+        if (row == null) {
+            row = new CSVRow(Collections.unmodifiableMap(columns), chars, starts, ends);
+            row.size = fieldCount;
+            for (int i = 0; i < fieldCount; i++) {
+                columns.put(row.get(i), i);
+            }
+            return;
+        }
+        // The buffers may have grown since the last record
+        row.chars = chars;
+        row.starts = starts;
+        row.ends = ends;
+        row.size = fieldCount;
+        row.number = ++rowCount;
+        handler.onRow(row);
+    }
+
+    /**
+     * Byte-level mirror of the tokenizer's quoting states that records where records end
+     */
+    private static final class ChunkSplitter {
+        private final long chunkBytes;
+        private final List<CSVChunk> chunks = new ArrayList<>();
+        private long headerLength = -1;
+        private long chunkStart;
+        private long position;
+        // End of a record terminated by CR, settled once the next byte shows whether a LF follows
+        private long pendingEnd = -1;
+        private boolean recordHasContent;
+        private int state = FIELD_START;
+
+        private ChunkSplitter(long chunkBytes) {
+            this.chunkBytes = chunkBytes;
+        }
+
+        private void accept(int b) {
+            position++;
+            if (pendingEnd >= 0) {
+                boolean lineFeed = b == '\n';
+                recordEnd(lineFeed ? position : pendingEnd);
+                pendingEnd = -1;
+                if (lineFeed) {
+                    return;
+                }
+            }
+            if (b > ' ') {
+                recordHasContent = true;
+            }
+
+            if (state == QUOTED) {
+                if (b == '"') {
+                    state = QUOTE_IN_QUOTED;
+                }
+            } else if (state == QUOTE_IN_QUOTED && b == '"') {
+                state = QUOTED;
+            } else if (b == ',') {
+                state = FIELD_START;
+            } else if (b == '\n') {
+                state = FIELD_START;
+                recordEnd(position);
+            } else if (b == '\r') {
+                state = FIELD_START;
+                pendingEnd = position;
+            } else if (b == '"' && state == FIELD_START) {
+                state = QUOTED;
+            } else {
+                state = UNQUOTED;
+            }
+        }
+
+        private void recordEnd(long end) {
+            if (headerLength < 0) {
+                // Leading blank lines are skipped by the tokenizer and stay with the header
+                if (recordHasContent) {
+                    headerLength = end;
+                    chunkStart = end;
+                }
+            } else if (end - chunkStart >= chunkBytes) {
+                chunks.add(new CSVChunk(chunks.size(), headerLength, chunkStart, end - chunkStart));
+                chunkStart = end;
+            }
+            recordHasContent = false;
+        }
+
+        private List<CSVChunk> finish() {
+            if (headerLength >= 0 && position > chunkStart) {
+                chunks.add(new CSVChunk(chunks.size(), headerLength, chunkStart, position - chunkStart));
+            }
+            return chunks;
+        }
+    }
+}
@@ -1,69 +1,52 @@
 package com.zjutennis.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class CSVUtil {
 
     public static List<Map<String, String>> parseCSV(InputStream inputStream) throws IOException {
         List<Map<String, String>> result = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-            String headerLine = reader.readLine();
-            if (headerLine == null || headerLine.trim().isEmpty()) {
-                return result;
-            }
-
-            List<String> headers = parseCSVLine(headerLine);
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                List<String> values = parseCSVLine(line);
-                Map<String, String> row = new HashMap<>();
-
-                for (int i = 0; i < headers.size(); i++) {
-                    String value = i < values.size() ? values.get(i) : "";
-                    row.put(headers.get(i).trim(), value.trim());
-                }
-
-                result.add(row);
-            }
-        }
-
+        parseCSVInChunks(inputStream, Integer.MAX_VALUE, result::addAll);
         return result;
     }
 
-    private static List<String> parseCSVLine(String line) {
-        List<String> values = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
+    /**
+     * Parse a CSV stream row by row and hand the rows to the consumer in chunks of at most
+     * chunkSize, so only one chunk is held in memory at a time
+     *
+     * @return number of rows parsed
+     */
+    public static int parseCSVInChunks(InputStream inputStream, int chunkSize,
+                                       Consumer<List<Map<String, String>>> chunkConsumer) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        List<List<Map<String, String>>> pending = new ArrayList<>(1);
+        pending.add(new ArrayList<>());
+
+        long rowCount;
+        try (InputStream in = inputStream) {
+            rowCount = CSVTokenizer.parse(in, row -> {
+                Map<String, String> values = new HashMap<>();
+                for (Map.Entry<String, Integer> column : row.getColumns().entrySet()) {
+                    values.put(column.getKey(), row.get(column.getValue()));
+                }
 
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');
-                    i++;
-                } else {
-                    inQuotes = !inQuotes;
+                List<Map<String, String>> chunk = pending.get(0);
+                chunk.add(values);
+                if (chunk.size() >= chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    pending.set(0, new ArrayList<>());
                 }
-            } else if (c == ',' && !inQuotes) {
-                values.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
+            });
         }
 
-        values.add(current.toString());
-        return values;
+        if (!pending.get(0).isEmpty()) {
+            chunkConsumer.accept(pending.get(0));
+        }
+        return (int) rowCount;
     }
 }
@@ -0,0 +1,47 @@
+package com.zjutennis.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque pagination tokens. A cursor is the sort key and id of the last row a client
+ * has seen; it is only meant to be handed back unchanged, never parsed by clients.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = ":";
+
+    public static String encode(String... parts) {
+        List<String> escaped = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            escaped.add(URLEncoder.encode(part != null ? part : "", StandardCharsets.UTF_8));
+        }
+        byte[] bytes = String.join(SEPARATOR, escaped).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Split a token into the parts it was encoded from
+     *
+     * @throws IllegalArgumentException if the token is malformed or has a different number of parts
+     */
+    public static String[] decode(String token, int expectedParts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
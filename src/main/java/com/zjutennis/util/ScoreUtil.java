@@ -0,0 +1,50 @@
+package com.zjutennis.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsing of match scores as entered on a match, e.g. "6-4, 7-6(5), 10-8" or "7-6(7-5)".
+ * Scores are written from team 1's side. Tiebreak points in parentheses are ignored, and a
+ * match tiebreak in place of a final set counts as a set like any other, though its points
+ * are not games.
+ */
+public class ScoreUtil {
+
+    private static final Pattern SET = Pattern.compile("(\\d{1,2})\\s*[-:]\\s*(\\d{1,2})(?:\\s*\\(\\d+(?:\\s*[-:]\\s*\\d+)?\\))?");
+
+    /**
+     * Games of each set as {team 1, team 2}, in the order played; empty if the score is blank
+     * or has no recognisable set
+     */
+    public static List<int[]> parseSets(String score) {
+        List<int[]> sets = new ArrayList<>();
+        if (score == null || score.isBlank()) {
+            return sets;
+        }
+        Matcher matcher = SET.matcher(score);
+        while (matcher.find()) {
+            int team1 = Integer.parseInt(matcher.group(1));
+            int team2 = Integer.parseInt(matcher.group(2));
+            if (team1 != team2) {
+                sets.add(new int[]{team1, team2});
+            }
+        }
+        return sets;
+    }
+
+    /**
+     * Whether the set at index is a match tiebreak rather than a set of games: the third set
+     * after the first two were split, with more than 7 points to either side
+     */
+    public static boolean isMatchTiebreak(List<int[]> sets, int index) {
+        if (index != 2 || sets.size() != 3) {
+            return false;
+        }
+        boolean split = (sets.get(0)[0] > sets.get(0)[1]) != (sets.get(1)[0] > sets.get(1)[1]);
+        int[] set = sets.get(index);
+        return split && Math.max(set[0], set[1]) > 7;
+    }
+}
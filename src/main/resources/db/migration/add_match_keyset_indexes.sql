@@ -0,0 +1,8 @@
+-- Migration: Composite indexes for keyset pagination of matches
+-- Date: 2026-10-17
+--
+-- Match listings page by (match_time, id) descending. With these indexes every page
+-- is a short range scan starting at the last row of the previous page.
+
+CREATE INDEX idx_matches_time_id ON matches (match_time, id);
+CREATE INDEX idx_matches_type_time_id ON matches (match_type, match_time, id);
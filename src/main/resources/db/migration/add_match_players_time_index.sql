@@ -0,0 +1,12 @@
+-- Migration: Index match_players for per-player match history
+-- Date: 2026-10-17
+--
+-- A player's matches used to be found with an OR over the four player columns of matches,
+-- which no index can serve. match_players now holds one row per player slot with the match
+-- time copied in, so a player's history is a range scan of (player_id, match_time, match_id).
+-- MatchPlayerService regenerates every row from matches on the next startup, since rows
+-- written before this migration have no match_time.
+
+ALTER TABLE match_players ADD COLUMN match_time DATETIME(6);
+
+CREATE INDEX idx_match_players_player_time ON match_players (player_id, match_time, match_id);
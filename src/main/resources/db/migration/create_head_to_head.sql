@@ -0,0 +1,26 @@
+-- Migration: Head-to-head records
+-- Date: 2026-10-17
+--
+-- HeadToHeadService keeps one row per registered player and opponent, the opponent being a
+-- registered player ("player:<id>") or a normalized name ("name:<name>"), with wins, losses,
+-- sets, games and the last five results. Rows are adjusted on every match write; the table is
+-- filled from the matches table on first startup (or POST /api/analysis/head-to-head/rebuild).
+
+CREATE TABLE IF NOT EXISTS head_to_head (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    opponent_key VARCHAR(120) NOT NULL,
+    opponent_player_id BIGINT,
+    opponent_name VARCHAR(100),
+    matches_played INT NOT NULL DEFAULT 0,
+    wins INT NOT NULL DEFAULT 0,
+    losses INT NOT NULL DEFAULT 0,
+    sets_won INT NOT NULL DEFAULT 0,
+    sets_lost INT NOT NULL DEFAULT 0,
+    games_won INT NOT NULL DEFAULT 0,
+    games_lost INT NOT NULL DEFAULT 0,
+    last_results VARCHAR(5),
+    last_played_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT uk_head_to_head_pair UNIQUE (player_id, opponent_key)
+);
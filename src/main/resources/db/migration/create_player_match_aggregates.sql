@@ -0,0 +1,19 @@
+-- Migration: Per-player match aggregates
+-- Date: 2026-10-17
+--
+-- PlayerAggregateService keeps one row per player with singles/doubles played, won and lost
+-- counts and the latest match time, adjusted on every match create, update and delete.
+-- The table is filled from the matches table on first startup (or POST
+-- /api/players/match-stats/rebuild), so no data migration is needed here.
+
+CREATE TABLE IF NOT EXISTS player_match_aggregates (
+    player_id BIGINT NOT NULL PRIMARY KEY,
+    singles_played INT NOT NULL DEFAULT 0,
+    singles_wins INT NOT NULL DEFAULT 0,
+    singles_losses INT NOT NULL DEFAULT 0,
+    doubles_played INT NOT NULL DEFAULT 0,
+    doubles_wins INT NOT NULL DEFAULT 0,
+    doubles_losses INT NOT NULL DEFAULT 0,
+    last_match_date DATETIME(6),
+    updated_at DATETIME(6)
+);
@@ -0,0 +1,20 @@
+-- Migration: Doubles pair matrix
+-- Date: 2026-10-17
+--
+-- PartnershipService keeps one row per ordered pair of doubles partners (each pair from both
+-- sides) with matches played together, wins, losses and the last time they played, adjusted
+-- on every match write. The unique key doubles as the index for a player's partners.
+-- The matrix is filled from the matches table on first startup (or POST
+-- /api/analysis/pairs/rebuild).
+
+CREATE TABLE IF NOT EXISTS player_partnerships (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    partner_id BIGINT NOT NULL,
+    matches_played INT NOT NULL DEFAULT 0,
+    wins INT NOT NULL DEFAULT 0,
+    losses INT NOT NULL DEFAULT 0,
+    last_played_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT uk_player_partnerships_pair UNIQUE (player_id, partner_id)
+);
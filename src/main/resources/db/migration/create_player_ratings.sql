@@ -0,0 +1,32 @@
+-- Migration: Match ratings
+-- Date: 2026-10-17
+--
+-- RatingService rates the matches in time order (Elo) and keeps each registered player's
+-- current rating in player_ratings, published to player_statistics.dynamic_rating.
+-- rating_changes records how each rated match moved each player's rating, so a rating
+-- trajectory is one index range scan. A new match is rated on top of the current ratings;
+-- back-dated, edited or deleted matches replay the group of connected players.
+-- Both tables are filled from the matches table on first startup (or POST
+-- /api/analysis/ratings/recompute).
+
+CREATE TABLE IF NOT EXISTS player_ratings (
+    player_id BIGINT NOT NULL PRIMARY KEY,
+    rating DOUBLE NOT NULL,
+    matches_rated INT NOT NULL DEFAULT 0,
+    last_match_id BIGINT,
+    last_match_time DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE TABLE IF NOT EXISTS rating_changes (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    match_id BIGINT NOT NULL,
+    player_id BIGINT NOT NULL,
+    rating_before DOUBLE NOT NULL,
+    rating_after DOUBLE NOT NULL,
+    delta DOUBLE NOT NULL,
+    match_time DATETIME(6),
+    created_at DATETIME(6),
+    INDEX idx_rating_changes_player_time (player_id, match_time, match_id),
+    INDEX idx_rating_changes_match (match_id)
+);
@@ -0,0 +1,12 @@
+-- Migration: Seed file marker table
+-- Date: 2026-10-17
+--
+-- DataLoader records the SHA-256 of each seed file it has loaded and checks this row
+-- at startup instead of counting the players table.
+
+CREATE TABLE IF NOT EXISTS seed_state (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    checksum VARCHAR(64) NOT NULL,
+    row_count INT,
+    seeded_at DATETIME(6) NOT NULL
+);
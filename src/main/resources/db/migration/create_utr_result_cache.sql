@@ -0,0 +1,17 @@
+-- Migration: Persistent UTR results cache
+-- Date: 2026-10-17
+--
+-- UTRService keeps the last results response per UTR ID here with its ETag and
+-- Last-Modified values, answers repeated lookups from it while fresh and revalidates it
+-- with a conditional GET afterwards. It is also the fallback while UTR is unavailable.
+
+CREATE TABLE IF NOT EXISTS utr_result_cache (
+    utr_id VARCHAR(32) NOT NULL PRIMARY KEY,
+    wins INT,
+    losses INT,
+    withdrawls INT,
+    etag VARCHAR(200),
+    last_modified VARCHAR(64),
+    fetched_at DATETIME(6) NOT NULL,
+    validated_at DATETIME(6) NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Migration: Scheduled UTR sync progress table
+-- Date: 2026-10-17
+--
+-- UTRSyncService records each player's last sync attempt, last success and failure count
+-- here, so the scheduler resumes with the same priorities and backoff after a restart.
+
+CREATE TABLE IF NOT EXISTS utr_sync_state (
+    player_id BIGINT NOT NULL PRIMARY KEY,
+    last_attempt_at DATETIME(6),
+    last_success_at DATETIME(6),
+    consecutive_failures INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
@@ -0,0 +1,164 @@
+package com.zjutennis.benchmark;
+
+import com.zjutennis.util.CSVTokenizer;
+import com.zjutennis.util.CSVUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares CSV parsing of a UTR export shaped file:
+ * - legacyParseCSV: the previous line-based CSVUtil (StringBuilder per field, HashMap per row)
+ * - parseCSV: CSVUtil on top of CSVTokenizer, still building a HashMap per row
+ * - tokenizerRowViews: CSVTokenizer callbacks reading fields by resolved index
+ *
+ * Run the main method, or any JMH runner against the test classpath, with -prof gc to
+ * see allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVParseBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("Player ID,Name,Gender,UTR Rating,UTR Status,NTRP Rating,NTRP Status,Dynamic Rating,Win Rate\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append(i + 1).append(',')
+                    .append(i % 7 == 0 ? "\"Zhang, San " + i + "\"" : "Player " + i).append(',')
+                    .append(i % 2 == 0 ? "male" : "female").append(',')
+                    .append(i % 5 == 0 ? "-" : String.valueOf(4 + (i % 900) / 100.0)).append(',')
+                    .append("Verified,")
+                    .append(3.0 + (i % 5) * 0.5).append(',')
+                    .append("Self Rated,")
+                    .append(5 + (i % 700) / 100.0).append(',')
+                    .append(i % 100).append("%\n");
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void legacyParseCSV(Blackhole blackhole) throws IOException {
+        blackhole.consume(legacyParse(new ByteArrayInputStream(csv)));
+    }
+
+    @Benchmark
+    public void parseCSV(Blackhole blackhole) throws IOException {
+        blackhole.consume(CSVUtil.parseCSV(new ByteArrayInputStream(csv)));
+    }
+
+    @Benchmark
+    public void tokenizerRowViews(Blackhole blackhole) throws IOException {
+        int[] columns = new int[3];
+        CSVTokenizer.parse(new ByteArrayInputStream(csv), row -> {
+            if (row.getNumber() == 1) {
+                columns[0] = row.indexOf("Player ID");
+                columns[1] = row.indexOf("UTR Rating");
+                columns[2] = row.indexOf("Win Rate");
+            }
+            blackhole.consume(row.get(columns[0]));
+            if (!row.contentEquals(columns[1], "-")) {
+                blackhole.consume(row.get(columns[1]));
+            }
+            blackhole.consume(row.length(columns[2]));
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CSVParseBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * The line-based parser CSVUtil used before CSVTokenizer, kept as the baseline
+     */
+    private static List<Map<String, String>> legacyParse(InputStream inputStream) throws IOException {
+        List<Map<String, String>> result = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null || headerLine.trim().isEmpty()) {
+                return result;
+            }
+
+            List<String> headers = legacyParseLine(headerLine);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                List<String> values = legacyParseLine(line);
+                Map<String, String> row = new HashMap<>();
+
+                for (int i = 0; i < headers.size(); i++) {
+                    String value = i < values.size() ? values.get(i) : "";
+                    row.put(headers.get(i).trim(), value.trim());
+                }
+
+                result.add(row);
+            }
+        }
+
+        return result;
+    }
+
+    private static List<String> legacyParseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                values.add(current.toString());
+                current = new StringBuilder();
+            } else {
+                current.append(c);
+            }
+        }
+
+        values.add(current.toString());
+        return values;
+    }
+}
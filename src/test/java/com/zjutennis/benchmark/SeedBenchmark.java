@@ -0,0 +1,96 @@
+package com.zjutennis.benchmark;
+
+import com.zjutennis.ZjutennisApplication;
+import com.zjutennis.service.DataImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup seeding time of DataImportService for a roster of the given size:
+ * - jpa: saveAll, one INSERT round trip per player and per statistics row
+ * - bulk: multi-row INSERT statements of zjutennis.seed.batch-size rows
+ *
+ * Each trial boots the application against the test H2 database with the given mode and
+ * every iteration seeds into empty tables. Run against MySQL by passing the datasource
+ * properties as system properties to see the effect of network round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SeedBenchmark {
+
+    @Param({"jpa", "bulk"})
+    private String mode;
+
+    @Param({"5000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DataImportService dataImportService;
+    private JdbcTemplate jdbcTemplate;
+    private ByteArrayResource roster;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ZjutennisApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("zjutennis.seed.mode=" + mode, "logging.level.com.zjutennis=warn")
+                .run();
+        dataImportService = context.getBean(DataImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        StringBuilder csv = new StringBuilder(",,,,,\n,名,姓,Match UTR,性别,Status\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i + 1).append(",Player,").append(i).append(',')
+               .append(i % 4 == 0 ? "NA" : String.valueOf(1 + (i % 1200) / 100.0)).append(',')
+               .append(i % 2 == 0 ? "M" : "F").append(',')
+               .append(i % 3 == 0 ? "Rated" : "Projected").append('\n');
+        }
+        roster = new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8), "roster.csv");
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        jdbcTemplate.update("DELETE FROM player_statistics");
+        jdbcTemplate.update("DELETE FROM players");
+    }
+
+    @Benchmark
+    public int seed() {
+        return dataImportService.importPlayersFromCSV(roster);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SeedBenchmark.class.getSimpleName()).build()).run();
+    }
+}
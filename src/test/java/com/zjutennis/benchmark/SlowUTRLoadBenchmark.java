@@ -0,0 +1,142 @@
+package com.zjutennis.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zjutennis.ZjutennisApplication;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a plain player lookup while UTR takes two seconds per request and slowClients
+ * callers keep PUT /api/players/{id}/statistics/utr busy.
+ *
+ * Boots the application with the loadtest profile (16 Tomcat threads) against a local UTR
+ * stub. In inline mode the UTR updates hold every Tomcat thread and the lookups queue
+ * behind them; in pool mode they wait on ioExecutor, excess updates get a 503, and the
+ * lookups stay fast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SlowUTRLoadBenchmark {
+
+    private static final long UTR_DELAY_MS = 2000;
+
+    @Param({"inline", "pool"})
+    private String ioMode;
+
+    @Param({"48"})
+    private int slowClients;
+
+    private HttpServer utrStub;
+    private ConfigurableApplicationContext context;
+    private ExecutorService slowCallers;
+    private HttpClient client;
+    private String playerUrl;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        utrStub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        utrStub.createContext("/api/v1/player/", exchange -> {
+            try {
+                Thread.sleep(UTR_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"wins\":12,\"losses\":4,\"withdrawls\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        utrStub.setExecutor(Executors.newCachedThreadPool());
+        utrStub.start();
+
+        context = new SpringApplicationBuilder(ZjutennisApplication.class)
+                .profiles("loadtest")
+                .properties("server.port=0",
+                            "zjutennis.io.mode=" + ioMode,
+                            "zjutennis.utr.base-url=http://localhost:" + utrStub.getAddress().getPort())
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        Long playerId = context.getBean(PlayerStatisticsRepository.class).findAll().get(0).getPlayer().getId();
+        playerUrl = "http://localhost:" + port + "/api/players/" + playerId;
+
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest update = HttpRequest.newBuilder(URI.create(playerUrl + "/statistics/utr?utrId=3790509"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        running = true;
+        slowCallers = Executors.newFixedThreadPool(slowClients);
+        for (int i = 0; i < slowClients; i++) {
+            slowCallers.execute(() -> {
+                while (running) {
+                    try {
+                        client.send(update, HttpResponse.BodyHandlers.discarding());
+                    } catch (IOException e) {
+                        // Keep the load on; the lookups measure the effect
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+        // Let the slow updates fill the request threads before measuring
+        Thread.sleep(UTR_DELAY_MS + 1000);
+    }
+
+    @Benchmark
+    public int getPlayer() throws IOException, InterruptedException {
+        HttpRequest lookup = HttpRequest.newBuilder(URI.create(playerUrl)).timeout(Duration.ofSeconds(30)).build();
+        return client.send(lookup, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        running = false;
+        slowCallers.shutdown();
+        slowCallers.awaitTermination(UTR_DELAY_MS * 3, TimeUnit.MILLISECONDS);
+        context.close();
+        utrStub.stop(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SlowUTRLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.zjutennis.config;
+
+import com.zjutennis.model.SeedState;
+import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.repository.SeedStateRepository;
+import com.zjutennis.service.DataImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataLoader Tests")
+class DataLoaderTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private SeedStateRepository seedStateRepository;
+
+    @Mock
+    private DataImportService dataImportService;
+
+    @InjectMocks
+    private DataLoader dataLoader;
+
+    @Test
+    @DisplayName("Should import the seed file into an empty database and record its checksum")
+    void testSeedEmptyDatabase() throws IOException {
+        // Arrange
+        when(seedStateRepository.findById(DataLoader.SEED_FILE)).thenReturn(Optional.empty());
+        when(playerRepository.existsByIdNotNull()).thenReturn(false);
+        when(dataImportService.importPlayersFromCSV(any(Resource.class))).thenReturn(30);
+
+        // Act
+        dataLoader.seed();
+
+        // Assert
+        ArgumentCaptor<SeedState> captor = ArgumentCaptor.forClass(SeedState.class);
+        verify(seedStateRepository).save(captor.capture());
+        assertThat(captor.getValue().getChecksum()).isEqualTo(DataLoader.checksum(new ClassPathResource(DataLoader.SEED_FILE)));
+        assertThat(captor.getValue().getChecksum()).hasSize(64);
+        assertThat(captor.getValue().getRowCount()).isEqualTo(30);
+        assertThat(dataLoader.getState()).isEqualTo(DataLoader.State.READY);
+    }
+
+    @Test
+    @DisplayName("Should skip seeding without touching the players table when the checksum matches")
+    void testSkipSeededFile() throws IOException {
+        // Arrange
+        SeedState seedState = new SeedState();
+        seedState.setName(DataLoader.SEED_FILE);
+        seedState.setChecksum(DataLoader.checksum(new ClassPathResource(DataLoader.SEED_FILE)));
+        seedState.setSeededAt(LocalDateTime.now());
+        when(seedStateRepository.findById(DataLoader.SEED_FILE)).thenReturn(Optional.of(seedState));
+
+        // Act
+        dataLoader.seed();
+
+        // Assert
+        verifyNoInteractions(playerRepository, dataImportService);
+        verify(seedStateRepository, never()).save(any());
+        assertThat(dataLoader.getState()).isEqualTo(DataLoader.State.READY);
+    }
+
+    @Test
+    @DisplayName("Should record the seed file without importing when players already exist")
+    void testAdoptExistingPlayers() {
+        // Arrange
+        when(seedStateRepository.findById(DataLoader.SEED_FILE)).thenReturn(Optional.empty());
+        when(playerRepository.existsByIdNotNull()).thenReturn(true);
+
+        // Act
+        dataLoader.seed();
+
+        // Assert
+        verify(dataImportService, never()).importPlayersFromCSV(any(Resource.class));
+        verify(seedStateRepository).save(any(SeedState.class));
+    }
+
+    @Test
+    @DisplayName("Should keep readiness out of service until seeding finishes and down if it fails")
+    void testSeedHealth() {
+        // Arrange
+        SeedHealthIndicator healthIndicator = new SeedHealthIndicator();
+        ReflectionTestUtils.setField(healthIndicator, "dataLoader", dataLoader);
+        when(seedStateRepository.findById(DataLoader.SEED_FILE)).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        Status before = healthIndicator.health().getStatus();
+        dataLoader.seed();
+        Status after = healthIndicator.health().getStatus();
+
+        // Assert
+        assertThat(before).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(after).isEqualTo(Status.DOWN);
+        assertThat(healthIndicator.health().getDetails()).containsEntry("error", "Database unavailable");
+    }
+}
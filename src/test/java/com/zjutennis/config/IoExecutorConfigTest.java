@@ -0,0 +1,110 @@
+package com.zjutennis.config;
+
+import com.zjutennis.util.BoundedExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IoExecutorConfig Tests")
+class IoExecutorConfigTest {
+
+    private final IoExecutorConfig config = new IoExecutorConfig();
+
+    @Test
+    @DisplayName("Should run on the calling thread in inline mode")
+    void testInline() {
+        // Act
+        Executor executor = config.ioExecutor("inline", 4, 4);
+
+        // Assert
+        assertThat(executor).isInstanceOf(SyncTaskExecutor.class);
+        assertThat(CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).join())
+                .isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    @DisplayName("Should run on the dedicated pool and reject work beyond its queue")
+    void testPool() throws InterruptedException {
+        // Arrange
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) config.ioExecutor("pool", 1, 1);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // Act
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> {
+                await(release);
+                return Thread.currentThread().getName();
+            }, executor);
+            executor.execute(() -> await(release));
+
+            // Assert
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+            release.countDown();
+            assertThat(running.join()).startsWith("io-");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bound virtual threads, or fall back to the pool before JDK 21")
+    void testVirtual() {
+        // Act
+        Executor executor = config.ioExecutor("virtual", 2, 1);
+
+        // Assert
+        if (Runtime.version().feature() >= 21) {
+            assertThat(executor).isInstanceOf(BoundedExecutor.class);
+        } else {
+            assertThat(executor).isInstanceOf(ThreadPoolTaskExecutor.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown mode")
+    void testUnknownMode() {
+        assertThatThrownBy(() -> config.ioExecutor("threads", 2, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should limit running and waiting tasks of an unbounded executor")
+    void testBoundedExecutor() throws InterruptedException {
+        // Arrange
+        BoundedExecutor executor = new BoundedExecutor(task -> new Thread(task).start(), 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+
+        // Act
+        executor.execute(() -> { started.countDown(); await(release); });
+        executor.execute(started::countDown);
+
+        // Assert: the second task waits for the first, and a third does not fit
+        assertThat(started.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(TaskRejectedException.class);
+        release.countDown();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.zjutennis.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zjutennis.config.IoExecutorConfig;
+import com.zjutennis.dto.ImportJobStatus;
 import com.zjutennis.dto.ImportResult;
 import com.zjutennis.dto.PlayerSearchRequest;
 import com.zjutennis.dto.PlayerSearchResponse;
+import com.zjutennis.dto.PlayerSummary;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerSkillsHistory;
+import com.zjutennis.service.HeadToHeadService;
+import com.zjutennis.service.PartnershipService;
+import com.zjutennis.service.PlayerAggregateService;
+import com.zjutennis.service.PlayerImportJobService;
 import com.zjutennis.service.PlayerService;
 import com.zjutennis.service.PlayerSkillsHistoryService;
+import com.zjutennis.service.PlayerStatisticsService;
+import com.zjutennis.service.RatingService;
+import com.zjutennis.service.UTRRefreshService;
+import com.zjutennis.service.UTRSyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
@@ -32,6 +45,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PlayerController.class)
+@Import(IoExecutorConfig.class)
 @DisplayName("PlayerController Tests")
 class PlayerControllerTest {
 
@@ -47,6 +61,34 @@ class PlayerControllerTest {
     @MockBean
     private PlayerSkillsHistoryService playerSkillsHistoryService;
 
+    @MockBean
+    private PlayerStatisticsService playerStatisticsService;
+
+    @MockBean
+    private PlayerImportJobService playerImportJobService;
+
+    @MockBean
+    private UTRRefreshService utrRefreshService;
+
+    @MockBean
+    private UTRSyncService utrSyncService;
+
+    @MockBean
+    private PlayerAggregateService playerAggregateService;
+
+    @MockBean
+    private PartnershipService partnershipService;
+
+    @MockBean
+    private HeadToHeadService headToHeadService;
+
+    @MockBean
+    private RatingService ratingService;
+
+    // @EnableJpaAuditing on the application needs a mapping context the web slice does not build
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
     private Player testPlayer1;
     private Player testPlayer2;
     private PlayerSearchRequest searchRequest;
@@ -87,7 +129,9 @@ class PlayerControllerTest {
     @DisplayName("Should get all players successfully")
     void testGetAllPlayers() throws Exception {
         // Arrange
-        when(playerService.getAllPlayers()).thenReturn(Arrays.asList(testPlayer1, testPlayer2));
+        when(playerService.getPlayerSummaries()).thenReturn(Arrays.asList(
+                new PlayerSummary(1L, "John Doe", "male", "Hangzhou", "China", null, null, null),
+                new PlayerSummary(2L, "Jane Smith", "female", "Beijing", "China", null, null, null)));
 
         // Act & Assert
         mockMvc.perform(get("/api/players")
@@ -99,14 +143,14 @@ class PlayerControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].name").value("Jane Smith"));
 
-        verify(playerService, times(1)).getAllPlayers();
+        verify(playerService, times(1)).getPlayerSummaries();
     }
 
     @Test
     @DisplayName("Should return empty list when no players exist")
     void testGetAllPlayersEmpty() throws Exception {
         // Arrange
-        when(playerService.getAllPlayers()).thenReturn(Collections.emptyList());
+        when(playerService.getPlayerSummaries()).thenReturn(Collections.emptyList());
 
         // Act & Assert
         mockMvc.perform(get("/api/players")
@@ -129,7 +173,7 @@ class PlayerControllerTest {
                 .andExpect(jsonPath("$.players", hasSize(1)))
                 .andExpect(jsonPath("$.players[0].name").value("John Doe"))
                 .andExpect(jsonPath("$.totalCount").value(1))
-                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.currentPage").value(1))
                 .andExpect(jsonPath("$.pageSize").value(25));
 
         verify(playerService, times(1)).searchPlayers(any(PlayerSearchRequest.class));
@@ -198,7 +242,8 @@ class PlayerControllerTest {
     @DisplayName("Should get players by city successfully")
     void testGetPlayersByCity() throws Exception {
         // Arrange
-        when(playerService.getPlayersByCity("Hangzhou")).thenReturn(Arrays.asList(testPlayer1));
+        when(playerService.getPlayerSummariesByCity("Hangzhou")).thenReturn(Arrays.asList(
+                new PlayerSummary(1L, "John Doe", "male", "Hangzhou", "China", null, null, null)));
 
         // Act & Assert
         mockMvc.perform(get("/api/players/city/Hangzhou")
@@ -207,7 +252,7 @@ class PlayerControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].city").value("Hangzhou"));
 
-        verify(playerService, times(1)).getPlayersByCity("Hangzhou");
+        verify(playerService, times(1)).getPlayerSummariesByCity("Hangzhou");
     }
 
     @Test
@@ -274,13 +319,13 @@ class PlayerControllerTest {
         history1.setId(1L);
         history1.setStrengths("Powerful serve");
         history1.setWeaknesses("Backhand");
-        history1.setRecordedAt(LocalDateTime.now());
+        history1.setCreatedAt(LocalDateTime.now());
 
         PlayerSkillsHistory history2 = new PlayerSkillsHistory();
         history2.setId(2L);
         history2.setStrengths("Improved backhand");
         history2.setWeaknesses("Net play");
-        history2.setRecordedAt(LocalDateTime.now());
+        history2.setCreatedAt(LocalDateTime.now());
 
         List<PlayerSkillsHistory> historyList = Arrays.asList(history1, history2);
         when(playerSkillsHistoryService.getPlayerSkillsHistory(1L)).thenReturn(historyList);
@@ -313,7 +358,8 @@ class PlayerControllerTest {
 
         // Act & Assert
         mockMvc.perform(multipart("/api/players/import")
-                        .file(file))
+                        .file(file)
+                        .param("async", "false"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.successCount").value(2))
                 .andExpect(jsonPath("$.errorCount").value(0))
@@ -322,6 +368,32 @@ class PlayerControllerTest {
         verify(playerService, times(1)).importPlayersFromCSV(any());
     }
 
+    @Test
+    @DisplayName("Should queue CSV import as a background job")
+    void testImportPlayersAsync() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "players.csv",
+                "text/csv",
+                "Player ID,Name\n1,John Doe".getBytes()
+        );
+
+        ImportJobStatus job = new ImportJobStatus();
+        job.setJobId("job-1");
+        job.setState(ImportJobStatus.State.QUEUED);
+        when(playerImportJobService.submit(any())).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/players/import")
+                        .file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/imports/job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        verify(playerService, never()).importPlayersFromCSV(any());
+    }
+
     @Test
     @DisplayName("Should return 400 when importing empty file")
     void testImportPlayersEmptyFile() throws Exception {
@@ -377,7 +449,8 @@ class PlayerControllerTest {
 
         // Act & Assert
         mockMvc.perform(multipart("/api/players/import")
-                        .file(file))
+                        .file(file)
+                        .param("async", "false"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message").value(containsString("Import failed")));
     }
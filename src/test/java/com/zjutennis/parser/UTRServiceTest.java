@@ -0,0 +1,317 @@
+package com.zjutennis.parser;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zjutennis.config.UTRClientConfig;
+import com.zjutennis.model.UTRCachedResult;
+import com.zjutennis.repository.UTRCachedResultRepository;
+import com.zjutennis.util.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs UTRService against a local stub of the UTR results endpoint
+ */
+@DisplayName("UTRService Tests")
+class UTRServiceTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger flakyFailures = new AtomicInteger(2);
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, UTRCachedResult> cacheTable = new ConcurrentHashMap<>();
+    private UTRCachedResultRepository cacheRepository;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/v1/player/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            try {
+                if (path.contains("/slow/")) {
+                    Thread.sleep(2000);
+                } else if (path.contains("/blocked/")) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = 200;
+            if (failing.get() || (path.contains("/flaky/") && flakyFailures.getAndDecrement() > 0)) {
+                status = 503;
+            } else if (path.contains("/missing/")) {
+                status = 404;
+            }
+            if (path.contains("/etag/")) {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                exchange.getResponseHeaders().set("Last-Modified", "Fri, 16 Oct 2026 08:00:00 GMT");
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    status = 304;
+                }
+            }
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "{\"wins\":12,\"losses\":4,\"withdrawls\":1,\"events\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        executor = Executors.newFixedThreadPool(4);
+
+        cacheRepository = mock(UTRCachedResultRepository.class);
+        when(cacheRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(cacheTable.get(invocation.<String>getArgument(0))));
+        when(cacheRepository.save(any(UTRCachedResult.class))).thenAnswer(invocation -> {
+            UTRCachedResult entry = invocation.getArgument(0);
+            cacheTable.put(entry.getUtrId(), entry);
+            return entry;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should fetch and map player results")
+    void testGetPlayerResults() {
+        // Arrange
+        UTRService utrService = utrService(100, 10);
+
+        // Act
+        UTRPlayerResultDTO result = utrService.getPlayerResults("3790509");
+
+        // Assert
+        assertThat(result.getWins()).isEqualTo(12);
+        assertThat(result.getLosses()).isEqualTo(4);
+        assertThat(result.getWithdrawls()).isEqualTo(1);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a slow response after the read timeout and then give up")
+    void testReadTimeout() {
+        // Arrange
+        UTRService utrService = utrService(100, 10);
+        long start = System.nanoTime();
+
+        // Act & Assert
+        assertThatThrownBy(() -> utrService.getPlayerResults("slow/1"))
+                .isInstanceOf(UTRService.UTRUnavailableException.class)
+                .hasMessageContaining("Failed to fetch UTR player results");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2500);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should retry server errors until UTR answers")
+    void testRetryServerError() {
+        // Arrange
+        UTRService utrService = utrService(100, 10);
+
+        // Act
+        UTRPlayerResultDTO result = utrService.getPlayerResults("flaky/1");
+
+        // Assert
+        assertThat(result.getWins()).isEqualTo(12);
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("utr.requests.retries").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not retry a request UTR rejected")
+    void testNoRetryOnClientError() {
+        // Arrange
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 60_000);
+        UTRService utrService = utrService(100, 10, circuitBreaker);
+
+        // Act & Assert
+        assertThatThrownBy(() -> utrService.getPlayerResults("missing/1"))
+                .isInstanceOf(RuntimeException.class)
+                .isNotInstanceOf(UTRService.UTRUnavailableException.class)
+                .hasMessageContaining("404");
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should open the circuit while UTR fails and serve the last results meanwhile")
+    void testCircuitBreakerFallback() throws InterruptedException {
+        // Arrange
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 200);
+        UTRService utrService = utrService(100, 10, circuitBreaker);
+        utrService.getPlayerResults("1");
+        failing.set(true);
+
+        // Act: the second failure opens the circuit, so the third attempt is never sent
+        UTRPlayerResultDTO fallback = utrService.getPlayerResults("1");
+
+        // Assert
+        assertThat(fallback.getWins()).isEqualTo(12);
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.counter("utr.fallback", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("utr.circuit.state").gauge().value()).isEqualTo(1.0);
+
+        // Nothing cached for this player, and the open circuit fails fast without a request
+        assertThatThrownBy(() -> utrService.getPlayerResults("2"))
+                .isInstanceOf(UTRService.UTRUnavailableException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(requests.get()).isEqualTo(3);
+
+        // After the open period one trial request goes through and closes the circuit
+        failing.set(false);
+        Thread.sleep(250);
+        assertThat(utrService.getPlayerResults("2").getWins()).isEqualTo(12);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent requests for the same UTR ID")
+    void testCoalesceInFlightRequests() throws Exception {
+        // Arrange
+        UTRService utrService = utrService(100, 10);
+
+        // Act
+        CompletableFuture<UTRPlayerResultDTO> first = utrService.getPlayerResultsAsync("blocked/1", executor);
+        CompletableFuture<UTRPlayerResultDTO> second = utrService.getPlayerResultsAsync("blocked/1", executor);
+        CompletableFuture<UTRPlayerResultDTO> other = utrService.getPlayerResultsAsync("blocked/2", executor);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        other.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(second.get().getWins()).isEqualTo(12);
+        assertThat(requests.get()).isEqualTo(2);
+
+        // A request after the first completed starts a new fetch
+        utrService.getPlayerResultsAsync("blocked/1", executor).get(5, TimeUnit.SECONDS);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should space requests out at the configured rate after the burst")
+    void testRateLimit() {
+        // Arrange
+        UTRService utrService = utrService(20, 1);
+        long start = System.nanoTime();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            utrService.getPlayerResults(String.valueOf(i));
+        }
+
+        // Assert: one immediate call, then four at 50 ms intervals
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(190);
+        assertThat(requests.get()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups from the cache while it is fresh")
+    void testFreshCache() {
+        // Arrange
+        UTRService utrService = utrService(100, 10, new CircuitBreaker(5, 30_000), 600);
+
+        // Act
+        UTRPlayerResultDTO result = utrService.getPlayerResults("1");
+        Double winRate = utrService.getPlayerWinRate("1");
+        Integer totalMatches = utrService.getPlayerTotalMatches("1");
+
+        // Assert
+        assertThat(result.getWins()).isEqualTo(12);
+        assertThat(winRate).isEqualTo(75.0);
+        assertThat(totalMatches).isEqualTo(16);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should revalidate a stale entry with a conditional request")
+    void testConditionalRevalidation() {
+        // Arrange
+        UTRService utrService = utrService(100, 10);
+        utrService.getPlayerResults("etag/1");
+        UTRCachedResult entry = cacheTable.get("etag/1");
+        assertThat(entry.getEtag()).isEqualTo("\"v1\"");
+        assertThat(entry.getLastModified()).isEqualTo("Fri, 16 Oct 2026 08:00:00 GMT");
+
+        // Act
+        UTRPlayerResultDTO result = utrService.getPlayerResults("etag/1");
+
+        // Assert
+        assertThat(result.getWins()).isEqualTo(12);
+        assertThat(result.getLosses()).isEqualTo(4);
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(notModified.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("utr.cache", "result", "revalidated").count()).isEqualTo(1.0);
+        assertThat(cacheTable.get("etag/1").getValidatedAt()).isAfterOrEqualTo(entry.getFetchedAt());
+    }
+
+    @Test
+    @DisplayName("Should extract UTR IDs from profile URLs")
+    void testExtractUtrId() {
+        assertThat(UTRService.extractUtrId(" 3790509 ")).isEqualTo("3790509");
+        assertThat(UTRService.extractUtrId("https://app.utrsports.net/profiles/3790509?tab=results")).isEqualTo("3790509");
+        assertThatThrownBy(() -> UTRService.extractUtrId("https://example.com/player"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UTRService utrService(double ratePerSecond, int burst) {
+        return utrService(ratePerSecond, burst, new CircuitBreaker(5, 30_000));
+    }
+
+    private UTRService utrService(double ratePerSecond, int burst, CircuitBreaker circuitBreaker) {
+        // Nothing is fresh, so every lookup reaches the stub
+        return utrService(ratePerSecond, burst, circuitBreaker, 0);
+    }
+
+    private UTRService utrService(double ratePerSecond, int burst, CircuitBreaker circuitBreaker, long freshSeconds) {
+        UTRClientConfig config = new UTRClientConfig();
+        return new UTRService(config.utrRestTemplate(4, 500, 500), config.utrRetryTemplate(3, 10, 50), circuitBreaker,
+                              new UTRResultCache(cacheRepository, freshSeconds), meterRegistry, baseUrl, ratePerSecond, burst);
+    }
+}
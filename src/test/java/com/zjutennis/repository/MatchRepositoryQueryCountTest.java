@@ -0,0 +1,193 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerAlumni;
+import com.zjutennis.model.PlayerSkills;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.model.Video;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression test for N+1 loading: every MatchRepository method must load any number of
+ * matches, with their four players, the players' one-to-ones and the video, in a fixed
+ * number of statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("MatchRepository Query Count Tests")
+class MatchRepositoryQueryCountTest {
+
+    private static final int MATCH_COUNT = 6;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    private Statistics statistics;
+    private Long playerId;
+    private Match lastMatch;
+
+    @BeforeEach
+    void setUp() {
+        // Every match has four distinct players, so lazy per-row loading would show up as extra statements
+        Player shared = persistPlayer("Shared Player");
+        playerId = shared.getId();
+        for (int i = 0; i < MATCH_COUNT; i++) {
+            Match match = new Match();
+            match.setMatchType("doubles");
+            match.setMatchTime(BASE_TIME.plusDays(i));
+            match.setTournamentName("Spring Open");
+            match.setWinnerSide("team1");
+            match.setPlayer1(shared);
+            match.setPlayer2(persistPlayer("Partner " + i));
+            match.setOpponentPlayer1(persistPlayer("Opponent A" + i));
+            match.setOpponentPlayer2(persistPlayer("Opponent B" + i));
+
+            Video video = new Video();
+            video.setVideoUrl("https://example.com/video/" + i);
+            match.setVideo(video);
+            lastMatch = entityManager.persist(match);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load all matches in one statement")
+    void testFindAll() {
+        assertStatements(1, () -> matchRepository.findAll(), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load a match by id in one statement")
+    void testFindById() {
+        assertStatements(1, () -> List.of(matchRepository.findById(lastMatch.getId()).orElseThrow()), 1);
+    }
+
+    @Test
+    @DisplayName("Should load matches by type in one statement")
+    void testFindByMatchType() {
+        assertStatements(1, () -> matchRepository.findByMatchTypeOrderByMatchTimeDesc("doubles"), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load keyset pages by type in one statement each")
+    void testFindByMatchTypePages() {
+        assertStatements(1, () -> matchRepository.findByMatchTypeOrderByMatchTimeDescIdDesc("doubles", PageRequest.of(0, 4)), 4);
+        statistics.clear();
+        assertStatements(1, () -> matchRepository.findByMatchTypeBefore(
+                "doubles", lastMatch.getMatchTime(), lastMatch.getId(), PageRequest.of(0, 10)), MATCH_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("Should load matches by result in one statement")
+    void testFindByResult() {
+        assertStatements(1, () -> matchRepository.findByResultOrderByMatchTimeDesc("complete"), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load matches in a date range in one statement")
+    void testFindByMatchTimeBetween() {
+        assertStatements(1, () -> matchRepository.findByMatchTimeBetweenOrderByMatchTimeDesc(
+                BASE_TIME.minusDays(1), BASE_TIME.plusDays(MATCH_COUNT)), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load matches by tournament in one statement")
+    void testFindByTournamentName() {
+        assertStatements(1, () -> matchRepository.findByTournamentNameContainingIgnoreCaseOrderByMatchTimeDesc("spring"), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load a player's matches in one statement")
+    void testFindByPlayerId() {
+        assertStatements(1, () -> matchRepository.findByPlayerId(playerId), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load keyset pages of a player's matches in one statement each")
+    void testFindByPlayerIdPages() {
+        assertStatements(1, () -> matchRepository.findByPlayerId(playerId, PageRequest.of(0, 4)), 4);
+        statistics.clear();
+        assertStatements(1, () -> matchRepository.findByPlayerIdBefore(
+                playerId, lastMatch.getMatchTime(), lastMatch.getId(), PageRequest.of(0, 10)), MATCH_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("Should load matches won by our team in one statement")
+    void testFindMatchesWonByOurTeam() {
+        assertStatements(1, () -> matchRepository.findMatchesWonByOurTeam(), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should load recent matches in one statement")
+    void testFindTop10() {
+        assertStatements(1, () -> matchRepository.findTop10ByOrderByMatchTimeDesc(), MATCH_COUNT);
+    }
+
+    @Test
+    @DisplayName("Should count and summarize matches in one statement each")
+    void testCountAndSummaries() {
+        assertThat(matchRepository.countByMatchType("doubles")).isEqualTo(MATCH_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        statistics.clear();
+
+        assertStatements(1, () -> matchRepository.findAllSummaries(), MATCH_COUNT);
+        statistics.clear();
+        assertStatements(1, () -> matchRepository.findSummaryPage(PageRequest.of(0, 4)), 4);
+        statistics.clear();
+        assertStatements(1, () -> matchRepository.findSummaryPageBefore(
+                lastMatch.getMatchTime(), lastMatch.getId(), PageRequest.of(0, 10)), MATCH_COUNT - 1);
+    }
+
+    private void assertStatements(long expected, Supplier<List<?>> query, int expectedRows) {
+        List<?> rows = query.get();
+
+        assertThat(rows).hasSize(expectedRows);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private Player persistPlayer(String name) {
+        Player player = new Player();
+        player.setName(name);
+
+        PlayerStatistics stats = new PlayerStatistics();
+        stats.setUtrRating(8.0);
+        stats.setPlayer(player);
+        player.setStatistics(stats);
+
+        PlayerSkills skills = new PlayerSkills();
+        skills.setPlayer(player);
+        player.setSkills(skills);
+
+        PlayerAlumni alumni = new PlayerAlumni();
+        alumni.setPlayer(player);
+        player.setAlumni(alumni);
+
+        return entityManager.persist(player);
+    }
+}
@@ -0,0 +1,114 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.dto.MatchSummary;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("MatchRepository Tests")
+class MatchRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    private Player player;
+    private Match singlesEarly;
+    private Match singlesTied1;
+    private Match singlesTied2;
+    private Match doublesLate;
+
+    @BeforeEach
+    void setUp() {
+        player = new Player();
+        player.setName("John Doe");
+        player.setEmail("john@example.com");
+        entityManager.persist(player);
+
+        singlesEarly = persistMatch("singles", BASE_TIME, player);
+        singlesTied1 = persistMatch("singles", BASE_TIME.plusDays(1), null);
+        singlesTied2 = persistMatch("singles", BASE_TIME.plusDays(1), player);
+        doublesLate = persistMatch("doubles", BASE_TIME.plusDays(2), player);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should select match summaries without dropping matches that lack players")
+    void testFindAllSummaries() {
+        // Act
+        List<MatchSummary> summaries = matchRepository.findAllSummaries();
+
+        // Assert
+        assertThat(summaries).extracting("id").containsExactly(
+                doublesLate.getId(), singlesTied2.getId(), singlesTied1.getId(), singlesEarly.getId());
+        assertThat(summaries.get(0).getPlayer1Id()).isEqualTo(player.getId());
+        assertThat(summaries.get(0).getPlayer1Name()).isEqualTo("John Doe");
+        assertThat(summaries.get(2).getPlayer1Id()).isNull();
+        assertThat(summaries.get(2).getVideoId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should page all matches newest first, breaking time ties by id")
+    void testKeysetPagesOfAllMatches() {
+        // Act
+        List<MatchSummary> firstPage = matchRepository.findSummaryPage(PageRequest.of(0, 2));
+        MatchSummary last = firstPage.get(1);
+        List<MatchSummary> secondPage = matchRepository.findSummaryPageBefore(last.getMatchTime(), last.getId(), PageRequest.of(0, 2));
+
+        // Assert
+        assertThat(firstPage).extracting("id").containsExactly(doublesLate.getId(), singlesTied2.getId());
+        assertThat(secondPage).extracting("id").containsExactly(singlesTied1.getId(), singlesEarly.getId());
+    }
+
+    @Test
+    @DisplayName("Should page matches by type past a cursor")
+    void testKeysetPagesByType() {
+        // Act
+        List<Match> firstPage = matchRepository.findByMatchTypeOrderByMatchTimeDescIdDesc("singles", PageRequest.of(0, 1));
+        Match last = firstPage.get(0);
+        List<Match> rest = matchRepository.findByMatchTypeBefore("singles", last.getMatchTime(), last.getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(firstPage).extracting("id").containsExactly(singlesTied2.getId());
+        assertThat(rest).extracting("id").containsExactly(singlesTied1.getId(), singlesEarly.getId());
+    }
+
+    @Test
+    @DisplayName("Should page a player's matches past a cursor")
+    void testKeysetPagesByPlayer() {
+        // Act
+        List<Match> firstPage = matchRepository.findByPlayerId(player.getId(), PageRequest.of(0, 2));
+        Match last = firstPage.get(1);
+        List<Match> rest = matchRepository.findByPlayerIdBefore(player.getId(), last.getMatchTime(), last.getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(firstPage).extracting("id").containsExactly(doublesLate.getId(), singlesTied2.getId());
+        assertThat(rest).extracting("id").containsExactly(singlesEarly.getId());
+    }
+
+    private Match persistMatch(String matchType, LocalDateTime matchTime, Player player1) {
+        Match match = new Match();
+        match.setMatchType(matchType);
+        match.setMatchTime(matchTime);
+        match.setPlayer1(player1);
+        match.setPlayer1Name(player1 != null ? player1.getName() : "Guest");
+        return entityManager.persist(match);
+    }
+}
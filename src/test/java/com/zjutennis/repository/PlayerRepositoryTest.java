@@ -1,5 +1,6 @@
 package com.zjutennis.repository;
 
+import com.zjutennis.dto.PlayerSummary;
 import com.zjutennis.model.Player;
 import com.zjutennis.model.PlayerAlumni;
 import com.zjutennis.model.PlayerSkills;
@@ -165,6 +166,34 @@ class PlayerRepositoryTest {
         assertThat(results.get(0).getCity()).isEqualTo("Beijing");
     }
 
+    @Test
+    @DisplayName("Should select player summaries with statistics columns")
+    void testFindSummariesByCity() {
+        // Act
+        List<PlayerSummary> results = playerRepository.findSummariesByCity("Hangzhou");
+
+        // Assert
+        assertThat(results).extracting("name").containsExactlyInAnyOrder("John Doe", "Bob Wilson");
+        assertThat(results).filteredOn(summary -> "John Doe".equals(summary.getName()))
+                .extracting("utrRating").containsExactly(12.5);
+        assertThat(playerRepository.findAllSummaries()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should fetch players by id with their details in one query")
+    void testFindAllWithDetailsByIdIn() {
+        // Arrange
+        entityManager.clear();
+
+        // Act
+        List<Player> results = playerRepository.findAllWithDetailsByIdIn(List.of(testPlayer1.getId(), testPlayer3.getId(), -1L));
+
+        // Assert
+        assertThat(results).extracting("name").containsExactlyInAnyOrder("John Doe", "Bob Wilson");
+        assertThat(results).filteredOn(player -> "John Doe".equals(player.getName()))
+                .extracting(player -> player.getStatistics().getUtrRating()).containsExactly(12.5);
+    }
+
     @Test
     @DisplayName("Should save new player with all relationships")
     void testSavePlayerWithRelationships() {
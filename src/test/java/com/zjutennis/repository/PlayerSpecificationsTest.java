@@ -0,0 +1,140 @@
+package com.zjutennis.repository;
+
+import com.zjutennis.dto.PlayerSearchCursor;
+import com.zjutennis.dto.PlayerSearchRequest;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerAlumni;
+import com.zjutennis.model.PlayerStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("PlayerSpecifications Tests")
+class PlayerSpecificationsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @BeforeEach
+    void setUp() {
+        persist("John Doe", "male", "Hangzhou", 12.5, 5.0, 75.0, "Zhejiang University");
+        persist("Jane Smith", "female", "Beijing", 8.0, 4.0, 60.0, null);
+        persist("Bob Wilson", "male", "Shanghai", null, null, null, null);
+        persist("Jim 100%", "male", "Hangzhou", 10.0, 4.0, 50.0, "Tsinghua University");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should filter by text, ranges and university")
+    void testFilters() {
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setCity("HANGZHOU");
+        request.setUtrMin(11.0);
+        assertThat(search(request, 0, 25).getContent()).extracting("name").containsExactly("John Doe");
+
+        PlayerSearchRequest universityRequest = new PlayerSearchRequest();
+        universityRequest.setUniversity("university");
+        universityRequest.setNtrp(4.0);
+        assertThat(search(universityRequest, 0, 25).getContent()).extracting("name").containsExactly("Jim 100%");
+
+        PlayerSearchRequest likeRequest = new PlayerSearchRequest();
+        likeRequest.setName("%");
+        assertThat(search(likeRequest, 0, 25).getContent()).extracting("name").containsExactly("Jim 100%");
+    }
+
+    @Test
+    @DisplayName("Should sort missing UTR as lowest and page in the database")
+    void testSortingAndPaging() {
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setSortBy("utr");
+        request.setSortOrder("asc");
+
+        Page<Player> firstPage = search(request, 0, 2);
+        Page<Player> secondPage = search(request, 1, 2);
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(4);
+        assertThat(firstPage.getContent()).extracting("name").containsExactly("Bob Wilson", "Jane Smith");
+        assertThat(secondPage.getContent()).extracting("name").containsExactly("Jim 100%", "John Doe");
+        assertThat(secondPage.getContent().get(1).getStatistics().getUtrRating()).isEqualTo(12.5);
+    }
+
+    @Test
+    @DisplayName("Should sort by win rate with missing values lowest")
+    void testSortingByWinRate() {
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setSortBy("winRate");
+
+        assertThat(search(request, 0, 25).getContent()).extracting("name")
+                .containsExactly("John Doe", "Jane Smith", "Jim 100%", "Bob Wilson");
+    }
+
+    @Test
+    @DisplayName("Should seek past a cursor on the sort key and id")
+    void testCursorSeek() {
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setSortBy("ntrp");
+        Page<Player> firstPage = search(request, 0, 2);
+        PlayerSearchCursor after = PlayerSearchCursor.after(request, firstPage.getContent().get(1));
+
+        Page<Player> rest = playerRepository.findAll(
+                PlayerSpecifications.fromSearchRequest(request, after), PageRequest.of(0, 25));
+
+        // Jane and Jim tie on NTRP 4.0 and are ordered by id
+        assertThat(firstPage.getContent()).extracting("name").containsExactly("John Doe", "Jane Smith");
+        assertThat(rest.getContent()).extracting("name").containsExactly("Jim 100%", "Bob Wilson");
+    }
+
+    @Test
+    @DisplayName("Should count all matches independently of the page")
+    void testCountQuery() {
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setGender("male");
+        request.setWinRateMax(80.0);
+
+        Page<Player> page = search(request, 1, 1);
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+    }
+
+    private Page<Player> search(PlayerSearchRequest request, int page, int size) {
+        return playerRepository.findAll(PlayerSpecifications.fromSearchRequest(request), PageRequest.of(page, size));
+    }
+
+    private void persist(String name, String gender, String city, Double utr, Double ntrp, Double winRate,
+                         String university) {
+        Player player = new Player();
+        player.setName(name);
+        player.setGender(gender);
+        player.setCity(city);
+        player.setCountry("China");
+
+        if (utr != null || ntrp != null || winRate != null) {
+            PlayerStatistics statistics = new PlayerStatistics();
+            statistics.setUtrRating(utr);
+            statistics.setNtrpRating(ntrp);
+            statistics.setWinRate(winRate);
+            player.setStatistics(statistics);
+        }
+
+        if (university != null) {
+            PlayerAlumni alumni = new PlayerAlumni();
+            alumni.setGraduationUniversity1(university);
+            player.setAlumni(alumni);
+        }
+
+        entityManager.persist(player);
+    }
+}
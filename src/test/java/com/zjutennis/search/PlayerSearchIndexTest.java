@@ -0,0 +1,360 @@
+package com.zjutennis.search;
+
+import com.zjutennis.dto.PlayerSearchRequest;
+import com.zjutennis.dto.PlayerSearchResponse;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerSearchIndex Tests")
+class PlayerSearchIndexTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @InjectMocks
+    private PlayerSearchIndex playerSearchIndex;
+
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = createPlayer(1L, "Alice Wang", "female", "Hangzhou", 9.5);
+        bob = createPlayer(2L, "Bob Li", "male", "Shanghai", 11.0);
+    }
+
+    @Test
+    @DisplayName("Should load lazily and answer repeated searches from memory")
+    void testSearchLoadsOnce() {
+        when(playerRepository.findAll()).thenReturn(Arrays.asList(alice, bob));
+
+        playerSearchIndex.search(new PlayerSearchRequest());
+        PlayerSearchResponse response = playerSearchIndex.search(new PlayerSearchRequest());
+
+        assertThat(response.getPlayers()).containsExactly(alice, bob);
+        verify(playerRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reflect upserted players without reloading")
+    void testUpsertKeepsIndexInSync() {
+        when(playerRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(alice, bob)));
+        playerSearchIndex.search(new PlayerSearchRequest());
+
+        Player carol = createPlayer(3L, "Carol Zhang", "female", "Beijing", 12.0);
+        playerSearchIndex.upsert(carol);
+        alice.setCity("Ningbo");
+        playerSearchIndex.upsert(alice);
+
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setGender("female");
+        request.setSortBy("utr");
+        PlayerSearchResponse response = playerSearchIndex.search(request);
+
+        assertThat(response.getPlayers()).containsExactly(carol, alice);
+        assertThat(playerSearchIndex.size()).isEqualTo(3);
+
+        PlayerSearchRequest cityRequest = new PlayerSearchRequest();
+        cityRequest.setCity("hangzhou");
+        assertThat(playerSearchIndex.search(cityRequest).getTotalCount()).isZero();
+        verify(playerRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should drop players that no longer exist on reload")
+    void testReloadRemovesMissingPlayer() {
+        when(playerRepository.findAll()).thenReturn(Arrays.asList(alice, bob));
+        when(playerRepository.findById(2L)).thenReturn(Optional.empty());
+        playerSearchIndex.search(new PlayerSearchRequest());
+
+        playerSearchIndex.reload(2L);
+
+        PlayerSearchResponse response = playerSearchIndex.search(new PlayerSearchRequest());
+        assertThat(response.getPlayers()).containsExactly(alice);
+        assertThat(response.getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the repository after invalidation")
+    void testInvalidateTriggersRebuild() {
+        when(playerRepository.findAll()).thenReturn(List.of(alice)).thenReturn(Arrays.asList(alice, bob));
+
+        assertThat(playerSearchIndex.search(new PlayerSearchRequest()).getTotalCount()).isEqualTo(1);
+        playerSearchIndex.invalidate();
+
+        assertThat(playerSearchIndex.search(new PlayerSearchRequest()).getTotalCount()).isEqualTo(2);
+        verify(playerRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should read again when an upsert commits while the index is being rebuilt")
+    void testUpsertDuringRebuildIsKept() {
+        Player carol = createPlayer(3L, "Carol Zhang", "female", "Beijing", 12.0);
+        when(playerRepository.findAll())
+                .thenAnswer(invocation -> {
+                    // The rows are read before Carol's insert commits
+                    List<Player> before = Arrays.asList(alice, bob);
+                    commit(() -> playerSearchIndex.upsert(carol));
+                    return before;
+                })
+                .thenReturn(Arrays.asList(alice, bob, carol));
+
+        PlayerSearchResponse response = playerSearchIndex.search(new PlayerSearchRequest());
+
+        assertThat(response.getPlayers()).containsExactly(alice, bob, carol);
+        verify(playerRepository, times(2)).findAll();
+
+        // Loaded for good: later searches do not read again
+        playerSearchIndex.search(new PlayerSearchRequest());
+        verify(playerRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should match Chinese and long substrings through n-gram postings")
+    void testSubstringSearch() {
+        Player zhang = createPlayer(3L, "张伟", "male", "杭州", 10.0);
+        Player lina = createPlayer(4L, "Lina Nali", "female", "Ningbo", 7.0);
+        when(playerRepository.findAll()).thenReturn(Arrays.asList(alice, bob, zhang, lina));
+
+        PlayerSearchRequest chineseRequest = new PlayerSearchRequest();
+        chineseRequest.setName("伟");
+        assertThat(playerSearchIndex.search(chineseRequest).getPlayers()).containsExactly(zhang);
+
+        PlayerSearchRequest longRequest = new PlayerSearchRequest();
+        longRequest.setName("ICE WA");
+        assertThat(playerSearchIndex.search(longRequest).getPlayers()).containsExactly(alice);
+
+        // Every trigram of "linali" occurs in "lina nali", but the query itself does not
+        PlayerSearchRequest falsePositiveRequest = new PlayerSearchRequest();
+        falsePositiveRequest.setName("linali");
+        assertThat(playerSearchIndex.search(falsePositiveRequest).getTotalCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should re-index text when a player is renamed")
+    void testUpsertReplacesPostings() {
+        when(playerRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(alice, bob)));
+        playerSearchIndex.search(new PlayerSearchRequest());
+
+        alice.setName("Alicia Chen");
+        playerSearchIndex.upsert(alice);
+
+        PlayerSearchRequest oldName = new PlayerSearchRequest();
+        oldName.setName("wang");
+        PlayerSearchRequest newName = new PlayerSearchRequest();
+        newName.setName("chen");
+        assertThat(playerSearchIndex.search(oldName).getTotalCount()).isZero();
+        assertThat(playerSearchIndex.search(newName).getPlayers()).containsExactly(alice);
+    }
+
+    @Test
+    @DisplayName("Should return facet counts for the filtered result set")
+    void testFacetCounts() {
+        Player carol = createPlayer(3L, "Carol Zhang", "female", "Hangzhou", 9.9);
+        carol.getStatistics().setNtrpRating(4.0);
+        carol.getStatistics().setWinRate(100.0);
+        alice.getStatistics().setNtrpRating(4.0);
+        alice.getStatistics().setWinRate(45.0);
+        when(playerRepository.findAll()).thenReturn(Arrays.asList(alice, bob, carol));
+
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setCity("hangzhou");
+        PlayerSearchResponse response = playerSearchIndex.search(request);
+
+        assertThat(response.getFacets().get("gender")).containsExactly(entry("female", 2));
+        assertThat(response.getFacets().get("ntrp")).containsExactly(entry("4.0", 2));
+        assertThat(response.getFacets().get("utr")).containsExactly(entry("9.5", 2));
+        assertThat(response.getFacets().get("winRate")).containsExactly(entry("40", 1), entry("90", 1));
+        assertThat(response.getFacets().get("city")).containsExactly(entry("Hangzhou", 2));
+
+        PlayerSearchRequest allRequest = new PlayerSearchRequest();
+        assertThat(playerSearchIndex.search(allRequest).getFacets().get("gender"))
+                .containsExactly(entry("female", 2), entry("male", 1));
+    }
+
+    @Test
+    @DisplayName("Should count only the most frequent cities, following writes")
+    void testCityFacetIsCapped() {
+        List<Player> all = new ArrayList<>();
+        for (long id = 1; id <= 23; id++) {
+            all.add(createPlayer(id, "Player " + id, "male", String.format("Town %02d", id), null));
+        }
+        all.add(createPlayer(24L, "Player 24", "male", "Hangzhou", null));
+        all.add(createPlayer(25L, "Player 25", "male", "Hangzhou", null));
+        all.add(createPlayer(26L, "Player 26", "male", "Hangzhou", null));
+        Player beijing = createPlayer(27L, "Player 27", "male", "Beijing", null);
+        all.add(beijing);
+        when(playerRepository.findAll()).thenReturn(all);
+
+        Map<String, Integer> cities = playerSearchIndex.search(new PlayerSearchRequest()).getFacets().get("city");
+
+        // 25 cities: the two largest, then the first 18 single-player towns
+        assertThat(cities).hasSize(20);
+        assertThat(cities.keySet()).startsWith("Beijing", "Hangzhou", "Town 01").endsWith("Town 18");
+        assertThat(cities).containsEntry("Hangzhou", 3).containsEntry("Beijing", 1);
+
+        Player moved = createPlayer(1L, "Player 1", "male", "Beijing", null);
+        playerSearchIndex.upsert(moved);
+        Player movedToo = createPlayer(2L, "Player 2", "male", "Beijing", null);
+        playerSearchIndex.upsert(movedToo);
+
+        cities = playerSearchIndex.search(new PlayerSearchRequest()).getFacets().get("city");
+        assertThat(cities).hasSize(20).containsEntry("Beijing", 3).doesNotContainKeys("Town 01", "Town 02");
+        assertThat(cities.keySet()).endsWith("Town 20");
+    }
+
+    @Test
+    @DisplayName("Should filter gender and NTRP through facet bitmaps")
+    void testFacetFilters() {
+        alice.getStatistics().setNtrpRating(3.5);
+        bob.getStatistics().setNtrpRating(3.5);
+        when(playerRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(alice, bob)));
+
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setGender("male");
+        request.setNtrp(3.5);
+        assertThat(playerSearchIndex.search(request).getPlayers()).containsExactly(bob);
+
+        bob.setGender("female");
+        playerSearchIndex.upsert(bob);
+        assertThat(playerSearchIndex.search(request).getTotalCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page through a top-K sort in the same order as a full sort")
+    void testTopKPaging() {
+        List<Player> all = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            // Repeated ratings and missing ones exercise tie-breaking and the -1 default
+            Double utr = id % 5 == 0 ? null : (double) (id * 7 % 13);
+            all.add(createPlayer(id, "Player " + id, "male", "Hangzhou", utr));
+        }
+        when(playerRepository.findAll()).thenReturn(all);
+
+        List<Player> expected = new ArrayList<>(all);
+        expected.sort(Comparator.comparingDouble((Player p) -> {
+            Double utr = p.getStatistics().getUtrRating();
+            return utr != null ? utr : -1.0;
+        }).reversed().thenComparing(Player::getId));
+
+        List<Player> paged = new ArrayList<>();
+        for (int page = 1; page <= 5; page++) {
+            PlayerSearchRequest request = new PlayerSearchRequest();
+            request.setSortBy("utr");
+            request.setPage(page);
+            request.setPageSize(9);
+            paged.addAll(playerSearchIndex.search(request).getPlayers());
+        }
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should sort by win rate, dynamic rating and UTR update time")
+    void testAdditionalSortKeys() {
+        alice.getStatistics().setWinRate(40.0);
+        alice.getStatistics().setDynamicRating(1650.0);
+        alice.getStatistics().setUtrUpdatedDate(LocalDateTime.of(2024, 3, 1, 10, 0));
+        bob.getStatistics().setWinRate(70.0);
+        bob.getStatistics().setUtrUpdatedDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Player carol = createPlayer(3L, "Carol Zhang", "female", "Beijing", 12.0);
+        carol.getStatistics().setDynamicRating(1500.0);
+        when(playerRepository.findAll()).thenReturn(Arrays.asList(alice, bob, carol));
+
+        PlayerSearchRequest winRateRequest = new PlayerSearchRequest();
+        winRateRequest.setSortBy("winRate");
+        assertThat(playerSearchIndex.search(winRateRequest).getPlayers()).containsExactly(bob, alice, carol);
+
+        PlayerSearchRequest ratingRequest = new PlayerSearchRequest();
+        ratingRequest.setSortBy("dynamicRating");
+        ratingRequest.setSortOrder("asc");
+        assertThat(playerSearchIndex.search(ratingRequest).getPlayers()).containsExactly(bob, carol, alice);
+
+        PlayerSearchRequest updatedRequest = new PlayerSearchRequest();
+        updatedRequest.setSortBy("utrUpdatedDate");
+        assertThat(playerSearchIndex.search(updatedRequest).getPlayers()).containsExactly(alice, bob, carol);
+
+        PlayerSearchRequest genderRequest = new PlayerSearchRequest();
+        genderRequest.setSortBy("gender");
+        genderRequest.setSortOrder("asc");
+        assertThat(playerSearchIndex.search(genderRequest).getPlayers()).containsExactly(alice, carol, bob);
+    }
+
+    @Test
+    @DisplayName("Should continue from a cursor and reject a cursor from another sort")
+    void testCursorPaging() {
+        Player carol = createPlayer(3L, "Carol Zhang", "female", "Beijing", 11.0);
+        Player dave = createPlayer(4L, "Dave Zhou", "male", "Beijing", null);
+        when(playerRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(alice, bob, carol, dave)));
+
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setSortBy("utr");
+        request.setPageSize(2);
+        PlayerSearchResponse firstPage = playerSearchIndex.search(request);
+
+        // A player added ahead of the cursor does not shift the next page
+        playerSearchIndex.upsert(createPlayer(5L, "Eve Wu", "female", "Beijing", 15.0));
+        request.setCursor(firstPage.getNextCursor());
+        PlayerSearchResponse secondPage = playerSearchIndex.search(request);
+
+        assertThat(firstPage.getPlayers()).containsExactly(bob, carol);
+        assertThat(secondPage.getPlayers()).containsExactly(alice, dave);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(secondPage.getTotalCount()).isEqualTo(5);
+
+        request.setSortOrder("asc");
+        assertThatThrownBy(() -> playerSearchIndex.search(request)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Player createPlayer(Long id, String name, String gender, String city, Double utr) {
+        Player player = new Player();
+        player.setId(id);
+        player.setName(name);
+        player.setGender(gender);
+        player.setCity(city);
+
+        PlayerStatistics statistics = new PlayerStatistics();
+        statistics.setUtrRating(utr);
+        player.setStatistics(statistics);
+        return player;
+    }
+
+    /**
+     * Run a write as if in a transaction, then fire its after-commit callbacks
+     */
+    private static void commit(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.Player;
+import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.search.PlayerSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import(DataImportService.class)
+@DisplayName("DataImportService Tests")
+class DataImportServiceTest {
+
+    @Autowired
+    private DataImportService dataImportService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private PlayerSearchIndex playerSearchIndex;
+
+    @MockBean
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Test
+    @DisplayName("Should seed players and statistics with multi-row inserts across batches")
+    void testBulkSeed() {
+        // Arrange
+        ReflectionTestUtils.setField(dataImportService, "seedBatchSize", 2);
+        String csvContent = ",,,,,\n" +
+                           ",名,姓,Match UTR,性别,Status\n" +
+                           "1,Hang,Yuan,9.04,M,Projected\n" +
+                           "2,Junya,Zhang,NA,M,\n" +
+                           "\n" +
+                           "3,Wei,Li,7.5,F,Rated\n";
+
+        // Act
+        int imported = dataImportService.importPlayersFromCSV(resource(csvContent));
+        entityManager.clear();
+
+        // Assert
+        assertThat(imported).isEqualTo(3);
+        List<Player> players = playerRepository.findAll();
+        assertThat(players).extracting(Player::getName).containsExactlyInAnyOrder("Hang Yuan", "Junya Zhang", "Wei Li");
+        Player hang = players.stream().filter(p -> p.getName().equals("Hang Yuan")).findFirst().orElseThrow();
+        assertThat(hang.getCreatedAt()).isNotNull();
+        assertThat(hang.getStatistics().getUtrRating()).isEqualTo(9.04);
+        assertThat(hang.getStatistics().getUtrStatus()).isEqualTo("projected");
+        Player junya = players.stream().filter(p -> p.getName().equals("Junya Zhang")).findFirst().orElseThrow();
+        assertThat(junya.getStatistics().getUtrRating()).isNull();
+        assertThat(junya.getStatistics().getUtrStatus()).isEqualTo("unrated");
+        verify(playerSearchIndex).invalidate();
+        verify(cacheInvalidationService).evictAllPlayers();
+    }
+
+    @Test
+    @DisplayName("Should seed the bundled roster the same way in JPA mode")
+    void testJpaSeed() {
+        // Arrange
+        ReflectionTestUtils.setField(dataImportService, "seedMode", "jpa");
+
+        // Act
+        dataImportService.importPlayersFromCSV("ZJUAlumni.csv");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        List<Player> players = playerRepository.findAll();
+        assertThat(players.size()).isEqualTo(30);
+        assertThat(players.stream().filter(player -> player.getStatistics() == null).count()).isZero();
+    }
+
+    private static ByteArrayResource resource(String csvContent) {
+        return new ByteArrayResource(csvContent.getBytes(StandardCharsets.UTF_8), "players.csv");
+    }
+}
@@ -0,0 +1,156 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.HeadToHead;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@Import(HeadToHeadService.class)
+@DisplayName("HeadToHeadService Tests")
+class HeadToHeadServiceTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private HeadToHeadService headToHeadService;
+
+    @MockBean
+    private PlayerFeatureStore playerFeatureStore;
+
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("Alice");
+        bob = persistPlayer("Bob");
+    }
+
+    @Test
+    @DisplayName("Should record both registered players' side of a match with sets and games")
+    void testRegisteredOpponents() {
+        // Act
+        matchService.createMatch(singles(MAY_1, "team1", "6-4, 3-6, 7-6(5)", alice, bob));
+
+        // Assert
+        HeadToHead aliceVsBob = record(alice, bob);
+        assertThat(aliceVsBob.getOpponentName()).isEqualTo("Bob");
+        assertThat(aliceVsBob.getWins()).isEqualTo(1);
+        assertThat(aliceVsBob.getSetsWon()).isEqualTo(2);
+        assertThat(aliceVsBob.getSetsLost()).isEqualTo(1);
+        assertThat(aliceVsBob.getGamesWon()).isEqualTo(16);
+        assertThat(aliceVsBob.getGamesLost()).isEqualTo(16);
+        assertThat(aliceVsBob.getLastResults()).isEqualTo("W");
+        assertThat(aliceVsBob.getLastPlayedAt()).isEqualTo(MAY_1);
+
+        HeadToHead bobVsAlice = record(bob, alice);
+        assertThat(bobVsAlice.getLosses()).isEqualTo(1);
+        assertThat(bobVsAlice.getSetsWon()).isEqualTo(1);
+        assertThat(bobVsAlice.getLastResults()).isEqualTo("L");
+    }
+
+    @Test
+    @DisplayName("Should count a match tiebreak as a set but not its points as games")
+    void testMatchTiebreakIsNotGames() {
+        // Act
+        matchService.createMatch(singles(MAY_1, "team1", "6-4, 3-6, 10-8", alice, bob));
+
+        // Assert
+        HeadToHead aliceVsBob = record(alice, bob);
+        assertThat(aliceVsBob.getSetsWon()).isEqualTo(2);
+        assertThat(aliceVsBob.getSetsLost()).isEqualTo(1);
+        assertThat(aliceVsBob.getGamesWon()).isEqualTo(9);
+        assertThat(aliceVsBob.getGamesLost()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should key opponents entered by name on the normalized name and keep the last five results")
+    void testNamedOpponentLastFive() {
+        // Arrange
+        String[] winners = {"team1", "team2", "team1", "team1", "team2", "team2"};
+        for (int i = 0; i < winners.length; i++) {
+            Match match = singles(MAY_1.plusDays(i), winners[i], null, alice, null);
+            match.setOpponentPlayer1Name(i % 2 == 0 ? "Jane  Smith" : "jane smith ");
+            matchService.createMatch(match);
+        }
+
+        // Act
+        flushAndClear();
+        HeadToHead vsJane = headToHeadService.getHeadToHead(alice.getId(), "JANE SMITH").orElseThrow();
+
+        // Assert
+        assertThat(vsJane.getOpponentPlayerId()).isNull();
+        assertThat(vsJane.getMatchesPlayed()).isEqualTo(6);
+        assertThat(vsJane.getWins()).isEqualTo(3);
+        assertThat(vsJane.getLastResults()).isEqualTo("LLWWL");
+        assertThat(vsJane.getLastPlayedAt()).isEqualTo(MAY_1.plusDays(5));
+    }
+
+    @Test
+    @DisplayName("Should reverse an updated match's result and recompute the recent form")
+    void testUpdateAndDelete() {
+        // Arrange
+        matchService.createMatch(singles(MAY_1, "team1", "6-1, 6-1", alice, bob));
+        Match later = matchService.createMatch(singles(MAY_1.plusDays(1), "team1", "6-2, 6-2", alice, bob));
+
+        // Act
+        matchService.updateMatch(later.getId(), singles(MAY_1.plusDays(1), "team2", "2-6, 2-6", alice, bob));
+
+        // Assert
+        HeadToHead aliceVsBob = record(alice, bob);
+        assertThat(aliceVsBob.getWins()).isEqualTo(1);
+        assertThat(aliceVsBob.getLosses()).isEqualTo(1);
+        assertThat(aliceVsBob.getGamesWon()).isEqualTo(16);
+        assertThat(aliceVsBob.getGamesLost()).isEqualTo(14);
+        assertThat(aliceVsBob.getLastResults()).isEqualTo("LW");
+
+        // Act
+        matchService.deleteMatch(later.getId());
+
+        // Assert
+        aliceVsBob = record(alice, bob);
+        assertThat(aliceVsBob.getMatchesPlayed()).isEqualTo(1);
+        assertThat(aliceVsBob.getLastResults()).isEqualTo("W");
+        assertThat(aliceVsBob.getLastPlayedAt()).isEqualTo(MAY_1);
+    }
+
+    @Test
+    @DisplayName("Should rank the toughest opponents and rebuild the same records")
+    void testToughestOpponentsAndRebuild() {
+        // Arrange
+        Player carol = persistPlayer("Carol");
+        matchService.createMatch(singles(MAY_1, "team2", "4-6, 4-6", alice, bob));
+        matchService.createMatch(singles(MAY_1.plusDays(1), "team2", "4-6, 4-6", alice, bob));
+        matchService.createMatch(singles(MAY_1.plusDays(2), "team1", "6-4, 6-4", alice, carol));
+        matchService.createMatch(singles(MAY_1.plusDays(3), "team2", "4-6, 4-6", alice, carol));
+        flushAndClear();
+        HeadToHead incremental = record(alice, carol);
+
+        // Act
+        List<HeadToHead> toughest = headToHeadService.getToughestOpponents(alice.getId(), 2, 5);
+        int records = headToHeadService.rebuild();
+
+        // Assert
+        assertThat(toughest).extracting("opponentPlayerId").containsExactly(bob.getId(), carol.getId());
+        assertThat(records).isEqualTo(4);
+        HeadToHead rebuilt = record(alice, carol);
+        assertThat(rebuilt.getWins()).isEqualTo(incremental.getWins()).isEqualTo(1);
+        assertThat(rebuilt.getGamesWon()).isEqualTo(incremental.getGamesWon()).isEqualTo(20);
+        assertThat(rebuilt.getLastResults()).isEqualTo(incremental.getLastResults()).isEqualTo("LW");
+        verify(playerFeatureStore).invalidate();
+    }
+
+    private HeadToHead record(Player player, Player opponent) {
+        flushAndClear();
+        return headToHeadService.getHeadToHead(player.getId(), opponent.getId()).orElseThrow();
+    }
+}
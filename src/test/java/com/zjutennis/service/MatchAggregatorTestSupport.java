@@ -0,0 +1,76 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fixture for tests of the match aggregators: matches are written through MatchService, which
+ * hands each write to the aggregators a test class imports next to it.
+ */
+@DataJpaTest
+@Import({MatchService.class, MatchPlayerService.class})
+abstract class MatchAggregatorTestSupport {
+
+    static final LocalDateTime MAY_1 = LocalDateTime.of(2025, 5, 1, 10, 0);
+    static final LocalDateTime JUNE_1 = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    @Autowired
+    protected MatchService matchService;
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    @MockBean
+    protected VideoService videoService;
+
+    @MockBean
+    protected CacheInvalidationService cacheInvalidationService;
+
+    protected Player persistPlayer(String name) {
+        Player player = new Player();
+        player.setName(name);
+        return entityManager.persist(player);
+    }
+
+    protected void flushAndClear() {
+        // Aggregators write with SQL, not through the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    static Match singles(LocalDateTime matchTime, String winnerSide, Player player, Player opponent) {
+        Match match = new Match();
+        match.setMatchType("singles");
+        match.setMatchTime(matchTime);
+        match.setWinnerSide(winnerSide);
+        match.setPlayer1(player);
+        match.setOpponentPlayer1(opponent);
+        return match;
+    }
+
+    static Match singles(LocalDateTime matchTime, String winnerSide, String score, Player player, Player opponent) {
+        Match match = singles(matchTime, winnerSide, player, opponent);
+        match.setScore(score);
+        return match;
+    }
+
+    static Match doubles(LocalDateTime matchTime, String winnerSide,
+                         Player player1, Player player2, Player opponent1, Player opponent2) {
+        Match match = new Match();
+        match.setMatchType("doubles");
+        match.setMatchTime(matchTime);
+        match.setWinnerSide(winnerSide);
+        match.setPlayer1(player1);
+        match.setPlayer2(player2);
+        match.setOpponentPlayer1(opponent1);
+        match.setOpponentPlayer2(opponent2);
+        return match;
+    }
+}
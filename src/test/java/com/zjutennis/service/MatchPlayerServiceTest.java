@@ -0,0 +1,160 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.CursorPage;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.MatchPlayer;
+import com.zjutennis.model.Player;
+import com.zjutennis.repository.MatchPlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({MatchService.class, MatchPlayerService.class, PlayerAggregateService.class})
+@DisplayName("MatchPlayerService Tests")
+class MatchPlayerServiceTest {
+
+    private static final LocalDateTime MAY_1 = LocalDateTime.of(2025, 5, 1, 10, 0);
+    private static final LocalDateTime JUNE_1 = LocalDateTime.of(2025, 6, 1, 10, 0);
+    private static final LocalDateTime JULY_1 = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchPlayerService matchPlayerService;
+
+    @Autowired
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private VideoService videoService;
+
+    @MockBean
+    private CacheInvalidationService cacheInvalidationService;
+
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(player("Alice"));
+        bob = entityManager.persist(player("Bob"));
+    }
+
+    @Test
+    @DisplayName("Should write one row per player slot when a match is created")
+    void testCreateMatchWritesRows() {
+        // Arrange
+        Match match = match("doubles", MAY_1, alice, bob);
+        match.setPlayer2Name("Guest Partner");
+
+        // Act
+        Match created = matchService.createMatch(match);
+        entityManager.flush();
+
+        // Assert
+        List<MatchPlayer> rows = matchPlayerRepository.findByMatchIdOrderByTeamAscPositionAsc(created.getId());
+        assertThat(rows).extracting("playerName").containsExactly("Alice", "Guest Partner", "Bob");
+        assertThat(rows).extracting("team").containsExactly("team1", "team1", "team2");
+        assertThat(rows).extracting("position").containsExactly(1, 2, 1);
+        assertThat(rows).extracting("isOurTeam").containsExactly(true, true, false);
+        assertThat(rows).extracting("matchTime").containsOnly(MAY_1);
+        assertThat(rows.get(1).getPlayer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should replace a match's rows when its players and time change, and remove them on delete")
+    void testUpdateAndDeleteKeepRowsInSync() {
+        // Arrange
+        Match created = matchService.createMatch(match("singles", MAY_1, alice, bob));
+
+        // Act: Bob leaves the match, which moves to July
+        Match update = match("singles", JULY_1, alice, null);
+        update.setPlayer1Name("Alice");
+        matchService.updateMatch(created.getId(), update);
+        entityManager.flush();
+
+        // Assert
+        assertThat(matchPlayerRepository.findMatchIdsByPlayerId(bob.getId())).isEmpty();
+        assertThat(matchPlayerRepository.findMatchIdsByPlayerId(alice.getId())).containsExactly(created.getId());
+        assertThat(matchPlayerRepository.findLatestMatchTimeByPlayerId(alice.getId())).isEqualTo(JULY_1);
+
+        // Act
+        matchService.deleteMatch(created.getId());
+        entityManager.flush();
+
+        // Assert
+        assertThat(matchPlayerRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page a player's history newest first from match_players")
+    void testPlayerMatchPages() {
+        // Arrange
+        Match early = matchService.createMatch(match("singles", MAY_1, alice, bob));
+        Match middle = matchService.createMatch(match("doubles", JUNE_1, bob, alice));
+        Match late = matchService.createMatch(match("singles", JULY_1, alice, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        CursorPage<Match> firstPage = matchService.getPlayerMatchPage(alice.getId(), null, 2);
+        CursorPage<Match> secondPage = matchService.getPlayerMatchPage(alice.getId(), firstPage.getNextCursor(), 2);
+
+        // Assert
+        assertThat(firstPage.getItems()).extracting("id").containsExactly(late.getId(), middle.getId());
+        assertThat(secondPage.getItems()).extracting("id").containsExactly(early.getId());
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(matchService.getPlayerMatches(bob.getId())).extracting("id")
+                .containsExactly(middle.getId(), early.getId());
+    }
+
+    @Test
+    @DisplayName("Should backfill rows for matches written before match_players was maintained")
+    void testBackfill() {
+        // Arrange: matches saved directly, bypassing MatchService
+        Match early = entityManager.persist(match("singles", MAY_1, alice, bob));
+        Match late = entityManager.persist(match("doubles", JUNE_1, bob, alice));
+        entityManager.flush();
+
+        // Act
+        int rows = matchPlayerService.backfill();
+        entityManager.clear();
+
+        // Assert
+        assertThat(rows).isEqualTo(4);
+        assertThat(matchPlayerRepository.findMatchIdsByPlayerId(alice.getId())).containsExactly(late.getId(), early.getId());
+        assertThat(matchPlayerRepository.existsByMatchTimeIsNull()).isFalse();
+    }
+
+    private static Player player(String name) {
+        Player player = new Player();
+        player.setName(name);
+        return player;
+    }
+
+    private static Match match(String matchType, LocalDateTime matchTime, Player team1, Player team2) {
+        Match match = new Match();
+        match.setMatchType(matchType);
+        match.setMatchTime(matchTime);
+        match.setPlayer1(team1);
+        match.setPlayer1Name(team1 != null ? team1.getName() : null);
+        match.setOpponentPlayer1(team2);
+        match.setOpponentPlayer1Name(team2 != null ? team2.getName() : null);
+        return match;
+    }
+}
@@ -0,0 +1,185 @@
+package com.zjutennis.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zjutennis.config.CacheConfig;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.repository.MatchPlayerRepository;
+import com.zjutennis.repository.MatchRepository;
+import com.zjutennis.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(MatchServiceCacheTest.Config.class)
+@DisplayName("MatchService Cache Tests")
+class MatchServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import({CacheConfig.class, MatchService.class, CacheInvalidationService.class})
+    static class Config {
+    }
+
+    @MockBean
+    private MatchRepository matchRepository;
+
+    @MockBean
+    private PlayerRepository playerRepository;
+
+    @MockBean
+    private VideoService videoService;
+
+    @MockBean
+    private MatchPlayerRepository matchPlayerRepository;
+
+    @MockBean
+    private MatchPlayerService matchPlayerService;
+
+    @MockBean
+    private PlayerAggregateService playerAggregateService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Match testMatch;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        Player player = new Player();
+        player.setId(7L);
+        player.setName("John Doe");
+
+        testMatch = new Match();
+        testMatch.setId(1L);
+        testMatch.setMatchType("singles");
+        testMatch.setMatchTime(LocalDateTime.of(2025, 5, 1, 10, 0));
+        testMatch.setPlayer1(player);
+    }
+
+    @Test
+    @DisplayName("Should read a match from the database once and then from the cache")
+    void testGetMatchByIdIsCached() {
+        // Arrange
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(testMatch));
+
+        // Act
+        Optional<Match> first = matchService.getMatchById(1L);
+        Optional<Match> second = matchService.getMatchById(1L);
+
+        // Assert
+        assertThat(first).containsSame(testMatch);
+        assertThat(second).containsSame(testMatch);
+        verify(matchRepository, times(1)).findById(1L);
+        CacheStats stats = nativeStats(CacheConfig.MATCHES);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing match")
+    void testMissingMatchIsNotCached() {
+        // Arrange
+        when(matchRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act
+        matchService.getMatchById(2L);
+        matchService.getMatchById(2L);
+
+        // Assert
+        verify(matchRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should evict only the updated match")
+    void testUpdateMatchEvictsMatch() {
+        // Arrange
+        Match other = new Match();
+        other.setId(3L);
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(testMatch));
+        when(matchRepository.findById(3L)).thenReturn(Optional.of(other));
+        when(matchRepository.save(any(Match.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        matchService.getMatchById(1L);
+        matchService.getMatchById(3L);
+
+        // Act
+        Match update = new Match();
+        update.setScore("6-4 6-3");
+        matchService.updateMatch(1L, update);
+        matchService.getMatchById(1L);
+        matchService.getMatchById(3L);
+
+        // Assert
+        // Once for the first read, once inside updateMatch, once after the eviction
+        verify(matchRepository, times(3)).findById(1L);
+        verify(matchRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    @DisplayName("Should evict the match statistics when a match is created")
+    void testCreateMatchEvictsStatistics() {
+        // Arrange
+        when(matchRepository.count()).thenReturn(1L, 2L);
+        when(matchRepository.save(any(Match.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        long before = matchService.getMatchStatistics().getTotalMatches();
+        long cached = matchService.getMatchStatistics().getTotalMatches();
+        Match created = new Match();
+        created.setMatchType("doubles");
+        matchService.createMatch(created);
+        long after = matchService.getMatchStatistics().getTotalMatches();
+
+        // Assert
+        assertThat(before).isEqualTo(1L);
+        assertThat(cached).isEqualTo(1L);
+        assertThat(after).isEqualTo(2L);
+        verify(matchRepository, times(2)).count();
+    }
+
+    @Test
+    @DisplayName("Should evict a player's matches when their profile changes")
+    void testPlayerProfileEvictsMatches() {
+        // Arrange
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(testMatch));
+        when(matchRepository.findIdsByPlayerId(7L)).thenReturn(List.of(1L));
+        matchService.getMatchById(1L);
+
+        // Act
+        cacheInvalidationService.evictPlayerProfile(7L);
+        matchService.getMatchById(1L);
+
+        // Assert
+        verify(matchRepository, times(2)).findById(1L);
+    }
+
+    private CacheStats nativeStats(String cacheName) {
+        TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+    }
+}
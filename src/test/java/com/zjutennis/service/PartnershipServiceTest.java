@@ -0,0 +1,137 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.PartnershipSummary;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+@Import(PartnershipService.class)
+@DisplayName("PartnershipService Tests")
+class PartnershipServiceTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private PartnershipService partnershipService;
+
+    private Player alice;
+    private Player bob;
+    private Player carol;
+    private Player dave;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("Alice");
+        bob = persistPlayer("Bob");
+        carol = persistPlayer("Carol");
+        dave = persistPlayer("Dave");
+    }
+
+    @Test
+    @DisplayName("Should record both teams' pairs from both partners' sides")
+    void testDoublesMatchFillsBothCells() {
+        // Act
+        matchService.createMatch(doubles(MAY_1, "team1", alice, bob, carol, dave));
+        matchService.createMatch(doubles(JUNE_1, "team1", alice, bob, carol, null));
+
+        // Assert
+        PartnershipSummary aliceWithBob = partners(alice).get(0);
+        assertThat(aliceWithBob.getPartnerName()).isEqualTo("Bob");
+        assertThat(aliceWithBob.getMatchesPlayed()).isEqualTo(2);
+        assertThat(aliceWithBob.getWins()).isEqualTo(2);
+        assertThat(aliceWithBob.getLastPlayedAt()).isEqualTo(JUNE_1);
+        assertThat(partners(bob)).extracting("partnerId").containsExactly(alice.getId());
+
+        PartnershipSummary carolWithDave = partners(carol).get(0);
+        assertThat(carolWithDave.getPartnerId()).isEqualTo(dave.getId());
+        assertThat(carolWithDave.getLosses()).isEqualTo(1);
+        assertThat(carolWithDave.getWinRate()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("Should move a pair's record when a match changes partners, and drop it on delete")
+    void testUpdateAndDeleteReverseOldPairs() {
+        // Arrange
+        matchService.createMatch(doubles(MAY_1, "team2", alice, bob, carol, dave));
+        Match later = matchService.createMatch(doubles(JUNE_1, "team2", alice, bob, carol, dave));
+
+        // Act: Carol partners Alice in the later match instead of Bob
+        matchService.updateMatch(later.getId(), doubles(JUNE_1, "team1", alice, carol, bob, dave));
+
+        // Assert
+        PartnershipSummary aliceWithBob = partner(alice, bob);
+        assertThat(aliceWithBob.getMatchesPlayed()).isEqualTo(1);
+        assertThat(aliceWithBob.getLosses()).isEqualTo(1);
+        assertThat(aliceWithBob.getLastPlayedAt()).isEqualTo(MAY_1);
+        assertThat(partner(alice, carol).getWins()).isEqualTo(1);
+        assertThat(partner(bob, dave).getLosses()).isEqualTo(1);
+
+        // Act
+        matchService.deleteMatch(later.getId());
+
+        // Assert
+        assertThat(partner(alice, carol).getMatchesPlayed()).isZero();
+        assertThat(partner(alice, carol).getLastPlayedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should rank pairs by win rate once, above the minimum matches")
+    void testTopPairs() {
+        // Arrange
+        matchService.createMatch(doubles(MAY_1, "team1", alice, bob, carol, dave));
+        matchService.createMatch(doubles(JUNE_1, "team1", alice, bob, carol, dave));
+        matchService.createMatch(doubles(JUNE_1.plusDays(1), "team2", alice, bob, carol, dave));
+        matchService.createMatch(doubles(JUNE_1.plusDays(2), "team1", alice, carol, bob, dave));
+        flushAndClear();
+
+        // Act
+        List<PartnershipSummary> top = partnershipService.getTopPairs(2, 10);
+
+        // Assert
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0).getPlayerId()).isEqualTo(alice.getId());
+        assertThat(top.get(0).getPartnerId()).isEqualTo(bob.getId());
+        assertThat(top.get(0).getWinRate()).isCloseTo(66.67, offset(0.01));
+        assertThat(top.get(1).getPlayerName()).isEqualTo("Carol");
+        assertThat(top.get(1).getPartnerName()).isEqualTo("Dave");
+    }
+
+    @Test
+    @DisplayName("Should rebuild the same matrix the incremental updates produce")
+    void testRebuildMatchesIncrementalUpdates() {
+        // Arrange
+        matchService.createMatch(doubles(MAY_1, "team1", alice, bob, carol, dave));
+        Match later = matchService.createMatch(doubles(JUNE_1, "team2", alice, bob, carol, dave));
+        matchService.updateMatch(later.getId(), doubles(JUNE_1, "team1", alice, bob, carol, dave));
+        PartnershipSummary incremental = partner(alice, bob);
+
+        // Act
+        int cells = partnershipService.rebuild();
+
+        // Assert
+        PartnershipSummary rebuilt = partner(alice, bob);
+        assertThat(cells).isEqualTo(4);
+        assertThat(rebuilt.getMatchesPlayed()).isEqualTo(incremental.getMatchesPlayed()).isEqualTo(2);
+        assertThat(rebuilt.getWins()).isEqualTo(incremental.getWins()).isEqualTo(2);
+        assertThat(rebuilt.getLastPlayedAt()).isEqualTo(incremental.getLastPlayedAt()).isEqualTo(JUNE_1);
+    }
+
+    private List<PartnershipSummary> partners(Player player) {
+        flushAndClear();
+        return partnershipService.getPartners(player.getId());
+    }
+
+    private PartnershipSummary partner(Player player, Player partner) {
+        return partners(player).stream()
+                .filter(summary -> summary.getPartnerId().equals(partner.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,192 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerMatchAggregate;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(PlayerAggregateService.class)
+@DisplayName("PlayerAggregateService Tests")
+class PlayerAggregateServiceTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private PlayerAggregateService playerAggregateService;
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Player alice;
+    private Player bob;
+    private Player carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("Alice");
+        bob = persistPlayer("Bob");
+        carol = persistPlayer("Carol");
+    }
+
+    @Test
+    @DisplayName("Should count a created match as a win for one side and a loss for the other")
+    void testCreateMatch() {
+        // Act
+        matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        matchService.createMatch(doubles(JUNE_1, "team2", alice, null, bob, null));
+
+        // Assert
+        PlayerMatchAggregate aliceStats = aggregate(alice);
+        assertThat(aliceStats.getTotalMatches()).isEqualTo(2);
+        assertThat(aliceStats.getSinglesWins()).isEqualTo(1);
+        assertThat(aliceStats.getDoublesLosses()).isEqualTo(1);
+        assertThat(aliceStats.getWinRate()).isEqualTo(50.0);
+        assertThat(aliceStats.getSinglesWinRate()).isEqualTo(100.0);
+        assertThat(aliceStats.getDoublesWinRate()).isEqualTo(0.0);
+        assertThat(aliceStats.getLastMatchDate()).isEqualTo(JUNE_1);
+
+        PlayerMatchAggregate bobStats = aggregate(bob);
+        assertThat(bobStats.getSinglesLosses()).isEqualTo(1);
+        assertThat(bobStats.getDoublesWins()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reverse the old result and players when a match is updated")
+    void testUpdateMatchReversesOldOutcome() {
+        // Arrange
+        Match created = matchService.createMatch(singles(JUNE_1, "team1", alice, bob));
+
+        // Act: Carol replaces Bob, the winner flips and the match moves earlier
+        matchService.updateMatch(created.getId(), singles(MAY_1, "team2", alice, carol));
+
+        // Assert
+        PlayerMatchAggregate aliceStats = aggregate(alice);
+        assertThat(aliceStats.getSinglesPlayed()).isEqualTo(1);
+        assertThat(aliceStats.getSinglesWins()).isZero();
+        assertThat(aliceStats.getSinglesLosses()).isEqualTo(1);
+        assertThat(aliceStats.getLastMatchDate()).isEqualTo(MAY_1);
+
+        PlayerMatchAggregate bobStats = aggregate(bob);
+        assertThat(bobStats.getTotalMatches()).isZero();
+        assertThat(bobStats.getLosses()).isZero();
+        assertThat(bobStats.getWinRate()).isNull();
+        assertThat(bobStats.getLastMatchDate()).isNull();
+
+        assertThat(aggregate(carol).getSinglesWins()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reverse a deleted match and fall back to the previous match date")
+    void testDeleteMatchReversesOutcome() {
+        // Arrange
+        matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        Match latest = matchService.createMatch(singles(JUNE_1, "team2", alice, bob));
+
+        // Act
+        matchService.deleteMatch(latest.getId());
+
+        // Assert
+        PlayerMatchAggregate aliceStats = aggregate(alice);
+        assertThat(aliceStats.getSinglesPlayed()).isEqualTo(1);
+        assertThat(aliceStats.getSinglesWins()).isEqualTo(1);
+        assertThat(aliceStats.getSinglesLosses()).isZero();
+        assertThat(aliceStats.getLastMatchDate()).isEqualTo(MAY_1);
+    }
+
+    @Test
+    @DisplayName("Should count a match without a winner as played only")
+    void testMatchWithoutWinner() {
+        // Act
+        Match match = singles(MAY_1, null, alice, bob);
+        match.setResult("double_default");
+        matchService.createMatch(match);
+
+        // Assert
+        PlayerMatchAggregate aliceStats = aggregate(alice);
+        assertThat(aliceStats.getTotalMatches()).isEqualTo(1);
+        assertThat(aliceStats.getWins()).isZero();
+        assertThat(aliceStats.getLosses()).isZero();
+        assertThat(aliceStats.getWinRate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the same aggregates the incremental updates produce")
+    void testRebuildMatchesIncrementalUpdates() {
+        // Arrange
+        matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        Match doublesMatch = matchService.createMatch(doubles(JUNE_1, "team2", alice, null, carol, null));
+        matchService.updateMatch(doublesMatch.getId(), doubles(JUNE_1, "team1", alice, null, carol, null));
+        PlayerMatchAggregate incremental = aggregate(alice);
+
+        // Act
+        int players = playerAggregateService.rebuild();
+
+        // Assert
+        PlayerMatchAggregate rebuilt = aggregate(alice);
+        assertThat(players).isEqualTo(3);
+        assertThat(rebuilt.getSinglesWins()).isEqualTo(incremental.getSinglesWins()).isEqualTo(1);
+        assertThat(rebuilt.getDoublesWins()).isEqualTo(incremental.getDoublesWins()).isEqualTo(1);
+        assertThat(rebuilt.getLosses()).isEqualTo(incremental.getLosses()).isZero();
+        assertThat(rebuilt.getLastMatchDate()).isEqualTo(incremental.getLastMatchDate()).isEqualTo(JUNE_1);
+        assertThat(aggregate(carol).getDoublesLosses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish the last match date to the player's statistics")
+    void testLastMatchDateIsPublishedToStatistics() {
+        // Arrange
+        entityManager.persist(statistics(alice));
+        entityManager.persist(statistics(bob));
+        matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        Match latest = matchService.createMatch(singles(JUNE_1, "team1", alice, bob));
+
+        // Assert
+        assertThat(lastMatchDate(alice)).isEqualTo(JUNE_1);
+
+        // Act
+        matchService.deleteMatch(latest.getId());
+
+        // Assert
+        assertThat(lastMatchDate(alice)).isEqualTo(MAY_1);
+
+        // Act: a rebuild publishes too, and a save of the statistics does not overwrite it
+        jdbcTemplate.update("UPDATE player_statistics SET last_match_date = NULL");
+        playerAggregateService.rebuild();
+        PlayerStatistics statistics = playerStatisticsRepository.findByPlayerId(bob.getId()).orElseThrow();
+        statistics.setLastMatchDate(null);
+        statistics.setWins(12);
+        playerStatisticsRepository.save(statistics);
+
+        // Assert
+        assertThat(lastMatchDate(alice)).isEqualTo(MAY_1);
+        assertThat(lastMatchDate(bob)).isEqualTo(MAY_1);
+    }
+
+    private LocalDateTime lastMatchDate(Player player) {
+        flushAndClear();
+        return playerStatisticsRepository.findByPlayerId(player.getId()).orElseThrow().getLastMatchDate();
+    }
+
+    private PlayerMatchAggregate aggregate(Player player) {
+        flushAndClear();
+        return playerAggregateService.getAggregate(player.getId());
+    }
+
+    private static PlayerStatistics statistics(Player player) {
+        PlayerStatistics statistics = new PlayerStatistics();
+        statistics.setPlayer(player);
+        return statistics;
+    }
+}
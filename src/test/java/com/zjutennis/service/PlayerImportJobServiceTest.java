@@ -0,0 +1,131 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.ImportJobStatus;
+import com.zjutennis.dto.ImportResult;
+import com.zjutennis.dto.ImportRowError;
+import com.zjutennis.dto.PlayerImportRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerImportJobService Tests")
+class PlayerImportJobServiceTest {
+
+    @Mock
+    private PlayerService playerService;
+
+    @InjectMocks
+    private PlayerImportJobService playerImportJobService;
+
+    @BeforeEach
+    void setUp() {
+        // Jobs run on the calling thread; chunks parse on a real pool and are written in order
+        ReflectionTestUtils.setField(playerImportJobService, "importJobExecutor", new TaskExecutorAdapter(Runnable::run));
+        ReflectionTestUtils.setField(playerImportJobService, "importParseExecutor",
+                new TaskExecutorAdapter(Executors.newFixedThreadPool(3)));
+        ReflectionTestUtils.setField(playerImportJobService, "chunkBytes", 64L);
+        ReflectionTestUtils.setField(playerImportJobService, "maxInFlight", 2);
+    }
+
+    @Test
+    @DisplayName("Should write chunks in file order and report progress and row errors")
+    void testImportJobCompletes() throws IOException {
+        // Arrange
+        StringBuilder csvContent = new StringBuilder("Player ID,Name,UTR Rating\n");
+        for (int i = 1; i <= 40; i++) {
+            if (i == 7) {
+                csvContent.append("-,Missing ID,8.0\n");
+            } else if (i == 23) {
+                csvContent.append(i).append(",\"Doe, John\",abc\n");
+            } else {
+                csvContent.append(i).append(",Player ").append(i).append(",").append(i % 16).append("\n");
+            }
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "players.csv", "text/csv",
+                csvContent.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Long> writtenRows = new ArrayList<>();
+        when(playerService.writeImportRows(any(), any())).thenAnswer(invocation -> {
+            List<PlayerImportRow> rows = invocation.getArgument(0);
+            Consumer<ImportRowError> errors = invocation.getArgument(1);
+            int successCount = 0;
+            for (PlayerImportRow row : rows) {
+                writtenRows.add(row.getRowNumber());
+                if (row.getPlayerId() == 40L) {
+                    errors.accept(new ImportRowError(row.getRowNumber(), 40L, "Player not found with id: 40"));
+                } else {
+                    successCount++;
+                }
+            }
+            return new ImportResult(successCount, rows.size() - successCount, null);
+        });
+
+        // Act
+        ImportJobStatus submitted = playerImportJobService.submit(file);
+        ImportJobStatus status = playerImportJobService.getJobStatus(submitted.getJobId()).orElseThrow();
+
+        // Assert
+        assertThat(status.getState()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(status.getRowsProcessed()).isEqualTo(40);
+        assertThat(status.getSuccessCount()).isEqualTo(37);
+        assertThat(status.getErrorCount()).isEqualTo(3);
+        assertThat(status.getProgress()).isEqualTo(1.0);
+        assertThat(status.getProcessedBytes()).isEqualTo(status.getTotalBytes());
+        assertThat(status.getMessage()).isEqualTo("Import completed: 37 players updated, 3 errors occurred.");
+        assertThat(status.getErrors()).extracting(ImportRowError::getRowNumber).containsExactly(7L, 23L, 40L);
+        assertThat(status.getErrors().get(1).getMessage()).isEqualTo("Invalid UTR Rating: abc");
+
+        // Several chunks, written in file order with file-wide row numbers
+        verify(playerService, atLeast(4)).writeImportRows(any(), any());
+        assertThat(writtenRows).isSorted().hasSize(38);
+        assertThat(writtenRows.get(writtenRows.size() - 1)).isEqualTo(40L);
+    }
+
+    @Test
+    @DisplayName("Should count the rows of a chunk that fails to commit as errors and continue")
+    void testImportJobChunkWriteFailure() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(playerImportJobService, "chunkBytes", 1024L * 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "players.csv", "text/csv",
+                "Player ID,Name\n1,John Doe\n2,Jane Smith\n".getBytes(StandardCharsets.UTF_8));
+        when(playerService.writeImportRows(any(), any())).thenThrow(new TransactionSystemException("Commit failed"));
+
+        // Act
+        ImportJobStatus submitted = playerImportJobService.submit(file);
+        ImportJobStatus status = playerImportJobService.getJobStatus(submitted.getJobId()).orElseThrow();
+
+        // Assert
+        assertThat(status.getState()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(status.getSuccessCount()).isZero();
+        assertThat(status.getErrorCount()).isEqualTo(2);
+        assertThat(status.getErrors()).extracting(ImportRowError::getPlayerId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should return empty for an unknown job")
+    void testGetUnknownJob() {
+        // Act & Assert
+        assertThat(playerImportJobService.getJobStatus("missing")).isEmpty();
+        verifyNoInteractions(playerService);
+    }
+}
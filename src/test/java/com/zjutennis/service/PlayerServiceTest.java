@@ -10,6 +10,7 @@ import com.zjutennis.model.PlayerSkillsHistory;
 import com.zjutennis.model.PlayerStatistics;
 import com.zjutennis.repository.PlayerRepository;
 import com.zjutennis.repository.PlayerSkillsHistoryRepository;
+import com.zjutennis.search.PlayerSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +19,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -40,6 +48,12 @@ class PlayerServiceTest {
     @Mock
     private PlayerSkillsHistoryRepository playerSkillsHistoryRepository;
 
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PlayerService playerService;
 
@@ -49,6 +63,11 @@ class PlayerServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Search is served by a real index reading from the mocked repository
+        PlayerSearchIndex playerSearchIndex = new PlayerSearchIndex();
+        ReflectionTestUtils.setField(playerSearchIndex, "playerRepository", playerRepository);
+        ReflectionTestUtils.setField(playerService, "playerSearchIndex", playerSearchIndex);
+
         // Setup test player 1 - Male, high UTR
         testPlayer1 = new Player();
         testPlayer1.setId(1L);
@@ -354,7 +373,7 @@ class PlayerServiceTest {
         // Assert
         assertThat(response.getPlayers()).hasSize(10);
         assertThat(response.getTotalCount()).isEqualTo(30);
-        assertThat(response.getPage()).isEqualTo(2);
+        assertThat(response.getCurrentPage()).isEqualTo(2);
         assertThat(response.getPageSize()).isEqualTo(10);
     }
 
@@ -370,10 +389,36 @@ class PlayerServiceTest {
         PlayerSearchResponse response = playerService.searchPlayers(request);
 
         // Assert
-        assertThat(response.getPage()).isEqualTo(1);
+        assertThat(response.getCurrentPage()).isEqualTo(1);
         assertThat(response.getPageSize()).isEqualTo(25);
     }
 
+    @Test
+    @DisplayName("Should push search down to the database in database mode")
+    @SuppressWarnings("unchecked")
+    void testSearchPlayersInDatabaseMode() {
+        // Arrange
+        ReflectionTestUtils.setField(playerService, "searchMode", "database");
+        PlayerSearchRequest request = new PlayerSearchRequest();
+        request.setPage(2);
+        request.setPageSize(10);
+        when(playerRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testPlayer1), PageRequest.of(1, 10), 11));
+
+        // Act
+        PlayerSearchResponse response = playerService.searchPlayers(request);
+
+        // Assert
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(playerRepository).findAll(any(Specification.class), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(10);
+        assertThat(response.getPlayers()).containsExactly(testPlayer1);
+        assertThat(response.getTotalCount()).isEqualTo(11);
+        assertThat(response.getTotalPages()).isEqualTo(2);
+        verify(playerRepository, never()).findAll();
+    }
+
     @Test
     @DisplayName("Should get player by ID")
     void testGetPlayerById() {
@@ -561,9 +606,7 @@ class PlayerServiceTest {
                 csvContent.getBytes()
         );
 
-        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer1));
-        when(playerRepository.findById(2L)).thenReturn(Optional.of(testPlayer2));
-        when(playerRepository.save(any(Player.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(1L, 2L))).thenReturn(Arrays.asList(testPlayer1, testPlayer2));
 
         // Act
         ImportResult result = playerService.importPlayersFromCSV(file);
@@ -571,7 +614,67 @@ class PlayerServiceTest {
         // Assert
         assertThat(result.getSuccessCount()).isEqualTo(2);
         assertThat(result.getErrorCount()).isEqualTo(0);
-        verify(playerRepository, atLeast(2)).save(any(Player.class));
+        assertThat(testPlayer2.getStatistics().getWinRate()).isEqualTo(60.0);
+        verify(playerRepository, never()).findById(any());
+        verify(playerRepository, times(1)).saveAll(argThat(players -> ((Collection<Player>) players).size() == 2));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should import CSV in chunks with one lookup and one transaction per chunk")
+    void testImportPlayersFromCSVInChunks() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(playerService, "importChunkSize", 2);
+        String csvContent = "Player ID,Name,UTR Rating\n" +
+                            "1,John Doe,13.0\n" +
+                            "2,Jane Smith,9.0\n" +
+                            "3,Bob Wilson,7.0";
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "players.csv",
+                "text/csv",
+                csvContent.getBytes()
+        );
+
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(1L, 2L))).thenReturn(Arrays.asList(testPlayer1, testPlayer2));
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(3L))).thenReturn(Collections.singletonList(testPlayer3));
+
+        // Act
+        ImportResult result = playerService.importPlayersFromCSV(file);
+
+        // Assert
+        assertThat(result.getSuccessCount()).isEqualTo(3);
+        assertThat(testPlayer3.getStatistics().getUtrRating()).isEqualTo(7.0);
+        verify(playerRepository, times(2)).findAllWithDetailsByIdIn(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(cacheInvalidationService, times(2)).evictPlayerProfiles(any());
+    }
+
+    @Test
+    @DisplayName("Should count a chunk that fails to commit as errors and keep importing")
+    void testImportCSVChunkCommitFailure() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(playerService, "importChunkSize", 1);
+        String csvContent = "Player ID,Name\n1,John Doe\n2,Jane Smith";
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "players.csv",
+                "text/csv",
+                csvContent.getBytes()
+        );
+
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(1L))).thenReturn(Collections.singletonList(testPlayer1));
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(2L))).thenReturn(Collections.singletonList(testPlayer2));
+        doThrow(new TransactionSystemException("commit failed")).doNothing().when(transactionManager).commit(any());
+
+        // Act
+        ImportResult result = playerService.importPlayersFromCSV(file);
+
+        // Assert
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getErrorCount()).isEqualTo(1);
     }
 
     @Test
@@ -589,7 +692,7 @@ class PlayerServiceTest {
                 csvContent.getBytes()
         );
 
-        when(playerRepository.findById(999L)).thenReturn(Optional.empty());
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(999L))).thenReturn(Collections.emptyList());
 
         // Act
         ImportResult result = playerService.importPlayersFromCSV(file);
@@ -612,8 +715,7 @@ class PlayerServiceTest {
                 csvContent.getBytes()
         );
 
-        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer1));
-        when(playerRepository.save(any(Player.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(playerRepository.findAllWithDetailsByIdIn(Set.of(1L))).thenReturn(Collections.singletonList(testPlayer1));
 
         // Act
         ImportResult result = playerService.importPlayersFromCSV(file);
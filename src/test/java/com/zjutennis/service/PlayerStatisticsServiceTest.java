@@ -0,0 +1,100 @@
+package com.zjutennis.service;
+
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.parser.UTRPlayerResultDTO;
+import com.zjutennis.parser.UTRService;
+import com.zjutennis.repository.PlayerRepository;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.search.PlayerSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerStatisticsService Tests")
+class PlayerStatisticsServiceTest {
+
+    @Mock
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private UTRService utrService;
+
+    @Mock
+    private PlayerSearchIndex playerSearchIndex;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PlayerStatisticsService playerStatisticsService;
+
+    @Test
+    @DisplayName("Should apply UTR results to the row as it is after UTR answers")
+    void testUpdateFromUTRKeepsWritesMadeDuringTheCall() {
+        // Arrange
+        PlayerStatistics current = statistics(1L);
+        UTRPlayerResultDTO result = new UTRPlayerResultDTO();
+        result.setWins(6);
+        result.setLosses(3);
+        result.setWithdrawls(1);
+        when(playerStatisticsRepository.existsByPlayerId(1L)).thenReturn(true);
+        when(utrService.getPlayerResults("123456")).thenAnswer(invocation -> {
+            // A rating is published while UTR is answering
+            current.setDynamicRating(1520.0);
+            when(playerStatisticsRepository.findByPlayerId(1L)).thenReturn(Optional.of(current));
+            return result;
+        });
+        when(playerStatisticsRepository.save(any(PlayerStatistics.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        PlayerStatistics saved = playerStatisticsService.updateFromUTR(1L, "123456");
+
+        // Assert
+        assertThat(saved).isSameAs(current);
+        assertThat(saved.getDynamicRating()).isEqualTo(1520.0);
+        assertThat(saved.getWins()).isEqualTo(6);
+        assertThat(saved.getTotalMatches()).isEqualTo(10);
+        verify(transactionManager).commit(any());
+        verify(playerSearchIndex).reload(1L);
+    }
+
+    @Test
+    @DisplayName("Should not call UTR for a player without statistics")
+    void testUpdateFromUTRRequiresStatistics() {
+        // Arrange
+        when(playerStatisticsRepository.existsByPlayerId(2L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> playerStatisticsService.updateFromUTR(2L, "123456"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Statistics not found for player id: 2");
+        verifyNoInteractions(utrService);
+    }
+
+    private static PlayerStatistics statistics(Long playerId) {
+        Player player = new Player();
+        player.setId(playerId);
+        PlayerStatistics statistics = new PlayerStatistics();
+        statistics.setPlayer(player);
+        return statistics;
+    }
+}
@@ -0,0 +1,146 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.RatingConfig;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerRating;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.model.RatingChange;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.search.PlayerSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.verify;
+
+@Import({RatingService.class, RatingConfig.class})
+@DisplayName("RatingService Tests")
+class RatingServiceTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @MockBean
+    private PlayerSearchIndex playerSearchIndex;
+
+    @MockBean
+    private PlayerFeatureStore playerFeatureStore;
+
+    private Player alice;
+    private Player bob;
+    private Player carol;
+    private Player dave;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("Alice");
+        bob = persistPlayer("Bob");
+        carol = persistPlayer("Carol");
+        dave = persistPlayer("Dave");
+    }
+
+    @Test
+    @DisplayName("Should rate a new match on the current ratings and publish them to the statistics")
+    void testNewMatchIsRatedIncrementally() {
+        // Act
+        Match match = matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+
+        // Assert: evenly rated players move by half the provisional K factor
+        assertThat(rating(alice)).isCloseTo(1520.0, offset(0.001));
+        assertThat(rating(bob)).isCloseTo(1480.0, offset(0.001));
+
+        List<RatingChange> history = ratingService.getRatingHistory(alice.getId());
+        assertThat(history).hasSize(1);
+        assertThat(history.get(0).getMatchId()).isEqualTo(match.getId());
+        assertThat(history.get(0).getRatingBefore()).isEqualTo(1500.0);
+        assertThat(history.get(0).getDelta()).isCloseTo(20.0, offset(0.001));
+
+        PlayerStatistics statistics = playerStatisticsRepository.findByPlayerId(bob.getId()).orElseThrow();
+        assertThat(statistics.getDynamicRating()).isEqualTo(1480.0);
+    }
+
+    @Test
+    @DisplayName("Should replay later matches when a match is back-dated before them")
+    void testBackDatedMatchReplaysHistory() {
+        // Arrange
+        Match june = matchService.createMatch(singles(JUNE_1, "team1", alice, bob));
+
+        // Act
+        Match may = matchService.createMatch(singles(MAY_1, "team2", alice, bob));
+
+        // Assert: May is rated first, then June on top of it
+        List<RatingChange> history = ratingService.getRatingHistory(alice.getId());
+        assertThat(history).extracting(RatingChange::getMatchId).containsExactly(may.getId(), june.getId());
+        assertThat(history.get(0).getRatingAfter()).isCloseTo(1480.0, offset(0.001));
+        assertThat(history.get(1).getRatingBefore()).isCloseTo(1480.0, offset(0.001));
+        double afterReplay = rating(alice);
+
+        // Act
+        ratingService.rebuild();
+
+        // Assert
+        assertThat(rating(alice)).isCloseTo(afterReplay, offset(0.000001));
+        assertThat(ratingService.getRating(alice.getId()).orElseThrow().getMatchesRated()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should drop the ratings of a deleted match and leave other groups alone")
+    void testDeleteReplaysOnlyItsGroup() {
+        // Arrange
+        Match match = matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        matchService.createMatch(singles(JUNE_1, "team1", carol, dave));
+
+        // Act
+        matchService.deleteMatch(match.getId());
+
+        // Assert
+        flushAndClear();
+        assertThat(ratingService.getRating(alice.getId())).isEmpty();
+        assertThat(ratingService.getRatingHistory(alice.getId())).isEmpty();
+        assertThat(playerStatisticsRepository.findByPlayerId(alice.getId()).orElseThrow().getDynamicRating()).isNull();
+        assertThat(rating(carol)).isCloseTo(1520.0, offset(0.001));
+        assertThat(ratingService.getRatingHistory(carol.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should recompute separate groups in parallel to the ratings the incremental updates produce")
+    void testFullRecomputeMatchesIncrementalUpdates() {
+        // Arrange
+        matchService.createMatch(singles(MAY_1, "team1", alice, bob));
+        matchService.createMatch(singles(JUNE_1, "team2", alice, bob));
+        Match guests = doubles(MAY_1, "team1", carol, dave, null, null);
+        guests.setOpponentPlayer1Name("Guest One");
+        guests.setOpponentPlayer2Name("Guest Two");
+        matchService.createMatch(guests);
+        double aliceIncremental = rating(alice);
+        double carolIncremental = rating(carol);
+
+        // Act
+        int rated = ratingService.rebuild();
+
+        // Assert
+        assertThat(rated).isEqualTo(4);
+        assertThat(rating(alice)).isCloseTo(aliceIncremental, offset(0.000001));
+        assertThat(rating(carol)).isCloseTo(carolIncremental, offset(0.000001)).isCloseTo(1520.0, offset(0.001));
+        assertThat(ratingService.getRatingHistory(bob.getId())).hasSize(2);
+        verify(playerFeatureStore).invalidate();
+    }
+
+    private double rating(Player player) {
+        flushAndClear();
+        PlayerRating rating = ratingService.getRating(player.getId()).orElseThrow();
+        return rating.getRating();
+    }
+}
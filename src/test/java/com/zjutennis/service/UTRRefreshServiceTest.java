@@ -0,0 +1,96 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.UTRRefreshStatus;
+import com.zjutennis.dto.UTRRefreshTarget;
+import com.zjutennis.parser.UTRPlayerResultDTO;
+import com.zjutennis.parser.UTRService;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UTRRefreshService Tests")
+class UTRRefreshServiceTest {
+
+    @Mock
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Mock
+    private PlayerStatisticsService playerStatisticsService;
+
+    @Mock
+    private UTRService utrService;
+
+    @InjectMocks
+    private UTRRefreshService utrRefreshService;
+
+    private UTRPlayerResultDTO result;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(utrRefreshService, "utrRefreshExecutor", (Executor) Runnable::run);
+        result = new UTRPlayerResultDTO();
+        result.setWins(10);
+        result.setLosses(5);
+        result.setWithdrawls(0);
+    }
+
+    @Test
+    @DisplayName("Should refresh every player with a UTR link and share requests for the same ID")
+    void testRefreshAll() {
+        // Arrange
+        when(playerStatisticsRepository.findUtrRefreshTargets()).thenReturn(List.of(
+                new UTRRefreshTarget(1L, "https://app.utrsports.net/profiles/111"),
+                new UTRRefreshTarget(2L, "222"),
+                new UTRRefreshTarget(3L, "111"),
+                new UTRRefreshTarget(4L, "not a link")));
+        when(utrService.getPlayerResultsAsync(eq("111"), any())).thenReturn(CompletableFuture.completedFuture(result));
+        when(utrService.getPlayerResultsAsync(eq("222"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to fetch UTR player results: 503")));
+
+        // Act
+        UTRRefreshStatus status = utrRefreshService.refreshAll().join();
+
+        // Assert
+        assertThat(status.isRunning()).isFalse();
+        assertThat(status.getTotalPlayers()).isEqualTo(4);
+        assertThat(status.getUtrRequests()).isEqualTo(2);
+        assertThat(status.getRefreshed()).isEqualTo(2);
+        assertThat(status.getFailed()).isEqualTo(2);
+        assertThat(status.getErrors()).containsKeys(2L, 4L);
+        assertThat(status.getErrors().get(2L)).contains("503");
+        verify(playerStatisticsService).applyUTRResults(1L, result);
+        verify(playerStatisticsService).applyUTRResults(3L, result);
+        verify(playerStatisticsService, never()).applyUTRResults(eq(2L), any());
+        assertThat(utrRefreshService.getStatus()).contains(status);
+    }
+
+    @Test
+    @DisplayName("Should reject a second refresh while one is running")
+    void testRejectConcurrentRefresh() {
+        // Arrange
+        when(utrService.getPlayerResultsAsync(eq("111"), any())).thenReturn(new CompletableFuture<>());
+        utrRefreshService.refresh(List.of(new UTRRefreshTarget(1L, "111")));
+
+        // Act & Assert
+        assertThat(utrRefreshService.getStatus().orElseThrow().isRunning()).isTrue();
+        assertThatThrownBy(() -> utrRefreshService.refresh(List.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
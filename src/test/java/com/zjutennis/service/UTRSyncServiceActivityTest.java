@@ -0,0 +1,75 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.UTRSyncCandidate;
+import com.zjutennis.model.Player;
+import com.zjutennis.model.PlayerStatistics;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(PlayerAggregateService.class)
+@DisplayName("UTRSyncService Activity Tests")
+class UTRSyncServiceActivityTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    private final UTRSyncService utrSyncService = new UTRSyncService();
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(utrSyncService, "budget", 10);
+        ReflectionTestUtils.setField(utrSyncService, "activeWindowDays", 30);
+        ReflectionTestUtils.setField(utrSyncService, "activeMaxAgeHours", 24);
+        ReflectionTestUtils.setField(utrSyncService, "idleMaxAgeHours", 168);
+        ReflectionTestUtils.setField(utrSyncService, "retryDelayMinutes", 30);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should sync a player who recorded a recent match on the active maximum age")
+    void testRecentMatchMakesPlayerActive() {
+        // Arrange: both synced two days ago, only Alice has played since
+        Player alice = entityManager.persist(player("Alice", "1001"));
+        Player bob = entityManager.persist(player("Bob", "1002"));
+        Player carol = persistPlayer("Carol");
+        LocalDateTime playedAt = now.minusDays(1);
+        matchService.createMatch(singles(playedAt, "team1", alice, carol));
+        flushAndClear();
+
+        // Act
+        List<UTRSyncCandidate> candidates = playerStatisticsRepository.findUtrSyncCandidates();
+        List<UTRSyncCandidate> due = utrSyncService.selectDue(candidates, Map.of(), now);
+
+        // Assert
+        assertThat(candidates).filteredOn(candidate -> candidate.getPlayerId().equals(alice.getId()))
+                .singleElement().extracting(UTRSyncCandidate::getLastMatchDate).isEqualTo(playedAt);
+        assertThat(candidates).filteredOn(candidate -> candidate.getPlayerId().equals(bob.getId()))
+                .singleElement().extracting(UTRSyncCandidate::getLastMatchDate).isNull();
+        assertThat(due).extracting(UTRSyncCandidate::getPlayerId).containsExactly(alice.getId());
+    }
+
+    private Player player(String name, String utrId) {
+        Player player = new Player();
+        player.setName(name);
+        PlayerStatistics statistics = new PlayerStatistics();
+        statistics.setUtrUrl("https://app.utrsports.net/profiles/" + utrId);
+        statistics.setUtrUpdatedDate(now.minusDays(2));
+        statistics.setPlayer(player);
+        player.setStatistics(statistics);
+        return player;
+    }
+}
@@ -0,0 +1,188 @@
+package com.zjutennis.service;
+
+import com.zjutennis.dto.UTRSyncCandidate;
+import com.zjutennis.dto.UTRSyncStatus;
+import com.zjutennis.model.UTRSyncState;
+import com.zjutennis.parser.UTRPlayerResultDTO;
+import com.zjutennis.parser.UTRService;
+import com.zjutennis.repository.PlayerStatisticsRepository;
+import com.zjutennis.repository.UTRSyncStateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UTRSyncService Tests")
+class UTRSyncServiceTest {
+
+    @Mock
+    private PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Mock
+    private UTRSyncStateRepository utrSyncStateRepository;
+
+    @Mock
+    private PlayerStatisticsService playerStatisticsService;
+
+    @Mock
+    private UTRService utrService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private UTRSyncService utrSyncService;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(utrSyncService, "utrRefreshExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(utrSyncService, "enabled", true);
+        ReflectionTestUtils.setField(utrSyncService, "budget", 10);
+        ReflectionTestUtils.setField(utrSyncService, "activeWindowDays", 30);
+        ReflectionTestUtils.setField(utrSyncService, "activeMaxAgeHours", 24);
+        ReflectionTestUtils.setField(utrSyncService, "idleMaxAgeHours", 168);
+        ReflectionTestUtils.setField(utrSyncService, "retryDelayMinutes", 30);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Should pick never-synced and overdue players first, favouring recent matches")
+    void testSelectDue() {
+        // Arrange
+        List<UTRSyncCandidate> candidates = List.of(
+                candidate(1L, null, now.minusDays(2)),                   // never synced, active
+                candidate(2L, null, null),                               // never synced, idle
+                candidate(3L, now.minusDays(3), now.minusDays(5)),       // 3x its active max age
+                candidate(4L, now.minusDays(3), now.minusDays(90)),      // idle, not yet due
+                candidate(5L, now.minusDays(10), null),                  // 1.4x its idle max age
+                candidate(6L, null, now.minusDays(1)),                   // failed recently, backing off
+                candidate(7L, now.minusDays(5), now.minusDays(1)));      // synced by the scheduler an hour ago
+        Map<Long, UTRSyncState> states = new HashMap<>();
+        states.put(6L, state(6L, now.minusMinutes(10), null, 1));
+        states.put(7L, state(7L, now.minusHours(1), now.minusHours(1), 0));
+
+        // Act
+        List<Long> due = ids(utrSyncService.selectDue(candidates, states, now));
+        ReflectionTestUtils.setField(utrSyncService, "budget", 3);
+        List<Long> limited = ids(utrSyncService.selectDue(candidates, states, now));
+
+        // Assert
+        assertThat(due).containsExactly(1L, 2L, 3L, 5L);
+        assertThat(limited).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should retry failed players once the backoff has passed")
+    void testFailureBackoff() {
+        // Arrange
+        UTRSyncCandidate candidate = candidate(1L, null, null);
+
+        // Act & Assert: the second consecutive failure waits 60 minutes
+        assertThat(utrSyncService.overdue(candidate, state(1L, now.minusMinutes(45), null, 2), now)).isZero();
+        assertThat(utrSyncService.overdue(candidate, state(1L, now.minusMinutes(61), null, 2), now)).isInfinite();
+    }
+
+    @Test
+    @DisplayName("Should refresh due players, persist their progress and measure lag")
+    void testRunCycle() {
+        // Arrange
+        UTRPlayerResultDTO result = new UTRPlayerResultDTO();
+        result.setWins(3);
+        result.setLosses(1);
+        result.setWithdrawls(0);
+        when(playerStatisticsRepository.findUtrSyncCandidates()).thenReturn(List.of(
+                candidate(1L, "111", null, now.minusDays(1)),
+                candidate(2L, "not a link", null, null),
+                candidate(3L, "333", now.minusDays(8), null),
+                candidate(4L, "444", now.minusHours(1), null)));
+        when(utrSyncStateRepository.findAll()).thenReturn(List.of());
+        when(utrService.getPlayerResultsAsync(eq("111"), any())).thenReturn(CompletableFuture.completedFuture(result));
+        when(utrService.getPlayerResultsAsync(eq("333"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to fetch UTR player results: 429")));
+
+        // Act
+        UTRSyncStatus status = utrSyncService.runCycle();
+
+        // Assert
+        verify(playerStatisticsService).applyUTRResults(1L, result);
+        verify(utrService, never()).getPlayerResultsAsync(eq("444"), any());
+        ArgumentCaptor<UTRSyncState> saved = ArgumentCaptor.forClass(UTRSyncState.class);
+        verify(utrSyncStateRepository, times(3)).save(saved.capture());
+        Map<Long, UTRSyncState> states = saved.getAllValues().stream()
+                .collect(Collectors.toMap(UTRSyncState::getPlayerId, state -> state));
+        assertThat(states.get(1L).getLastSuccessAt()).isNotNull();
+        assertThat(states.get(1L).getConsecutiveFailures()).isZero();
+        assertThat(states.get(2L).getConsecutiveFailures()).isEqualTo(1);
+        assertThat(states.get(3L).getLastError()).contains("429");
+
+        assertThat(status.getCycles()).isEqualTo(1);
+        assertThat(status.getLastCycleSelected()).isEqualTo(3);
+        assertThat(status.getLastCycleRefreshed()).isEqualTo(1);
+        assertThat(status.getLastCycleFailed()).isEqualTo(2);
+        assertThat(status.getTrackedPlayers()).isEqualTo(4);
+        assertThat(status.getNeverSynced()).isEqualTo(2);
+        assertThat(status.getOverduePlayers()).isEqualTo(3);
+        assertThat(status.getLagMaxSeconds()).isBetween(8 * 86400L, 8 * 86400L + 60);
+        assertThat(status.getLagP50Seconds()).isBetween(3600L, 3660L);
+        assertThat(meterRegistry.counter("utr.sync.players", "outcome", "failed").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should do nothing on schedule when disabled")
+    void testDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(utrSyncService, "enabled", false);
+
+        // Act
+        utrSyncService.scheduledSync();
+
+        // Assert
+        verifyNoInteractions(playerStatisticsRepository, utrService);
+        assertThat(utrSyncService.getStatus().isEnabled()).isFalse();
+    }
+
+    private static UTRSyncCandidate candidate(Long playerId, LocalDateTime utrUpdatedDate, LocalDateTime lastMatchDate) {
+        return candidate(playerId, String.valueOf(playerId), utrUpdatedDate, lastMatchDate);
+    }
+
+    private static UTRSyncCandidate candidate(Long playerId, String utrUrl, LocalDateTime utrUpdatedDate, LocalDateTime lastMatchDate) {
+        return new UTRSyncCandidate(playerId, utrUrl, utrUpdatedDate, null, lastMatchDate);
+    }
+
+    private static UTRSyncState state(Long playerId, LocalDateTime lastAttemptAt, LocalDateTime lastSuccessAt, int failures) {
+        UTRSyncState state = new UTRSyncState();
+        state.setPlayerId(playerId);
+        state.setLastAttemptAt(lastAttemptAt);
+        state.setLastSuccessAt(lastSuccessAt);
+        state.setConsecutiveFailures(failures);
+        return state;
+    }
+
+    private static List<Long> ids(List<UTRSyncCandidate> candidates) {
+        return candidates.stream().map(UTRSyncCandidate::getPlayerId).collect(Collectors.toList());
+    }
+}
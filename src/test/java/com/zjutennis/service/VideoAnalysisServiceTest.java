@@ -40,6 +40,9 @@ class VideoAnalysisServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private VideoAnalysisService videoAnalysisService;
 
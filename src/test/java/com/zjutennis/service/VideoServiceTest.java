@@ -35,6 +35,9 @@ class VideoServiceTest {
     @Mock
     private MatchRepository matchRepository;
 
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private VideoService videoService;
 
@@ -0,0 +1,136 @@
+package com.zjutennis.service;
+
+import com.zjutennis.config.RatingConfig;
+import com.zjutennis.dto.WinPrediction;
+import com.zjutennis.dto.WinPredictionRequest;
+import com.zjutennis.model.Match;
+import com.zjutennis.model.Player;
+import com.zjutennis.prediction.PlayerFeatureStore;
+import com.zjutennis.search.PlayerSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+@Import({RatingService.class, RatingConfig.class, HeadToHeadService.class, PlayerFeatureStore.class,
+        WinPredictionService.class})
+@DisplayName("WinPredictionService Tests")
+class WinPredictionServiceTest extends MatchAggregatorTestSupport {
+
+    @Autowired
+    private WinPredictionService winPredictionService;
+
+    @Autowired
+    private PlayerFeatureStore playerFeatureStore;
+
+    @MockBean
+    private PlayerSearchIndex playerSearchIndex;
+
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("Alice");
+        bob = persistPlayer("Bob");
+    }
+
+    @Test
+    @DisplayName("Should favour the stronger player, more so on their better surface")
+    void testSinglesPrediction() {
+        // Arrange: Alice wins twice on clay and loses once on hard
+        matchService.createMatch(onSurface("clay", singles(MAY_1, "team1", alice, bob)));
+        matchService.createMatch(onSurface("clay", singles(MAY_1.plusDays(1), "team1", alice, bob)));
+        matchService.createMatch(onSurface("hard", singles(MAY_1.plusDays(2), "team2", alice, bob)));
+        reloadFeatures();
+
+        // Act
+        List<WinPrediction> predictions = winPredictionService.predict(request(null,
+                matchup(alice.getId(), bob.getId(), "clay"),
+                matchup(alice.getId(), bob.getId(), "hard"),
+                matchup(bob.getId(), alice.getId(), "clay")));
+
+        // Assert
+        WinPrediction onClay = predictions.get(0);
+        WinPrediction onHard = predictions.get(1);
+        assertThat(onClay.getTeam1WinProbability()).isGreaterThan(0.5);
+        assertThat(onClay.getRatingDifference()).isPositive();
+        assertThat(onClay.getHeadToHead()).isCloseTo(1.0 / 5, offset(0.000001));
+        assertThat(onClay.getSurfaceEdge()).isPositive();
+        assertThat(onHard.getSurfaceEdge()).isNegative();
+        assertThat(onClay.getTeam1WinProbability()).isGreaterThan(onHard.getTeam1WinProbability());
+        assertThat(predictions.get(2).getTeam1WinProbability())
+                .isCloseTo(1 - onClay.getTeam1WinProbability(), offset(0.000001));
+    }
+
+    @Test
+    @DisplayName("Should score players without matches as even, across a large batch")
+    void testUnknownPlayersAreEven() {
+        // Arrange
+        List<WinPredictionRequest.Matchup> matchups = new ArrayList<>();
+        for (long i = 0; i < 5000; i++) {
+            matchups.add(new WinPredictionRequest.Matchup(
+                    List.of(10_000 + i, 20_000 + i), List.of(30_000 + i, 40_000 + i), null));
+        }
+        WinPredictionRequest request = new WinPredictionRequest();
+        request.setSurface("grass");
+        request.setMatchups(matchups);
+
+        // Act
+        List<WinPrediction> predictions = winPredictionService.predict(request);
+
+        // Assert
+        assertThat(predictions).hasSize(5000);
+        assertThat(predictions.get(4999).getTeam1()).containsExactly(14_999L, 24_999L);
+        assertThat(predictions).allSatisfy(prediction -> {
+            assertThat(prediction.getTeam1WinProbability()).isEqualTo(0.5);
+            assertThat(prediction.getSurface()).isEqualTo("grass");
+        });
+    }
+
+    @Test
+    @DisplayName("Should reject matchups that are not singles or doubles pairings")
+    void testInvalidMatchupsAreRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> winPredictionService.predict(request(null,
+                new WinPredictionRequest.Matchup(List.of(1L, 2L), List.of(3L), null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Matchup 0");
+        assertThatThrownBy(() -> winPredictionService.predict(request(null,
+                matchup(1L, 2L, null),
+                new WinPredictionRequest.Matchup(List.of(1L, 2L), List.of(2L, 3L), null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Matchup 1");
+    }
+
+    private void reloadFeatures() {
+        // Features are read with SQL, and a rolled-back test never commits to drop the snapshot
+        flushAndClear();
+        playerFeatureStore.rebuild();
+    }
+
+    private static WinPredictionRequest request(String surface, WinPredictionRequest.Matchup... matchups) {
+        WinPredictionRequest request = new WinPredictionRequest();
+        request.setSurface(surface);
+        request.setMatchups(List.of(matchups));
+        return request;
+    }
+
+    private static WinPredictionRequest.Matchup matchup(Long player, Long opponent, String surface) {
+        return new WinPredictionRequest.Matchup(List.of(player), List.of(opponent), surface);
+    }
+
+    private static Match onSurface(String surface, Match match) {
+        match.setSurface(surface);
+        return match;
+    }
+}
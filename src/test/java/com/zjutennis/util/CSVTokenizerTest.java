@@ -0,0 +1,192 @@
+package com.zjutennis.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CSVTokenizer Tests")
+class CSVTokenizerTest {
+
+    @Test
+    @DisplayName("Should resolve header columns and read fields by index")
+    void testHeaderIndexes() throws IOException {
+        // Arrange
+        String csvContent = "Player ID, Name ,UTR Rating\n" +
+                           "1,John Doe,12.5\n" +
+                           "2,Jane Smith\n";
+        List<String> values = new ArrayList<>();
+
+        // Act
+        long rows = parse(csvContent, row -> {
+            values.add(row.get(row.indexOf("Name")) + "|" + row.get("UTR Rating") + "|" + row.getNumber());
+        });
+
+        // Assert
+        assertThat(rows).isEqualTo(2);
+        assertThat(values).containsExactly("John Doe|12.5|1", "Jane Smith||2");
+    }
+
+    @Test
+    @DisplayName("Should handle quoted fields with commas, doubled quotes and line breaks")
+    void testQuotedFields() throws IOException {
+        // Arrange
+        String csvContent = "Name,Notes,City\n" +
+                           "\"Doe, John\",\"Said \"\"hi\"\"\r\nthen left\",Hangzhou\n" +
+                           "\"\",\"\",\"\"\n";
+        List<List<String>> rows = new ArrayList<>();
+
+        // Act
+        parse(csvContent, row -> rows.add(fields(row)));
+
+        // Assert
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsExactly("Doe, John", "Said \"hi\"\r\nthen left", "Hangzhou");
+        assertThat(rows.get(1)).containsExactly("", "", "");
+    }
+
+    @Test
+    @DisplayName("Should accept LF, CRLF and CR record endings and skip blank lines")
+    void testLineEndings() throws IOException {
+        // Arrange
+        String csvContent = "A,B\r\n1,2\r\n\r\n3,4\r5,6\n   \n7,8";
+        List<List<String>> rows = new ArrayList<>();
+
+        // Act
+        parse(csvContent, row -> rows.add(fields(row)));
+
+        // Assert
+        assertThat(rows).containsExactly(List.of("1", "2"), List.of("3", "4"), List.of("5", "6"), List.of("7", "8"));
+    }
+
+    @Test
+    @DisplayName("Should decode UTF-8 across buffer boundaries and skip a byte order mark")
+    void testUtf8AcrossBuffers() throws IOException {
+        // Arrange
+        StringBuilder csvContent = new StringBuilder("\uFEFF姓名,城市\n");
+        for (int i = 0; i < 20000; i++) {
+            csvContent.append("张三").append(i).append(",杭州\n");
+        }
+        List<String> names = new ArrayList<>();
+
+        // Act
+        long rows = parse(csvContent.toString(), row -> names.add(row.get("姓名")));
+
+        // Assert
+        assertThat(rows).isEqualTo(20000);
+        assertThat(names.get(0)).isEqualTo("张三0");
+        assertThat(names.get(19999)).isEqualTo("张三19999");
+    }
+
+    @Test
+    @DisplayName("Should reuse one row view and compare fields without copying")
+    void testRowViewReuse() throws IOException {
+        // Arrange
+        String csvContent = "Name,Gender\nJohn, male \nJane,-\n";
+        List<CSVRow> views = new ArrayList<>();
+        List<Boolean> dashes = new ArrayList<>();
+
+        // Act
+        parse(csvContent, row -> {
+            views.add(row);
+            dashes.add(row.contentEquals(1, "-"));
+        });
+
+        // Assert
+        assertThat(views).hasSize(2);
+        assertThat(views.get(0)).isSameAs(views.get(1));
+        assertThat(dashes).containsExactly(false, true);
+    }
+
+    @Test
+    @DisplayName("Should parse a memory-mapped file")
+    void testParseMappedFile(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("players.csv");
+        Files.write(file, "Name,Description\n\"John Doe\",\"Line 1\nLine 2\"\nJane Smith,Simple".getBytes(StandardCharsets.UTF_8));
+        List<List<String>> rows = new ArrayList<>();
+
+        // Act
+        long count = CSVTokenizer.parse(file, row -> rows.add(fields(row)));
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(rows.get(0)).containsExactly("John Doe", "Line 1\nLine 2");
+        assertThat(rows.get(1)).containsExactly("Jane Smith", "Simple");
+    }
+
+    @Test
+    @DisplayName("Should split a file into record-aligned chunks that parse like the whole file")
+    void testSplitIntoChunks(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        StringBuilder csvContent = new StringBuilder("\r\nName,Notes\r\n");
+        for (int i = 0; i < 200; i++) {
+            csvContent.append("Player ").append(i)
+                      .append(i % 3 == 0 ? ",\"line 1\nline 2, \"\"quoted\"\"\"\r\n" : ",plain\r");
+        }
+        Path file = tempDir.resolve("players.csv");
+        Files.write(file, csvContent.toString().getBytes(StandardCharsets.UTF_8));
+        List<List<String>> expected = new ArrayList<>();
+        CSVTokenizer.parse(file, row -> expected.add(fields(row)));
+
+        // Act
+        List<CSVChunk> chunks = CSVTokenizer.split(file, 100);
+        List<List<String>> rows = new ArrayList<>();
+        long count = 0;
+        for (CSVChunk chunk : chunks) {
+            count += CSVTokenizer.parse(file, chunk, row -> rows.add(fields(row)));
+        }
+
+        // Assert
+        assertThat(chunks.size()).isGreaterThan(10);
+        assertThat(chunks.get(chunks.size() - 1).getOffset() + chunks.get(chunks.size() - 1).getLength())
+                .isEqualTo(Files.size(file));
+        assertThat(count).isEqualTo(200);
+        assertThat(rows).isEqualTo(expected);
+        assertThat(rows.get(3)).containsExactly("Player 3", "line 1\nline 2, \"quoted\"");
+    }
+
+    @Test
+    @DisplayName("Should produce no chunks for a file with only a header")
+    void testSplitHeaderOnly(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("players.csv");
+        Files.write(file, "Player ID,Name\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThat(CSVTokenizer.split(file, 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should produce no rows for empty input")
+    void testEmptyInput() throws IOException {
+        // Act
+        long rows = parse("", row -> {
+            throw new AssertionError("No row expected");
+        });
+
+        // Assert
+        assertThat(rows).isZero();
+    }
+
+    private static long parse(String csvContent, CSVTokenizer.RowHandler handler) throws IOException {
+        return CSVTokenizer.parse(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), handler);
+    }
+
+    private static List<String> fields(CSVRow row) {
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < row.size(); i++) {
+            fields.add(row.get(i));
+        }
+        return fields;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -363,4 +364,26 @@ class CSVUtilTest {
         assertThat(result.get(0)).hasSize(4); // 4 keys including empty last column
         assertThat(result.get(0)).containsEntry("Name", "John Doe");
     }
+
+    @Test
+    @DisplayName("Should stream rows in chunks of the given size")
+    void testParseCSVInChunks() throws IOException {
+        // Arrange
+        String csvContent = "Name,Age\n" +
+                           "John Doe,30\n" +
+                           "\n" +
+                           "Jane Smith,25\n" +
+                           "Bob Wilson,35";
+        InputStream inputStream = new ByteArrayInputStream(csvContent.getBytes());
+        List<List<Map<String, String>>> chunks = new ArrayList<>();
+
+        // Act
+        int rowCount = CSVUtil.parseCSVInChunks(inputStream, 2, chunks::add);
+
+        // Assert
+        assertThat(rowCount).isEqualTo(3);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).extracting(row -> row.get("Name")).containsExactly("John Doe", "Jane Smith");
+        assertThat(chunks.get(1)).extracting(row -> row.get("Name")).containsExactly("Bob Wilson");
+    }
 }
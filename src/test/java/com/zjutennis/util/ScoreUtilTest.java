@@ -0,0 +1,57 @@
+package com.zjutennis.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ScoreUtil Tests")
+class ScoreUtilTest {
+
+    @Test
+    @DisplayName("Should parse sets, ignoring tiebreak points")
+    void testParseSets() {
+        // Act
+        List<int[]> sets = ScoreUtil.parseSets("6-4, 6-7(5), 10-8");
+
+        // Assert
+        assertThat(sets).containsExactly(new int[]{6, 4}, new int[]{6, 7}, new int[]{10, 8});
+    }
+
+    @Test
+    @DisplayName("Should ignore tiebreaks written with both teams' points")
+    void testParseFullTiebreakScores() {
+        // Act
+        List<int[]> sets = ScoreUtil.parseSets("7-6(7-5), 6-7 (4:7), 10-8");
+
+        // Assert
+        assertThat(sets).containsExactly(new int[]{7, 6}, new int[]{6, 7}, new int[]{10, 8});
+    }
+
+    @Test
+    @DisplayName("Should tell a deciding match tiebreak from a set of games")
+    void testMatchTiebreak() {
+        // Arrange
+        List<int[]> matchTiebreak = ScoreUtil.parseSets("6-4, 3-6, 10-8");
+        List<int[]> thirdSet = ScoreUtil.parseSets("6-4, 3-6, 7-5");
+        List<int[]> straightSets = ScoreUtil.parseSets("6-4, 6-3, 10-8");
+
+        // Act & Assert
+        assertThat(matchTiebreak).hasSize(3);
+        assertThat(ScoreUtil.isMatchTiebreak(matchTiebreak, 2)).isTrue();
+        assertThat(ScoreUtil.isMatchTiebreak(matchTiebreak, 1)).isFalse();
+        assertThat(ScoreUtil.isMatchTiebreak(thirdSet, 2)).isFalse();
+        assertThat(ScoreUtil.isMatchTiebreak(straightSets, 2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return no sets for blank or unrecognisable scores")
+    void testParseUnrecognisedScores() {
+        // Act & Assert
+        assertThat(ScoreUtil.parseSets(null)).isEmpty();
+        assertThat(ScoreUtil.parseSets("  ")).isEmpty();
+        assertThat(ScoreUtil.parseSets("W/O")).isEmpty();
+    }
+}